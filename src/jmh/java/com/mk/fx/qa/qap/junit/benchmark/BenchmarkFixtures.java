@@ -0,0 +1,96 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.QAPLaunchIdGenerator;
+import com.mk.fx.qa.qap.junit.extension.DisplayNameResolver;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitExtension;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitMethodInterceptor;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitTestEventsCreator;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.runtime.QAPRuntime;
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+
+/** Shared test-class fixtures and factories for the benchmarks. */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {}
+
+  @Tag("bench")
+  @DisplayName("Sample suite")
+  static class SampleSuite {
+    @Tag("fast")
+    void passes() {}
+
+    @Tag("Group")
+    static class Group {
+      void nested() {}
+    }
+  }
+
+  static Method method(Class<?> cls, String name) {
+    try {
+      return cls.getDeclaredMethod(name);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Extension wired with a runtime whose publisher discards launches. */
+  static QAPJunitExtension extension() {
+    QAPRuntime runtime =
+        new QAPRuntime(
+            new ObjectMapper(),
+            Clock.systemUTC(),
+            new QAPPropertiesLoader(),
+            new DisplayNameResolver(),
+            (launch, mapper, log) -> {});
+    return new QAPJunitExtension(
+        runtime,
+        null,
+        new QAPJunitTestEventsCreator(),
+        new QAPJunitMethodInterceptor(new ConcurrentHashMap<>()),
+        new QAPLaunchIdGenerator());
+  }
+
+  static QAPTest test(int index) {
+    QAPTest test = new QAPTest("test" + index, "test " + index);
+    test.setTestCaseId("SampleSuite#test" + index);
+    test.setStartTime(1_000L + index);
+    test.setEndTime(1_010L + index);
+    test.setStatus("PASSED");
+    test.setTestType("TEST");
+    test.setTag(Set.of("fast"));
+    test.setClassTags(Set.of("bench"));
+    return test;
+  }
+
+  /** A completed launch with a root class and one nested child sharing {@code tests} tests. */
+  static QAPJunitLaunch launch(int tests) {
+    QAPTestClass root = new QAPTestClass("SampleSuite", "Sample suite", Set.of("bench"));
+    QAPTestClass child = new QAPTestClass("Group", "Group", Set.of("Group"));
+    child.setClassKey(SampleSuite.Group.class.getName());
+    child.setClassChain(List.of("Sample suite", "Group"));
+    List<QAPTest> rootTests = new ArrayList<>();
+    List<QAPTest> childTests = new ArrayList<>();
+    for (int i = 0; i < tests; i++) {
+      (i % 2 == 0 ? rootTests : childTests).add(test(i));
+    }
+    root.setTestCases(rootTests);
+    child.setTestCases(childTests);
+    root.setChildren(new ArrayList<>(List.of(child)));
+    QAPHeader header = new QAPHeader(1_000L, "bench-launch");
+    header.setLaunchEndTime(2_000L);
+    return new QAPJunitLaunch(header, new ArrayList<>(List.of(root)));
+  }
+}
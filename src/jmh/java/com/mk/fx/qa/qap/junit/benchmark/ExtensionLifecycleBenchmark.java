@@ -0,0 +1,76 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import com.mk.fx.qa.qap.junit.benchmark.BenchmarkFixtures.SampleSuite;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitExtension;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-test cost of the extension: {@code beforeEach}, {@code afterEach} and {@code
+ * testSuccessful} in Jupiter's callback order, for a top-level and a nested test class.
+ *
+ * <p>Each invocation runs {@link #TESTS_PER_CLASS} tests against a fresh launch so collected
+ * records do not accumulate across iterations; the class setup is amortized over the batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExtensionLifecycleBenchmark {
+
+  static final int TESTS_PER_CLASS = 1_000;
+
+  private QAPJunitExtension extension;
+  private SyntheticExtensionContext engine;
+  private SyntheticExtensionContext topClass;
+  private SyntheticExtensionContext nestedClass;
+  private SyntheticExtensionContext topMethod;
+  private SyntheticExtensionContext nestedMethod;
+
+  @Setup
+  public void setUp() {
+    extension = BenchmarkFixtures.extension();
+    engine = SyntheticExtensionContext.engine();
+    topClass = engine.forClass(SampleSuite.class);
+    nestedClass = topClass.forClass(SampleSuite.Group.class);
+    topMethod = topClass.forMethod(BenchmarkFixtures.method(SampleSuite.class, "passes"));
+    nestedMethod =
+        nestedClass.forMethod(BenchmarkFixtures.method(SampleSuite.Group.class, "nested"));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TESTS_PER_CLASS)
+  public void topLevelTest() {
+    startLaunch();
+    for (int i = 0; i < TESTS_PER_CLASS; i++) {
+      runTest(topMethod);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TESTS_PER_CLASS)
+  public void nestedTest() {
+    startLaunch();
+    extension.beforeAll(nestedClass);
+    for (int i = 0; i < TESTS_PER_CLASS; i++) {
+      runTest(nestedMethod);
+    }
+  }
+
+  private void startLaunch() {
+    engine.reset();
+    extension.beforeAll(topClass);
+  }
+
+  private void runTest(SyntheticExtensionContext method) {
+    extension.beforeEach(method);
+    extension.afterEach(method);
+    extension.testSuccessful(method);
+  }
+}
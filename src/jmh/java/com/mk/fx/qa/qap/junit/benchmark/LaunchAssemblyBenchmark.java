@@ -0,0 +1,58 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import com.mk.fx.qa.qap.junit.benchmark.BenchmarkFixtures.SampleSuite;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitExtension;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitTestEventsCreator;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.store.StoreManager;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of {@link QAPJunitTestEventsCreator#addTestEventsToTestLaunch}: merging the collected test
+ * records into their class nodes and linking the nested class tree at the end of a launch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LaunchAssemblyBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  public int tests;
+
+  private final QAPJunitTestEventsCreator eventCreator = new QAPJunitTestEventsCreator();
+  private SyntheticExtensionContext topClass;
+
+  @Setup
+  public void setUp() {
+    QAPJunitExtension extension = BenchmarkFixtures.extension();
+    SyntheticExtensionContext engine = SyntheticExtensionContext.engine();
+    topClass = engine.forClass(SampleSuite.class);
+    SyntheticExtensionContext nestedClass = topClass.forClass(SampleSuite.Group.class);
+    SyntheticExtensionContext topMethod =
+        topClass.forMethod(BenchmarkFixtures.method(SampleSuite.class, "passes"));
+    SyntheticExtensionContext nestedMethod =
+        nestedClass.forMethod(BenchmarkFixtures.method(SampleSuite.Group.class, "nested"));
+
+    extension.beforeAll(topClass);
+    extension.beforeAll(nestedClass);
+    for (int i = 0; i < tests; i++) {
+      StoreManager.addDescriptionToClassStore(
+          i % 2 == 0 ? topMethod : nestedMethod, BenchmarkFixtures.test(i), false);
+    }
+  }
+
+  @Benchmark
+  public QAPJunitLaunch addTestEventsToTestLaunch() {
+    QAPJunitLaunch launch = eventCreator.startLaunchQAP(topClass);
+    eventCreator.addTestEventsToTestLaunch(topClass, launch);
+    return launch;
+  }
+}
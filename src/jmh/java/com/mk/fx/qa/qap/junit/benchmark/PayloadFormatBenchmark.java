@@ -0,0 +1,63 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchSerializer;
+import com.mk.fx.qa.qap.junit.extension.publisher.PayloadFormat;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialization time and payload size of a completed launch per {@link PayloadFormat}. The {@code
+ * bytes} counter reports the encoded size of one launch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadFormatBenchmark {
+
+  @Param({"JSON", "JSON_COMPACT", "SMILE", "CBOR"})
+  public String format;
+
+  @Param({"1000", "100000"})
+  public int tests;
+
+  private ObjectMapper mapper;
+  private QAPJunitLaunch launch;
+
+  /** Reports the payload size next to the timing. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Size {
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytes = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    mapper = PayloadFormat.valueOf(format).newMapper();
+    launch = BenchmarkFixtures.launch(tests);
+  }
+
+  @Benchmark
+  public long serialize(Size size) throws IOException {
+    long bytes = LaunchSerializer.write(launch, mapper, OutputStream.nullOutputStream(), false);
+    size.bytes = bytes;
+    return bytes;
+  }
+}
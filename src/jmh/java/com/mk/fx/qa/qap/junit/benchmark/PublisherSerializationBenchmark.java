@@ -0,0 +1,84 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.LoggingPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.NdjsonStreamPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.StdOutPublisher;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Cost of serializing a completed launch through each publisher into a discarding sink. The NDJSON
+ * publisher is measured as a whole launch: one event per class node and test plus the end record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PublisherSerializationBenchmark {
+
+  @Param({"stdout", "logging", "ndjson"})
+  public String publisher;
+
+  @Param({"100", "10000"})
+  public int tests;
+
+  @Param({"false", "true"})
+  public boolean prettyPrint;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Logger log = NOPLogger.NOP_LOGGER;
+  private LaunchPublisher target;
+  private QAPJunitLaunch launch;
+
+  @Setup
+  public void setUp() {
+    launch = BenchmarkFixtures.launch(tests);
+    OutputStream sink = OutputStream.nullOutputStream();
+    target =
+        switch (publisher) {
+          case "stdout" -> new StdOutPublisher(sink, prettyPrint);
+          case "logging" -> new LoggingPublisher(prettyPrint);
+          case "ndjson" -> new NdjsonStreamPublisher(sink);
+          default -> throw new IllegalArgumentException("Unknown publisher: " + publisher);
+        };
+  }
+
+  @Benchmark
+  public QAPJunitLaunch publish() {
+    if (!target.retainsTestCases()) {
+      streamEvents(launch.getTestClasses().get(0));
+    }
+    target.publish(launch, mapper, log);
+    return launch;
+  }
+
+  private void streamEvents(QAPTestClass node) {
+    String launchId = launch.getHeader().getLaunchId();
+    // Nodes are registered before any of their tests have run
+    QAPTestClass registered =
+        new QAPTestClass(node.getClassName(), node.getDisplayName(), node.getClassTags());
+    registered.setClassKey(node.getClassKey());
+    registered.setClassChain(node.getClassChain());
+    target.onClassRegistered(launchId, registered, mapper, log);
+    for (QAPTest test : node.getTestCases()) {
+      target.onTestFinished(launchId, node.getClassKey(), test, mapper, log);
+    }
+    for (QAPTestClass child : node.getChildren()) {
+      streamEvents(child);
+    }
+  }
+}
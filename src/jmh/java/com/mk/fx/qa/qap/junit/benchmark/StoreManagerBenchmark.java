@@ -0,0 +1,62 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import com.mk.fx.qa.qap.junit.benchmark.BenchmarkFixtures.SampleSuite;
+import com.mk.fx.qa.qap.junit.core.QAPUtils;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.store.StoreManager;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Cost of the store lookups the extension performs several times per test. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StoreManagerBenchmark {
+
+  private SyntheticExtensionContext nestedMethod;
+
+  @Setup
+  public void setUp() {
+    SyntheticExtensionContext engine = SyntheticExtensionContext.engine();
+    SyntheticExtensionContext topClass = engine.forClass(SampleSuite.class);
+    SyntheticExtensionContext nestedClass = topClass.forClass(SampleSuite.Group.class);
+    nestedMethod =
+        nestedClass.forMethod(BenchmarkFixtures.method(SampleSuite.Group.class, "nested"));
+    StoreManager.putClassStoreData(
+        topClass, QAPUtils.TEST_CLASS_DATA_KEY, BenchmarkFixtures.launch(0));
+    StoreManager.putMethodStoreData(
+        nestedMethod, QAPUtils.METHOD_DESCRIPTION_KEY, BenchmarkFixtures.test(0));
+    StoreManager.getClassNodes(topClass);
+  }
+
+  @Benchmark
+  public Class<?> resolveTopLevelTestClass() {
+    return StoreManager.resolveTopLevelTestClass(nestedMethod);
+  }
+
+  @Benchmark
+  public QAPJunitLaunch classStoreData() {
+    return StoreManager.getClassStoreData(
+        nestedMethod, QAPUtils.TEST_CLASS_DATA_KEY, QAPJunitLaunch.class);
+  }
+
+  @Benchmark
+  public QAPTest methodStoreData() {
+    return StoreManager.getMethodStoreData(
+        nestedMethod, QAPUtils.METHOD_DESCRIPTION_KEY, QAPTest.class);
+  }
+
+  @Benchmark
+  public Map<String, QAPTestClass> classNodes() {
+    return StoreManager.getClassNodes(nestedMethod);
+  }
+}
@@ -0,0 +1,185 @@
+package com.mk.fx.qa.qap.junit.benchmark;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExecutableInvoker;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstances;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Minimal engine/class/method {@link ExtensionContext} hierarchy for benchmarks. Stores live on the
+ * root context, one per namespace, like the Jupiter engine's root store.
+ */
+final class SyntheticExtensionContext implements ExtensionContext {
+
+  private final SyntheticExtensionContext parent;
+  private final String displayName;
+  private final Class<?> testClass;
+  private final Method testMethod;
+  private final Map<Namespace, Store> stores = new ConcurrentHashMap<>();
+
+  private SyntheticExtensionContext(
+      SyntheticExtensionContext parent, String displayName, Class<?> testClass, Method testMethod) {
+    this.parent = parent;
+    this.displayName = displayName;
+    this.testClass = testClass;
+    this.testMethod = testMethod;
+  }
+
+  static SyntheticExtensionContext engine() {
+    return new SyntheticExtensionContext(null, "JUnit Jupiter", null, null);
+  }
+
+  SyntheticExtensionContext forClass(Class<?> cls) {
+    return new SyntheticExtensionContext(this, cls.getSimpleName(), cls, null);
+  }
+
+  SyntheticExtensionContext forMethod(Method method) {
+    return new SyntheticExtensionContext(this, method.getName() + "()", testClass, method);
+  }
+
+  @Override
+  public Optional<ExtensionContext> getParent() {
+    return Optional.ofNullable(parent);
+  }
+
+  @Override
+  public ExtensionContext getRoot() {
+    return parent == null ? this : parent.getRoot();
+  }
+
+  @Override
+  public String getUniqueId() {
+    return "[synthetic:" + displayName + "]";
+  }
+
+  @Override
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  @Override
+  public Set<String> getTags() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public Optional<AnnotatedElement> getElement() {
+    return Optional.ofNullable(testMethod != null ? testMethod : testClass);
+  }
+
+  @Override
+  public Optional<Class<?>> getTestClass() {
+    return Optional.ofNullable(testClass);
+  }
+
+  @Override
+  public Optional<TestInstance.Lifecycle> getTestInstanceLifecycle() {
+    return Optional.of(TestInstance.Lifecycle.PER_METHOD);
+  }
+
+  @Override
+  public Optional<Object> getTestInstance() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<TestInstances> getTestInstances() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<Method> getTestMethod() {
+    return Optional.ofNullable(testMethod);
+  }
+
+  @Override
+  public Optional<Throwable> getExecutionException() {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<String> getConfigurationParameter(String key) {
+    return Optional.empty();
+  }
+
+  @Override
+  public <T> Optional<T> getConfigurationParameter(String key, Function<String, T> transformer) {
+    return Optional.empty();
+  }
+
+  @Override
+  public void publishReportEntry(Map<String, String> map) {}
+
+  @Override
+  public Store getStore(Namespace namespace) {
+    if (parent != null) {
+      return getRoot().getStore(namespace);
+    }
+    return stores.computeIfAbsent(namespace, ns -> new MapStore());
+  }
+
+  @Override
+  public ExecutionMode getExecutionMode() {
+    return ExecutionMode.SAME_THREAD;
+  }
+
+  @Override
+  public ExecutableInvoker getExecutableInvoker() {
+    throw new UnsupportedOperationException("not available in benchmarks");
+  }
+
+  /** Clears all stores so each benchmark invocation starts from an empty launch. */
+  void reset() {
+    stores.clear();
+  }
+
+  /** Thread-safe store backed by a {@link ConcurrentHashMap}. */
+  static final class MapStore implements Store {
+    private final Map<Object, Object> data = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(Object key) {
+      return data.get(key);
+    }
+
+    @Override
+    public <V> V get(Object key, Class<V> requiredType) {
+      return requiredType.cast(data.get(key));
+    }
+
+    @Override
+    public <K, V> Object getOrComputeIfAbsent(K key, Function<K, V> defaultCreator) {
+      return data.computeIfAbsent(key, k -> defaultCreator.apply(key));
+    }
+
+    @Override
+    public <K, V> V getOrComputeIfAbsent(
+        K key, Function<K, V> defaultCreator, Class<V> requiredType) {
+      return requiredType.cast(data.computeIfAbsent(key, k -> defaultCreator.apply(key)));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+      data.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+      return data.remove(key);
+    }
+
+    @Override
+    public <V> V remove(Object key, Class<V> requiredType) {
+      return requiredType.cast(data.remove(key));
+    }
+  }
+}
@@ -4,16 +4,34 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchShape;
+import com.mk.fx.qa.qap.junit.extension.publisher.PayloadFormat;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 
 public class JsonUtil {
 
   private static final ObjectMapper MAPPER;
+  private static final ObjectMapper SMILE_MAPPER = binaryReader(SmileMapper.builder());
+  private static final ObjectMapper CBOR_MAPPER = binaryReader(CBORMapper.builder());
 
   static {
     MAPPER =
@@ -43,6 +61,73 @@ public class JsonUtil {
     return MAPPER.readValue(json, type);
   }
 
+  /** Reads a published payload in the given format (see {@code qap.report.format}). */
+  public static <T> T read(byte[] payload, PayloadFormat format, Class<T> type)
+      throws IOException {
+    return readerFor(format).readValue(payload, type);
+  }
+
+  /** Reads a published payload, detecting Smile and CBOR from their leading bytes. */
+  public static <T> T read(byte[] payload, Class<T> type) throws IOException {
+    return read(payload, PayloadFormat.detect(payload), type);
+  }
+
+  /**
+   * Reads a payload captured from a text sink (stdout, logs, NDJSON line), where binary formats
+   * are Base64-encoded.
+   */
+  public static <T> T readText(String text, PayloadFormat format, Class<T> type)
+      throws IOException {
+    byte[] payload =
+        format.isBinary()
+            ? Base64.getMimeDecoder().decode(text.trim())
+            : text.getBytes(StandardCharsets.UTF_8);
+    return read(payload, format, type);
+  }
+
+  /**
+   * Reads a published launch in any format and either shape (see {@code qap.report.shape}). A
+   * compact launch is expanded into the tree shape first, and tests are linked to the launch's
+   * {@code failures} by id.
+   */
+  public static QAPJunitLaunch readLaunch(byte[] payload) throws IOException {
+    ObjectMapper reader = readerFor(PayloadFormat.detect(payload));
+    JsonNode tree = reader.readTree(payload);
+    if (!tree.isObject()) {
+      throw new JsonMappingException(null, "Not a launch document: " + tree.getNodeType());
+    }
+    try {
+      LaunchShape.expand((ObjectNode) tree);
+    } catch (IllegalArgumentException e) {
+      throw new JsonMappingException(null, e.getMessage(), e);
+    }
+    QAPJunitLaunch launch = reader.treeToValue(tree, QAPJunitLaunch.class);
+    linkFailures(launch.getTestClasses(), launch.getFailures());
+    return launch;
+  }
+
+  /** Reads a launch from JSON text; see {@link #readLaunch(byte[])}. */
+  public static QAPJunitLaunch readLaunch(String json) throws IOException {
+    return readLaunch(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void linkFailures(List<QAPTestClass> classes, Map<String, QAPFailure> failures) {
+    if (classes == null) {
+      return;
+    }
+    for (QAPTestClass cls : classes) {
+      if (cls.getTestCases() != null) {
+        for (QAPTest test : cls.getTestCases()) {
+          String id = test.getFailureId();
+          if (id != null && failures.containsKey(id)) {
+            test.setFailure(failures.get(id));
+          }
+        }
+      }
+      linkFailures(cls.getChildren(), failures);
+    }
+  }
+
   /** Converts an object to a JSON string (pretty printed). */
   public static String toJson(Object obj) throws JsonProcessingException {
     return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(obj);
@@ -52,4 +137,20 @@ public class JsonUtil {
   public static <T> T convertValue(Map<String, Object> data, Class<T> type) {
     return MAPPER.convertValue(data, type);
   }
+
+  private static ObjectMapper readerFor(PayloadFormat format) {
+    return switch (format) {
+      case SMILE -> SMILE_MAPPER;
+      case CBOR -> CBOR_MAPPER;
+      default -> MAPPER;
+    };
+  }
+
+  private static ObjectMapper binaryReader(MapperBuilder<?, ?> builder) {
+    return builder
+        .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .addModule(new JavaTimeModule())
+        .build();
+  }
 }
@@ -1,19 +1,55 @@
 package com.mk.fx.qa.qap.junit;
 
-// TIP To <b>Run</b> code, press <shortcut actionId="Run"/> or
-// click the <icon src="AllIcons.Actions.Execute"/> icon in the gutter.
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.merge.LaunchMerger;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line entry point that merges per-class/per-fork launch files into one run document.
+ *
+ * <p>Usage: {@code Main [--pretty] <output.json[.gz]> <file-or-directory>...}; directories are
+ * searched recursively for {@code *.json} and {@code *.json.gz} launch files.
+ */
 public class Main {
-  public static void main(String[] args) {
-    // TIP Press <shortcut actionId="ShowIntentionActions"/> with your caret at the highlighted text
-    // to see how IntelliJ IDEA suggests fixing it.
-    System.out.printf("Hello and welcome!");
 
-    for (int i = 1; i <= 5; i++) {
-      // TIP Press <shortcut actionId="Debug"/> to start debugging your code. We have set one <icon
-      // src="AllIcons.Debugger.Db_set_breakpoint"/> breakpoint
-      // for you, but you can always add more by pressing <shortcut
-      // actionId="ToggleLineBreakpoint"/>.
-      System.out.println("i = " + i);
+  public static void main(String[] args) {
+    List<String> positional = new ArrayList<>();
+    boolean prettyPrint = false;
+    for (String arg : args) {
+      if ("--pretty".equals(arg)) {
+        prettyPrint = true;
+      } else {
+        positional.add(arg);
+      }
+    }
+    if (positional.size() < 2) {
+      System.err.println("Usage: Main [--pretty] <output.json[.gz]> <file-or-directory>...");
+      System.exit(2);
+      return;
+    }
+    Path output = Path.of(positional.get(0));
+    List<Path> paths = new ArrayList<>();
+    for (String input : positional.subList(1, positional.size())) {
+      paths.add(Path.of(input));
+    }
+    try {
+      List<Path> inputs = LaunchMerger.collectInputs(paths);
+      // Never merge the output into itself when it lives in an input directory
+      Path target = output.toAbsolutePath().normalize();
+      inputs.removeIf(p -> p.toAbsolutePath().normalize().equals(target));
+      LaunchMerger.Result result =
+          new LaunchMerger(new ObjectMapper(), ForkJoinPool.commonPool(), prettyPrint)
+              .merge(inputs, output);
+      System.out.printf(
+          "Merged %d of %d launch file(s) into %s (%d test classes).%n",
+          result.merged(), result.inputs(), output, result.testClasses());
+    } catch (IOException e) {
+      System.err.println("Merge failed: " + e.getMessage());
+      System.exit(1);
     }
   }
 }
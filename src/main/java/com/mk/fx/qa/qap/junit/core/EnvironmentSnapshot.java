@@ -0,0 +1,208 @@
+package com.mk.fx.qa.qap.junit.core;
+
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What a run knows about its environment: {@code qap.properties}, git data, host, CPUs, JVM and
+ * test runner. Captured once per JVM and immutable afterwards.
+ *
+ * <p>{@link QAPLauncherSessionListener} starts the capture on a background thread when the
+ * launcher session opens, so reading the properties files, resolving the host name and loading the
+ * runner's classes overlap with test discovery. {@link #current()} waits for that capture, or runs
+ * it on the caller's thread when nothing started it.
+ */
+public final class EnvironmentSnapshot {
+
+  private static final Logger log = LoggerFactory.getLogger(EnvironmentSnapshot.class);
+
+  private static final AtomicReference<CompletableFuture<EnvironmentSnapshot>> SHARED =
+      new AtomicReference<>();
+
+  private final QAPPropertiesLoader properties;
+  private final String gitBranch;
+  private final String gitCommit;
+  private final String hostName;
+  private final int cpuCount;
+  private final List<String> jvmFlags;
+  private final String osVersion;
+  private final String jdkVersion;
+  private final String testRunnerVersion;
+
+  EnvironmentSnapshot(
+      QAPPropertiesLoader properties,
+      Properties git,
+      String hostName,
+      int cpuCount,
+      List<String> jvmFlags,
+      String testRunnerVersion) {
+    this.properties = properties;
+    this.gitBranch = git != null ? git.getProperty("git.branch") : null;
+    this.gitCommit = git != null ? git.getProperty("git.commit.id.abbrev") : null;
+    this.hostName = hostName;
+    this.cpuCount = cpuCount;
+    this.jvmFlags = List.copyOf(jvmFlags);
+    this.osVersion = ExtensionUtil.getOsVersion();
+    this.jdkVersion = ExtensionUtil.getJdkVersion();
+    this.testRunnerVersion = testRunnerVersion;
+  }
+
+  /** Starts capturing the snapshot in the background unless it is already available. */
+  public static void warm() {
+    start(true);
+  }
+
+  /**
+   * The JVM's snapshot, waiting for a capture in progress.
+   *
+   * @throws java.util.concurrent.CompletionException if the capture failed
+   */
+  public static EnvironmentSnapshot current() {
+    return start(false).join();
+  }
+
+  private static CompletableFuture<EnvironmentSnapshot> start(boolean background) {
+    return start(SHARED, background, EnvironmentSnapshot::capture);
+  }
+
+  /**
+   * Starts {@code capture} unless {@code shared} already holds a capture. The future always
+   * completes: a capture that throws completes it exceptionally, so waiting callers fail instead of
+   * blocking forever on a dead background thread.
+   */
+  static CompletableFuture<EnvironmentSnapshot> start(
+      AtomicReference<CompletableFuture<EnvironmentSnapshot>> shared,
+      boolean background,
+      Supplier<EnvironmentSnapshot> capture) {
+    CompletableFuture<EnvironmentSnapshot> existing = shared.get();
+    if (existing != null) {
+      return existing;
+    }
+    CompletableFuture<EnvironmentSnapshot> created = new CompletableFuture<>();
+    if (!shared.compareAndSet(null, created)) {
+      return shared.get();
+    }
+    Runnable run =
+        () -> {
+          try {
+            created.complete(capture.get());
+          } catch (Throwable e) {
+            log.error("Unable to capture the QAP environment: {}", e.toString());
+            created.completeExceptionally(e);
+          }
+        };
+    if (background) {
+      Thread thread = new Thread(run, "qap-environment");
+      thread.setDaemon(true);
+      thread.start();
+    } else {
+      run.run();
+    }
+    return created;
+  }
+
+  /** Captures a new snapshot; never fails, missing parts are left null. */
+  static EnvironmentSnapshot capture() {
+    QAPPropertiesLoader properties = new QAPPropertiesLoader();
+    return new EnvironmentSnapshot(
+        properties,
+        properties.loadGitProperties(),
+        hostName(),
+        Runtime.getRuntime().availableProcessors(),
+        jvmFlags(ManagementFactory.getRuntimeMXBean().getInputArguments()),
+        testRunnerVersion());
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException | SecurityException e) {
+      String fromEnv = System.getenv("HOSTNAME");
+      return fromEnv != null ? fromEnv : System.getenv("COMPUTERNAME");
+    }
+  }
+
+  private static String testRunnerVersion() {
+    try {
+      return QAPUtils.getJunitVersion();
+    } catch (LinkageError e) {
+      log.debug("JUnit Jupiter engine not found: {}", e.toString());
+      return null;
+    }
+  }
+
+  /**
+   * The JVM's tuning flags ({@code -X...}, {@code -XX:...}, assertions). System properties and
+   * agents are left out, since their values may hold credentials.
+   */
+  static List<String> jvmFlags(List<String> inputArguments) {
+    return inputArguments.stream()
+        .filter(
+            arg ->
+                (arg.startsWith("-X") && !arg.startsWith("-Xrunjdwp"))
+                    || arg.startsWith("-ea")
+                    || arg.startsWith("-enableassertions")
+                    || arg.startsWith("-da")
+                    || arg.equals("-server"))
+        .toList();
+  }
+
+  /** Stamps the header with this snapshot and the launch-level settings of {@code properties}. */
+  public void stamp(QAPHeader header, QAPPropertiesLoader properties) {
+    QAPUtils.stampLaunchSettings(header, properties);
+    header.setGitBranch(gitBranch);
+    header.setTestRunnerVersion(testRunnerVersion);
+    header.setOsVersion(osVersion);
+    header.setJdkVersion(jdkVersion);
+    header.setGitCommit(gitCommit);
+    header.setHostName(hostName);
+    header.setCpuCount(cpuCount);
+    header.setJvmFlags(jvmFlags);
+  }
+
+  public QAPPropertiesLoader getProperties() {
+    return properties;
+  }
+
+  public String getGitBranch() {
+    return gitBranch;
+  }
+
+  public String getGitCommit() {
+    return gitCommit;
+  }
+
+  public String getHostName() {
+    return hostName;
+  }
+
+  public int getCpuCount() {
+    return cpuCount;
+  }
+
+  public List<String> getJvmFlags() {
+    return jvmFlags;
+  }
+
+  public String getOsVersion() {
+    return osVersion;
+  }
+
+  public String getJdkVersion() {
+    return jdkVersion;
+  }
+
+  public String getTestRunnerVersion() {
+    return testRunnerVersion;
+  }
+}
@@ -0,0 +1,247 @@
+package com.mk.fx.qa.qap.junit.core;
+
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The launch id of one run.
+ *
+ * <p>Each JUnit launcher session gets its own identity through {@link QAPLauncherSessionListener},
+ * bound to the session's thread and inherited by the workers it starts, so concurrent sessions in
+ * one JVM report separate launches. Code running outside a session shares one JVM-wide identity.
+ * The id is created once, on first use; afterwards {@link #getOrCreate()} is one volatile read.
+ *
+ * <p>A {@code -DlaunchID} system property seeds the id: a full id is used as is, anything else as
+ * the prefix of a generated one. With a shared file, Gradle forks of one build agree on a single
+ * id: the first fork writes it and forks starting within the time-to-live of the last one reuse it.
+ */
+public final class LaunchIdentity {
+
+  private static final Logger log = LoggerFactory.getLogger(LaunchIdentity.class);
+
+  static final String SYSTEM_PROPERTY_LAUNCH_ID = "launchID";
+  private static final Pattern FULL_LAUNCH_ID = Pattern.compile(".+[-a-zA-Z0-9]{12,}");
+  private static final int MAX_LAUNCH_ID_LENGTH = 50;
+  private static final int UUID_LENGTH = 12;
+  private static final Object FILE_LOCK = new Object();
+
+  private static final InheritableThreadLocal<LaunchIdentity> SESSION =
+      new InheritableThreadLocal<>();
+  private static volatile LaunchIdentity jvm;
+
+  // Read from qap.launch.id.file when the id is created, so sessions open without waiting for it
+  private final boolean fromProperties;
+  private Path sharedFile;
+  private Duration sharedTtl;
+  private volatile String launchId;
+  private final List<Runnable> closeHooks = new ArrayList<>();
+  private boolean closed;
+
+  public LaunchIdentity() {
+    this(null, Duration.ZERO);
+  }
+
+  private LaunchIdentity(boolean fromProperties) {
+    this.fromProperties = fromProperties;
+  }
+
+  /**
+   * @param sharedFile file through which forks share the id, or null for a local id
+   * @param sharedTtl how long after the last fork joined a shared id is still reused
+   */
+  public LaunchIdentity(Path sharedFile, Duration sharedTtl) {
+    this.fromProperties = false;
+    this.sharedFile = sharedFile;
+    this.sharedTtl = sharedTtl;
+  }
+
+  /** The identity of the launcher session running on this thread, else the JVM-wide one. */
+  public static LaunchIdentity current() {
+    LaunchIdentity session = SESSION.get();
+    return session != null ? session : jvm();
+  }
+
+  private static LaunchIdentity jvm() {
+    LaunchIdentity identity = jvm;
+    if (identity == null) {
+      synchronized (LaunchIdentity.class) {
+        identity = jvm;
+        if (identity == null) {
+          identity = configured();
+          jvm = identity;
+        }
+      }
+    }
+    return identity;
+  }
+
+  /** Whether this is the identity shared by code running outside any launcher session. */
+  public boolean isJvmWide() {
+    return this == jvm;
+  }
+
+  /** A new identity sharing its id through {@code qap.launch.id.file} when that is set. */
+  static LaunchIdentity configured() {
+    return new LaunchIdentity(true);
+  }
+
+  /** Binds an identity to this thread and the threads it starts; returns the previous binding. */
+  static LaunchIdentity bind(LaunchIdentity identity) {
+    LaunchIdentity previous = SESSION.get();
+    if (identity != null) {
+      SESSION.set(identity);
+    } else {
+      SESSION.remove();
+    }
+    return previous;
+  }
+
+  /** The launch id, or null before {@link #getOrCreate()} was first called. */
+  public String get() {
+    return launchId;
+  }
+
+  public String getOrCreate() {
+    String id = launchId;
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      if (launchId == null) {
+        launchId = create(System.getProperty(SYSTEM_PROPERTY_LAUNCH_ID));
+      }
+      return launchId;
+    }
+  }
+
+  /**
+   * Runs {@code hook} when the launcher session of this identity closes, or right away if it has
+   * already closed. The JVM-wide identity never closes.
+   */
+  public void whenClosed(Runnable hook) {
+    synchronized (closeHooks) {
+      if (!closed) {
+        closeHooks.add(hook);
+        return;
+      }
+    }
+    hook.run();
+  }
+
+  /** Runs the close hooks; a failing hook is logged and does not stop the others. */
+  void close() {
+    List<Runnable> hooks;
+    synchronized (closeHooks) {
+      closed = true;
+      hooks = List.copyOf(closeHooks);
+      closeHooks.clear();
+    }
+    for (Runnable hook : hooks) {
+      try {
+        hook.run();
+      } catch (RuntimeException e) {
+        log.warn("Launch session close hook failed (launchId='{}'): {}", launchId, e.toString());
+      }
+    }
+  }
+
+  public static boolean isFullLaunchId(String value) {
+    return value != null && FULL_LAUNCH_ID.matcher(value).matches();
+  }
+
+  private String create(String seed) {
+    if (isFullLaunchId(seed)) {
+      return seed;
+    }
+    if (fromProperties) {
+      QAPPropertiesLoader properties = EnvironmentSnapshot.current().getProperties();
+      String file = properties.getLaunchIdFile();
+      if (file != null && !file.isBlank()) {
+        sharedFile = Path.of(file.trim());
+        sharedTtl = Duration.ofSeconds(properties.getLaunchIdFileTtlSeconds());
+      }
+    }
+    if (sharedFile != null) {
+      try {
+        return shared(seed);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Unable to share launch id through {}: {}", sharedFile, e.toString());
+      }
+    }
+    return generate(seed);
+  }
+
+  /** Reuses the id in the shared file while it is fresh, else replaces it with a new one. */
+  private String shared(String seed) throws IOException {
+    Path parent = sharedFile.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    // FileChannel locks are per JVM; the monitor keeps two sessions of one JVM apart
+    synchronized (FILE_LOCK) {
+      try (FileChannel channel =
+              FileChannel.open(
+                  sharedFile,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.READ,
+                  StandardOpenOption.WRITE);
+          FileLock ignored = channel.lock()) {
+        long now = System.currentTimeMillis();
+        String existing = read(channel);
+        long joined = Files.getLastModifiedTime(sharedFile).toMillis();
+        String id;
+        if (isFullLaunchId(existing) && now - joined <= sharedTtl.toMillis()) {
+          id = existing;
+        } else {
+          id = generate(seed);
+          channel.truncate(0L);
+          channel.write(ByteBuffer.wrap((id + "\n").getBytes(StandardCharsets.UTF_8)), 0L);
+          channel.force(false);
+        }
+        // Every fork that joins extends the window for the forks still starting
+        Files.setLastModifiedTime(sharedFile, FileTime.fromMillis(now));
+        return id;
+      }
+    }
+  }
+
+  private static String read(FileChannel channel) throws IOException {
+    long size = channel.size();
+    if (size == 0L || size > 1024L) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate((int) size);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        break;
+      }
+    }
+    return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim();
+  }
+
+  /** A new id made of the seed's prefix and a short random suffix. */
+  static String generate(String seed) {
+    String base = seed == null || seed.isBlank() ? "TestLaunch" : seed.split("-")[0];
+    String launchId =
+        base + "-" + UUID.randomUUID().toString().replace("-", "").substring(0, UUID_LENGTH);
+    if (launchId.length() > MAX_LAUNCH_ID_LENGTH) {
+      return launchId.substring(0, MAX_LAUNCH_ID_LENGTH).replaceAll("-+$", "");
+    }
+    return launchId;
+  }
+}
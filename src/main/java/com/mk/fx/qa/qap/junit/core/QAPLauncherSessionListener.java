@@ -0,0 +1,34 @@
+package com.mk.fx.qa.qap.junit.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Gives every JUnit launcher session its own {@link LaunchIdentity} and starts capturing the
+ * {@link EnvironmentSnapshot} while tests are discovered. Registered through {@code
+ * META-INF/services}, so the JUnit Platform picks it up without configuration.
+ */
+public class QAPLauncherSessionListener implements LauncherSessionListener {
+
+  private final Map<LauncherSession, Binding> bindings = new ConcurrentHashMap<>();
+
+  @Override
+  public void launcherSessionOpened(LauncherSession session) {
+    EnvironmentSnapshot.warm();
+    LaunchIdentity identity = LaunchIdentity.configured();
+    bindings.put(session, new Binding(identity, LaunchIdentity.bind(identity)));
+  }
+
+  @Override
+  public void launcherSessionClosed(LauncherSession session) {
+    Binding binding = bindings.remove(session);
+    if (binding != null) {
+      binding.identity().close();
+      LaunchIdentity.bind(binding.outer());
+    }
+  }
+
+  private record Binding(LaunchIdentity identity, LaunchIdentity outer) {}
+}
@@ -11,6 +11,11 @@ public final class QAPUtils {
   public static final String METHOD_DESCRIPTION_KEY = "methodDescription";
   public static final String PARAM_INDEX_KEY = "paramIndexCounter";
   public static final String CLASS_NODES_KEY = "classNodes";
+  public static final String TEST_RECORDS_KEY = "testRecords";
+  public static final String REPETITIONS_KEY = "repetitions";
+  public static final String OVERHEAD_KEY = "overheadRecorder";
+  public static final String TEST_START_NANOS_KEY = "testStartNanos";
+  public static final String TEST_RESOURCES_KEY = "testResources";
 
   private QAPUtils() {
     // static
@@ -21,18 +26,23 @@ public final class QAPUtils {
     return "Junit " + junit.getImplementationVersion();
   }
 
+  /** Stamps the header, recomputing the environment; see {@link EnvironmentSnapshot#stamp}. */
   public static void buildQAPHeaders(
       QAPHeader qapHeader, String gitInfo, QAPPropertiesLoader qapAttributes) {
+    stampLaunchSettings(qapHeader, qapAttributes);
+    qapHeader.setGitBranch(gitInfo);
+    qapHeader.setTestRunnerVersion(QAPUtils.getJunitVersion());
+    qapHeader.setOsVersion(ExtensionUtil.getOsVersion());
+    qapHeader.setJdkVersion(ExtensionUtil.getJdkVersion());
+  }
+
+  /** The header fields that come from the launch's settings rather than its environment. */
+  static void stampLaunchSettings(QAPHeader qapHeader, QAPPropertiesLoader qapAttributes) {
     qapHeader.setLaunchEndTime(Instant.now().toEpochMilli());
     qapHeader.setApplicationName(qapAttributes.getAppName());
     qapHeader.setTestEnvironment(qapAttributes.getTestEnvironment());
-    // TODO: Refactor git prop
-    qapHeader.setGitBranch(gitInfo);
     qapHeader.setUser(qapAttributes.getUser());
     qapHeader.setRegression(ExtensionUtil.isRegressionEnabled());
-    qapHeader.setTestRunnerVersion(QAPUtils.getJunitVersion());
-    qapHeader.setOsVersion(ExtensionUtil.getOsVersion());
-    qapHeader.setJdkVersion(ExtensionUtil.getJdkVersion());
   }
 
   public static boolean isReportingEnabled(
@@ -1,15 +1,15 @@
 package com.mk.fx.qa.qap.junit.extension;
 
-import java.lang.reflect.Method;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
 /**
  * Resolves display names and parent hierarchies for JUnit test contexts. Handles @DisplayName
- * annotations, nested test classes, and parameterized tests.
+ * annotations, nested test classes, and parameterized tests. Annotation lookups go through {@link
+ * TestMetadataCache}, so each class and method is only inspected once per JVM.
  */
 public class DisplayNameResolver {
 
@@ -27,20 +27,15 @@ public class DisplayNameResolver {
       return isAutoGeneratedDisplayName(rawDisplayName, methodName) ? methodName : rawDisplayName;
     }
 
-    Method testMethod = context.getRequiredTestMethod();
-
     // Keep parameterized run names intact (e.g. "Run 1 with value=A")
     if (!isAutoGeneratedDisplayName(rawDisplayName, methodName)) {
       return rawDisplayName;
     }
 
     // Fallback: method-level @DisplayName
-    DisplayName junitDisplayName = testMethod.getAnnotation(DisplayName.class);
-    if (junitDisplayName != null) {
-      return junitDisplayName.value();
-    }
-
-    return methodName;
+    String declared =
+        TestMetadataCache.forMethod(context.getRequiredTestMethod()).getDeclaredDisplayName();
+    return (declared != null) ? declared : methodName;
   }
 
   /**
@@ -50,11 +45,7 @@ public class DisplayNameResolver {
   public String resolveMethodDisplayName(ExtensionContext context) {
     return context
         .getTestMethod()
-        .map(
-            m -> {
-              DisplayName dn = m.getAnnotation(DisplayName.class);
-              return (dn != null) ? dn.value() : m.getName();
-            })
+        .map(m -> TestMetadataCache.forMethod(m).getDisplayName())
         .orElse("");
   }
 
@@ -65,11 +56,7 @@ public class DisplayNameResolver {
   public String resolveClassDisplayName(ExtensionContext context) {
     return context
         .getTestClass()
-        .map(
-            c -> {
-              DisplayName dn = c.getAnnotation(DisplayName.class);
-              return (dn != null) ? dn.value() : c.getSimpleName();
-            })
+        .map(c -> TestMetadataCache.forClass(c).getDisplayName())
         .orElse("");
   }
 
@@ -104,9 +91,8 @@ public class DisplayNameResolver {
               cls -> {
                 // Only add if it's NOT the current test class
                 if (currentTestClass.isEmpty() || !cls.equals(currentTestClass.get())) {
-                  DisplayName dn = cls.getAnnotation(DisplayName.class);
-                  String name = (dn != null) ? dn.value() : cls.getSimpleName();
-                  chain.add(0, name); // Prepend to maintain top-down order
+                  // Prepend to maintain top-down order
+                  chain.add(0, TestMetadataCache.forClass(cls).getDisplayName());
                 }
               });
       parent = ctx.getParent();
@@ -11,4 +11,9 @@ public interface ITestEventCreator {
   void createTestTemplate(ExtensionContext context, TestCaseStatus status, Throwable t);
 
   QAPJunitLaunch startLaunchQAP(ExtensionContext context);
+
+  /** Starts a launch under the given id; implementations that ignore it keep their own. */
+  default QAPJunitLaunch startLaunchQAP(ExtensionContext context, String launchId) {
+    return startLaunchQAP(context);
+  }
 }
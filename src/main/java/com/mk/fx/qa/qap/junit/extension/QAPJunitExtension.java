@@ -1,18 +1,42 @@
 package com.mk.fx.qa.qap.junit.extension;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.EnvironmentSnapshot;
 import com.mk.fx.qa.qap.junit.core.QAPLaunchIdGenerator;
 import com.mk.fx.qa.qap.junit.core.QAPUtils;
 import com.mk.fx.qa.qap.junit.core.TestCaseStatus;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchPublisher;
 import com.mk.fx.qa.qap.junit.factory.TestMetadataFactory;
+import com.mk.fx.qa.qap.junit.fix.FixCapture;
+import com.mk.fx.qa.qap.junit.history.TestHistory;
+import com.mk.fx.qa.qap.junit.listener.QAPTestExecutionListener;
+import com.mk.fx.qa.qap.junit.logs.TestLogCapture;
+import com.mk.fx.qa.qap.junit.metrics.OverheadRecorder;
+import com.mk.fx.qa.qap.junit.metrics.OverheadRecorder.Callback;
+import com.mk.fx.qa.qap.junit.metrics.OverheadRecorder.Sample;
+import com.mk.fx.qa.qap.junit.metrics.ThreadResources;
+import com.mk.fx.qa.qap.junit.model.QAPCallbackOverhead;
 import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPOverhead;
 import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import com.mk.fx.qa.qap.junit.model.QAPResourceUsage;
 import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.model.QAPTestParams;
+import com.mk.fx.qa.qap.junit.model.QAPTimeline;
+import com.mk.fx.qa.qap.junit.params.ParameterRenderer;
 import com.mk.fx.qa.qap.junit.runtime.QAPRuntime;
 import com.mk.fx.qa.qap.junit.store.StoreManager;
+import com.mk.fx.qa.qap.junit.timeline.SessionTrace;
+import com.mk.fx.qa.qap.junit.timeline.Timeline;
 import com.mk.fx.qa.qap.junit.util.ExceptionFormatter;
 import com.mk.fx.qa.qap.junit.util.TagExtractor;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache.ClassMetadata;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -52,6 +76,11 @@ public class QAPJunitExtension
   private final ObjectMapper objectMapper;
   private final DisplayNameResolver displayNameResolver;
   private final QAPRuntime runtime;
+  private final boolean overheadEnabled;
+  private final TestLogCapture logCapture;
+  private final FixCapture fixCapture;
+  // qap.report.mode=listener: QAPTestExecutionListener reports, the extension stays out of the way
+  private final boolean passive;
 
   /**
    * Default constructor for production use. Creates shared state between lifecycle and method
@@ -60,7 +89,12 @@ public class QAPJunitExtension
   public QAPJunitExtension() {
     ConcurrentHashMap<String, Throwable> sharedFailedInits = new ConcurrentHashMap<>();
     QAPRuntime rt = QAPRuntime.defaultRuntime();
-    IMethodInterceptor mi = new QAPJunitMethodInterceptor(sharedFailedInits);
+    IMethodInterceptor mi =
+        new QAPJunitMethodInterceptor(
+            sharedFailedInits,
+            ParameterRenderer.withProviders(
+                rt.getPropertiesLoader().getParamsMaxLength(),
+                Thread.currentThread().getContextClassLoader()));
     ITestEventCreator tec = new QAPJunitTestEventsCreator();
     QAPLaunchIdGenerator gen = new QAPLaunchIdGenerator();
     this.runtime = Objects.requireNonNull(rt, "runtime");
@@ -69,6 +103,10 @@ public class QAPJunitExtension
     this.launchIdGenerator = gen;
     this.objectMapper = runtime.getObjectMapper();
     this.displayNameResolver = runtime.getDisplayNameResolver();
+    this.overheadEnabled = runtime.getPropertiesLoader().isOverheadMetrics();
+    this.passive = QAPTestExecutionListener.isActive(runtime.getPropertiesLoader());
+    this.logCapture = passive ? null : logCapture(runtime.getPropertiesLoader());
+    this.fixCapture = passive ? null : fixCapture(runtime.getPropertiesLoader());
   }
 
   /** Test constructor: injects runtime and all collaborators from a single source. */
@@ -84,41 +122,155 @@ public class QAPJunitExtension
     this.launchIdGenerator = Objects.requireNonNull(launchIdGenerator, "launchIdGenerator");
     this.objectMapper = this.runtime.getObjectMapper();
     this.displayNameResolver = this.runtime.getDisplayNameResolver();
+    this.overheadEnabled = this.runtime.getPropertiesLoader().isOverheadMetrics();
+    this.passive = QAPTestExecutionListener.isActive(this.runtime.getPropertiesLoader());
+    this.logCapture = passive ? null : logCapture(this.runtime.getPropertiesLoader());
+    this.fixCapture = passive ? null : fixCapture(this.runtime.getPropertiesLoader());
+  }
+
+  private static FixCapture fixCapture(QAPPropertiesLoader properties) {
+    if (!FixCapture.isEnabled(properties.getFixMessageLogging())) {
+      return null;
+    }
+    return new FixCapture(properties.getFixMaxKb() * 1024);
+  }
+
+  /** Installs per-test log capture when configured and Log4j2 core is on the classpath. */
+  private static TestLogCapture logCapture(QAPPropertiesLoader properties) {
+    TestLogCapture.Mode mode = TestLogCapture.Mode.parse(properties.getLogsCapture());
+    if (mode == null) {
+      return null;
+    }
+    try {
+      return TestLogCapture.install(
+          mode,
+          properties.getLogsMaxKb() * 1024,
+          properties.isLogsOffHeap(),
+          properties.getLogsPattern());
+    } catch (LinkageError e) {
+      log.info("QAP log capture disabled, Log4j2 core not available: {}", e.toString());
+      return null;
+    }
   }
 
   // ---- JUnit lifecycle ---------------------------------------------------
 
   @Override
   public void beforeAll(ExtensionContext context) {
+    if (passive) {
+      return;
+    }
     ensureLaunchId();
-    // Start launch only once at top-level
-    if (isTopLevelClassContext(context)) {
-      QAPJunitLaunch launch = eventCreator.startLaunchQAP(context);
-      StoreManager.putClassStoreData(context, QAPUtils.TEST_CLASS_DATA_KEY, launch);
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
+    try {
+      // Start launch only once at top-level
+      if (isTopLevelClassContext(context)) {
+        QAPJunitLaunch launch =
+            eventCreator.startLaunchQAP(context, launchIdGenerator.getLaunchId());
+        StoreManager.putClassStoreData(context, QAPUtils.TEST_CLASS_DATA_KEY, launch);
+        publisher().onLaunchStarted(launch, objectMapper, log);
+      }
+      // Always register class node and record lifecycle for current class (supports nested)
+      QAPTestClass node = registerClassNode(context);
+      if (timelineEnabled()) {
+        node.markStarted(Thread.currentThread(), System.nanoTime());
+      }
+    } finally {
+      overhead.stop(Callback.BEFORE_ALL, sample);
     }
-    // Always register class node and record lifecycle for current class (supports nested)
-    registerClassNode(context);
   }
 
   @Override
   public void beforeEach(ExtensionContext context) {
-    QAPTest qapTest = initializeQAPTest(context);
-    StoreManager.putMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, qapTest);
+    if (passive) {
+      return;
+    }
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
+    try {
+      QAPTest qapTest = initializeQAPTest(context);
+      StoreManager.putMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, qapTest);
+    } finally {
+      overhead.stop(Callback.BEFORE_EACH, sample);
+      if (sample != null) {
+        StoreManager.putMethodStoreData(context, QAPUtils.TEST_START_NANOS_KEY, System.nanoTime());
+      }
+      if (runtime.getPropertiesLoader().isResourceMetrics()) {
+        // Sampled last, so the extension's own beforeEach work is not charged to the test
+        StoreManager.putMethodStoreData(
+            context, QAPUtils.TEST_RESOURCES_KEY, ThreadResources.sample());
+      }
+      if (logCapture != null) {
+        logCapture.begin(context.getUniqueId());
+      }
+      if (fixCapture != null) {
+        fixCapture.begin();
+      }
+    }
   }
 
   @Override
   public void afterEach(ExtensionContext context) {
-    QAPTest qapTest =
-        StoreManager.getMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, QAPTest.class);
-    StoreManager.addDescriptionToClassStore(context, qapTest);
+    if (passive) {
+      return;
+    }
+    if (runtime.getPropertiesLoader().isResourceMetrics()) {
+      // Sampled first, so the extension's own afterEach work is not charged to the test
+      endResources(context);
+    }
+    OverheadRecorder overhead = overhead(context);
+    if (overhead.isEnabled()) {
+      Long started =
+          StoreManager.getMethodStoreData(context, QAPUtils.TEST_START_NANOS_KEY, Long.class);
+      if (started != null) {
+        overhead.recordTest(System.nanoTime() - started);
+      }
+    }
+    Sample sample = overhead.start();
+    try {
+      if (logCapture != null || fixCapture != null) {
+        attachCaptures(context);
+      }
+      QAPTest qapTest =
+          StoreManager.getMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, QAPTest.class);
+      if (qapTest != null) {
+        // Render now rather than holding test arguments until the launch is published
+        qapTest.getParametersOrEmpty().forEach(QAPTestParams::argumentValue);
+      }
+      if (!publisher().retainsTestCases()) {
+        // Streaming publishers receive the test once its status is known (TestWatcher)
+        return;
+      }
+      if (aggregates(qapTest)) {
+        // Folded or recorded in full once its status is known (TestWatcher)
+        return;
+      }
+      StoreManager.addDescriptionToClassStore(context, qapTest, legacyFlatList());
+    } finally {
+      overhead.stop(Callback.AFTER_EACH, sample);
+    }
   }
 
   @Override
   public void afterAll(ExtensionContext context) {
+    if (passive) {
+      return;
+    }
+    if (timelineEnabled()) {
+      QAPTestClass node =
+          StoreManager.getClassNodes(context).get(context.getRequiredTestClass().getName());
+      if (node != null) {
+        node.setEndNanos(System.nanoTime());
+      }
+    }
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
     QAPJunitLaunch launch =
         StoreManager.getClassStoreData(context, QAPUtils.TEST_CLASS_DATA_KEY, QAPJunitLaunch.class);
     if (!isTopLevelClassContext(context)) {
       // Record nested class lifecycle but do not finalize launch here
+      overhead.stop(Callback.AFTER_ALL, sample);
       return;
     }
 
@@ -128,38 +280,81 @@ public class QAPJunitExtension
           "No launch found for top-level context '{}' (launchId='{}'), attempting recovery.",
           context.getDisplayName(),
           launchIdGenerator.getLaunchId());
-      launch = eventCreator.startLaunchQAP(context);
+      launch = eventCreator.startLaunchQAP(context, launchIdGenerator.getLaunchId());
       StoreManager.putClassStoreData(context, QAPUtils.TEST_CLASS_DATA_KEY, launch);
     }
+    overhead.stop(Callback.AFTER_ALL, sample);
 
-    finalizeLaunch(context, launch);
+    finalizeLaunch(context, launch, overhead);
   }
 
   // ---- TestWatcher -------------------------------------------------------
 
   @Override
   public void testSuccessful(ExtensionContext context) {
-    eventCreator.createTestTemplate(context, TestCaseStatus.PASSED, null);
+    if (passive) {
+      return;
+    }
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
+    try {
+      eventCreator.createTestTemplate(context, TestCaseStatus.PASSED, null);
+      testFinished(context);
+    } finally {
+      overhead.stop(Callback.TEST_SUCCESSFUL, sample);
+    }
   }
 
   @Override
   public void testAborted(ExtensionContext context, Throwable cause) {
-    eventCreator.createTestTemplate(context, TestCaseStatus.ABORTED, cause);
+    if (passive) {
+      return;
+    }
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
+    try {
+      eventCreator.createTestTemplate(context, TestCaseStatus.ABORTED, cause);
+      testFinished(context);
+    } finally {
+      overhead.stop(Callback.TEST_ABORTED, sample);
+    }
   }
 
   @Override
   public void testFailed(ExtensionContext context, Throwable cause) {
-    eventCreator.createTestTemplate(context, TestCaseStatus.FAILED, cause);
+    if (passive) {
+      return;
+    }
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
+    try {
+      eventCreator.createTestTemplate(context, TestCaseStatus.FAILED, cause);
+      testFinished(context);
+    } finally {
+      overhead.stop(Callback.TEST_FAILED, sample);
+    }
   }
 
   @Override
   public void testDisabled(ExtensionContext context, Optional<String> reason) {
-    QAPTest qapTest = initializeQAPTest(context);
-    qapTest.setEndTime(now());
-    qapTest.setStatus(TestCaseStatus.DISABLED.name());
-    String msg = reason.orElse("Test disabled (no reason provided)");
-    qapTest.setException(ExceptionFormatter.toBytes(msg));
-    StoreManager.addDescriptionToClassStore(context, qapTest);
+    if (passive) {
+      return;
+    }
+    OverheadRecorder overhead = overhead(context);
+    Sample sample = overhead.start();
+    try {
+      QAPTest qapTest = initializeQAPTest(context);
+      qapTest.setEndTime(now());
+      qapTest.setStatus(TestCaseStatus.DISABLED.name());
+      String msg = reason.orElse("Test disabled (no reason provided)");
+      qapTest.setException(ExceptionFormatter.toBytes(msg));
+      if (publisher().retainsTestCases()) {
+        StoreManager.addDescriptionToClassStore(context, qapTest, legacyFlatList());
+      }
+      notifyTestFinished(context, qapTest);
+    } finally {
+      overhead.stop(Callback.TEST_DISABLED, sample);
+    }
   }
 
   // ---- InvocationInterceptor ---------------------------------------------
@@ -170,6 +365,10 @@ public class QAPJunitExtension
       ReflectiveInvocationContext<Method> invocationContext,
       ExtensionContext extensionContext)
       throws Throwable {
+    if (passive) {
+      invocation.proceed();
+      return;
+    }
     methodInterceptor.interceptBeforeAllMethod(invocation, invocationContext, extensionContext);
   }
 
@@ -179,7 +378,34 @@ public class QAPJunitExtension
       ReflectiveInvocationContext<Method> invocationContext,
       ExtensionContext extensionContext)
       throws Throwable {
-    methodInterceptor.interceptTestTemplateMethod(invocation, invocationContext, extensionContext);
+    if (passive) {
+      invocation.proceed();
+      return;
+    }
+    OverheadRecorder overhead = overhead(extensionContext);
+    Sample sample = overhead.start();
+    if (sample == null) {
+      methodInterceptor.interceptTestTemplateMethod(
+          invocation, invocationContext, extensionContext);
+      return;
+    }
+    // Time only the interceptor's own work, not the test body it proceeds into
+    Invocation<Void> body =
+        () -> {
+          long startNanos = System.nanoTime();
+          long startBytes = overhead.allocatedBytes();
+          try {
+            return invocation.proceed();
+          } finally {
+            sample.exclude(
+                System.nanoTime() - startNanos, overhead.allocatedBytes() - startBytes);
+          }
+        };
+    try {
+      methodInterceptor.interceptTestTemplateMethod(body, invocationContext, extensionContext);
+    } finally {
+      overhead.stop(Callback.INTERCEPT_TEST_TEMPLATE_METHOD, sample);
+    }
   }
 
   // ---- helpers -----------------------------------------------------------
@@ -189,7 +415,98 @@ public class QAPJunitExtension
    * not fail the test run.
    */
   private void publishLaunch(QAPJunitLaunch launch) {
-    runtime.getLaunchPublisher().publish(launch, objectMapper, log);
+    publisher().publish(launch, objectMapper, log);
+  }
+
+  private LaunchPublisher publisher() {
+    return runtime.getLaunchPublisher();
+  }
+
+  /** Replaces the test's start sample with what the test used since, attached in testFinished. */
+  private void endResources(ExtensionContext context) {
+    if (StoreManager.getMethodStore(context).get(QAPUtils.TEST_RESOURCES_KEY)
+        instanceof ThreadResources.Sample started) {
+      StoreManager.putMethodStoreData(context, QAPUtils.TEST_RESOURCES_KEY, started.elapsed());
+    }
+  }
+
+  /** Ends log and FIX capture for the test and attaches what was kept. */
+  private void attachCaptures(ExtensionContext context) {
+    byte[] logs =
+        logCapture != null
+            ? logCapture.end(context.getUniqueId(), context.getExecutionException().isPresent())
+            : null;
+    byte[] fix = fixCapture != null ? fixCapture.end() : null;
+    QAPTest qapTest =
+        StoreManager.getMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, QAPTest.class);
+    if (qapTest != null) {
+      if (logs != null) {
+        qapTest.setLogs(logs);
+      }
+      if (fix != null) {
+        qapTest.setFix(fix);
+      }
+    }
+  }
+
+  private boolean timelineEnabled() {
+    return runtime.getPropertiesLoader().getTimelineDir() != null;
+  }
+
+  private boolean legacyFlatList() {
+    return runtime.getPropertiesLoader().isLegacyFlatList();
+  }
+
+  /**
+   * Hands the completed test of the current method context to the publisher. Streaming publishers
+   * do not retain tests, so the test is also released from the method store.
+   */
+  private void testFinished(ExtensionContext context) {
+    QAPTest qapTest =
+        StoreManager.getMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, QAPTest.class);
+    if (qapTest != null
+        && runtime.getPropertiesLoader().isResourceMetrics()
+        && StoreManager.getMethodStore(context).get(QAPUtils.TEST_RESOURCES_KEY)
+            instanceof QAPResourceUsage used) {
+      qapTest.setResources(used);
+    }
+    if (aggregates(qapTest)) {
+      if (TestCaseStatus.PASSED.name().equals(qapTest.getStatus())) {
+        String template = context.getParent().orElse(context).getUniqueId();
+        StoreManager.addRepetition(
+            context, template, qapTest, runtime.getPropertiesLoader().getAggregateMinInvocations());
+      } else {
+        StoreManager.addDescriptionToClassStore(context, qapTest, legacyFlatList());
+      }
+    }
+    notifyTestFinished(context, qapTest);
+    if (qapTest != null && !publisher().retainsTestCases()) {
+      StoreManager.getMethodStore(context).remove(QAPUtils.METHOD_DESCRIPTION_KEY);
+    }
+  }
+
+  /**
+   * Whether the test is a template invocation recorded through the repetition aggregator. Only
+   * publishers that retain tests aggregate; streaming publishers see every invocation.
+   */
+  private boolean aggregates(QAPTest qapTest) {
+    return qapTest != null
+        && "PARAMETERIZED".equals(qapTest.getTestType())
+        && runtime.getPropertiesLoader().getAggregateMinInvocations() > 0
+        && publisher().retainsTestCases();
+  }
+
+  private void notifyTestFinished(ExtensionContext context, QAPTest qapTest) {
+    if (qapTest == null) {
+      return;
+    }
+    publisher()
+        .onTestFinished(
+            launchIdGenerator.getLaunchId(),
+            context.getRequiredTestClass().getName(),
+            qapTest,
+            objectMapper,
+            log);
   }
 
   private long now() {
@@ -204,15 +521,31 @@ public class QAPJunitExtension
     launchIdGenerator.generateIfAbsent();
   }
 
-  private void finalizeLaunch(ExtensionContext context, QAPJunitLaunch launch) {
+  private void finalizeLaunch(
+      ExtensionContext context, QAPJunitLaunch launch, OverheadRecorder overhead) {
+    Sample sample = overhead.start();
     QAPPropertiesLoader props = runtime.getPropertiesLoader();
-    var gitProps = props.loadGitProperties();
-    String gitBranch = (gitProps != null) ? gitProps.getProperty("git.branch") : null;
-    QAPUtils.buildQAPHeaders(launch.getHeader(), gitBranch, props);
+    EnvironmentSnapshot.current().stamp(launch.getHeader(), props);
+    launch.getHeader().setContentType(runtime.getPayloadFormat().contentType());
 
     eventCreator.addTestEventsToTestLaunch(context, launch);
+    if (timelineEnabled()) {
+      exportTimeline(launch, props.getTimelineDir());
+    }
+    if (props.getHistoryFile() != null) {
+      recordHistory(launch, props);
+    }
+    overhead.stop(Callback.FINALIZE_LAUNCH, sample);
+    if (overhead.isEnabled()) {
+      launch.getHeader().setOverhead(overhead.snapshot());
+    }
     if (QAPUtils.isReportingEnabled(launch, props)) {
+      Sample publishSample = overhead.start();
       publishLaunch(launch);
+      overhead.stop(Callback.PUBLISH, publishSample);
+      if (overhead.isEnabled()) {
+        logOverhead(launch, overhead);
+      }
     } else {
       log.info(
           "Reporting disabled. Skipping launch publish for '{}' (launchId='{}').",
@@ -221,74 +554,145 @@ public class QAPJunitExtension
     }
   }
 
-  /** Creates and initializes a QAPTest from the context: metadata, start time, and tags. */
+  /**
+   * Adds worker-utilization metrics to the header and adds the launch to the session's Chrome
+   * trace. A trace that cannot be written is logged and does not fail the run.
+   */
+  private void exportTimeline(QAPJunitLaunch launch, String directory) {
+    Timeline timeline = Timeline.of(launch);
+    QAPTimeline summary = timeline.summarize();
+    try {
+      Path trace = SessionTrace.current(Path.of(directory)).add(timeline);
+      summary.setTraceFile(trace.toString());
+    } catch (IOException | RuntimeException e) {
+      log.warn(
+          "Unable to write QAP timeline trace to '{}' (launchId='{}'): {}",
+          directory,
+          launch.getHeader().getLaunchId(),
+          e.toString());
+    }
+    launch.getHeader().setTimeline(summary);
+  }
+
+  /** Appends the launch's tests to the local history; failures are logged only. */
+  private void recordHistory(QAPJunitLaunch launch, QAPPropertiesLoader props) {
+    try {
+      TestHistory.record(
+          Path.of(props.getHistoryFile()),
+          launch,
+          now(),
+          Duration.ofDays(props.getHistoryMaxAgeDays()));
+    } catch (IOException | RuntimeException e) {
+      log.warn(
+          "Unable to update QAP test history '{}' (launchId='{}'): {}",
+          props.getHistoryFile(),
+          launch.getHeader().getLaunchId(),
+          e.toString());
+    }
+  }
+
+  /** Logs the overhead summary including publish, which happens after the header is written. */
+  private void logOverhead(QAPJunitLaunch launch, OverheadRecorder overhead) {
+    QAPOverhead summary = overhead.snapshot();
+    QAPCallbackOverhead publish = summary.getCallbacks().get(Callback.PUBLISH.key());
+    log.info(
+        "QAP overhead for launchId='{}': tests={} extension={} ms ({}% of test time) publish={} ms"
+            + " allocated={} bytes",
+        launch.getHeader().getLaunchId(),
+        summary.getTestCount(),
+        summary.getExtensionNanos() / 1_000_000.0,
+        summary.getOverheadPercent(),
+        publish != null ? publish.getTotalNanos() / 1_000_000.0 : 0.0,
+        summary.getAllocatedBytes());
+  }
+
+  /**
+   * Returns the overhead recorder of the current launch, or the shared no-op recorder when {@code
+   * qap.metrics.overhead} is off (no store lookup in that case).
+   */
+  private OverheadRecorder overhead(ExtensionContext context) {
+    if (!overheadEnabled) {
+      return OverheadRecorder.DISABLED;
+    }
+    return StoreManager.getClassStore(context)
+        .getOrComputeIfAbsent(
+            QAPUtils.OVERHEAD_KEY, k -> new OverheadRecorder(), OverheadRecorder.class);
+  }
+
+  /**
+   * Creates and initializes a QAPTest from the context: metadata, start time, and tags. Reflective
+   * metadata comes from {@link TestMetadataCache}; inherited tags are taken from the class node,
+   * which computes them once per class.
+   */
   private QAPTest initializeQAPTest(ExtensionContext context) {
     QAPTest qapTest = TestMetadataFactory.create(context, displayNameResolver);
     qapTest.setStartTime(now());
+    qapTest.setStartNanos(System.nanoTime());
+    if (timelineEnabled()) {
+      Thread worker = Thread.currentThread();
+      qapTest.setThread(worker.getName());
+      qapTest.setThreadId(worker.getId());
+    }
+    // Ensure class node exists
+    QAPTestClass node = registerClassNode(context);
     // Method-level tags only
     qapTest.setTag(TagExtractor.methodTags(context));
     // Include class-level tags and inherited parent-class tags on the test
-    qapTest.setClassTags(TagExtractor.classTags(context));
-    qapTest.setInheritedClassTags(TagExtractor.inheritedClassTags(context));
+    qapTest.setClassTags(node.getClassTags());
+    qapTest.setInheritedClassTags(node.getInheritedClassTags());
     qapTest.setTestType("TEST");
-    // Ensure class node exists/updated
-    registerClassNode(context);
-    // Class-level tags are now attached to QAPTestClass; only method tags remain on test
     // Pre-populate a stable testCaseId without index; parameterized runs will overwrite with
-    // [index]
-    // Use nested class path (without package) to avoid collisions across nested classes
-    String fqcn = context.getRequiredTestClass().getName();
-    String nestedPath = fqcn.substring(fqcn.lastIndexOf('.') + 1); // e.g., DemoTest$Group$Inner
-    String id = nestedPath + "#" + context.getRequiredTestMethod().getName();
-    qapTest.setTestCaseId(id);
+    // [index]. Uses the nested class path (without package), e.g. DemoTest$Group$Inner#method
+    ClassMetadata classMetadata = TestMetadataCache.forClass(context.getRequiredTestClass());
+    qapTest.setTestCaseId(classMetadata.testCaseId(context.getRequiredTestMethod().getName()));
     return qapTest;
   }
 
   /**
-   * Creates or refreshes the QAPTestClass node metadata for the current class context and stores it
-   * in the class-level store map. Ensures displayName and tags are set and a full class chain is
-   * calculated (including current class).
+   * Creates the QAPTestClass node metadata for the current class context (once per class and
+   * launch) and stores it in the class-level store map. Ensures displayName and tags are set and a
+   * full class chain is calculated (including current class).
    */
-  private void registerClassNode(ExtensionContext context) {
-    var classStore = StoreManager.getClassStore(context);
-    @SuppressWarnings("unchecked")
-    java.util.Map<String, com.mk.fx.qa.qap.junit.model.QAPTestClass> nodes =
-        classStore.getOrDefault(
-            com.mk.fx.qa.qap.junit.core.QAPUtils.CLASS_NODES_KEY,
-            java.util.Map.class,
-            new java.util.concurrent.ConcurrentHashMap<>());
+  private QAPTestClass registerClassNode(ExtensionContext context) {
+    java.util.Map<String, QAPTestClass> nodes = StoreManager.getClassNodes(context);
     Class<?> cls = context.getRequiredTestClass();
     String key = cls.getName();
-    com.mk.fx.qa.qap.junit.model.QAPTestClass node = nodes.get(key);
+    QAPTestClass node = nodes.get(key);
     if (node == null) {
-      node =
-          new com.mk.fx.qa.qap.junit.model.QAPTestClass(
-              cls.getSimpleName(),
-              displayNameResolver.resolveClassDisplayName(context),
-              TagExtractor.classTags(context));
-      // Store human-readable nested path without package as fullClassName
-      String fqcn = cls.getName();
-      String nestedPath = fqcn.substring(fqcn.lastIndexOf('.') + 1);
-      node.setFullClassName(nestedPath);
+      QAPTestClass created = newClassNode(context, cls, key);
+      node = nodes.putIfAbsent(key, created);
+      if (node == null) {
+        publisher().onClassRegistered(launchIdGenerator.getLaunchId(), created, objectMapper, log);
+        return created;
+      }
+    }
+    // Complete nodes that were created without context (e.g. by the store fallback)
+    if (node.getInheritedClassTags() == null) {
       node.setInheritedClassTags(TagExtractor.inheritedClassTags(context));
-      node.setClassKey(key);
+    }
+    if (node.getClassChain() == null || node.getClassChain().isEmpty()) {
       java.util.List<String> chain = displayNameResolver.buildParentChain(context);
       chain.add(node.getDisplayName());
       node.setClassChain(chain);
-      nodes.put(key, node);
-      classStore.put(com.mk.fx.qa.qap.junit.core.QAPUtils.CLASS_NODES_KEY, nodes);
-    } else {
-      // Refresh potentially dynamic properties
-      node.setDisplayName(displayNameResolver.resolveClassDisplayName(context));
-      node.setInheritedClassTags(TagExtractor.inheritedClassTags(context));
-      if (node.getClassChain() == null || node.getClassChain().isEmpty()) {
-        java.util.List<String> chain = displayNameResolver.buildParentChain(context);
-        chain.add(node.getDisplayName());
-        node.setClassChain(chain);
-      }
-      nodes.put(key, node);
-      classStore.put(com.mk.fx.qa.qap.junit.core.QAPUtils.CLASS_NODES_KEY, nodes);
     }
+    return node;
+  }
+
+  private QAPTestClass newClassNode(ExtensionContext context, Class<?> cls, String key) {
+    ClassMetadata metadata = TestMetadataCache.forClass(cls);
+    QAPTestClass node =
+        new QAPTestClass(
+            metadata.getSimpleName(),
+            displayNameResolver.resolveClassDisplayName(context),
+            metadata.getTags());
+    // Store human-readable nested path without package as fullClassName
+    node.setFullClassName(metadata.getNestedPath());
+    node.setInheritedClassTags(TagExtractor.inheritedClassTags(context));
+    node.setClassKey(key);
+    java.util.List<String> chain = displayNameResolver.buildParentChain(context);
+    chain.add(node.getDisplayName());
+    node.setClassChain(chain);
+    return node;
   }
 
   private boolean isTopLevelClassContext(ExtensionContext context) {
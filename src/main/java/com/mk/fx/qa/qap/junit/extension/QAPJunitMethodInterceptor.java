@@ -5,21 +5,30 @@ import static com.mk.fx.qa.qap.junit.core.QAPUtils.METHOD_DESCRIPTION_KEY;
 import com.mk.fx.qa.qap.junit.core.QAPUtils;
 import com.mk.fx.qa.qap.junit.model.QAPTest;
 import com.mk.fx.qa.qap.junit.model.QAPTestParams;
+import com.mk.fx.qa.qap.junit.params.ParameterRenderer;
 import com.mk.fx.qa.qap.junit.store.StoreManager;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.Objects;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.InvocationInterceptor;
 import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
 
 public class QAPJunitMethodInterceptor implements IMethodInterceptor {
   private final Map<String, Throwable> failedInits;
+  private final ParameterRenderer parameterRenderer;
 
   public QAPJunitMethodInterceptor(Map<String, Throwable> failedInits) {
+    this(failedInits, new ParameterRenderer());
+  }
+
+  public QAPJunitMethodInterceptor(
+      Map<String, Throwable> failedInits, ParameterRenderer parameterRenderer) {
     this.failedInits = failedInits;
+    this.parameterRenderer = Objects.requireNonNull(parameterRenderer, "parameterRenderer");
   }
 
   @Override
@@ -31,16 +40,11 @@ public class QAPJunitMethodInterceptor implements IMethodInterceptor {
     var testParams = invocationContext.getArguments().toArray();
     var qapTest =
         StoreManager.getMethodStoreData(extensionContext, METHOD_DESCRIPTION_KEY, QAPTest.class);
-    List<QAPTestParams> qapTestParams = new ArrayList<>();
-    IntStream.range(0, testParams.length)
-        .forEach(
-            args -> {
-              var arg = testParams[args];
-              var argClassName = (arg != null) ? arg.getClass().getSimpleName() : "null";
-              var argStringValue = (arg != null) ? arg.toString() : "null";
-              var params = new QAPTestParams(args, argClassName, argStringValue);
-              qapTestParams.add(params);
-            });
+    // Arguments are rendered after the invocation (afterEach), off the test's critical path
+    List<QAPTestParams> qapTestParams = new ArrayList<>(testParams.length);
+    for (int i = 0; i < testParams.length; i++) {
+      qapTestParams.add(QAPTestParams.deferred(i, testParams[i], parameterRenderer));
+    }
     qapTest.setParameters(qapTestParams);
     qapTest.setTestType("PARAMETERIZED");
 
@@ -51,10 +55,12 @@ public class QAPJunitMethodInterceptor implements IMethodInterceptor {
     methodStore.put(QAPUtils.PARAM_INDEX_KEY, index);
 
     // Build testCaseId as TopLevelClass#methodName[index]
-    String fqcn = extensionContext.getRequiredTestClass().getName();
-    String nestedPath = fqcn.substring(fqcn.lastIndexOf('.') + 1);
     String id =
-        nestedPath + "#" + extensionContext.getRequiredTestMethod().getName() + "[" + index + "]";
+        TestMetadataCache.forClass(extensionContext.getRequiredTestClass())
+                .testCaseId(extensionContext.getRequiredTestMethod().getName())
+            + "["
+            + index
+            + "]";
     qapTest.setTestCaseId(id);
     invocation.proceed();
   }
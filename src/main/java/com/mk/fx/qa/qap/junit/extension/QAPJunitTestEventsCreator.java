@@ -2,23 +2,74 @@ package com.mk.fx.qa.qap.junit.extension;
 
 import static com.mk.fx.qa.qap.junit.core.QAPUtils.TEST_CLASS_DATA_KEY;
 
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
 import com.mk.fx.qa.qap.junit.core.QAPUtils;
 import com.mk.fx.qa.qap.junit.core.TestCaseStatus;
+import com.mk.fx.qa.qap.junit.failure.FailureInterner;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
 import com.mk.fx.qa.qap.junit.model.QAPHeader;
 import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPResourceUsage;
 import com.mk.fx.qa.qap.junit.model.QAPTest;
 import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.store.RepetitionAggregator;
 import com.mk.fx.qa.qap.junit.store.StoreManager;
-import java.nio.charset.StandardCharsets;
+import com.mk.fx.qa.qap.junit.store.TestRecordBuffer;
+import com.mk.fx.qa.qap.junit.util.ExceptionFormatter;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
 import java.time.Instant;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
 public class QAPJunitTestEventsCreator implements ITestEventCreator {
 
-  private static final String SYSTEM_PROPERTY_LAUNCH_ID = "launchID";
-
   @Override
   public void addTestEventsToTestLaunch(ExtensionContext context, QAPJunitLaunch launch) {
+    attachTestCases(context, launch);
+    collectFailures(launch.getTestClasses(), launch.getFailures());
+    sumResources(launch.getTestClasses());
+  }
+
+  /** Sums the resource usage of each class's own tests, where tests recorded any. */
+  private static void sumResources(java.util.List<QAPTestClass> classes) {
+    if (classes == null) {
+      return;
+    }
+    for (QAPTestClass cls : classes) {
+      QAPResourceUsage total = null;
+      if (cls.getTestCases() != null) {
+        for (QAPTest test : cls.getTestCases()) {
+          if (test.getResources() != null) {
+            if (total == null) {
+              total = new QAPResourceUsage(0L, 0L, 0L);
+            }
+            total.add(test.getResources());
+          }
+        }
+      }
+      cls.setResources(total);
+      sumResources(cls.getChildren());
+    }
+  }
+
+  /** Lists each distinct failure once, in the order tests first refer to it. */
+  private static void collectFailures(
+      java.util.List<QAPTestClass> classes, java.util.Map<String, QAPFailure> failures) {
+    if (classes == null) {
+      return;
+    }
+    for (QAPTestClass cls : classes) {
+      if (cls.getTestCases() != null) {
+        for (QAPTest test : cls.getTestCases()) {
+          if (test.getFailure() != null) {
+            failures.putIfAbsent(test.getFailure().getId(), test.getFailure());
+          }
+        }
+      }
+      collectFailures(cls.getChildren(), failures);
+    }
+  }
+
+  private void attachTestCases(ExtensionContext context, QAPJunitLaunch launch) {
     @SuppressWarnings("unchecked")
     java.util.Map<String, com.mk.fx.qa.qap.junit.model.QAPTestClass> nodes =
         StoreManager.getClassStoreData(context, QAPUtils.CLASS_NODES_KEY, java.util.Map.class);
@@ -41,6 +92,23 @@ public class QAPJunitTestEventsCreator implements ITestEventCreator {
       return;
     }
 
+    // Merge the striped per-class test buffers into their nodes once; aggregated templates follow
+    java.util.Map<String, TestRecordBuffer> records = StoreManager.getTestRecords(context);
+    java.util.Map<String, RepetitionAggregator> repetitions = StoreManager.getRepetitions(context);
+    for (var entry : nodes.entrySet()) {
+      TestRecordBuffer buffer = records.get(entry.getKey());
+      RepetitionAggregator folded = repetitions.get(entry.getKey());
+      if (buffer == null && folded == null) {
+        continue;
+      }
+      java.util.List<QAPTest> tests =
+          buffer != null ? buffer.toList() : new java.util.ArrayList<>();
+      if (folded != null) {
+        folded.appendTo(tests);
+      }
+      entry.getValue().setTestCases(tests);
+    }
+
     // Prepare a single root class entry from the launch
     com.mk.fx.qa.qap.junit.model.QAPTestClass launchRoot =
         launch.getTestClasses().isEmpty() ? null : launch.getTestClasses().get(0);
@@ -70,6 +138,10 @@ public class QAPJunitTestEventsCreator implements ITestEventCreator {
       launchRoot.setTestCases(rootNode.getTestCases());
       launchRoot.setClassChain(rootNode.getClassChain());
       launchRoot.setInheritedClassTags(rootNode.getInheritedClassTags());
+      launchRoot.setThread(rootNode.getThread());
+      launchRoot.setThreadId(rootNode.getThreadId());
+      launchRoot.setStartNanos(rootNode.getStartNanos());
+      launchRoot.setEndNanos(rootNode.getEndNanos());
     } else {
       // If no collected tests for root, at least attach an empty list
       launchRoot.setTestCases(new java.util.ArrayList<>());
@@ -132,10 +204,13 @@ public class QAPJunitTestEventsCreator implements ITestEventCreator {
   public void createTestTemplate(ExtensionContext context, TestCaseStatus status, Throwable t) {
     var qapTest =
         StoreManager.getMethodStoreData(context, QAPUtils.METHOD_DESCRIPTION_KEY, QAPTest.class);
+    qapTest.setEndNanos(System.nanoTime());
     qapTest.setEndTime(Instant.now().toEpochMilli());
     qapTest.setStatus(status.name());
     if (t != null) {
-      qapTest.setException(t.getMessage().getBytes(StandardCharsets.UTF_8));
+      // The trace itself is only fingerprinted here; it is rendered once at publish time
+      qapTest.setException(ExceptionFormatter.toBytes(ExceptionFormatter.messageOf(t)));
+      qapTest.setFailure(FailureInterner.current().intern(t));
     }
   }
 
@@ -145,23 +220,23 @@ public class QAPJunitTestEventsCreator implements ITestEventCreator {
    */
   @Override
   public QAPJunitLaunch startLaunchQAP(ExtensionContext context) {
+    return startLaunchQAP(context, LaunchIdentity.current().getOrCreate());
+  }
+
+  @Override
+  public QAPJunitLaunch startLaunchQAP(ExtensionContext context, String launchId) {
     var clazz = context.getRequiredTestClass();
-    java.util.Set<String> classTags = new java.util.HashSet<>();
-    for (org.junit.jupiter.api.Tag t :
-        clazz.getAnnotationsByType(org.junit.jupiter.api.Tag.class)) {
-      classTags.add(t.value());
-    }
-    var rootClass = new QAPTestClass(clazz.getSimpleName(), context.getDisplayName(), classTags);
+    var metadata = TestMetadataCache.forClass(clazz);
+    var rootClass =
+        new QAPTestClass(metadata.getSimpleName(), context.getDisplayName(), metadata.getTags());
     var qapLaunch =
         new QAPJunitLaunch(
-            new QAPHeader(
-                Instant.now().toEpochMilli(), System.getProperty(SYSTEM_PROPERTY_LAUNCH_ID)),
+            new QAPHeader(Instant.now().toEpochMilli(), launchId),
             new java.util.ArrayList<>(java.util.List.of(rootClass)));
 
     // Populate class-level metadata
     rootClass.setClassKey(clazz.getName());
-    String nestedPath = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1);
-    rootClass.setFullClassName(nestedPath);
+    rootClass.setFullClassName(metadata.getNestedPath());
     java.util.List<String> chain = new java.util.ArrayList<>();
     // Standard: empty chain for root
     rootClass.setClassChain(chain);
@@ -0,0 +1,234 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the launches of many top-level classes as one launch per launcher session or per JVM
+ * ({@code qap.report.scope}), instead of one per class.
+ *
+ * <p>Each published launch is folded into the open launch of its scope: its class trees are
+ * appended and its failures merged by id under one header, copied from the scope's first launch
+ * with the earliest start and latest end. The open launch goes to the delegate when it reaches
+ * {@code maxClasses} top-level classes, or else when its scope ends: a session's launch when that
+ * launcher session closes, the JVM's launch when the last launcher session that contributed to it
+ * closes. Both happen before JVM shutdown, while the delegate and logging are still running; only
+ * launches published outside any launcher session wait for {@link #close}. Per-class header
+ * sections (overhead, timeline) are not carried over. Streaming hooks pass straight through.
+ */
+public class AggregatingPublisher implements LaunchPublisher, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(AggregatingPublisher.class);
+
+  private static final String JVM_KEY = "";
+
+  /** What one published launch covers. */
+  public enum Scope {
+    CLASS,
+    SESSION,
+    JVM;
+
+    /** Parses {@code class}, {@code session} or {@code jvm}; anything else is {@link #CLASS}. */
+    public static Scope parse(String value) {
+      if (value == null) {
+        return CLASS;
+      }
+      return switch (value.trim().toLowerCase(Locale.ROOT)) {
+        case "session" -> SESSION;
+        case "jvm" -> JVM;
+        default -> CLASS;
+      };
+    }
+  }
+
+  private final LaunchPublisher delegate;
+  private final Scope scope;
+  private final int maxClasses;
+  private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+  // Sessions that published into the JVM scope and have not closed yet
+  private final Set<LaunchIdentity> openSessions = ConcurrentHashMap.newKeySet();
+  private volatile ObjectMapper mapper;
+  private volatile Logger publishLog = log;
+
+  /**
+   * @param delegate publisher that receives the aggregated launches
+   * @param scope {@link Scope#SESSION} or {@link Scope#JVM}
+   * @param maxClasses top-level classes per published launch; 0 publishes only at scope end
+   */
+  public AggregatingPublisher(LaunchPublisher delegate, Scope scope, int maxClasses) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate");
+    this.scope = Objects.requireNonNull(scope, "scope");
+    this.maxClasses = Math.max(0, maxClasses);
+  }
+
+  @Override
+  public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    this.mapper = mapper;
+    this.publishLog = log;
+    String key = scope == Scope.JVM ? JVM_KEY : String.valueOf(launch.getHeader().getLaunchId());
+    if (scope == Scope.JVM) {
+      watchSession(LaunchIdentity.current());
+    }
+    boolean[] opened = {false};
+    Batch batch =
+        batches.computeIfAbsent(
+            key,
+            k -> {
+              opened[0] = true;
+              return new Batch();
+            });
+    QAPJunitLaunch full = batch.add(launch, maxClasses);
+    if (full != null) {
+      delegate.publish(full, mapper, log);
+    }
+    if (opened[0] && scope == Scope.SESSION) {
+      LaunchIdentity.current().whenClosed(() -> flush(key));
+    }
+  }
+
+  @Override
+  public void publishBatch(List<QAPJunitLaunch> launches, ObjectMapper mapper, Logger log) {
+    for (QAPJunitLaunch launch : launches) {
+      publish(launch, mapper, log);
+    }
+  }
+
+  @Override
+  public void onLaunchStarted(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    delegate.onLaunchStarted(launch, mapper, log);
+  }
+
+  @Override
+  public void onClassRegistered(
+      String launchId, QAPTestClass testClass, ObjectMapper mapper, Logger log) {
+    delegate.onClassRegistered(launchId, testClass, mapper, log);
+  }
+
+  @Override
+  public void onTestFinished(
+      String launchId, String classKey, QAPTest test, ObjectMapper mapper, Logger log) {
+    delegate.onTestFinished(launchId, classKey, test, mapper, log);
+  }
+
+  @Override
+  public boolean retainsTestCases() {
+    return delegate.retainsTestCases();
+  }
+
+  /** Publishes the open launch of every scope, then closes the delegate. */
+  @Override
+  public void close() {
+    for (String key : batches.keySet()) {
+      flush(key);
+    }
+    if (delegate instanceof AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        log.warn("Unable to close QAP publisher {}: {}", delegate, e.toString());
+      }
+    }
+  }
+
+  /** Publishes the JVM's launch once every session that contributed to it has closed. */
+  private void watchSession(LaunchIdentity session) {
+    if (session.isJvmWide() || !openSessions.add(session)) {
+      return;
+    }
+    session.whenClosed(
+        () -> {
+          openSessions.remove(session);
+          if (openSessions.isEmpty()) {
+            flush(JVM_KEY);
+          }
+        });
+  }
+
+  private void flush(String key) {
+    Batch batch = batches.remove(key);
+    QAPJunitLaunch launch = batch != null ? batch.take() : null;
+    if (launch == null || mapper == null) {
+      return;
+    }
+    try {
+      delegate.publish(launch, mapper, publishLog);
+    } catch (RuntimeException e) {
+      log.warn(
+          "Unable to publish aggregated launch (launchId='{}'): {}",
+          launch.getHeader().getLaunchId(),
+          e.toString());
+    }
+  }
+
+  /** The open launch of one scope. */
+  private static final class Batch {
+
+    private QAPHeader first;
+    private long start = Long.MAX_VALUE;
+    private long end;
+    private final ArrayList<QAPTestClass> classes = new ArrayList<>();
+    private final Map<String, QAPFailure> failures = new LinkedHashMap<>();
+
+    /** Folds the launch in; returns the full launch once it holds {@code maxClasses} classes. */
+    synchronized QAPJunitLaunch add(QAPJunitLaunch launch, int maxClasses) {
+      QAPHeader header = launch.getHeader();
+      if (first == null) {
+        first = header;
+      }
+      start = Math.min(start, header.getLaunchStartTime());
+      end = Math.max(end, header.getLaunchEndTime());
+      classes.addAll(launch.getTestClasses());
+      launch.getFailures().forEach(failures::putIfAbsent);
+      return maxClasses > 0 && classes.size() >= maxClasses ? take() : null;
+    }
+
+    /** Returns the open launch and starts a new one; null when nothing is open. */
+    synchronized QAPJunitLaunch take() {
+      if (first == null) {
+        return null;
+      }
+      QAPJunitLaunch launch = new QAPJunitLaunch(header(), new ArrayList<>(classes));
+      launch.getFailures().putAll(failures);
+      first = null;
+      start = Long.MAX_VALUE;
+      end = 0L;
+      classes.clear();
+      failures.clear();
+      return launch;
+    }
+
+    private QAPHeader header() {
+      QAPHeader header = new QAPHeader(start, first.getLaunchId());
+      header.setLaunchEndTime(end);
+      header.setApplicationName(first.getApplicationName());
+      header.setTestEnvironment(first.getTestEnvironment());
+      header.setUser(first.getUser());
+      header.setGitBranch(first.getGitBranch());
+      header.setGitCommit(first.getGitCommit());
+      header.setRegression(first.isRegression());
+      header.setOsVersion(first.getOsVersion());
+      header.setTestRunnerVersion(first.getTestRunnerVersion());
+      header.setJdkVersion(first.getJdkVersion());
+      header.setHostName(first.getHostName());
+      header.setCpuCount(first.getCpuCount());
+      header.setJvmFlags(first.getJvmFlags());
+      header.setContentType(first.getContentType());
+      return header;
+    }
+  }
+}
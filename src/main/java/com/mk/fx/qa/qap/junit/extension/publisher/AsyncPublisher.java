@@ -1,45 +1,380 @@
 package com.mk.fx.qa.qap.junit.extension.publisher;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.JsonUtil;
 import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorator that publishes launches on a background thread through a bounded queue.
+ *
+ * <p>When the queue is full the configured {@link OverflowPolicy} applies: block the caller, drop
+ * the oldest queued launch, or spill the new launch to a file on disk. The worker drains up to
+ * {@code maxBatchSize} queued launches at a time and hands them to the delegate in one {@link
+ * LaunchPublisher#publishBatch} call; whenever the queue runs empty, and before it stops, it reads
+ * spilled launches back and publishes them, deleting each file once published. A shutdown hook
+ * drains the queue within a deadline so in-flight launches are not lost when the JVM exits. Spill
+ * files still on disk after close (deadline passed, unreadable or failed to publish) are logged for
+ * manual recovery. Counters for published, dropped, spilled, replayed and shutdown-flushed payloads
+ * are available from {@link #getStats()} and logged on close.
+ *
+ * <p>A launch published while {@link #close()} runs is either drained by the worker, counted as
+ * dropped by close, or published inline on the caller's thread; none goes uncounted.
+ *
+ * <p>Lifecycle hooks are forwarded synchronously; only the final publish is asynchronous.
+ */
+public class AsyncPublisher implements LaunchPublisher, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncPublisher.class);
+
+  public static final int DEFAULT_CAPACITY = 64;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 16;
+  public static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+  /** What to do with a new launch when the queue is full. */
+  public enum OverflowPolicy {
+    /** Block the publishing (test) thread until space is available. */
+    BLOCK,
+    /** Discard the oldest queued launch to make room for the new one. */
+    DROP_OLDEST,
+    /** Write the new launch to a file in the spill directory instead of queueing it. */
+    SPILL
+  }
+
+  /** Snapshot of the publisher counters. */
+  public record Stats(
+      long submitted,
+      long published,
+      long batches,
+      long dropped,
+      long spilled,
+      long replayed,
+      long failed,
+      long flushedOnShutdown) {}
+
+  private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
 
-/** Decorator that delegates publishing to a background single-threaded executor. */
-public class AsyncPublisher implements LaunchPublisher {
   private final LaunchPublisher delegate;
-  private final ExecutorService executor;
+  private final BlockingQueue<Pending> queue;
+  private final Queue<Spill> spills = new ConcurrentLinkedQueue<>();
+  private final OverflowPolicy overflowPolicy;
+  private final int maxBatchSize;
+  private final Duration shutdownTimeout;
+  private final Path spillDir;
+  private final Thread worker;
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong spilled = new AtomicLong();
+  private final AtomicLong replayed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong flushedOnShutdown = new AtomicLong();
+  private final AtomicLong spillSequence = new AtomicLong();
+
+  private volatile boolean closed;
+  private volatile boolean shuttingDown;
 
   public AsyncPublisher(LaunchPublisher delegate) {
-    this(delegate, Executors.newSingleThreadExecutor(new NamedThreadFactory("qap-publisher")));
+    this(
+        delegate,
+        DEFAULT_CAPACITY,
+        OverflowPolicy.BLOCK,
+        DEFAULT_MAX_BATCH_SIZE,
+        DEFAULT_SHUTDOWN_TIMEOUT,
+        null);
   }
 
-  public AsyncPublisher(LaunchPublisher delegate, ExecutorService executor) {
-    this.delegate = Objects.requireNonNull(delegate);
-    this.executor = Objects.requireNonNull(executor);
+  /**
+   * @param delegate publisher invoked on the background thread
+   * @param capacity maximum number of queued launches
+   * @param overflowPolicy behaviour when the queue is full
+   * @param maxBatchSize maximum number of launches handed to the delegate in one call
+   * @param shutdownTimeout how long the shutdown hook waits for the queue to drain
+   * @param spillDir directory for spilled launches; defaults to {@code java.io.tmpdir/qap-spill}
+   */
+  public AsyncPublisher(
+      LaunchPublisher delegate,
+      int capacity,
+      OverflowPolicy overflowPolicy,
+      int maxBatchSize,
+      Duration shutdownTimeout,
+      Path spillDir) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate");
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.shutdownTimeout = Objects.requireNonNull(shutdownTimeout, "shutdownTimeout");
+    this.spillDir =
+        spillDir != null ? spillDir : Path.of(System.getProperty("java.io.tmpdir"), "qap-spill");
+    this.worker = new Thread(this::drainLoop, "qap-publisher-" + THREAD_INDEX.incrementAndGet());
+    this.worker.setDaemon(true);
+    this.worker.start();
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(this::shutdown, worker.getName() + "-shutdown"));
   }
 
   @Override
   public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
-    executor.submit(() -> delegate.publish(launch, mapper, log));
+    submitted.incrementAndGet();
+    Pending pending = new Pending(launch, mapper, log);
+    if (closed) {
+      // Late launches after close are published inline rather than lost
+      publishNow(List.of(pending));
+      return;
+    }
+    switch (overflowPolicy) {
+      case BLOCK -> enqueueBlocking(pending);
+      case DROP_OLDEST -> enqueueDroppingOldest(pending);
+      case SPILL -> {
+        if (!queue.offer(pending)) {
+          spill(pending);
+        }
+      }
+    }
+    if (closed && queue.remove(pending)) {
+      // close() ran concurrently and the worker may have stopped; whoever removes it publishes it
+      publishNow(List.of(pending));
+    }
+  }
+
+  @Override
+  public void onLaunchStarted(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    delegate.onLaunchStarted(launch, mapper, log);
   }
 
-  static class NamedThreadFactory implements ThreadFactory {
-    private final String baseName;
-    private int idx = 0;
+  @Override
+  public void onClassRegistered(
+      String launchId, QAPTestClass testClass, ObjectMapper mapper, Logger log) {
+    delegate.onClassRegistered(launchId, testClass, mapper, log);
+  }
+
+  @Override
+  public void onTestFinished(
+      String launchId, String classKey, QAPTest test, ObjectMapper mapper, Logger log) {
+    delegate.onTestFinished(launchId, classKey, test, mapper, log);
+  }
 
-    NamedThreadFactory(String baseName) {
-      this.baseName = baseName;
+  @Override
+  public boolean retainsTestCases() {
+    return delegate.retainsTestCases();
+  }
+
+  public Stats getStats() {
+    return new Stats(
+        submitted.get(),
+        published.get(),
+        batches.get(),
+        dropped.get(),
+        spilled.get(),
+        replayed.get(),
+        failed.get(),
+        flushedOnShutdown.get());
+  }
+
+  /**
+   * Stops accepting queued work and waits up to the shutdown timeout for the queue to drain.
+   * Anything still queued after the deadline is counted as dropped.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
     }
+    closed = true;
+    try {
+      worker.join(shutdownTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    List<Pending> leftovers = new ArrayList<>();
+    queue.drainTo(leftovers);
+    if (!leftovers.isEmpty()) {
+      dropped.addAndGet(leftovers.size());
+      log.warn(
+          "QAP async publisher did not drain within {} ms; dropped {} queued launch(es).",
+          shutdownTimeout.toMillis(),
+          leftovers.size());
+    }
+    int unreplayed = spills.size();
+    if (unreplayed > 0) {
+      log.warn(
+          "QAP async publisher left {} spilled launch(es) in {} for manual recovery.",
+          unreplayed,
+          spillDir);
+    }
+    Stats stats = getStats();
+    log.info(
+        "QAP async publisher closed: submitted={} published={} batches={} dropped={} spilled={}"
+            + " replayed={} failed={} flushedOnShutdown={}",
+        stats.submitted(),
+        stats.published(),
+        stats.batches(),
+        stats.dropped(),
+        stats.spilled(),
+        stats.replayed(),
+        stats.failed(),
+        stats.flushedOnShutdown());
+  }
 
-    @Override
-    public synchronized Thread newThread(Runnable r) {
-      Thread t = new Thread(r, baseName + "-" + (++idx));
-      t.setDaemon(true);
-      return t;
+  private void shutdown() {
+    shuttingDown = true;
+    close();
+  }
+
+  private void enqueueBlocking(Pending pending) {
+    try {
+      queue.put(pending);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      dropped.incrementAndGet();
+      log.warn("Interrupted while queueing QAP launch; launch dropped.");
     }
   }
+
+  private void enqueueDroppingOldest(Pending pending) {
+    while (!queue.offer(pending)) {
+      Pending oldest = queue.poll();
+      if (oldest != null) {
+        dropped.incrementAndGet();
+        log.warn(
+            "QAP publish queue full; dropped oldest launch '{}'.",
+            oldest.launch().getHeader().getLaunchId());
+      }
+    }
+  }
+
+  private void spill(Pending pending) {
+    String launchId = String.valueOf(pending.launch().getHeader().getLaunchId());
+    Path file =
+        spillDir.resolve(
+            "qap-spill-"
+                + launchId.replaceAll("[^A-Za-z0-9._-]", "_")
+                + "-"
+                + spillSequence.incrementAndGet()
+                + "."
+                + PayloadFormat.of(pending.mapper()).fileExtension());
+    try {
+      Files.createDirectories(spillDir);
+      try (OutputStream out = Files.newOutputStream(file)) {
+        LaunchSerializer.write(pending.launch(), pending.mapper(), out, false);
+      }
+      spilled.incrementAndGet();
+      spills.add(new Spill(file, pending.mapper(), pending.log()));
+      log.warn("QAP publish queue full; spilled launch '{}' to {}", launchId, file);
+    } catch (IOException e) {
+      dropped.incrementAndGet();
+      log.error("Failed to spill QAP launch '{}': {}", launchId, e.getMessage(), e);
+    }
+  }
+
+  private void drainLoop() {
+    List<Pending> batch = new ArrayList<>(maxBatchSize);
+    while (!closed || !queue.isEmpty() || !spills.isEmpty()) {
+      try {
+        // Spilled launches are replayed whenever the queue runs empty
+        Pending first = queue.poll(spills.isEmpty() ? 100 : 0, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          replaySpill();
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        publishNow(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /** Publishes the oldest spilled launch and deletes its file; on failure the file is kept. */
+  private void replaySpill() {
+    Spill spill = spills.poll();
+    if (spill == null) {
+      return;
+    }
+    QAPJunitLaunch launch;
+    try {
+      launch = JsonUtil.readLaunch(Files.readAllBytes(spill.file()));
+    } catch (IOException | RuntimeException e) {
+      failed.incrementAndGet();
+      log.error(
+          "Failed to read spilled QAP launch {}; left for manual recovery: {}",
+          spill.file(),
+          e.getMessage());
+      return;
+    }
+    if (publishNow(List.of(new Pending(launch, spill.mapper(), spill.log()))) == 1) {
+      replayed.incrementAndGet();
+      try {
+        Files.deleteIfExists(spill.file());
+      } catch (IOException e) {
+        log.warn("Published spilled QAP launch but could not delete {}", spill.file());
+      }
+    }
+  }
+
+  /**
+   * Hands consecutive launches sharing the same mapper and logger to the delegate as one batch.
+   *
+   * @return the number of launches published
+   */
+  private int publishNow(List<Pending> items) {
+    int count = 0;
+    int start = 0;
+    while (start < items.size()) {
+      Pending head = items.get(start);
+      int end = start + 1;
+      while (end < items.size()
+          && items.get(end).mapper() == head.mapper()
+          && items.get(end).log() == head.log()) {
+        end++;
+      }
+      List<QAPJunitLaunch> launches = new ArrayList<>(end - start);
+      for (int i = start; i < end; i++) {
+        launches.add(items.get(i).launch());
+      }
+      try {
+        delegate.publishBatch(launches, head.mapper(), head.log());
+        published.addAndGet(launches.size());
+        count += launches.size();
+        batches.incrementAndGet();
+        if (shuttingDown) {
+          flushedOnShutdown.addAndGet(launches.size());
+        }
+      } catch (RuntimeException e) {
+        failed.addAndGet(launches.size());
+        log.error(
+            "QAP async publish failed for {} launch(es): {}", launches.size(), e.getMessage(), e);
+      }
+      start = end;
+    }
+    return count;
+  }
+
+  private record Pending(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {}
+
+  private record Spill(Path file, ObjectMapper mapper, Logger log) {}
 }
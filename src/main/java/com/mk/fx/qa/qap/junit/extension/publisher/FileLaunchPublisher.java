@@ -0,0 +1,262 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.util.ChannelOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+
+/**
+ * Publisher that streams each launch into its own file, {@code
+ * qap-<launchId>-<RootClass>-<pid>-<n>.json} (or {@code .json.gz}), in a report directory. Binary
+ * payload formats use their own extension (e.g. {@code .sml}, {@code .cbor}). The root class is
+ * its class key when known, otherwise its nested class path; the process id and a per-JVM
+ * sequence keep names unique when forks sharing a launch id report equally named classes.
+ *
+ * <p>The launch is serialized straight into a {@link FileChannel} through a large direct buffer,
+ * optionally gzip-compressed on the fly, and forced to disk. It is written to a hidden temporary
+ * file and atomically renamed on completion, so readers never see a partial report; an existing
+ * report is never replaced. After each publish, older reports are rotated out once the directory
+ * exceeds the configured file count or total size.
+ */
+public class FileLaunchPublisher implements LaunchPublisher {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  static final String PREFIX = "qap-";
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_POOLED_BUFFERS = 4;
+
+  /** Direct buffers are expensive to allocate, so they are reused across publishes. */
+  private static final Queue<ByteBuffer> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+  private static final Object ROTATION_LOCK = new Object();
+
+  private static final long PID = ProcessHandle.current().pid();
+  private static final AtomicLong SEQUENCE = new AtomicLong();
+
+  private final Path directory;
+  private final boolean gzip;
+  private final boolean prettyPrint;
+  private final int maxFiles;
+  private final long maxTotalBytes;
+  private final int bufferSize;
+
+  public FileLaunchPublisher(Path directory) {
+    this(directory, false, false, 0, 0L, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param directory report directory, created on first publish
+   * @param gzip whether to gzip reports ({@code .json.gz})
+   * @param prettyPrint whether to indent the JSON output
+   * @param maxFiles reports to keep in the directory; {@code 0} keeps all
+   * @param maxTotalBytes total size of reports to keep; {@code 0} means unlimited
+   * @param bufferSize size of the direct buffer in front of the file channel
+   */
+  public FileLaunchPublisher(
+      Path directory,
+      boolean gzip,
+      boolean prettyPrint,
+      int maxFiles,
+      long maxTotalBytes,
+      int bufferSize) {
+    this.directory = Objects.requireNonNull(directory, "directory");
+    this.gzip = gzip;
+    this.prettyPrint = prettyPrint;
+    this.maxFiles = Math.max(0, maxFiles);
+    this.maxTotalBytes = Math.max(0L, maxTotalBytes);
+    this.bufferSize = Math.max(8 * 1024, bufferSize);
+  }
+
+  @Override
+  public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    Path target = directory.resolve(fileName(launch, PayloadFormat.of(mapper)));
+    Path tmp = directory.resolve("." + target.getFileName() + TMP_SUFFIX);
+    try {
+      Files.createDirectories(directory);
+      long bytes = writeTo(tmp, launch, mapper);
+      moveIntoPlace(tmp, target);
+      log.info(
+          "Publishing QAP launch: class='{}' tests={} bytes={} file='{}' launchId='{}'",
+          LaunchSerializer.rootClassName(launch),
+          LaunchSerializer.countTests(launch),
+          bytes,
+          target,
+          launch.getHeader().getLaunchId());
+    } catch (IOException e) {
+      log.error("Failed to write QAP launch to {}: {}", target, e.getMessage(), e);
+      deleteQuietly(tmp);
+      return;
+    }
+    rotate(target, log);
+  }
+
+  /**
+   * File name for the launch: launch id, root class and a unique suffix, restricted to safe
+   * characters.
+   */
+  String fileName(QAPJunitLaunch launch, PayloadFormat format) {
+    String launchId = launch.getHeader() != null ? launch.getHeader().getLaunchId() : null;
+    String name =
+        PREFIX
+            + sanitize(launchId != null ? launchId : "launch")
+            + "-"
+            + sanitize(rootClass(launch))
+            + "-"
+            + PID
+            + "-"
+            + SEQUENCE.incrementAndGet();
+    return name + "." + format.fileExtension() + (gzip ? ".gz" : "");
+  }
+
+  private static String rootClass(QAPJunitLaunch launch) {
+    if (launch.getTestClasses() == null || launch.getTestClasses().isEmpty()) {
+      return "";
+    }
+    QAPTestClass root = launch.getTestClasses().get(0);
+    if (root.getClassKey() != null) {
+      return root.getClassKey();
+    }
+    return root.getFullClassName() != null ? root.getFullClassName() : root.getClassName();
+  }
+
+  /** Returns the number of JSON bytes written (before compression). */
+  private long writeTo(Path file, QAPJunitLaunch launch, ObjectMapper mapper) throws IOException {
+    ByteBuffer buffer = acquireBuffer();
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      ChannelOutputStream channelOut = new ChannelOutputStream(channel, buffer);
+      long bytes;
+      if (gzip) {
+        try (OutputStream out = new GZIPOutputStream(channelOut, GZIP_BUFFER_SIZE)) {
+          bytes = LaunchSerializer.writeUnbuffered(launch, mapper, out, prettyPrint);
+        }
+      } else {
+        bytes = LaunchSerializer.writeUnbuffered(launch, mapper, channelOut, prettyPrint);
+        channelOut.close();
+      }
+      // Closing the stream only drains the buffer; the content must be durable before the rename
+      // publishes it, or a crash can leave a complete-looking but empty report
+      channel.force(true);
+      return bytes;
+    } finally {
+      releaseBuffer(buffer);
+    }
+  }
+
+  /** Renames without ever replacing an existing report. */
+  private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+    // An atomic rename may silently replace the target on some platforms
+    if (Files.exists(target)) {
+      throw new FileAlreadyExistsException(target.toString());
+    }
+    try {
+      Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, target);
+    }
+  }
+
+  /** Deletes the oldest reports until both the file-count and total-size limits hold. */
+  private void rotate(Path justWritten, Logger log) {
+    if (maxFiles == 0 && maxTotalBytes == 0L) {
+      return;
+    }
+    synchronized (ROTATION_LOCK) {
+      List<Report> reports = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*")) {
+        for (Path file : stream) {
+          String name = file.getFileName().toString();
+          if (Files.isRegularFile(file) && isReport(name)) {
+            reports.add(new Report(file, Files.getLastModifiedTime(file), Files.size(file)));
+          }
+        }
+      } catch (IOException e) {
+        log.warn("Unable to list QAP reports in {} for rotation: {}", directory, e.getMessage());
+        return;
+      }
+      // Newest first; the report just written is always kept
+      reports.sort(Comparator.comparing(Report::modified).reversed());
+      long totalBytes = 0;
+      int kept = 0;
+      for (Report report : reports) {
+        boolean current = report.file().equals(justWritten);
+        boolean overCount = maxFiles > 0 && kept >= maxFiles;
+        boolean overSize = maxTotalBytes > 0 && totalBytes + report.size() > maxTotalBytes;
+        if (!current && (overCount || overSize)) {
+          deleteQuietly(report.file());
+          log.info("Rotated out old QAP report {}", report.file());
+          continue;
+        }
+        kept++;
+        totalBytes += report.size();
+      }
+    }
+  }
+
+  private ByteBuffer acquireBuffer() {
+    ByteBuffer pooled = BUFFER_POOL.poll();
+    if (pooled != null && pooled.capacity() >= bufferSize) {
+      return pooled;
+    }
+    return ByteBuffer.allocateDirect(bufferSize);
+  }
+
+  private static void releaseBuffer(ByteBuffer buffer) {
+    if (BUFFER_POOL.size() < MAX_POOLED_BUFFERS) {
+      buffer.clear();
+      BUFFER_POOL.offer(buffer);
+    }
+  }
+
+  private static boolean isReport(String name) {
+    String base = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    for (PayloadFormat format : PayloadFormat.values()) {
+      if (base.endsWith("." + format.fileExtension())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String sanitize(String value) {
+    String safe = value.replaceAll("[^A-Za-z0-9._-]", "_");
+    return safe.isEmpty() ? "_" : safe;
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+      // Best effort; temp names are unique, so a stale one is never reused
+    }
+  }
+
+  private record Report(Path file, FileTime modified, long size) {}
+}
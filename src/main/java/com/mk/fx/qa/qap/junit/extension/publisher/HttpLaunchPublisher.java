@@ -0,0 +1,410 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publisher that POSTs each launch to an ingestion endpoint over one shared {@link HttpClient}.
+ *
+ * <p>The client prefers HTTP/2, so all launches of a JVM are multiplexed over a single persistent
+ * connection (falling back to pooled HTTP/1.1 keep-alive connections if the server does not speak
+ * HTTP/2). The body is streamed: a worker serializes the launch through an optional gzip stream
+ * into a pipe that the client reads from, so the payload is never held in memory as a whole.
+ *
+ * <p>{@link #publish} never waits on the network. At most {@code maxInFlight} requests run at once;
+ * further launches wait in a bounded queue and are rejected (and counted) once it is full.
+ * Transport errors, {@code 429} and {@code 5xx} responses are retried up to {@code maxRetries}
+ * times with full-jitter exponential backoff; every attempt is bounded by the request timeout. A
+ * launch that fails to serialize fails its attempt instead of being sent truncated, and is not
+ * retried. A shutdown hook waits for outstanding requests when the JVM exits, for as long as one
+ * launch's full retry budget takes (see {@link #drainTimeout()}).
+ */
+public class HttpLaunchPublisher implements LaunchPublisher, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(HttpLaunchPublisher.class);
+
+  public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+  public static final int DEFAULT_MAX_RETRIES = 3;
+  public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+  public static final Duration DEFAULT_BACKOFF = Duration.ofMillis(200);
+
+  private static final int QUEUED_PER_IN_FLIGHT = 16;
+  private static final int PIPE_SIZE = 64 * 1024;
+  private static final int GZIP_BUFFER_SIZE = 16 * 1024;
+  private static final long MAX_BACKOFF_MILLIS = 30_000L;
+  private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+  /** Snapshot of the publisher counters. */
+  public record Stats(long submitted, long sent, long retries, long failed, long rejected) {}
+
+  private final URI endpoint;
+  private final String apiKey;
+  private final boolean gzip;
+  private final boolean prettyPrint;
+  private final int maxInFlight;
+  private final int maxQueued;
+  private final Duration requestTimeout;
+  private final int maxRetries;
+  private final Duration backoff;
+  private final ExecutorService executor;
+  private final HttpClient client;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Queue<Pending> waiting = new ConcurrentLinkedQueue<>();
+
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+
+  private volatile boolean closed;
+
+  public HttpLaunchPublisher(URI endpoint, String apiKey) {
+    this(
+        endpoint,
+        apiKey,
+        true,
+        false,
+        DEFAULT_MAX_IN_FLIGHT,
+        DEFAULT_REQUEST_TIMEOUT,
+        DEFAULT_MAX_RETRIES,
+        DEFAULT_BACKOFF);
+  }
+
+  /**
+   * @param endpoint ingestion URL launches are POSTed to
+   * @param apiKey sent as a bearer token when not blank
+   * @param gzip whether to gzip the request body ({@code Content-Encoding: gzip})
+   * @param prettyPrint whether to indent the JSON payload
+   * @param maxInFlight maximum number of concurrent requests
+   * @param requestTimeout connect timeout and per-attempt response timeout
+   * @param maxRetries retries after the first attempt for retryable failures
+   * @param backoff base delay of the exponential backoff between attempts
+   */
+  public HttpLaunchPublisher(
+      URI endpoint,
+      String apiKey,
+      boolean gzip,
+      boolean prettyPrint,
+      int maxInFlight,
+      Duration requestTimeout,
+      int maxRetries,
+      Duration backoff) {
+    this.endpoint = Objects.requireNonNull(endpoint, "endpoint");
+    this.apiKey = apiKey;
+    this.gzip = gzip;
+    this.prettyPrint = prettyPrint;
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.maxQueued = this.maxInFlight * QUEUED_PER_IN_FLIGHT;
+    this.requestTimeout = Objects.requireNonNull(requestTimeout, "requestTimeout");
+    this.maxRetries = Math.max(0, maxRetries);
+    this.backoff = Objects.requireNonNull(backoff, "backoff");
+    this.executor =
+        Executors.newCachedThreadPool(
+            r -> {
+              Thread t = new Thread(r, "qap-http-" + THREAD_INDEX.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            });
+    this.client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(requestTimeout)
+            .executor(executor)
+            .build();
+    Runtime.getRuntime().addShutdownHook(new Thread(this::close, "qap-http-shutdown"));
+  }
+
+  @Override
+  public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    submitted.incrementAndGet();
+    Pending pending = new Pending(launch, mapper, log);
+    if (tryStart()) {
+      send(pending, 0);
+      return;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      rejected.incrementAndGet();
+      log.warn(
+          "QAP HTTP publisher saturated ({} in flight, {} queued); launch '{}' dropped.",
+          maxInFlight,
+          maxQueued,
+          launchId(launch));
+      return;
+    }
+    waiting.offer(pending);
+    startWaiting();
+  }
+
+  public Stats getStats() {
+    return new Stats(submitted.get(), sent.get(), retries.get(), failed.get(), rejected.get());
+  }
+
+  /**
+   * Time one launch may take through all its attempts: {@code (maxRetries + 1) x (request timeout +
+   * largest backoff)}, the backoff capped at 30 s.
+   */
+  Duration drainTimeout() {
+    long largestBackoff =
+        Math.min(MAX_BACKOFF_MILLIS, backoff.toMillis() << Math.min(maxRetries, 20));
+    return requestTimeout.plusMillis(largestBackoff).multipliedBy(maxRetries + 1L);
+  }
+
+  /**
+   * Waits up to {@link #drainTimeout()} for queued and in-flight requests, then logs the counters.
+   * Requests still outstanding after the deadline are abandoned.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    long deadline = System.nanoTime() + drainTimeout().toNanos();
+    while ((inFlight.get() > 0 || queued.get() > 0) && System.nanoTime() < deadline) {
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    if (inFlight.get() > 0 || queued.get() > 0) {
+      log.warn(
+          "QAP HTTP publisher closed with {} request(s) in flight and {} queued.",
+          inFlight.get(),
+          queued.get());
+    }
+    Stats stats = getStats();
+    log.info(
+        "QAP HTTP publisher closed: submitted={} sent={} retries={} failed={} rejected={}",
+        stats.submitted(),
+        stats.sent(),
+        stats.retries(),
+        stats.failed(),
+        stats.rejected());
+    executor.shutdown();
+  }
+
+  private boolean tryStart() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxInFlight) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  /** Starts queued launches while permits are available; called after every enqueue and finish. */
+  private void startWaiting() {
+    while (!waiting.isEmpty() && tryStart()) {
+      Pending next = waiting.poll();
+      if (next == null) {
+        inFlight.decrementAndGet();
+        return;
+      }
+      queued.decrementAndGet();
+      send(next, 0);
+    }
+  }
+
+  private void send(Pending pending, int attempt) {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(endpoint)
+            .timeout(requestTimeout)
+            .header("Content-Type", PayloadFormat.of(pending.mapper()).contentType())
+            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> body(pending)));
+    if (gzip) {
+      request.header("Content-Encoding", "gzip");
+    }
+    if (apiKey != null && !apiKey.isBlank()) {
+      request.header("Authorization", "Bearer " + apiKey);
+    }
+    client
+        .sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+        .whenComplete((response, error) -> onResponse(pending, attempt, response, error));
+  }
+
+  private void onResponse(
+      Pending pending, int attempt, HttpResponse<Void> response, Throwable error) {
+    int status = response != null ? response.statusCode() : -1;
+    if (error == null && status >= 200 && status < 300) {
+      sent.incrementAndGet();
+      pending
+          .log()
+          .info(
+              "Published QAP launch '{}' to {} (HTTP {}, attempt {}).",
+              launchId(pending.launch()),
+              endpoint,
+              status,
+              attempt + 1);
+      finish();
+      return;
+    }
+    String reason = error != null ? String.valueOf(error.getMessage()) : "HTTP " + status;
+    // Serializing the same launch again would fail the same way
+    boolean retryable =
+        (error != null && !isSerializationFailure(error)) || status == 429 || status >= 500;
+    if (retryable && attempt < maxRetries) {
+      retries.incrementAndGet();
+      long delay = backoffMillis(attempt);
+      pending
+          .log()
+          .warn(
+              "QAP HTTP publish of '{}' failed ({}); retry {}/{} in {} ms.",
+              launchId(pending.launch()),
+              reason,
+              attempt + 1,
+              maxRetries,
+              delay);
+      CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor)
+          .execute(() -> send(pending, attempt + 1));
+      return;
+    }
+    failed.incrementAndGet();
+    pending
+        .log()
+        .error(
+            "QAP HTTP publish of '{}' to {} failed after {} attempt(s): {}",
+            launchId(pending.launch()),
+            endpoint,
+            attempt + 1,
+            reason);
+    finish();
+  }
+
+  private void finish() {
+    inFlight.decrementAndGet();
+    startWaiting();
+  }
+
+  /** Full jitter: a uniform delay in {@code [0, base * 2^attempt]}, capped. */
+  long backoffMillis(int attempt) {
+    long ceiling = Math.min(MAX_BACKOFF_MILLIS, backoff.toMillis() << Math.min(attempt, 20));
+    return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  /**
+   * Opens a fresh body stream for one attempt. A worker serializes the launch into the write end
+   * of a pipe while the client consumes the read end. If serialization fails, the read end throws
+   * instead of reporting the end of the stream, so the client aborts the request rather than send
+   * a truncated body as complete.
+   */
+  private InputStream body(Pending pending) {
+    BodyStream in = new BodyStream();
+    PipedOutputStream pipe;
+    try {
+      pipe = new PipedOutputStream(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    executor.execute(
+        () -> {
+          try {
+            OutputStream out = gzip ? new GZIPOutputStream(pipe, GZIP_BUFFER_SIZE) : pipe;
+            LaunchSerializer.write(pending.launch(), pending.mapper(), out, prettyPrint);
+            out.close();
+          } catch (IOException | RuntimeException e) {
+            // Either the client closed the read end (timeout or cancelled attempt) or the launch
+            // failed to serialize; the gzip trailer is never written, and the reader fails
+            in.fail(e);
+            try {
+              pipe.close();
+            } catch (IOException ignored) {
+              // The read end is already gone
+            }
+            log.debug("QAP HTTP body stream ended early: {}", e.getMessage());
+          }
+        });
+    return in;
+  }
+
+  private static boolean isSerializationFailure(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SerializationFailure) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Read end of the body pipe that reports a failed writer instead of a clean end of stream. */
+  private static final class BodyStream extends PipedInputStream {
+    private volatile SerializationFailure failure;
+
+    BodyStream() {
+      super(PIPE_SIZE);
+    }
+
+    void fail(Exception cause) {
+      failure = new SerializationFailure(cause);
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      checkFailure();
+      int b = super.read();
+      if (b < 0) {
+        checkFailure();
+      }
+      return b;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      checkFailure();
+      int n = super.read(b, off, len);
+      if (n < 0) {
+        checkFailure();
+      }
+      return n;
+    }
+
+    private void checkFailure() throws IOException {
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  private static final class SerializationFailure extends IOException {
+    SerializationFailure(Exception cause) {
+      super("QAP launch body could not be written: " + cause.getMessage(), cause);
+    }
+  }
+
+  private static String launchId(QAPJunitLaunch launch) {
+    return launch.getHeader() != null ? launch.getHeader().getLaunchId() : null;
+  }
+
+  private record Pending(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {}
+}
@@ -2,10 +2,48 @@ package com.mk.fx.qa.qap.junit.extension.publisher;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.util.List;
 import org.slf4j.Logger;
 
-/** Strategy interface for publishing a launch payload (e.g., to logs, stdout, file, or HTTP). */
+/**
+ * Strategy interface for publishing a launch payload (e.g., to logs, stdout, file, or HTTP).
+ *
+ * <p>Besides the final {@link #publish} call, publishers may observe the launch as it progresses
+ * through the lifecycle hooks below. They default to no-ops so batch-style publishers only need to
+ * implement {@code publish}.
+ */
 public interface LaunchPublisher {
 
   void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log);
+
+  /**
+   * Publishes several launches in one call. Sinks with per-call overhead (connections, files) may
+   * override this to amortize it; the default publishes each launch in turn.
+   */
+  default void publishBatch(List<QAPJunitLaunch> launches, ObjectMapper mapper, Logger log) {
+    for (QAPJunitLaunch launch : launches) {
+      publish(launch, mapper, log);
+    }
+  }
+
+  /** Invoked from the top-level beforeAll once the launch has been created. */
+  default void onLaunchStarted(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {}
+
+  /** Invoked the first time a (possibly nested) class node is registered for a launch. */
+  default void onClassRegistered(
+      String launchId, QAPTestClass testClass, ObjectMapper mapper, Logger log) {}
+
+  /** Invoked once a test has its final status (after the TestWatcher callback or when disabled). */
+  default void onTestFinished(
+      String launchId, String classKey, QAPTest test, ObjectMapper mapper, Logger log) {}
+
+  /**
+   * Whether finished tests must be kept in memory until {@link #publish}. Publishers that stream
+   * tests as they finish return {@code false} so the extension can release them immediately.
+   */
+  default boolean retainsTestCases() {
+    return true;
+  }
 }
@@ -0,0 +1,160 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.util.CountingOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Streams a launch through a Jackson {@link JsonGenerator} straight into an output stream, so the
+ * payload is never materialized as a String. The byte count is taken from the stream itself rather
+ * than by re-encoding the payload. The wire format and the launch layout are the mapper's (see
+ * {@link PayloadFormat} and {@link LaunchShape}).
+ */
+public final class LaunchSerializer {
+
+  /** Buffer placed in front of the target so large payloads reach it in few, large writes. */
+  public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+  private LaunchSerializer() {}
+
+  /**
+   * Writes the launch to the target and returns the number of bytes written. The target is flushed
+   * but not closed.
+   */
+  public static long write(
+      QAPJunitLaunch launch, ObjectMapper mapper, OutputStream target, boolean prettyPrint)
+      throws IOException {
+    CountingOutputStream counter = new CountingOutputStream(target);
+    BufferedOutputStream buffered = new BufferedOutputStream(counter, DEFAULT_BUFFER_SIZE);
+    ObjectWriter writer = writerFor(mapper, prettyPrint);
+    JsonGenerator created = writer.createGenerator(buffered, JsonEncoding.UTF8);
+    try (JsonGenerator gen = LaunchShape.of(mapper).wrap(created, launch)) {
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writer.writeValue(gen, launch);
+    }
+    buffered.flush();
+    return counter.getCount();
+  }
+
+  /**
+   * Like {@link #write} but without the intermediate buffer, for targets that already buffer (e.g.
+   * a channel-backed stream with a large direct buffer). The target is flushed but not closed.
+   */
+  public static long writeUnbuffered(
+      QAPJunitLaunch launch, ObjectMapper mapper, OutputStream target, boolean prettyPrint)
+      throws IOException {
+    CountingOutputStream counter = new CountingOutputStream(target);
+    ObjectWriter writer = writerFor(mapper, prettyPrint);
+    JsonGenerator created = writer.createGenerator(counter, JsonEncoding.UTF8);
+    try (JsonGenerator gen = LaunchShape.of(mapper).wrap(created, launch)) {
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writer.writeValue(gen, launch);
+    }
+    counter.flush();
+    return counter.getCount();
+  }
+
+  /** Returns the serialized size of the launch without keeping the payload anywhere. */
+  public static long measure(QAPJunitLaunch launch, ObjectMapper mapper, boolean prettyPrint)
+      throws IOException {
+    return write(launch, mapper, OutputStream.nullOutputStream(), prettyPrint);
+  }
+
+  /**
+   * Like {@link #write} for text sinks (stdout, logs, line-delimited streams): binary formats are
+   * Base64-encoded on the fly. Returns the payload size before encoding. The target is flushed but
+   * not closed.
+   */
+  public static long writeText(
+      QAPJunitLaunch launch, ObjectMapper mapper, OutputStream target, boolean prettyPrint)
+      throws IOException {
+    if (!PayloadFormat.of(mapper).isBinary()) {
+      return write(launch, mapper, target, prettyPrint);
+    }
+    long bytes;
+    try (OutputStream base64 = Base64.getEncoder().wrap(nonClosing(target))) {
+      bytes = write(launch, mapper, base64, false);
+    }
+    target.flush();
+    return bytes;
+  }
+
+  /**
+   * Serializes to a String; only for sinks that genuinely need the text (e.g. DEBUG logs). Binary
+   * formats are returned Base64-encoded.
+   */
+  public static String writeAsString(
+      QAPJunitLaunch launch, ObjectMapper mapper, boolean prettyPrint) throws IOException {
+    if (!PayloadFormat.of(mapper).isBinary()) {
+      ObjectWriter writer = writerFor(mapper, prettyPrint);
+      if (LaunchShape.of(mapper) == LaunchShape.TREE) {
+        return writer.writeValueAsString(launch);
+      }
+      StringWriter text = new StringWriter();
+      try (JsonGenerator gen = LaunchShape.COMPACT.wrap(writer.createGenerator(text), launch)) {
+        writer.writeValue(gen, launch);
+      }
+      return text.toString();
+    }
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    writeText(launch, mapper, buffer, false);
+    return buffer.toString(StandardCharsets.US_ASCII);
+  }
+
+  /** Wraps the target so closing an encoder on top of it only flushes it. */
+  static OutputStream nonClosing(OutputStream target) {
+    return new FilterOutputStream(target) {
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException {
+        flush();
+      }
+    };
+  }
+
+  /** Counts test cases across the launch, including those in nested classes. */
+  public static int countTests(QAPJunitLaunch launch) {
+    return countTests(launch.getTestClasses());
+  }
+
+  /** Class name of the launch root, or an empty string for an empty launch. */
+  public static String rootClassName(QAPJunitLaunch launch) {
+    return launch.getTestClasses().isEmpty() ? "" : launch.getTestClasses().get(0).getClassName();
+  }
+
+  private static int countTests(List<QAPTestClass> classes) {
+    int tests = 0;
+    if (classes == null) {
+      return tests;
+    }
+    for (QAPTestClass cls : classes) {
+      tests += (cls.getTestCases() != null ? cls.getTestCases().size() : 0);
+      tests += countTests(cls.getChildren());
+    }
+    return tests;
+  }
+
+  private static ObjectWriter writerFor(ObjectMapper mapper, boolean prettyPrint) {
+    return prettyPrint && !PayloadFormat.of(mapper).isBinary()
+        ? mapper.writerWithDefaultPrettyPrinter()
+        : mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+  }
+}
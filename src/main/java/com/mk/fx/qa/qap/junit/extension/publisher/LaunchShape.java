@@ -0,0 +1,262 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Layout of a published launch, selected with {@code qap.report.shape}.
+ *
+ * <p>{@link #COMPACT} keeps the document structure but dictionary-encodes the strings that repeat
+ * across records: names, parent chains, tags, statuses, test types and parameter types under
+ * {@code testClasses} are written as indexes into a launch-level {@code strings} table, which
+ * follows the classes so the launch can still be streamed. Test start and end times are written
+ * as milliseconds after {@code header.launchStartTime} ({@code null} when unset). The header and
+ * {@code failures} are unchanged. Like {@link PayloadFormat}, the shape travels with the {@link
+ * ObjectMapper} handed to publishers; it applies to whole-launch payloads, not to NDJSON events.
+ * {@link #expand} restores the tree shape, see {@code JsonUtil.readLaunch}.
+ */
+public enum LaunchShape {
+  /** Every value written in place. */
+  TREE,
+  /** Repeated strings in a launch-level table, record times relative to the launch start. */
+  COMPACT;
+
+  /** Root field holding the string table of a compact launch. */
+  public static final String STRINGS = "strings";
+
+  private static final String TEST_CLASSES = "testClasses";
+  private static final String HEADER = "header";
+  private static final String LAUNCH_START_TIME = "launchStartTime";
+  private static final String ATTRIBUTE = LaunchShape.class.getName();
+
+  // Fields whose string values (or string array elements) go through the table
+  private static final Set<String> STRING_FIELDS =
+      Set.of(
+          "className",
+          "displayName",
+          "fullClassName",
+          "parentClassKey",
+          "parentChain",
+          "thread",
+          "status",
+          "methodName",
+          "testCaseId",
+          "methodDisplayName",
+          "testType",
+          "failureId",
+          "method",
+          "class",
+          "inherited",
+          "type");
+  private static final Set<String> TIME_FIELDS = Set.of("startTime", "endTime");
+
+  /** Parses a configured name, e.g. {@code compact}. */
+  public static LaunchShape parse(String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /** Marks the mapper so {@link LaunchSerializer} writes launches in this shape. */
+  public ObjectMapper apply(ObjectMapper mapper) {
+    return mapper.setDefaultAttributes(
+        ContextAttributes.getEmpty().withSharedAttribute(ATTRIBUTE, this));
+  }
+
+  /** Shape the mapper was marked with; {@link #TREE} when unmarked. */
+  public static LaunchShape of(ObjectMapper mapper) {
+    Object shape = mapper.getSerializationConfig().getAttributes().getAttribute(ATTRIBUTE);
+    return shape instanceof LaunchShape launchShape ? launchShape : TREE;
+  }
+
+  /** Wraps a generator about to write {@code launch} so that it writes this shape. */
+  JsonGenerator wrap(JsonGenerator gen, QAPJunitLaunch launch) {
+    return this == COMPACT
+        ? new CompactGenerator(gen, launch.getHeader().getLaunchStartTime())
+        : gen;
+  }
+
+  /** Whether a launch document carries a string table. */
+  public static boolean isCompact(JsonNode launch) {
+    return launch != null && launch.isObject() && launch.has(STRINGS);
+  }
+
+  /**
+   * Rewrites a compact launch document into the tree shape, in place. Documents without a string
+   * table are left unchanged.
+   *
+   * @throws IllegalArgumentException if a record refers to a string the table does not have
+   */
+  public static void expand(ObjectNode launch) {
+    JsonNode table = launch.remove(STRINGS);
+    if (table == null) {
+      return;
+    }
+    String[] strings = new String[table.size()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = table.get(i).asText();
+    }
+    long base = launch.path(HEADER).path(LAUNCH_START_TIME).asLong();
+    JsonNode classes = launch.get(TEST_CLASSES);
+    if (classes != null) {
+      expandNode(classes, strings, base);
+    }
+  }
+
+  private static void expandNode(JsonNode node, String[] strings, long base) {
+    if (node.isArray()) {
+      for (JsonNode element : node) {
+        expandNode(element, strings, base);
+      }
+      return;
+    }
+    if (!node.isObject()) {
+      return;
+    }
+    ObjectNode object = (ObjectNode) node;
+    Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode value = field.getValue();
+      if (STRING_FIELDS.contains(field.getKey()) && value.isIntegralNumber()) {
+        field.setValue(TextNode.valueOf(lookup(strings, value)));
+      } else if (STRING_FIELDS.contains(field.getKey()) && value.isArray()) {
+        ArrayNode array = (ArrayNode) value;
+        for (int i = 0; i < array.size(); i++) {
+          if (array.get(i).isIntegralNumber()) {
+            array.set(i, TextNode.valueOf(lookup(strings, array.get(i))));
+          }
+        }
+      } else if (TIME_FIELDS.contains(field.getKey()) && value.isNumber()) {
+        field.setValue(LongNode.valueOf(base + value.asLong()));
+      } else if (TIME_FIELDS.contains(field.getKey()) && value.isNull()) {
+        field.setValue(LongNode.valueOf(0L));
+      } else {
+        expandNode(value, strings, base);
+      }
+    }
+  }
+
+  private static String lookup(String[] strings, JsonNode index) {
+    int i = index.asInt();
+    if (i < 0 || i >= strings.length) {
+      throw new IllegalArgumentException(
+          "String index " + i + " outside the launch's table of " + strings.length);
+    }
+    return strings[i];
+  }
+
+  /**
+   * Writes table indexes instead of repeated strings and relative record times, and appends the
+   * table when the launch object ends. Everything outside {@code testClasses} passes through.
+   */
+  private static final class CompactGenerator extends JsonGeneratorDelegate {
+
+    private final long base;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    CompactGenerator(JsonGenerator delegate, long base) {
+      super(delegate);
+      this.base = base;
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+      if (text != null && encodes(getOutputContext())) {
+        delegate.writeNumber(index(text));
+      } else {
+        delegate.writeString(text);
+      }
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+      if (encodes(getOutputContext())) {
+        delegate.writeNumber(index(new String(text, offset, len)));
+      } else {
+        delegate.writeString(text, offset, len);
+      }
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+      if (encodes(getOutputContext())) {
+        delegate.writeNumber(index(text.getValue()));
+      } else {
+        delegate.writeString(text);
+      }
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+      JsonStreamContext context = getOutputContext();
+      if (!context.inObject()
+          || !TIME_FIELDS.contains(context.getCurrentName())
+          || !inRecords(context)) {
+        delegate.writeNumber(value);
+      } else if (value == 0L) {
+        delegate.writeNull();
+      } else {
+        delegate.writeNumber(value - base);
+      }
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+      JsonStreamContext context = getOutputContext();
+      if (context.inObject() && context.getParent() != null && context.getParent().inRoot()) {
+        delegate.writeFieldName(STRINGS);
+        delegate.writeStartArray();
+        for (String text : strings) {
+          delegate.writeString(text);
+        }
+        delegate.writeEndArray();
+      }
+      delegate.writeEndObject();
+    }
+
+    private int index(String text) {
+      Integer index = indexes.get(text);
+      if (index == null) {
+        index = strings.size();
+        indexes.put(text, index);
+        strings.add(text);
+      }
+      return index;
+    }
+
+    private static boolean encodes(JsonStreamContext context) {
+      JsonStreamContext field = context.inArray() ? context.getParent() : context;
+      return field != null
+          && field.inObject()
+          && STRING_FIELDS.contains(field.getCurrentName())
+          && inRecords(field);
+    }
+
+    /** Whether the context lies under the launch's {@code testClasses}. */
+    private static boolean inRecords(JsonStreamContext context) {
+      JsonStreamContext at = context;
+      while (at.getParent() != null && !at.getParent().inRoot()) {
+        at = at.getParent();
+      }
+      return TEST_CLASSES.equals(at.getCurrentName());
+    }
+  }
+}
@@ -1,34 +1,50 @@
 package com.mk.fx.qa.qap.junit.extension.publisher;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import org.slf4j.Logger;
 
-/** Publisher that only logs the serialized payload with basic metrics and context. */
+/**
+ * Publisher that only logs the serialized payload with basic metrics and context. Unless DEBUG is
+ * enabled the payload is streamed into a counting sink purely to report its size.
+ */
 public class LoggingPublisher implements LaunchPublisher {
 
+  private final boolean prettyPrint;
+
+  public LoggingPublisher() {
+    this(false);
+  }
+
+  public LoggingPublisher(boolean prettyPrint) {
+    this.prettyPrint = prettyPrint;
+  }
+
   @Override
   public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
     try {
-      String json = mapper.writeValueAsString(launch);
-      int tests = 0;
-      for (var cls : launch.getTestClasses()) {
-        tests += (cls.getTestCases() != null ? cls.getTestCases().size() : 0);
+      String json = null;
+      long bytes;
+      if (log.isDebugEnabled()) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        bytes = LaunchSerializer.writeText(launch, mapper, buffer, prettyPrint);
+        json = buffer.toString(StandardCharsets.UTF_8);
+      } else {
+        bytes = LaunchSerializer.measure(launch, mapper, prettyPrint);
       }
-      int bytes = json.getBytes(StandardCharsets.UTF_8).length;
-      String launchId = launch.getHeader().getLaunchId();
-      String cls =
-          launch.getTestClasses().isEmpty() ? "" : launch.getTestClasses().get(0).getClassName();
       log.info(
           "Publishing QAP launch: class='{}' tests={} bytes={} launchId='{}'",
-          cls,
-          tests,
+          LaunchSerializer.rootClassName(launch),
+          LaunchSerializer.countTests(launch),
           bytes,
-          launchId);
-      log.debug("QAP Launch payload: {}", json);
-    } catch (JsonProcessingException e) {
+          launch.getHeader().getLaunchId());
+      if (json != null) {
+        log.debug("QAP Launch payload: {}", json);
+      }
+    } catch (IOException e) {
       log.error("Failed to serialize QAP launch payload: {}", e.getMessage(), e);
     }
   }
@@ -0,0 +1,195 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPStreamEvent;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+
+/**
+ * Publisher that emits newline-delimited JSON events while the launch runs instead of one payload
+ * at the end: launch start, one record per class node, one record per finished test, and a final
+ * launch-end record carrying the completed header.
+ *
+ * <p>Tests are released as soon as they are written, so memory stays flat for long suites and
+ * consumers can tail the stream. Each event is a single line and the target is flushed after every
+ * event; writes are serialized so parallel test execution cannot interleave lines. With a binary
+ * payload format each event line is the Base64-encoded payload.
+ */
+public class NdjsonStreamPublisher implements LaunchPublisher {
+
+  private static final int NEW_LINE = '\n';
+
+  /** One publisher per file so every extension instance in the JVM appends through one stream. */
+  private static final Map<Path, NdjsonStreamPublisher> FILE_PUBLISHERS =
+      new ConcurrentHashMap<>();
+
+  private final OutputStream target;
+
+  /**
+   * Failure ids already written, per launch id; each failure is emitted once per launch. Every
+   * top-level class of a session publishes its own end under the session's launch id, so the ids
+   * are only released when the launcher session closes. Outside any session they are kept for the
+   * life of the JVM, one short id per distinct failure.
+   */
+  private final Map<String, Set<String>> emittedFailures = new ConcurrentHashMap<>();
+
+  /** Streams events to the current System.out. */
+  public NdjsonStreamPublisher() {
+    this(null);
+  }
+
+  /**
+   * @param target stream to write events to (e.g. a file); {@code null} writes to System.out. The
+   *     target is flushed after each event but never closed.
+   */
+  public NdjsonStreamPublisher(OutputStream target) {
+    this.target = target;
+  }
+
+  /** Returns the JVM-wide publisher appending to the given file, opening it on first use. */
+  public static NdjsonStreamPublisher forFile(Path file) throws IOException {
+    Path key = file.toAbsolutePath().normalize();
+    try {
+      return FILE_PUBLISHERS.computeIfAbsent(key, NdjsonStreamPublisher::openFile);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static NdjsonStreamPublisher openFile(Path file) {
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      return new NdjsonStreamPublisher(
+          new BufferedOutputStream(
+              Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void onLaunchStarted(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    QAPStreamEvent event = newEvent(QAPStreamEvent.Type.LAUNCH_START, launchIdOf(launch));
+    event.setHeader(launch.getHeader());
+    emit(event, mapper, log);
+  }
+
+  @Override
+  public void onClassRegistered(
+      String launchId, QAPTestClass testClass, ObjectMapper mapper, Logger log) {
+    QAPStreamEvent event = newEvent(QAPStreamEvent.Type.CLASS_NODE, launchId);
+    event.setClassKey(testClass.getClassKey());
+    event.setTestClass(testClass);
+    emit(event, mapper, log);
+  }
+
+  @Override
+  public void onTestFinished(
+      String launchId, String classKey, QAPTest test, ObjectMapper mapper, Logger log) {
+    if (test.getFailure() != null && emitted(launchId).add(test.getFailure().getId())) {
+      QAPStreamEvent failure = newEvent(QAPStreamEvent.Type.FAILURE, launchId);
+      failure.setFailure(test.getFailure());
+      emit(failure, mapper, log);
+    }
+    QAPStreamEvent event = newEvent(QAPStreamEvent.Type.TEST, launchId);
+    event.setClassKey(classKey);
+    event.setTest(test);
+    emit(event, mapper, log);
+  }
+
+  @Override
+  public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    QAPStreamEvent event = newEvent(QAPStreamEvent.Type.LAUNCH_END, launchIdOf(launch));
+    event.setHeader(launch.getHeader());
+    emit(event, mapper, log);
+    log.info(
+        "Published QAP launch end: class='{}' launchId='{}'",
+        LaunchSerializer.rootClassName(launch),
+        launchIdOf(launch));
+  }
+
+  @Override
+  public boolean retainsTestCases() {
+    return false;
+  }
+
+  private void emit(QAPStreamEvent event, ObjectMapper mapper, Logger log) {
+    // Resolve System.out lazily so redirection after construction is honoured
+    OutputStream out = (target != null) ? target : System.out;
+    ObjectWriter writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    boolean binary = PayloadFormat.of(mapper).isBinary();
+    try {
+      synchronized (out) {
+        OutputStream line =
+            binary ? Base64.getEncoder().wrap(LaunchSerializer.nonClosing(out)) : out;
+        try (JsonGenerator gen = writer.createGenerator(line, JsonEncoding.UTF8)) {
+          gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          writer.writeValue(gen, event);
+        }
+        if (binary) {
+          line.close();
+        }
+        out.write(NEW_LINE);
+        out.flush();
+      }
+    } catch (IOException e) {
+      log.error(
+          "Failed to write QAP {} event (launchId='{}'): {}",
+          event.getEvent(),
+          event.getLaunchId(),
+          e.getMessage(),
+          e);
+    }
+  }
+
+  private static QAPStreamEvent newEvent(QAPStreamEvent.Type type, String launchId) {
+    return new QAPStreamEvent(type, launchId, System.currentTimeMillis());
+  }
+
+  /** The failure ids written for a launch, released when the session running it closes. */
+  private Set<String> emitted(String launchId) {
+    String scope = launchId != null ? launchId : "";
+    Set<String> ids = emittedFailures.get(scope);
+    if (ids != null) {
+      return ids;
+    }
+    boolean[] opened = {false};
+    ids =
+        emittedFailures.computeIfAbsent(
+            scope,
+            k -> {
+              opened[0] = true;
+              return ConcurrentHashMap.newKeySet();
+            });
+    LaunchIdentity session = LaunchIdentity.current();
+    if (opened[0] && !session.isJvmWide()) {
+      Set<String> released = ids;
+      session.whenClosed(() -> emittedFailures.remove(scope, released));
+    }
+    return ids;
+  }
+
+  private static String launchIdOf(QAPJunitLaunch launch) {
+    return launch.getHeader() != null ? launch.getHeader().getLaunchId() : null;
+  }
+}
@@ -0,0 +1,119 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.util.Locale;
+
+/**
+ * Wire format of published launches, selected with {@code qap.report.format}.
+ *
+ * <p>Publishers receive the format implicitly through the {@link ObjectMapper} built by {@link
+ * #newMapper()}; {@link #of(ObjectMapper)} recovers it from the mapper's factory. Binary formats
+ * (Smile, CBOR) back-reference repeated field names and values instead of repeating them, which is
+ * where most of a launch's bytes go. Text sinks (stdout, logs, NDJSON lines) carry binary payloads
+ * Base64-encoded.
+ */
+public enum PayloadFormat {
+  /** Plain JSON; honours {@code qap.report.pretty.print}. */
+  JSON("application/json", "json", false),
+  /** JSON without indentation and without null fields. */
+  JSON_COMPACT("application/json", "json", false),
+  /** Jackson Smile, with shared field names and string values. */
+  SMILE("application/x-jackson-smile", "sml", true),
+  /** CBOR (RFC 8949), prefixed with the self-describe tag so readers can detect it. */
+  CBOR("application/cbor", "cbor", true);
+
+  private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+  private static final byte[] CBOR_SELF_DESCRIBE = {(byte) 0xD9, (byte) 0xD9, (byte) 0xF7};
+
+  private final String contentType;
+  private final String fileExtension;
+  private final boolean binary;
+
+  PayloadFormat(String contentType, String fileExtension, boolean binary) {
+    this.contentType = contentType;
+    this.fileExtension = fileExtension;
+    this.binary = binary;
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  /** File extension without the leading dot. */
+  public String fileExtension() {
+    return fileExtension;
+  }
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  /** Whether indentation applies; only plain JSON can be pretty printed. */
+  public boolean prettyPrint(boolean requested) {
+    return requested && this == JSON;
+  }
+
+  /** Creates a mapper writing (and reading) this format. */
+  public ObjectMapper newMapper() {
+    return switch (this) {
+      case JSON -> new ObjectMapper();
+      case JSON_COMPACT ->
+          new ObjectMapper().setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+      case SMILE ->
+          new ObjectMapper(
+              SmileFactory.builder()
+                  .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                  .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                  .build());
+      case CBOR ->
+          new ObjectMapper(
+              CBORFactory.builder().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build());
+    };
+  }
+
+  /** Format written by the given mapper; JSON for any text-based factory. */
+  public static PayloadFormat of(ObjectMapper mapper) {
+    JsonFactory factory = mapper.getFactory();
+    if (factory instanceof SmileFactory) {
+      return SMILE;
+    }
+    if (factory instanceof CBORFactory) {
+      return CBOR;
+    }
+    return JSON;
+  }
+
+  /** Detects the format of a payload from its first bytes; anything unrecognised is JSON. */
+  public static PayloadFormat detect(byte[] payload) {
+    if (startsWith(payload, SMILE_HEADER)) {
+      return SMILE;
+    }
+    if (startsWith(payload, CBOR_SELF_DESCRIBE)) {
+      return CBOR;
+    }
+    return JSON;
+  }
+
+  /** Parses a configured name, e.g. {@code smile} or {@code json-compact}. */
+  public static PayloadFormat parse(String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+  }
+
+  private static boolean startsWith(byte[] payload, byte[] prefix) {
+    if (payload == null || payload.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (payload[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -1,38 +1,72 @@
 package com.mk.fx.qa.qap.junit.extension.publisher;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import org.slf4j.Logger;
 
 /**
- * Default publisher that serializes the launch to JSON, logs it, and echoes to stdout to preserve
- * current behavior.
+ * Default publisher that streams the launch as JSON to stdout (or another target stream) and logs a
+ * summary. The payload is written through a JsonGenerator into a large buffer rather than built as
+ * a String. When DEBUG is enabled it is serialized once into memory instead, and the same bytes are
+ * written to the target and logged. Binary payload formats are written as one Base64 line.
  */
 public class StdOutPublisher implements LaunchPublisher {
 
+  private static final byte[] NEW_LINE = System.lineSeparator().getBytes();
+
+  private final OutputStream target;
+  private final boolean prettyPrint;
+
+  public StdOutPublisher() {
+    this(false);
+  }
+
+  public StdOutPublisher(boolean prettyPrint) {
+    this(null, prettyPrint);
+  }
+
+  /**
+   * @param target stream to write to (e.g. a file); {@code null} writes to the current System.out.
+   *     The target is flushed after each launch but never closed.
+   * @param prettyPrint whether to indent the JSON output
+   */
+  public StdOutPublisher(OutputStream target, boolean prettyPrint) {
+    this.target = target;
+    this.prettyPrint = prettyPrint;
+  }
+
   @Override
   public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+    // Resolve System.out lazily so redirection after construction is honoured
+    OutputStream out = (target != null) ? target : System.out;
     try {
-      String json = mapper.writeValueAsString(launch);
-      int tests = 0;
-      for (var cls : launch.getTestClasses()) {
-        tests += (cls.getTestCases() != null ? cls.getTestCases().size() : 0);
+      long bytes;
+      ByteArrayOutputStream payload = log.isDebugEnabled() ? new ByteArrayOutputStream() : null;
+      synchronized (out) {
+        if (payload != null) {
+          bytes = LaunchSerializer.writeText(launch, mapper, payload, prettyPrint);
+          payload.writeTo(out);
+        } else {
+          bytes = LaunchSerializer.writeText(launch, mapper, out, prettyPrint);
+        }
+        out.write(NEW_LINE);
+        out.flush();
       }
-      int bytes = json.getBytes(StandardCharsets.UTF_8).length;
-      String launchId = launch.getHeader().getLaunchId();
-      String cls =
-          launch.getTestClasses().isEmpty() ? "" : launch.getTestClasses().get(0).getClassName();
       log.info(
           "Publishing QAP launch: class='{}' tests={} bytes={} launchId='{}'",
-          cls,
-          tests,
+          LaunchSerializer.rootClassName(launch),
+          LaunchSerializer.countTests(launch),
           bytes,
-          launchId);
-      log.debug("QAP Launch payload: {}", json);
-      System.out.println(json);
-    } catch (JsonProcessingException e) {
+          launch.getHeader().getLaunchId());
+      if (payload != null) {
+        // Text payloads are UTF-8 JSON, binary ones Base64, so UTF-8 decodes both
+        log.debug("QAP Launch payload: {}", payload.toString(StandardCharsets.UTF_8));
+      }
+    } catch (IOException e) {
       log.error("Failed to serialize QAP launch payload: {}", e.getMessage(), e);
     }
   }
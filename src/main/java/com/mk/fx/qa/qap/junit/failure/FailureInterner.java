@@ -0,0 +1,134 @@
+package com.mk.fx.qa.qap.junit.failure;
+
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps failures with identical traces to one shared {@link QAPFailure}.
+ *
+ * <p>Interning runs on the test thread, so it never renders text: the fingerprint is built from
+ * each throwable's type, message and top frames (as far as the renderer would show them) along the
+ * cause chain. A cascade of thousands of identical failures therefore holds, and later renders, a
+ * single trace.
+ *
+ * <p>Each launcher session has its own interner, dropped with its entries when the session closes
+ * and all its launches have been published. The table is bounded and evicts the least recently
+ * seen failure, so a long session (or code running outside any session, which shares one
+ * interner) keeps interning its current cascade instead of pinning the first distinct failures.
+ */
+public final class FailureInterner {
+
+  public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+  private static final Map<LaunchIdentity, FailureInterner> SESSIONS = new ConcurrentHashMap<>();
+
+  private final StackTraceRenderer renderer;
+  private final Map<Fingerprint, QAPFailure> failures;
+
+  public FailureInterner(StackTraceRenderer renderer, int maxEntries) {
+    this.renderer = Objects.requireNonNull(renderer, "renderer");
+    int max = Math.max(0, maxEntries);
+    this.failures =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Fingerprint, QAPFailure> eldest) {
+            return size() > max;
+          }
+        };
+  }
+
+  /** The interner of the launcher session running on this thread. */
+  public static FailureInterner current() {
+    LaunchIdentity session = LaunchIdentity.current();
+    boolean[] opened = {false};
+    FailureInterner interner =
+        SESSIONS.computeIfAbsent(
+            session,
+            s -> {
+              opened[0] = true;
+              return new FailureInterner(StackTraceRenderer.DEFAULT, DEFAULT_MAX_ENTRIES);
+            });
+    if (opened[0] && !session.isJvmWide()) {
+      session.whenClosed(() -> SESSIONS.remove(session, interner));
+    }
+    return interner;
+  }
+
+  /** Returns the shared failure for this trace, capturing the throwable if it is new. */
+  public QAPFailure intern(Throwable throwable) {
+    Fingerprint key = Fingerprint.of(throwable, renderer.maxFrames(), renderer.maxCauses());
+    synchronized (failures) {
+      return failures.computeIfAbsent(key, k -> new QAPFailure(k.id(), throwable, renderer));
+    }
+  }
+
+  public int size() {
+    synchronized (failures) {
+      return failures.size();
+    }
+  }
+
+  /** Structural identity of a cause chain, compared frame by frame. */
+  static final class Fingerprint {
+
+    private final List<Object> parts;
+    private final long hash;
+
+    private Fingerprint(List<Object> parts, long hash) {
+      this.parts = parts;
+      this.hash = hash;
+    }
+
+    static Fingerprint of(Throwable throwable, int maxFrames, int maxCauses) {
+      List<Object> parts = new ArrayList<>();
+      long hash = 17L;
+      Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+      Throwable t = throwable;
+      for (int depth = 0; t != null && depth <= maxCauses && seen.add(t); depth++) {
+        StackTraceElement[] trace = t.getStackTrace();
+        StackTraceElement[] top =
+            trace.length > maxFrames ? Arrays.copyOf(trace, maxFrames) : trace;
+        parts.add(t.getClass());
+        parts.add(t.getMessage());
+        parts.add(Arrays.asList(top));
+        hash = mix(hash, t.getClass().getName().hashCode());
+        hash = mix(hash, Objects.hashCode(t.getMessage()));
+        for (StackTraceElement frame : top) {
+          hash = mix(hash, frame.hashCode());
+        }
+        t = t.getCause();
+      }
+      return new Fingerprint(parts, hash);
+    }
+
+    private static long mix(long hash, int value) {
+      long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+      return h ^ (h >>> 29);
+    }
+
+    String id() {
+      return Long.toHexString(hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o
+          || (o instanceof Fingerprint other && hash == other.hash && parts.equals(other.parts));
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(hash);
+    }
+  }
+}
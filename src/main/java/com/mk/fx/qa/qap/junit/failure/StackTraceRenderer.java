@@ -0,0 +1,164 @@
+package com.mk.fx.qa.qap.junit.failure;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Renders a {@link Throwable} into a bounded text trace.
+ *
+ * <p>The layout follows {@link Throwable#printStackTrace()} with three bounds: at most {@code
+ * maxFrames} frames per throwable, at most {@code maxCauses} causes, and at most {@code maxBytes}
+ * UTF-8 bytes overall. Frames a cause shares with the throwable it is wrapped by are collapsed into
+ * {@code ... n more}, and consecutive causes with the same type and message (repeated re-wrapping)
+ * are collapsed into one entry. Suppressed exceptions are listed by summary only. Cyclic cause
+ * chains are cut at the first repeat.
+ */
+public final class StackTraceRenderer {
+
+  public static final int DEFAULT_MAX_FRAMES = 50;
+  public static final int DEFAULT_MAX_CAUSES = 8;
+  public static final int DEFAULT_MAX_BYTES = 16 * 1024;
+
+  public static final StackTraceRenderer DEFAULT =
+      new StackTraceRenderer(DEFAULT_MAX_FRAMES, DEFAULT_MAX_CAUSES, DEFAULT_MAX_BYTES);
+
+  static final String TRUNCATED = "\t... [truncated]\n";
+
+  private final int maxFrames;
+  private final int maxCauses;
+  private final int maxBytes;
+
+  /**
+   * @param maxFrames frames rendered per throwable
+   * @param maxCauses causes rendered below the top-level throwable
+   * @param maxBytes upper bound of the rendered trace in UTF-8 bytes
+   */
+  public StackTraceRenderer(int maxFrames, int maxCauses, int maxBytes) {
+    this.maxFrames = Math.max(1, maxFrames);
+    this.maxCauses = Math.max(0, maxCauses);
+    this.maxBytes = Math.max(TRUNCATED.length() * 4, maxBytes);
+  }
+
+  public int maxFrames() {
+    return maxFrames;
+  }
+
+  public int maxCauses() {
+    return maxCauses;
+  }
+
+  public String render(Throwable throwable) {
+    Objects.requireNonNull(throwable, "throwable");
+    StringBuilder out = new StringBuilder(1024);
+    Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    StackTraceElement[] enclosing = null;
+    Throwable previous = null;
+    Throwable current = throwable;
+    int causes = 0;
+    int collapsed = 0;
+    boolean circular = false;
+    while (current != null && out.length() < maxBytes) {
+      if (!seen.add(current)) {
+        circular = true;
+        break;
+      }
+      if (previous != null && sameSummary(previous, current)) {
+        // Re-wrapped with the same type and message: keep the first, count the rest
+        collapsed++;
+        previous = current;
+        current = current.getCause();
+        continue;
+      }
+      appendCollapsed(out, collapsed);
+      collapsed = 0;
+      if (previous != null) {
+        if (causes == maxCauses) {
+          out.append("Caused by: ... ").append(remainingCauses(current, seen)).append(" more\n");
+          break;
+        }
+        causes++;
+        out.append("Caused by: ");
+      }
+      StackTraceElement[] trace = current.getStackTrace();
+      appendThrowable(out, current, trace, enclosing);
+      enclosing = trace;
+      previous = current;
+      current = current.getCause();
+    }
+    appendCollapsed(out, collapsed);
+    if (circular) {
+      out.append("Caused by: [CIRCULAR REFERENCE: ").append(current).append("]\n");
+    }
+    return truncate(out.toString());
+  }
+
+  private void appendThrowable(
+      StringBuilder out, Throwable t, StackTraceElement[] trace, StackTraceElement[] enclosing) {
+    out.append(t).append('\n');
+    int common = enclosing == null ? 0 : commonFrames(trace, enclosing);
+    int unique = trace.length - common;
+    int shown = Math.min(unique, maxFrames);
+    for (int i = 0; i < shown && out.length() < maxBytes; i++) {
+      out.append("\tat ").append(trace[i]).append('\n');
+    }
+    if (unique > shown) {
+      out.append("\t... ").append(unique - shown).append(" frames omitted\n");
+    }
+    if (common > 0) {
+      out.append("\t... ").append(common).append(" more\n");
+    }
+    for (Throwable suppressed : t.getSuppressed()) {
+      out.append("\tSuppressed: ").append(suppressed).append('\n');
+    }
+  }
+
+  private static void appendCollapsed(StringBuilder out, int collapsed) {
+    if (collapsed > 0) {
+      out.append("\t(re-wrapped ").append(collapsed).append(" more time(s), same message)\n");
+    }
+  }
+
+  /** Frames at the bottom of {@code trace} that also end {@code enclosing}. */
+  private static int commonFrames(StackTraceElement[] trace, StackTraceElement[] enclosing) {
+    int m = trace.length - 1;
+    int n = enclosing.length - 1;
+    while (m >= 0 && n >= 0 && trace[m].equals(enclosing[n])) {
+      m--;
+      n--;
+    }
+    return trace.length - 1 - m;
+  }
+
+  private static boolean sameSummary(Throwable a, Throwable b) {
+    return a.getClass() == b.getClass() && Objects.equals(a.getMessage(), b.getMessage());
+  }
+
+  /** Causes from {@code from} (inclusive) to the end of the chain or the first repeat. */
+  private static int remainingCauses(Throwable from, Set<Throwable> seen) {
+    int count = 0;
+    Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Throwable t = from; t != null && visited.add(t); t = t.getCause()) {
+      if (t != from && seen.contains(t)) {
+        break;
+      }
+      count++;
+    }
+    return count;
+  }
+
+  private String truncate(String trace) {
+    byte[] bytes = trace.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length <= maxBytes) {
+      return trace;
+    }
+    int keep = maxBytes - TRUNCATED.length();
+    // Step back to a character boundary so the cut never splits a multi-byte sequence
+    while (keep > 0 && (bytes[keep] & 0xC0) == 0x80) {
+      keep--;
+    }
+    return new String(bytes, 0, keep, StandardCharsets.UTF_8) + TRUNCATED;
+  }
+}
@@ -0,0 +1,117 @@
+package com.mk.fx.qa.qap.junit.fix;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records FIX traffic against the running test ({@code qap.report.fix.messaging}).
+ *
+ * <p>Tests and session adapters call the static {@link #record} methods on the test thread, or
+ * take the test's {@link #recorder()} and hand it to session threads. When capture is off, or no
+ * test is running on the thread, recording is a single thread-local read. The extension starts a
+ * recorder in beforeEach and attaches what it kept to the test in afterEach.
+ *
+ * <p>Buffers are reused across tests from a small pool, so steady-state capture allocates only
+ * the final copy attached to each test.
+ */
+public final class FixCapture {
+
+  public static final int DEFAULT_MAX_BYTES = 256 * 1024;
+
+  private static final int INITIAL_SIZE = 8 * 1024;
+  private static final ThreadLocal<FixRecorder> CURRENT = new ThreadLocal<>();
+
+  private final int maxBytes;
+  private final Queue<byte[]> pool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooled = new AtomicInteger();
+  private final int maxPooled = Runtime.getRuntime().availableProcessors() * 2;
+
+  public FixCapture(int maxBytes) {
+    this.maxBytes = Math.max(1024, maxBytes);
+  }
+
+  /** Whether a {@code qap.report.fix.messaging} value turns capture on. */
+  public static boolean isEnabled(String property) {
+    if (property == null) {
+      return false;
+    }
+    return switch (property.trim().toLowerCase(Locale.ROOT)) {
+      case "true", "on", "enabled" -> true;
+      default -> false;
+    };
+  }
+
+  /** The recorder of the test running on this thread; {@link FixRecorder#NOOP} if none. */
+  public static FixRecorder recorder() {
+    FixRecorder recorder = CURRENT.get();
+    return recorder != null ? recorder : FixRecorder.NOOP;
+  }
+
+  public static void record(ByteBuffer message) {
+    FixRecorder recorder = CURRENT.get();
+    if (recorder != null) {
+      recorder.record(message);
+    }
+  }
+
+  public static void record(byte[] message, int offset, int length) {
+    FixRecorder recorder = CURRENT.get();
+    if (recorder != null) {
+      recorder.record(message, offset, length);
+    }
+  }
+
+  public static void record(CharSequence message) {
+    FixRecorder recorder = CURRENT.get();
+    if (recorder != null) {
+      recorder.record(message);
+    }
+  }
+
+  /** Starts recording for the test on the current thread. */
+  public void begin() {
+    FixRecorder previous = CURRENT.get();
+    if (previous != null) {
+      previous.close();
+    }
+    CURRENT.set(new FixRecorder(this, maxBytes));
+  }
+
+  /** Ends recording on the current thread; returns the kept messages, or null if none. */
+  public byte[] end() {
+    FixRecorder recorder = CURRENT.get();
+    if (recorder == null) {
+      return null;
+    }
+    CURRENT.remove();
+    return recorder.close();
+  }
+
+  /**
+   * Returns a buffer of at least {@code size} bytes holding the first {@code used} of old. Only the
+   * final buffer of a test is pooled, so the pool keeps buffers sized for real tests.
+   */
+  byte[] grow(byte[] old, int used, int size) {
+    byte[] grown = old == null && size <= INITIAL_SIZE ? pool.poll() : null;
+    if (grown != null) {
+      pooled.decrementAndGet();
+    } else {
+      grown = new byte[Math.max(size, Math.min(maxBytes, INITIAL_SIZE))];
+    }
+    if (old != null) {
+      System.arraycopy(old, 0, grown, 0, used);
+    }
+    return grown;
+  }
+
+  void release(byte[] buffer) {
+    if (pooled.incrementAndGet() <= maxPooled) {
+      pool.offer(buffer);
+    } else {
+      pooled.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package com.mk.fx.qa.qap.junit.fix;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FIX messages recorded for one test.
+ *
+ * <p>Messages are copied byte for byte, SOH delimiters included, into a buffer that grows up to a
+ * cap and is returned to a pool when the test ends; each message is terminated by {@code '\n'}.
+ * Messages are kept whole from the start of the test: once the cap is reached, later messages are
+ * counted and dropped. A recorder may be handed to session threads; it ignores messages recorded
+ * after its test ended.
+ *
+ * <p>FIX values may themselves contain {@code '\n'} (free text, raw data), so {@link #messages}
+ * splits recorded bytes on message boundaries instead: a message starting with {@code 8=} runs to
+ * the SOH ending its {@code 10=} checksum. Anything else, such as the dropped-messages marker or
+ * a message without a checksum, runs to the next {@code '\n'}.
+ */
+public class FixRecorder {
+
+  /** Recorder used when capture is off or no test is running; records nothing. */
+  public static final FixRecorder NOOP = new FixRecorder(null, 0);
+
+  private static final byte SEPARATOR = '\n';
+  private static final char SOH = '\u0001';
+  private static final String BEGIN_STRING = "8=";
+  private static final String CHECKSUM = SOH + "10=";
+
+  private final FixCapture owner;
+  private final int maxBytes;
+  private byte[] buffer;
+  private int size;
+  private int droppedMessages;
+  private long droppedBytes;
+  private volatile boolean closed;
+
+  FixRecorder(FixCapture owner, int maxBytes) {
+    this.owner = owner;
+    this.maxBytes = maxBytes;
+    this.closed = owner == null;
+  }
+
+  /** Records the remaining bytes of {@code message} without moving its position. */
+  public void record(ByteBuffer message) {
+    if (closed || message == null) {
+      return;
+    }
+    synchronized (this) {
+      int length = message.remaining();
+      if (reserve(length)) {
+        message.get(message.position(), buffer, size, length);
+        commit(length);
+      }
+    }
+  }
+
+  /** Records {@code length} bytes of {@code message} from {@code offset}. */
+  public void record(byte[] message, int offset, int length) {
+    if (closed || message == null) {
+      return;
+    }
+    synchronized (this) {
+      if (reserve(length)) {
+        System.arraycopy(message, offset, buffer, size, length);
+        commit(length);
+      }
+    }
+  }
+
+  public void record(byte[] message) {
+    if (message != null) {
+      record(message, 0, message.length);
+    }
+  }
+
+  /** Records a message held as text, such as QuickFIX/J's {@code Message.toString()}. */
+  public void record(CharSequence message) {
+    if (!closed && message != null) {
+      record(message.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+  }
+
+  public boolean isActive() {
+    return !closed;
+  }
+
+  /** Makes room for a message and its separator; false when it is dropped or capture ended. */
+  private boolean reserve(int length) {
+    if (closed) {
+      return false;
+    }
+    long needed = (long) size + length + 1;
+    if (needed > maxBytes) {
+      droppedMessages++;
+      droppedBytes += length;
+      return false;
+    }
+    if (buffer == null || needed > buffer.length) {
+      int grown = (int) Math.min(maxBytes, Math.max(needed, buffer == null ? 0 : 2L * size));
+      buffer = owner.grow(buffer, size, grown);
+    }
+    return true;
+  }
+
+  private void commit(int length) {
+    size += length;
+    buffer[size++] = SEPARATOR;
+  }
+
+  /** Splits recorded bytes into messages, SOH delimiters included; see the class comment. */
+  public static List<String> messages(byte[] recorded) {
+    String text = new String(recorded, StandardCharsets.ISO_8859_1);
+    List<String> messages = new ArrayList<>();
+    int start = 0;
+    while (start < text.length()) {
+      int end = -1;
+      if (text.startsWith(BEGIN_STRING, start)) {
+        int checksum = text.indexOf(CHECKSUM, start);
+        end = checksum < 0 ? -1 : text.indexOf(SOH, checksum + CHECKSUM.length());
+      }
+      if (end >= 0) {
+        messages.add(text.substring(start, end + 1));
+        start = end + 1;
+        if (start < text.length() && text.charAt(start) == SEPARATOR) {
+          start++;
+        }
+      } else {
+        int line = text.indexOf(SEPARATOR, start);
+        int stop = line < 0 ? text.length() : line;
+        messages.add(text.substring(start, stop));
+        start = stop + 1;
+      }
+    }
+    return messages;
+  }
+
+  /** Frames messages as a recorder does, each followed by {@code '\n'}; see {@link #messages}. */
+  public static byte[] frame(List<String> messages) {
+    StringBuilder framed = new StringBuilder();
+    for (String message : messages) {
+      framed.append(message).append((char) SEPARATOR);
+    }
+    return framed.toString().getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  /** Ends capture and returns the recorded messages, or null when there were none. */
+  synchronized byte[] close() {
+    if (closed) {
+      return null;
+    }
+    closed = true;
+    byte[] recorded = null;
+    if (size > 0 || droppedMessages > 0) {
+      recorded = buffer != null ? Arrays.copyOf(buffer, size) : new byte[0];
+      if (droppedMessages > 0) {
+        byte[] marker =
+            ("... [" + droppedMessages + " messages, " + droppedBytes + " bytes dropped]\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+        byte[] withMarker = Arrays.copyOf(recorded, recorded.length + marker.length);
+        System.arraycopy(marker, 0, withMarker, recorded.length, marker.length);
+        recorded = withMarker;
+      }
+    }
+    if (buffer != null) {
+      owner.release(buffer);
+      buffer = null;
+    }
+    return recorded;
+  }
+}
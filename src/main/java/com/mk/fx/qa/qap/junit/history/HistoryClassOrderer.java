@@ -0,0 +1,50 @@
+package com.mk.fx.qa.qap.junit.history;
+
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
+import java.util.Comparator;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+/**
+ * Orders test classes by their recorded history (see {@link TestHistory}). Register with {@code
+ * junit.jupiter.testclass.order.default} or {@code @TestClassOrder}. The sort is stable, so
+ * classes without a history keep their relative order; with no history file nothing is reordered.
+ */
+public abstract class HistoryClassOrderer implements ClassOrderer {
+
+  @Override
+  public void orderClasses(ClassOrdererContext context) {
+    TestHistory history = HistoryOrdering.history(context::getConfigurationParameter);
+    if (history.entries().isEmpty()) {
+      return;
+    }
+    Comparator<ClassDescriptor> byKey =
+        Comparator.comparingLong(
+            d -> sortKey(history, TestMetadataCache.forClass(d.getTestClass()).getNestedPath()));
+    context.getClassDescriptors().sort(byKey.reversed());
+  }
+
+  /** Higher keys run first. */
+  abstract long sortKey(TestHistory history, String classPath);
+
+  /**
+   * Longest classes first, so parallel workers pick up the long work early and the wall-clock tail
+   * shrinks. Classes without history are treated as longest.
+   */
+  public static final class LongestFirst extends HistoryClassOrderer {
+    @Override
+    long sortKey(TestHistory history, String classPath) {
+      long micros = history.classDurationMicros(classPath);
+      return micros < 0 ? Long.MAX_VALUE : micros;
+    }
+  }
+
+  /** Classes with the most recent failure first, for fast feedback on known-broken areas. */
+  public static final class RecentlyFailedFirst extends HistoryClassOrderer {
+    @Override
+    long sortKey(TestHistory history, String classPath) {
+      return history.classLastFailedMillis(classPath);
+    }
+  }
+}
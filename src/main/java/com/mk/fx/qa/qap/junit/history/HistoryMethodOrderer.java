@@ -0,0 +1,49 @@
+package com.mk.fx.qa.qap.junit.history;
+
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache.ClassMetadata;
+import java.util.Comparator;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+/**
+ * Orders the methods of a test class by their recorded history (see {@link TestHistory}). Register
+ * with {@code junit.jupiter.testmethod.order.default} or {@code @TestMethodOrder}. Invocations of
+ * a parameterized or repeated method count towards the method.
+ */
+public abstract class HistoryMethodOrderer implements MethodOrderer {
+
+  @Override
+  public void orderMethods(MethodOrdererContext context) {
+    TestHistory history = HistoryOrdering.history(context::getConfigurationParameter);
+    if (history.entries().isEmpty()) {
+      return;
+    }
+    ClassMetadata metadata = TestMetadataCache.forClass(context.getTestClass());
+    Comparator<MethodDescriptor> byKey =
+        Comparator.comparingLong(
+            d -> sortKey(history, metadata.testCaseId(d.getMethod().getName())));
+    context.getMethodDescriptors().sort(byKey.reversed());
+  }
+
+  /** Higher keys run first. */
+  abstract long sortKey(TestHistory history, String methodId);
+
+  /** Longest methods first; methods without history are treated as longest. */
+  public static final class LongestFirst extends HistoryMethodOrderer {
+    @Override
+    long sortKey(TestHistory history, String methodId) {
+      long micros = history.methodDurationMicros(methodId);
+      return micros < 0 ? Long.MAX_VALUE : micros;
+    }
+  }
+
+  /** Methods with the most recent failure first. */
+  public static final class RecentlyFailedFirst extends HistoryMethodOrderer {
+    @Override
+    long sortKey(TestHistory history, String methodId) {
+      return history.methodLastFailedMillis(methodId);
+    }
+  }
+}
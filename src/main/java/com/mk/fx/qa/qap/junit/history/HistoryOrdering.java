@@ -0,0 +1,47 @@
+package com.mk.fx.qa.qap.junit.history;
+
+import com.mk.fx.qa.qap.junit.core.EnvironmentSnapshot;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Resolves the history the orderers sort by. JUnit configuration parameters ({@code
+ * junit-platform.properties}, {@code -D} on the launcher) take precedence over {@code
+ * qap.properties}; without a configured file the orderers leave the order unchanged.
+ */
+final class HistoryOrdering {
+
+  static final String FILE_KEY = "qap.history.file";
+  static final String MAX_AGE_KEY = "qap.history.max.age.days";
+
+  private HistoryOrdering() {}
+
+  static TestHistory history(Function<String, Optional<String>> configuration) {
+    String file = configuration.apply(FILE_KEY).orElseGet(() -> Defaults.PROPS.getHistoryFile());
+    if (file == null || file.isBlank()) {
+      return TestHistory.empty();
+    }
+    long days =
+        configuration
+            .apply(MAX_AGE_KEY)
+            .map(HistoryOrdering::parseDays)
+            .orElseGet(() -> Defaults.PROPS.getHistoryMaxAgeDays());
+    return TestHistory.shared(Path.of(file.trim()), Duration.ofDays(days));
+  }
+
+  private static long parseDays(String value) {
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return TestHistory.DEFAULT_MAX_AGE.toDays();
+    }
+  }
+
+  /** Loaded on first use only, so orderers configured through JUnit never read qap.properties. */
+  private static final class Defaults {
+    static final QAPPropertiesLoader PROPS = EnvironmentSnapshot.current().getProperties();
+  }
+}
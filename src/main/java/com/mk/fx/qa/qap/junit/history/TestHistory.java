@@ -0,0 +1,306 @@
+package com.mk.fx.qa.qap.junit.history;
+
+import com.mk.fx.qa.qap.junit.core.TestCaseStatus;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-test history kept in a local file, keyed by {@code testCaseId}: a moving average of the
+ * duration, and when the test was last seen and last failed.
+ *
+ * <p>The file is an append-only journal of tab-separated lines, {@code
+ * testCaseId\tdurationMicros\tlastSeenMillis\tlastFailedMillis}. Each launch appends one line per
+ * finished test, under a file lock so forked JVMs can share the file. Loading folds the lines per
+ * test (later lines win, durations are averaged) and drops tests not seen within {@code maxAge}.
+ * The first launch recorded in a JVM compacts the journal to one line per test when it has grown
+ * to more than twice that.
+ */
+public final class TestHistory {
+
+  private static final Logger log = LoggerFactory.getLogger(TestHistory.class);
+
+  public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+  /** Weight of the newest observation in the duration moving average. */
+  static final double ALPHA = 0.3;
+
+  private static final int COMPACT_SLACK = 1_000;
+  private static final Object FILE_LOCK = new Object();
+  private static final Set<Path> COMPACTED = ConcurrentHashMap.newKeySet();
+  private static final Map<Path, TestHistory> SHARED = new ConcurrentHashMap<>();
+
+  /** Folded history of one test. */
+  public record Entry(long durationMicros, long lastSeenMillis, long lastFailedMillis) {
+
+    Entry fold(Entry newer) {
+      long duration = Math.round((1 - ALPHA) * durationMicros + ALPHA * newer.durationMicros);
+      return new Entry(
+          duration,
+          Math.max(lastSeenMillis, newer.lastSeenMillis),
+          Math.max(lastFailedMillis, newer.lastFailedMillis));
+    }
+  }
+
+  private static final TestHistory EMPTY = new TestHistory(Collections.emptyMap(), 0);
+
+  private final Map<String, Entry> entries;
+  private final int journalLines;
+  private volatile Index index;
+
+  private TestHistory(Map<String, Entry> entries, int journalLines) {
+    this.entries = entries;
+    this.journalLines = journalLines;
+  }
+
+  public static TestHistory empty() {
+    return EMPTY;
+  }
+
+  /**
+   * The history of {@code file} as loaded once per JVM, for the orderers. An unreadable file is
+   * logged and treated as empty.
+   */
+  public static TestHistory shared(Path file, Duration maxAge) {
+    return SHARED.computeIfAbsent(
+        file.toAbsolutePath(),
+        path -> {
+          try {
+            return load(path, System.currentTimeMillis(), maxAge);
+          } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read QAP test history '{}': {}", path, e.toString());
+            return EMPTY;
+          }
+        });
+  }
+
+  public Map<String, Entry> entries() {
+    return Collections.unmodifiableMap(entries);
+  }
+
+  /**
+   * Reads and folds the journal. A missing file is an empty history; unreadable lines are skipped.
+   */
+  public static TestHistory load(Path file, long nowMillis, Duration maxAge) throws IOException {
+    Map<String, Entry> entries = new LinkedHashMap<>();
+    int lines = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines++;
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 4) {
+          continue;
+        }
+        try {
+          Entry entry =
+              new Entry(
+                  Long.parseLong(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+          entries.merge(fields[0], entry, Entry::fold);
+        } catch (NumberFormatException e) {
+          // Torn or foreign line; the journal stays usable
+        }
+      }
+    } catch (NoSuchFileException e) {
+      return EMPTY;
+    }
+    long oldest = nowMillis - maxAge.toMillis();
+    entries.values().removeIf(entry -> entry.lastSeenMillis() < oldest);
+    return new TestHistory(entries, lines);
+  }
+
+  /**
+   * Appends the finished tests of an assembled launch. Disabled tests are skipped; aggregated
+   * records are kept under their template id with their total duration.
+   */
+  public static void record(Path file, QAPJunitLaunch launch, long nowMillis, Duration maxAge)
+      throws IOException {
+    StringBuilder lines = new StringBuilder(4096);
+    if (launch.getTestClasses() != null) {
+      for (QAPTestClass cls : launch.getTestClasses()) {
+        appendLines(cls, nowMillis, lines);
+      }
+    }
+    if (lines.length() == 0) {
+      return;
+    }
+    byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+    synchronized (FILE_LOCK) {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      try (FileChannel channel =
+              FileChannel.open(
+                  file,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.WRITE,
+                  StandardOpenOption.APPEND);
+          FileLock lock = channel.lock()) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      if (COMPACTED.add(file.toAbsolutePath())) {
+        compact(file, nowMillis, maxAge);
+      }
+    }
+  }
+
+  private static void appendLines(QAPTestClass cls, long nowMillis, StringBuilder lines) {
+    if (cls.getTestCases() != null) {
+      for (QAPTest test : cls.getTestCases()) {
+        String status = test.getStatus();
+        if (test.getTestCaseId() == null
+            || status == null
+            || TestCaseStatus.DISABLED.name().equals(status)) {
+          continue;
+        }
+        long nanos =
+            test.getDurationStats() != null
+                ? test.getDurationStats().getTotalNanos()
+                : test.getDurationNanos();
+        boolean failed = TestCaseStatus.FAILED.name().equals(status);
+        lines
+            .append(test.getTestCaseId().replaceAll("[\t\r\n]", " "))
+            .append('\t')
+            .append(nanos / 1_000L)
+            .append('\t')
+            .append(nowMillis)
+            .append('\t')
+            .append(failed ? nowMillis : 0L)
+            .append('\n');
+      }
+    }
+    if (cls.getChildren() != null) {
+      for (QAPTestClass child : cls.getChildren()) {
+        appendLines(child, nowMillis, lines);
+      }
+    }
+  }
+
+  /** Rewrites the journal with one line per test if it has grown well beyond that. */
+  private static void compact(Path file, long nowMillis, Duration maxAge) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        FileLock lock = channel.lock()) {
+      TestHistory history = load(file, nowMillis, maxAge);
+      if (history.journalLines <= 2 * history.entries.size() + COMPACT_SLACK) {
+        return;
+      }
+      Path tmp = file.resolveSibling("." + file.getFileName() + ".tmp");
+      try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, Entry> e : history.entries.entrySet()) {
+          Entry entry = e.getValue();
+          out.write(
+              e.getKey()
+                  + '\t'
+                  + entry.durationMicros()
+                  + '\t'
+                  + entry.lastSeenMillis()
+                  + '\t'
+                  + entry.lastFailedMillis()
+                  + '\n');
+        }
+      }
+      // A process already waiting on the old file's lock appends to the replaced file; the
+      // history is advisory, so such lines are simply lost
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Summed duration (micros) of all tests of a class and its {@code @Nested} classes, by nested
+   * class path; -1 if unknown.
+   */
+  public long classDurationMicros(String nestedClassPath) {
+    Entry entry = index().classes.get(nestedClassPath);
+    return entry != null ? entry.durationMicros() : -1L;
+  }
+
+  /** Epoch millis a test of the class or its nested classes last failed, 0 if never or unknown. */
+  public long classLastFailedMillis(String nestedClassPath) {
+    Entry entry = index().classes.get(nestedClassPath);
+    return entry != null ? entry.lastFailedMillis() : 0L;
+  }
+
+  /**
+   * Summed duration (micros) of a method's invocations, by {@code Class#method}; -1 if unknown.
+   */
+  public long methodDurationMicros(String methodId) {
+    Entry entry = index().methods.get(methodId);
+    return entry != null ? entry.durationMicros() : -1L;
+  }
+
+  /** Epoch millis any invocation of the method last failed, 0 if never or unknown. */
+  public long methodLastFailedMillis(String methodId) {
+    Entry entry = index().methods.get(methodId);
+    return entry != null ? entry.lastFailedMillis() : 0L;
+  }
+
+  private Index index() {
+    Index current = index;
+    if (current == null) {
+      current = new Index(entries);
+      index = current;
+    }
+    return current;
+  }
+
+  /**
+   * Per-class and per-method roll-ups; template invocations ({@code [n]}) add up per method. A test
+   * of {@code Outer$Group$Inner} counts for that class and for each enclosing class path.
+   */
+  private static final class Index {
+    private final Map<String, Entry> classes = new HashMap<>();
+    private final Map<String, Entry> methods = new HashMap<>();
+
+    Index(Map<String, Entry> entries) {
+      for (Map.Entry<String, Entry> e : entries.entrySet()) {
+        String id = e.getKey();
+        int hash = id.indexOf('#');
+        if (hash <= 0) {
+          continue;
+        }
+        int bracket = id.indexOf('[', hash);
+        String method = bracket > 0 ? id.substring(0, bracket) : id;
+        methods.merge(method, e.getValue(), Index::sum);
+        String classPath = id.substring(0, hash);
+        classes.merge(classPath, e.getValue(), Index::sum);
+        for (int dollar = classPath.lastIndexOf('$');
+            dollar > 0;
+            dollar = classPath.lastIndexOf('$', dollar - 1)) {
+          classes.merge(classPath.substring(0, dollar), e.getValue(), Index::sum);
+        }
+      }
+    }
+
+    private static Entry sum(Entry a, Entry b) {
+      return new Entry(
+          a.durationMicros() + b.durationMicros(),
+          Math.max(a.lastSeenMillis(), b.lastSeenMillis()),
+          Math.max(a.lastFailedMillis(), b.lastFailedMillis()));
+    }
+  }
+}
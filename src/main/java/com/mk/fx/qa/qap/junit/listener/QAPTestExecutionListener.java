@@ -0,0 +1,415 @@
+package com.mk.fx.qa.qap.junit.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.EnvironmentSnapshot;
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
+import com.mk.fx.qa.qap.junit.core.QAPUtils;
+import com.mk.fx.qa.qap.junit.core.TestCaseStatus;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchPublisher;
+import com.mk.fx.qa.qap.junit.failure.FailureInterner;
+import com.mk.fx.qa.qap.junit.history.TestHistory;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.runtime.QAPRuntime;
+import com.mk.fx.qa.qap.junit.util.ExceptionFormatter;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache;
+import com.mk.fx.qa.qap.junit.util.TestMetadataCache.ClassMetadata;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Engine-level reporting ({@code qap.report.mode=listener}): builds the same launch tree as
+ * {@code QAPJunitExtension} from the platform's execution events, for every test in the JVM and
+ * without {@code @ExtendWith}. Registered through {@code META-INF/services}; in any other mode it
+ * ignores all events.
+ *
+ * <p>Each container directly under an engine becomes a top-level class and launch, class
+ * containers below it nested classes. Tests, including dynamic tests and the tests of other
+ * engines, attach to their nearest class. Everything is kept in concurrent maps keyed by unique
+ * id, and a launch is published when its top-level container finishes. Parameters, logs, FIX
+ * capture, resources, the timeline and repetition aggregation need the extension.
+ */
+public class QAPTestExecutionListener implements TestExecutionListener {
+
+  private static final Logger log = LoggerFactory.getLogger(QAPTestExecutionListener.class);
+
+  public static final String MODE = "listener";
+
+  private static final String TEMPLATE_INVOCATION = "test-template-invocation";
+  private static final String DYNAMIC_TEST = "dynamic-test";
+
+  private final Map<String, QAPTestClass> nodes = new ConcurrentHashMap<>();
+  private final Map<String, QAPJunitLaunch> launches = new ConcurrentHashMap<>();
+  private final Map<String, QAPTest> running = new ConcurrentHashMap<>();
+  private volatile QAPRuntime runtime;
+  private volatile TestPlan plan;
+  private volatile String launchId;
+
+  /** Service-loaded instance; reports only when {@code qap.report.mode=listener}. */
+  public QAPTestExecutionListener() {}
+
+  /** Test constructor: reports through {@code runtime} whatever the configured mode. */
+  QAPTestExecutionListener(QAPRuntime runtime) {
+    this.runtime = Objects.requireNonNull(runtime, "runtime");
+  }
+
+  /** Whether {@code qap.report.mode} selects this listener over the extension. */
+  public static boolean isActive(QAPPropertiesLoader properties) {
+    String mode = properties.getReportMode();
+    return mode != null && MODE.equals(mode.trim().toLowerCase(Locale.ROOT));
+  }
+
+  @Override
+  public void testPlanExecutionStarted(TestPlan testPlan) {
+    if (runtime == null) {
+      if (!isActive(EnvironmentSnapshot.current().getProperties())) {
+        return;
+      }
+      runtime = QAPRuntime.defaultRuntime();
+    }
+    launchId = LaunchIdentity.current().getOrCreate();
+    plan = testPlan;
+  }
+
+  @Override
+  public void testPlanExecutionFinished(TestPlan testPlan) {
+    if (plan != testPlan) {
+      return;
+    }
+    // Containers that never reported finishing still get published
+    for (String topLevel : List.copyOf(launches.keySet())) {
+      finishLaunch(topLevel);
+    }
+    nodes.clear();
+    running.clear();
+    plan = null;
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier identifier) {
+    TestPlan current = plan;
+    if (current == null) {
+      return;
+    }
+    try {
+      if (identifier.isContainer()) {
+        containerStarted(current, identifier);
+      } else {
+        running.put(identifier.getUniqueId(), newTest(current, identifier));
+      }
+    } catch (RuntimeException e) {
+      log.warn("QAP listener failed on start of '{}': {}", identifier.getUniqueId(), e.toString());
+    }
+  }
+
+  @Override
+  public void executionSkipped(TestIdentifier identifier, String reason) {
+    TestPlan current = plan;
+    if (current == null) {
+      return;
+    }
+    try {
+      if (identifier.isTest()) {
+        skipped(current, identifier, reason);
+        return;
+      }
+      containerStarted(current, identifier);
+      for (TestIdentifier descendant : current.getDescendants(identifier)) {
+        if (descendant.isContainer()) {
+          containerStarted(current, descendant);
+        } else {
+          skipped(current, descendant, reason);
+        }
+      }
+      containerFinished(identifier);
+    } catch (RuntimeException e) {
+      log.warn("QAP listener failed on skip of '{}': {}", identifier.getUniqueId(), e.toString());
+    }
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+    if (plan == null) {
+      return;
+    }
+    try {
+      if (identifier.isContainer()) {
+        containerFinished(identifier);
+        return;
+      }
+      QAPTest test = running.remove(identifier.getUniqueId());
+      if (test == null) {
+        return;
+      }
+      test.setEndNanos(System.nanoTime());
+      test.setEndTime(now());
+      test.setStatus(status(result.getStatus()).name());
+      Optional<Throwable> cause = result.getThrowable();
+      if (cause.isPresent()) {
+        Throwable t = cause.get();
+        test.setException(ExceptionFormatter.toBytes(ExceptionFormatter.messageOf(t)));
+        test.setFailure(FailureInterner.current().intern(t));
+      }
+      attach(identifier, test);
+    } catch (RuntimeException e) {
+      log.warn("QAP listener failed on end of '{}': {}", identifier.getUniqueId(), e.toString());
+    }
+  }
+
+  // ---- tree --------------------------------------------------------------
+
+  private void containerStarted(TestPlan current, TestIdentifier container) {
+    String id = container.getUniqueId();
+    if (nodes.containsKey(id)) {
+      return;
+    }
+    Optional<TestIdentifier> parent = current.getParent(container);
+    QAPTestClass parentNode = parent.map(p -> nodes.get(p.getUniqueId())).orElse(null);
+    if (parentNode == null) {
+      if (parent.isEmpty()) {
+        // Engine roots only group top-level containers
+        return;
+      }
+      QAPTestClass root = newClassNode(container, null);
+      nodes.put(id, root);
+      QAPJunitLaunch launch =
+          new QAPJunitLaunch(new QAPHeader(now(), launchId), new ArrayList<>(List.of(root)));
+      launches.put(id, launch);
+      publisher().onLaunchStarted(launch, mapper(), log);
+      publisher().onClassRegistered(launchId, root, mapper(), log);
+      return;
+    }
+    if (!(container.getSource().orElse(null) instanceof ClassSource)) {
+      // Methods, templates and dynamic containers report into their class
+      nodes.put(id, parentNode);
+      return;
+    }
+    QAPTestClass nested = newClassNode(container, parentNode);
+    synchronized (parentNode) {
+      parentNode.getChildren().add(nested);
+    }
+    nodes.put(id, nested);
+    publisher().onClassRegistered(launchId, nested, mapper(), log);
+  }
+
+  private void containerFinished(TestIdentifier container) {
+    if (launches.containsKey(container.getUniqueId())) {
+      finishLaunch(container.getUniqueId());
+    }
+  }
+
+  private static QAPTestClass newClassNode(TestIdentifier container, QAPTestClass parent) {
+    TestSource source = container.getSource().orElse(null);
+    QAPTestClass node;
+    if (source instanceof ClassSource classSource) {
+      Class<?> type = classSource.getJavaClass();
+      ClassMetadata metadata = TestMetadataCache.forClass(type);
+      node =
+          new QAPTestClass(
+              metadata.getSimpleName(), container.getDisplayName(), metadata.getTags());
+      node.setFullClassName(metadata.getNestedPath());
+      node.setClassKey(type.getName());
+    } else {
+      node =
+          new QAPTestClass(
+              container.getLegacyReportingName(), container.getDisplayName(), names(container));
+      node.setFullClassName(container.getLegacyReportingName());
+      node.setClassKey(container.getUniqueId());
+    }
+    List<String> chain = new ArrayList<>();
+    Set<String> inherited = new HashSet<>();
+    if (parent != null) {
+      chain.addAll(parent.getClassChain());
+      inherited.addAll(parent.getInheritedClassTags());
+      inherited.addAll(parent.getClassTags());
+    }
+    chain.add(node.getDisplayName());
+    node.setClassChain(chain);
+    node.setInheritedClassTags(inherited);
+    node.setTestCases(new ArrayList<>());
+    return node;
+  }
+
+  private QAPTest newTest(TestPlan current, TestIdentifier identifier) {
+    QAPTestClass node =
+        current.getParent(identifier).map(p -> nodes.get(p.getUniqueId())).orElse(null);
+    String method = methodName(current, identifier);
+    QAPTest test = new QAPTest(method, identifier.getDisplayName());
+    test.setStartTime(now());
+    test.setStartNanos(System.nanoTime());
+    UniqueId.Segment last = identifier.getUniqueIdObject().getLastSegment();
+    String prefix = (node != null ? node.getFullClassName() : "") + "#" + method;
+    if (TEMPLATE_INVOCATION.equals(last.getType()) || DYNAMIC_TEST.equals(last.getType())) {
+      // Invocations are 1-based in unique ids and 0-based in testCaseIds, as with the extension
+      test.setTestType(TEMPLATE_INVOCATION.equals(last.getType()) ? "PARAMETERIZED" : "DYNAMIC");
+      test.setTestCaseId(prefix + "[" + (invocationIndex(last.getValue()) - 1) + "]");
+    } else {
+      test.setTestType("TEST");
+      test.setTestCaseId(prefix);
+    }
+    if (node != null) {
+      test.setClassTags(node.getClassTags());
+      test.setInheritedClassTags(node.getInheritedClassTags());
+    }
+    // The platform reports inherited class tags on each test; keep only the method's own
+    Set<String> own = new HashSet<>(names(identifier));
+    own.removeAll(test.getClassTags());
+    own.removeAll(test.getInheritedClassTags());
+    test.setTag(own);
+    return test;
+  }
+
+  private void skipped(TestPlan current, TestIdentifier identifier, String reason) {
+    QAPTest test = newTest(current, identifier);
+    test.setEndTime(test.getStartTime());
+    test.setStatus(TestCaseStatus.DISABLED.name());
+    String message = reason != null ? reason : "Test disabled (no reason provided)";
+    test.setException(ExceptionFormatter.toBytes(message));
+    attach(identifier, test);
+  }
+
+  private void attach(TestIdentifier identifier, QAPTest test) {
+    QAPTestClass node = identifier.getParentId().map(nodes::get).orElse(null);
+    if (node == null) {
+      log.debug("QAP listener: no class for '{}', not reported", identifier.getUniqueId());
+      return;
+    }
+    if (publisher().retainsTestCases()) {
+      synchronized (node) {
+        node.getTestCases().add(test);
+      }
+    }
+    publisher().onTestFinished(launchId, node.getClassKey(), test, mapper(), log);
+  }
+
+  // ---- publish -----------------------------------------------------------
+
+  private void finishLaunch(String topLevel) {
+    QAPJunitLaunch launch = launches.remove(topLevel);
+    if (launch == null) {
+      return;
+    }
+    QAPPropertiesLoader props = runtime.getPropertiesLoader();
+    launch.getHeader().setLaunchEndTime(now());
+    EnvironmentSnapshot.current().stamp(launch.getHeader(), props);
+    launch.getHeader().setContentType(runtime.getPayloadFormat().contentType());
+    collectFailures(launch.getTestClasses(), launch.getFailures());
+    if (props.getHistoryFile() != null) {
+      try {
+        TestHistory.record(
+            Path.of(props.getHistoryFile()),
+            launch,
+            now(),
+            Duration.ofDays(props.getHistoryMaxAgeDays()));
+      } catch (IOException | RuntimeException e) {
+        log.warn(
+            "Unable to update QAP test history '{}' (launchId='{}'): {}",
+            props.getHistoryFile(),
+            launchId,
+            e.toString());
+      }
+    }
+    // Unique ids of descendants extend the container's id by "/[segment]"; a bare prefix would
+    // also match a sibling class such as FooBar when Foo finishes first
+    String descendants = topLevel + "/";
+    nodes.keySet().removeIf(id -> id.equals(topLevel) || id.startsWith(descendants));
+    if (!QAPUtils.isReportingEnabled(launch, props)) {
+      log.info("Reporting disabled. Skipping launch publish (launchId='{}').", launchId);
+      return;
+    }
+    try {
+      publisher().publish(launch, mapper(), log);
+    } catch (RuntimeException e) {
+      log.warn("Unable to publish QAP launch (launchId='{}'): {}", launchId, e.toString());
+    }
+  }
+
+  private static void collectFailures(
+      List<QAPTestClass> classes, Map<String, QAPFailure> failures) {
+    for (QAPTestClass cls : classes) {
+      for (QAPTest test : cls.getTestCases()) {
+        if (test.getFailure() != null) {
+          failures.putIfAbsent(test.getFailure().getId(), test.getFailure());
+        }
+      }
+      collectFailures(cls.getChildren(), failures);
+    }
+  }
+
+  // ---- helpers -----------------------------------------------------------
+
+  private static String methodName(TestPlan current, TestIdentifier identifier) {
+    TestIdentifier at = identifier;
+    // Invocations and dynamic tests take the name of the method that declared them
+    for (int depth = 0; at != null && depth < 4; depth++) {
+      if (at.getSource().orElse(null) instanceof MethodSource method) {
+        return method.getMethodName();
+      }
+      at = current.getParent(at).orElse(null);
+    }
+    return identifier.getLegacyReportingName();
+  }
+
+  private static int invocationIndex(String value) {
+    try {
+      return Integer.parseInt(value.startsWith("#") ? value.substring(1) : value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static Set<String> names(TestIdentifier identifier) {
+    if (identifier.getTags().isEmpty()) {
+      return Collections.emptySet();
+    }
+    return identifier.getTags().stream().map(TestTag::getName).collect(Collectors.toSet());
+  }
+
+  private static TestCaseStatus status(TestExecutionResult.Status status) {
+    return switch (status) {
+      case SUCCESSFUL -> TestCaseStatus.PASSED;
+      case ABORTED -> TestCaseStatus.ABORTED;
+      case FAILED -> TestCaseStatus.FAILED;
+    };
+  }
+
+  private long now() {
+    QAPRuntime rt = runtime;
+    return rt != null ? rt.getClock().millis() : System.currentTimeMillis();
+  }
+
+  private LaunchPublisher publisher() {
+    return runtime.getLaunchPublisher();
+  }
+
+  private ObjectMapper mapper() {
+    return runtime.getObjectMapper();
+  }
+}
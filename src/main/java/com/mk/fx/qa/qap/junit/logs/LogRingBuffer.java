@@ -0,0 +1,91 @@
+package com.mk.fx.qa.qap.junit.logs;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte ring that keeps the last {@code capacity} bytes written to it.
+ *
+ * <p>Heap rings start small and grow up to the capacity, so a test that logs little costs little.
+ * Direct (off-heap) rings are allocated at full capacity and are meant to be reused through {@link
+ * #reset()}. Writers synchronize on the ring of their own test only.
+ */
+final class LogRingBuffer {
+
+  private static final int INITIAL_HEAP_SIZE = 4 * 1024;
+
+  private final int capacity;
+  private ByteBuffer buffer;
+  private long written;
+
+  private LogRingBuffer(int capacity, ByteBuffer buffer) {
+    this.capacity = capacity;
+    this.buffer = buffer;
+  }
+
+  static LogRingBuffer heap(int capacity) {
+    int size = Math.max(1, capacity);
+    return new LogRingBuffer(size, ByteBuffer.allocate(Math.min(size, INITIAL_HEAP_SIZE)));
+  }
+
+  static LogRingBuffer direct(int capacity) {
+    int size = Math.max(1, capacity);
+    return new LogRingBuffer(size, ByteBuffer.allocateDirect(size));
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  boolean isDirect() {
+    return buffer.isDirect();
+  }
+
+  synchronized void append(byte[] bytes) {
+    int offset = 0;
+    int length = bytes.length;
+    if (length > capacity) {
+      // Only the tail of an oversized event can survive anyway
+      offset = length - capacity;
+      length = capacity;
+    }
+    long end = written + bytes.length;
+    if (buffer.capacity() < capacity && end > buffer.capacity()) {
+      // Not wrapped yet: grow linearly up to the capacity
+      int size = (int) Math.min(capacity, Math.max(end, 2L * buffer.capacity()));
+      ByteBuffer grown = ByteBuffer.allocate(size);
+      grown.put(0, buffer, 0, (int) written);
+      buffer = grown;
+    }
+    int position = (int) ((written + offset) % capacity);
+    int first = Math.min(length, capacity - position);
+    buffer.put(position, bytes, offset, first);
+    if (first < length) {
+      buffer.put(0, bytes, offset + first, length - first);
+    }
+    written = end;
+  }
+
+  /** Bytes that were overwritten or never fit. */
+  synchronized long dropped() {
+    return Math.max(0L, written - capacity);
+  }
+
+  /** The retained bytes, oldest first. */
+  synchronized byte[] toByteArray() {
+    int size = (int) Math.min(written, capacity);
+    byte[] out = new byte[size];
+    if (written <= capacity) {
+      buffer.get(0, out, 0, size);
+    } else {
+      int start = (int) (written % capacity);
+      int first = capacity - start;
+      buffer.get(start, out, 0, first);
+      buffer.get(0, out, first, start);
+    }
+    return out;
+  }
+
+  synchronized void reset() {
+    written = 0L;
+  }
+}
@@ -0,0 +1,59 @@
+package com.mk.fx.qa.qap.junit.logs;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+
+/**
+ * Log4j2 appender that copies each event into the ring of the test it belongs to.
+ *
+ * <p>An event belongs to a test when it carries the test's id in the thread context ({@value
+ * #TEST_ID_KEY}), which the extension sets on the test thread and which executors may propagate,
+ * or else when it was logged on the thread running the test. Events outside any test are ignored
+ * after one map check; appending never blocks on anything but the ring of the event's own test.
+ */
+final class TestLogAppender extends AbstractAppender {
+
+  static final String NAME = "QAPTestLogs";
+  static final String TEST_ID_KEY = "qapTestId";
+
+  private final Map<String, LogRingBuffer> byTest = new ConcurrentHashMap<>();
+  private final Map<Long, LogRingBuffer> byThread = new ConcurrentHashMap<>();
+
+  TestLogAppender(Layout<? extends Serializable> layout) {
+    super(NAME, null, layout, true, Property.EMPTY_ARRAY);
+  }
+
+  void register(String testId, long threadId, LogRingBuffer ring) {
+    byTest.put(testId, ring);
+    byThread.put(threadId, ring);
+  }
+
+  /** Stops routing to the ring of {@code testId}; returns it, or null if it was not registered. */
+  LogRingBuffer unregister(String testId, long threadId) {
+    LogRingBuffer ring = byTest.remove(testId);
+    if (ring != null) {
+      byThread.remove(threadId, ring);
+    }
+    return ring;
+  }
+
+  @Override
+  public void append(LogEvent event) {
+    if (byTest.isEmpty()) {
+      return;
+    }
+    String testId = event.getContextData().getValue(TEST_ID_KEY);
+    LogRingBuffer ring = testId != null ? byTest.get(testId) : null;
+    if (ring == null) {
+      ring = byThread.get(event.getThreadId());
+    }
+    if (ring != null) {
+      ring.append(getLayout().toByteArray(event));
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package com.mk.fx.qa.qap.junit.logs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Captures the log output of each test into a bounded per-test ring (see {@link TestLogAppender}).
+ *
+ * <p>{@link #begin} starts routing events for a test, {@link #end} stops and returns what was kept.
+ * In {@link Mode#TAIL} every test keeps its last {@code maxBytes}; in {@link Mode#FAILURES} only
+ * failing tests keep theirs, so the bound can be much larger. When output was dropped, the kept
+ * text starts at a line boundary after a {@code ... [n bytes dropped]} marker.
+ *
+ * <p>Off-heap rings are allocated at full size once and pooled, so they cost no heap and no
+ * allocation per test. Capture requires Log4j2 core to be the active logging backend; otherwise
+ * {@link #install} returns {@code null}.
+ *
+ * <p>Every capture in the JVM routes through one appender. Log4j2 keeps only the first appender of
+ * a given name, so an appender per capture (one per extension instance, i.e. per top-level class)
+ * would leave all but the first detached. The layout is therefore fixed by the first capture.
+ */
+public final class TestLogCapture {
+
+  private static final Logger log = LoggerFactory.getLogger(TestLogCapture.class);
+
+  public static final String DEFAULT_PATTERN =
+      "%d{HH:mm:ss.SSS} %-5level [%t] %c{1} - %msg%n%throwable";
+
+  /** Which tests keep their logs. */
+  public enum Mode {
+    TAIL,
+    FAILURES;
+
+    /** Parses {@code tail} or {@code failures}; anything else (including {@code off}) is null. */
+    public static Mode parse(String value) {
+      if (value == null) {
+        return null;
+      }
+      return switch (value.trim().toLowerCase(Locale.ROOT)) {
+        case "tail" -> TAIL;
+        case "failures" -> FAILURES;
+        default -> null;
+      };
+    }
+  }
+
+  // Shared by every capture; guarded by the class lock
+  private static TestLogAppender sharedAppender;
+  private static volatile Configuration installedIn;
+
+  private final Mode mode;
+  private final int maxBytes;
+  private final boolean offHeap;
+  private final TestLogAppender appender;
+  private final LoggerContext loggerContext;
+  private final Queue<LogRingBuffer> pool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pooled = new AtomicInteger();
+  private final int maxPooled = Runtime.getRuntime().availableProcessors() * 2;
+
+  private TestLogCapture(
+      Mode mode, int maxBytes, boolean offHeap, String pattern, LoggerContext loggerContext) {
+    this.mode = mode;
+    this.maxBytes = Math.max(1024, maxBytes);
+    this.offHeap = offHeap;
+    this.loggerContext = loggerContext;
+    this.appender = sharedAppender(pattern);
+  }
+
+  private static synchronized TestLogAppender sharedAppender(String pattern) {
+    if (sharedAppender == null) {
+      sharedAppender =
+          new TestLogAppender(
+              PatternLayout.newBuilder()
+                  .withPattern(pattern != null ? pattern : DEFAULT_PATTERN)
+                  .withCharset(StandardCharsets.UTF_8)
+                  .build());
+      sharedAppender.start();
+    }
+    return sharedAppender;
+  }
+
+  /**
+   * Registers the appender with the current Log4j2 context. Returns {@code null} (and logs why)
+   * when Log4j2 core is not the logging backend.
+   */
+  public static TestLogCapture install(Mode mode, int maxBytes, boolean offHeap, String pattern) {
+    try {
+      if (!(LogManager.getContext(false) instanceof LoggerContext context)) {
+        log.info("QAP log capture disabled: Log4j2 core is not the active logging backend");
+        return null;
+      }
+      TestLogCapture capture = new TestLogCapture(mode, maxBytes, offHeap, pattern, context);
+      ensureInstalled(context, capture.appender);
+      return capture;
+    } catch (LinkageError | RuntimeException e) {
+      log.info("QAP log capture disabled: {}", e.toString());
+      return null;
+    }
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+
+  /** Starts capturing for a test on the current thread. */
+  public void begin(String testId) {
+    ensureInstalled(loggerContext, appender);
+    LogRingBuffer ring = offHeap ? pool.poll() : null;
+    if (ring != null) {
+      pooled.decrementAndGet();
+    } else {
+      ring = offHeap ? LogRingBuffer.direct(maxBytes) : LogRingBuffer.heap(maxBytes);
+    }
+    appender.register(testId, Thread.currentThread().getId(), ring);
+    ThreadContext.put(TestLogAppender.TEST_ID_KEY, testId);
+  }
+
+  /**
+   * Stops capturing for a test; must run on the thread that called {@link #begin}.
+   *
+   * @return the kept log bytes, or null when nothing is kept for this test
+   */
+  public byte[] end(String testId, boolean failed) {
+    ThreadContext.remove(TestLogAppender.TEST_ID_KEY);
+    LogRingBuffer ring = appender.unregister(testId, Thread.currentThread().getId());
+    if (ring == null) {
+      return null;
+    }
+    try {
+      if (mode == Mode.FAILURES && !failed) {
+        return null;
+      }
+      return render(ring);
+    } finally {
+      release(ring);
+    }
+  }
+
+  private static byte[] render(LogRingBuffer ring) {
+    byte[] kept = ring.toByteArray();
+    long dropped = ring.dropped();
+    if (kept.length == 0 || dropped == 0L) {
+      return kept.length == 0 ? null : kept;
+    }
+    // Start at the first complete line; the cut may be mid-line or mid-character
+    int start = 0;
+    while (start < kept.length && kept[start] != '\n') {
+      start++;
+    }
+    start = Math.min(kept.length, start + 1);
+    byte[] marker =
+        ("... [" + (dropped + start) + " bytes dropped]\n").getBytes(StandardCharsets.UTF_8);
+    byte[] out = new byte[marker.length + kept.length - start];
+    System.arraycopy(marker, 0, out, 0, marker.length);
+    System.arraycopy(kept, start, out, marker.length, kept.length - start);
+    return out;
+  }
+
+  private void release(LogRingBuffer ring) {
+    if (ring.isDirect() && pooled.incrementAndGet() <= maxPooled) {
+      ring.reset();
+      pool.offer(ring);
+    } else if (ring.isDirect()) {
+      pooled.decrementAndGet();
+    }
+  }
+
+  /** Adds the appender to the active configuration, again after a reconfiguration. */
+  private static void ensureInstalled(LoggerContext loggerContext, TestLogAppender appender) {
+    Configuration config = loggerContext.getConfiguration();
+    if (config == installedIn) {
+      return;
+    }
+    synchronized (TestLogCapture.class) {
+      if (config == installedIn) {
+        return;
+      }
+      config.addAppender(appender);
+      config.getRootLogger().addAppender(appender, null, null);
+      for (LoggerConfig logger : config.getLoggers().values()) {
+        // Non-additive loggers never reach the root
+        if (!logger.isAdditive() && !logger.getAppenders().containsKey(TestLogAppender.NAME)) {
+          logger.addAppender(appender, null, null);
+        }
+      }
+      loggerContext.updateLoggers();
+      installedIn = config;
+    }
+  }
+}
@@ -0,0 +1,444 @@
+package com.mk.fx.qa.qap.junit.merge;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchShape;
+import com.mk.fx.qa.qap.junit.extension.publisher.PayloadFormat;
+import com.mk.fx.qa.qap.junit.model.QAPCallbackOverhead;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPOverhead;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges many launch files (one per top-level class and fork) into a single run document with one
+ * combined {@link QAPHeader}, the concatenated {@code testClasses} of every input and the union of
+ * their {@code failures} (distinct failure traces, keyed by id).
+ *
+ * <p>Inputs are never loaded as a tree, except compact launches ({@code qap.report.shape=compact})
+ * whose string table follows their classes: those are expanded into the tree shape as a whole. A
+ * first parallel pass reads only each file's header. The second pass streams the {@code
+ * testClasses} arrays: workers on a {@link ForkJoinPool} tokenize a bounded window of files ahead
+ * of the writer, which copies them into the output generator in a stable order (launch start time,
+ * then path). Memory is bounded by the window, not the run size. Inputs ending in {@code .gz} are
+ * decompressed, and an output path ending in {@code .gz} is compressed. Inputs may be JSON, Smile
+ * or CBOR launches ({@code qap.report.format}), detected from their first bytes and otherwise from
+ * their extension; the merged document is written with {@code mapper}.
+ */
+public class LaunchMerger {
+
+  private static final Logger log = LoggerFactory.getLogger(LaunchMerger.class);
+
+  private static final String HEADER = "header";
+  private static final String TEST_CLASSES = "testClasses";
+  private static final String FAILURES = "failures";
+  private static final int IO_BUFFER_SIZE = 256 * 1024;
+  private static final int FORMAT_PROBE_BYTES = 3;
+
+  /** Outcome of a merge. */
+  public record Result(int inputs, int merged, int skipped, long testClasses) {}
+
+  private final ObjectMapper mapper;
+  private final Map<PayloadFormat, JsonFactory> factories = new EnumMap<>(PayloadFormat.class);
+  private final ForkJoinPool pool;
+  private final int window;
+  private final boolean prettyPrint;
+
+  public LaunchMerger(ObjectMapper mapper) {
+    this(mapper, ForkJoinPool.commonPool(), false);
+  }
+
+  /**
+   * @param mapper mapper used for headers and generator/parser configuration
+   * @param pool pool on which inputs are parsed
+   * @param prettyPrint whether to indent the merged document
+   */
+  public LaunchMerger(ObjectMapper mapper, ForkJoinPool pool, boolean prettyPrint) {
+    this.mapper = Objects.requireNonNull(mapper, "mapper");
+    for (PayloadFormat format : PayloadFormat.values()) {
+      factories.put(
+          format, format.isBinary() ? format.newMapper().getFactory() : mapper.getFactory());
+    }
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.window = Math.max(2, pool.getParallelism() * 2);
+    this.prettyPrint = prettyPrint;
+  }
+
+  /**
+   * Expands directories into the launch files they contain: {@code *.json}, {@code *.sml} and
+   * {@code *.cbor}, each optionally {@code .gz}.
+   */
+  public static List<Path> collectInputs(List<Path> paths) throws IOException {
+    List<Path> inputs = new ArrayList<>();
+    for (Path path : paths) {
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> files = Files.walk(path)) {
+          inputs.addAll(
+              files
+                  .filter(Files::isRegularFile)
+                  .filter(LaunchMerger::isLaunchFile)
+                  .sorted()
+                  .collect(Collectors.toList()));
+        }
+      } else {
+        inputs.add(path);
+      }
+    }
+    return inputs;
+  }
+
+  public Result merge(List<Path> inputs, Path output) throws IOException {
+    List<Source> sources = scanHeaders(inputs);
+    List<Source> readable = sources.stream().filter(s -> s.header() != null).toList();
+    QAPHeader header = mergeHeaders(readable);
+
+    if (output.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(output.toAbsolutePath().getParent());
+    }
+    long testClasses;
+    Map<String, TokenBuffer> failures = new LinkedHashMap<>();
+    try (OutputStream out = openOutput(output);
+        JsonGenerator gen = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      if (prettyPrint) {
+        gen.useDefaultPrettyPrinter();
+      }
+      gen.writeStartObject();
+      gen.writeFieldName(HEADER);
+      mapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValue(gen, header);
+      gen.writeArrayFieldStart(TEST_CLASSES);
+      testClasses = copyTestClasses(readable, gen, failures);
+      gen.writeEndArray();
+      if (!failures.isEmpty()) {
+        gen.writeObjectFieldStart(FAILURES);
+        for (Map.Entry<String, TokenBuffer> failure : failures.entrySet()) {
+          gen.writeFieldName(failure.getKey());
+          failure.getValue().serialize(gen);
+        }
+        gen.writeEndObject();
+      }
+      gen.writeEndObject();
+    }
+    int skipped = inputs.size() - readable.size();
+    log.info(
+        "Merged {} launch file(s) into {} ({} test classes, {} skipped).",
+        readable.size(),
+        output,
+        testClasses,
+        skipped);
+    return new Result(inputs.size(), readable.size(), skipped, testClasses);
+  }
+
+  /** Phase 1: reads only the header of every input, in parallel. */
+  private List<Source> scanHeaders(List<Path> inputs) {
+    List<ForkJoinTask<Source>> tasks = new ArrayList<>(inputs.size());
+    for (Path input : inputs) {
+      tasks.add(pool.submit(() -> new Source(input, readHeader(input))));
+    }
+    List<Source> sources = new ArrayList<>(tasks.size());
+    for (ForkJoinTask<Source> task : tasks) {
+      sources.add(task.join());
+    }
+    sources.sort(
+        Comparator.comparingLong(
+                (Source s) -> s.header() != null ? s.header().getLaunchStartTime() : Long.MAX_VALUE)
+            .thenComparing(Source::path));
+    return sources;
+  }
+
+  private QAPHeader readHeader(Path input) {
+    try (JsonParser parser = openParser(input)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        log.warn("Skipping {}: not a launch document.", input);
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        if (HEADER.equals(field)) {
+          return mapper
+              .readerFor(QAPHeader.class)
+              .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+              .readValue(parser);
+        }
+        parser.skipChildren();
+      }
+      log.warn("Skipping {}: no header found.", input);
+    } catch (IOException e) {
+      log.warn("Skipping {}: {}", input, e.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * Phase 2: streams the testClasses elements of each input into the output. Up to {@code window}
+   * files are tokenized ahead of the writer on the pool; the writer consumes them in order.
+   * Failures are collected by id (the same trace keeps the same id across inputs).
+   */
+  private long copyTestClasses(
+      List<Source> sources, JsonGenerator gen, Map<String, TokenBuffer> failures)
+      throws IOException {
+    Deque<ForkJoinTask<Parsed>> inFlight = new ArrayDeque<>();
+    int next = 0;
+    long copied = 0;
+    while (next < sources.size() || !inFlight.isEmpty()) {
+      while (next < sources.size() && inFlight.size() < window) {
+        Source source = sources.get(next++);
+        inFlight.add(pool.submit(() -> readTestClasses(source.path())));
+      }
+      Parsed parsed;
+      try {
+        parsed = inFlight.poll().join();
+      } catch (RuntimeException e) {
+        log.warn("Skipping test classes of an unreadable input: {}", e.getMessage());
+        continue;
+      }
+      for (TokenBuffer cls : parsed.testClasses()) {
+        cls.serialize(gen);
+        copied++;
+      }
+      parsed.failures().forEach(failures::putIfAbsent);
+    }
+    return copied;
+  }
+
+  private Parsed readTestClasses(Path input) {
+    List<TokenBuffer> classes = new ArrayList<>();
+    Map<String, TokenBuffer> failures = new LinkedHashMap<>();
+    boolean compact = false;
+    try (JsonParser parser = openParser(input)) {
+      parser.nextToken();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if (TEST_CLASSES.equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() == JsonToken.START_OBJECT) {
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.copyCurrentStructure(parser);
+            classes.add(buffer);
+          }
+        } else if (FAILURES.equals(field) && value == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String id = parser.currentName();
+            parser.nextToken();
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.copyCurrentStructure(parser);
+            failures.putIfAbsent(id, buffer);
+          }
+        } else {
+          compact |= LaunchShape.STRINGS.equals(field);
+          parser.skipChildren();
+        }
+      }
+      // The string table of a compact launch follows its classes, which hold only indexes
+      return compact ? readExpanded(input) : new Parsed(classes, failures);
+    } catch (IOException e) {
+      throw new UncheckedIOException(input + ": " + e.getMessage(), e);
+    }
+  }
+
+  /** Reads a compact launch as a tree and expands it; such a file is held in memory once. */
+  private Parsed readExpanded(Path input) throws IOException {
+    JsonNode launch;
+    try (JsonParser parser = openParser(input)) {
+      launch = mapper.readTree(parser);
+    }
+    LaunchShape.expand((ObjectNode) launch);
+    List<TokenBuffer> classes = new ArrayList<>();
+    for (JsonNode cls : launch.path(TEST_CLASSES)) {
+      classes.add(buffer(cls));
+    }
+    Map<String, TokenBuffer> failures = new LinkedHashMap<>();
+    Iterator<Map.Entry<String, JsonNode>> entries = launch.path(FAILURES).fields();
+    while (entries.hasNext()) {
+      Map.Entry<String, JsonNode> entry = entries.next();
+      failures.putIfAbsent(entry.getKey(), buffer(entry.getValue()));
+    }
+    return new Parsed(classes, failures);
+  }
+
+  private TokenBuffer buffer(JsonNode node) throws IOException {
+    try (JsonParser tokens = node.traverse(mapper)) {
+      tokens.nextToken();
+      TokenBuffer buffer = new TokenBuffer(tokens);
+      buffer.copyCurrentStructure(tokens);
+      return buffer;
+    }
+  }
+
+  /**
+   * Combines headers: earliest start, latest end, regression if any input was, the launch id when
+   * all inputs agree, overhead summed across inputs, and the remaining descriptive fields (host,
+   * commit, JVM flags, content type, timeline) from the earliest launch that has them. Timelines
+   * are built from per-JVM monotonic clocks and cannot be combined, so the earliest one is kept.
+   */
+  static QAPHeader mergeHeaders(List<Source> sources) {
+    long start = Long.MAX_VALUE;
+    long end = 0L;
+    String launchId = null;
+    boolean mixedIds = false;
+    for (Source source : sources) {
+      QAPHeader h = source.header();
+      start = Math.min(start, h.getLaunchStartTime());
+      end = Math.max(end, h.getLaunchEndTime());
+      if (launchId == null) {
+        launchId = h.getLaunchId();
+      } else if (h.getLaunchId() != null && !launchId.equals(h.getLaunchId())) {
+        mixedIds = true;
+      }
+    }
+    if (mixedIds) {
+      log.warn("Merging launches with different launch ids; keeping '{}'.", launchId);
+    }
+    QAPHeader merged = new QAPHeader(sources.isEmpty() ? 0L : start, launchId);
+    merged.setLaunchEndTime(end);
+    for (Source source : sources) {
+      QAPHeader h = source.header();
+      merged.setRegression(merged.isRegression() || h.isRegression());
+      if (merged.getApplicationName() == null) merged.setApplicationName(h.getApplicationName());
+      if (merged.getTestEnvironment() == null) merged.setTestEnvironment(h.getTestEnvironment());
+      if (merged.getUser() == null) merged.setUser(h.getUser());
+      if (merged.getGitBranch() == null) merged.setGitBranch(h.getGitBranch());
+      if (merged.getOsVersion() == null) merged.setOsVersion(h.getOsVersion());
+      if (merged.getJdkVersion() == null) merged.setJdkVersion(h.getJdkVersion());
+      if (merged.getTestRunnerVersion() == null) {
+        merged.setTestRunnerVersion(h.getTestRunnerVersion());
+      }
+      if (merged.getGitCommit() == null) merged.setGitCommit(h.getGitCommit());
+      if (merged.getHostName() == null) merged.setHostName(h.getHostName());
+      if (merged.getCpuCount() == null) merged.setCpuCount(h.getCpuCount());
+      if (merged.getContentType() == null) merged.setContentType(h.getContentType());
+      if (merged.getTimeline() == null) merged.setTimeline(h.getTimeline());
+      if (merged.getJvmFlags() == null || merged.getJvmFlags().isEmpty()) {
+        merged.setJvmFlags(h.getJvmFlags());
+      }
+      if (h.getOverhead() != null) {
+        merged.setOverhead(mergeOverhead(merged.getOverhead(), h.getOverhead()));
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Sums counts, times and allocations; callback percentiles cannot be combined from summaries,
+   * so the largest per input is kept as an upper bound. Allocations are untracked (-1) if any input
+   * did not track them.
+   */
+  static QAPOverhead mergeOverhead(QAPOverhead sum, QAPOverhead next) {
+    QAPOverhead merged = sum;
+    if (merged == null) {
+      merged = new QAPOverhead();
+      merged.setAllocationTracked(true);
+    }
+    merged.setTestCount(merged.getTestCount() + next.getTestCount());
+    merged.setTestNanos(merged.getTestNanos() + next.getTestNanos());
+    merged.setExtensionNanos(merged.getExtensionNanos() + next.getExtensionNanos());
+    merged.setAllocationTracked(merged.isAllocationTracked() && next.isAllocationTracked());
+    merged.setAllocatedBytes(
+        merged.isAllocationTracked()
+            ? merged.getAllocatedBytes() + next.getAllocatedBytes()
+            : -1L);
+    if (merged.getTestNanos() > 0) {
+      double percent = 100.0 * merged.getExtensionNanos() / merged.getTestNanos();
+      merged.setOverheadPercent(Math.round(percent * 100.0) / 100.0);
+    }
+    if (next.getCallbacks() != null) {
+      for (Map.Entry<String, QAPCallbackOverhead> entry : next.getCallbacks().entrySet()) {
+        merged.getCallbacks().merge(entry.getKey(), entry.getValue(), LaunchMerger::mergeCallback);
+      }
+    }
+    return merged;
+  }
+
+  private static QAPCallbackOverhead mergeCallback(QAPCallbackOverhead a, QAPCallbackOverhead b) {
+    QAPCallbackOverhead merged = new QAPCallbackOverhead();
+    merged.setCount(a.getCount() + b.getCount());
+    merged.setTotalNanos(a.getTotalNanos() + b.getTotalNanos());
+    merged.setP50Nanos(Math.max(a.getP50Nanos(), b.getP50Nanos()));
+    merged.setP90Nanos(Math.max(a.getP90Nanos(), b.getP90Nanos()));
+    merged.setP99Nanos(Math.max(a.getP99Nanos(), b.getP99Nanos()));
+    merged.setMaxNanos(Math.max(a.getMaxNanos(), b.getMaxNanos()));
+    merged.setAllocatedBytes(
+        a.getAllocatedBytes() < 0 || b.getAllocatedBytes() < 0
+            ? -1L
+            : a.getAllocatedBytes() + b.getAllocatedBytes());
+    return merged;
+  }
+
+  private JsonParser openParser(Path input) throws IOException {
+    String name = input.getFileName().toString();
+    InputStream in = new BufferedInputStream(Files.newInputStream(input), IO_BUFFER_SIZE);
+    if (name.endsWith(".gz")) {
+      in = new BufferedInputStream(new GZIPInputStream(in, IO_BUFFER_SIZE), IO_BUFFER_SIZE);
+    }
+    in.mark(FORMAT_PROBE_BYTES);
+    byte[] probe = in.readNBytes(FORMAT_PROBE_BYTES);
+    in.reset();
+    // Smile and tagged CBOR announce themselves; otherwise trust the extension
+    PayloadFormat format = PayloadFormat.detect(probe);
+    PayloadFormat named = formatOf(name);
+    if (format == PayloadFormat.JSON && named != null) {
+      format = named;
+    }
+    return factories.get(format).createParser(in);
+  }
+
+  /** Format named by a file's extension, ignoring a trailing {@code .gz}; null if none. */
+  private static PayloadFormat formatOf(String name) {
+    String base = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    for (PayloadFormat format : PayloadFormat.values()) {
+      if (base.endsWith("." + format.fileExtension())) {
+        return format;
+      }
+    }
+    return null;
+  }
+
+  private static OutputStream openOutput(Path output) throws IOException {
+    OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), IO_BUFFER_SIZE);
+    if (output.getFileName().toString().endsWith(".gz")) {
+      out = new GZIPOutputStream(out, IO_BUFFER_SIZE);
+    }
+    return out;
+  }
+
+  private static boolean isLaunchFile(Path file) {
+    return formatOf(file.getFileName().toString()) != null;
+  }
+
+  record Source(Path path, QAPHeader header) {}
+
+  private record Parsed(List<TokenBuffer> testClasses, Map<String, TokenBuffer> failures) {}
+}
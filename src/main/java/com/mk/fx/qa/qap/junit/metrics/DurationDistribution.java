@@ -0,0 +1,51 @@
+package com.mk.fx.qa.qap.junit.metrics;
+
+import com.mk.fx.qa.qap.junit.model.QAPDurationStats;
+import java.util.Arrays;
+
+/**
+ * Durations collected into a growing primitive array, so exact nearest-rank percentiles can be
+ * reported without boxing or keeping one object per sample.
+ */
+public final class DurationDistribution {
+
+  private long[] samples = new long[16];
+  private int count;
+  private long totalNanos;
+
+  public synchronized void add(long nanos) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count << 1);
+    }
+    samples[count++] = nanos;
+    totalNanos += nanos;
+  }
+
+  public synchronized int count() {
+    return count;
+  }
+
+  public synchronized QAPDurationStats summarize() {
+    QAPDurationStats stats = new QAPDurationStats();
+    stats.setCount(count);
+    stats.setTotalNanos(totalNanos);
+    if (count > 0) {
+      long[] sorted = Arrays.copyOf(samples, count);
+      Arrays.sort(sorted);
+      stats.setMinNanos(sorted[0]);
+      stats.setMaxNanos(sorted[count - 1]);
+      stats.setMeanNanos(totalNanos / count);
+      stats.setP50Nanos(percentile(sorted, 0.50));
+      stats.setP90Nanos(percentile(sorted, 0.90));
+      stats.setP99Nanos(percentile(sorted, 0.99));
+      stats.setP999Nanos(percentile(sorted, 0.999));
+    }
+    return stats;
+  }
+
+  /** Nearest-rank percentile of an ascending, non-empty array. */
+  static long percentile(long[] sorted, double p) {
+    int rank = (int) Math.ceil(p * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+}
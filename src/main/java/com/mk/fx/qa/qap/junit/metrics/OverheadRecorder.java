@@ -0,0 +1,183 @@
+package com.mk.fx.qa.qap.junit.metrics;
+
+import com.mk.fx.qa.qap.junit.model.QAPCallbackOverhead;
+import com.mk.fx.qa.qap.junit.model.QAPOverhead;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how long the extension spends in each of its callbacks, and how much it allocates where
+ * the JVM supports per-thread allocation counters.
+ *
+ * <p>Usage is {@code Sample s = recorder.start(); ... recorder.stop(Callback.X, s);}. The {@link
+ * #DISABLED} recorder returns {@code null} from {@code start()} and ignores {@code stop()}, so the
+ * disabled path neither reads the clock nor allocates.
+ */
+public class OverheadRecorder {
+
+  /** Shared no-op recorder used when {@code qap.metrics.overhead} is off. */
+  public static final OverheadRecorder DISABLED = new OverheadRecorder(false);
+
+  /** Timed extension callbacks, keyed in the report by their JUnit method name. */
+  public enum Callback {
+    BEFORE_ALL("beforeAll"),
+    BEFORE_EACH("beforeEach"),
+    INTERCEPT_TEST_TEMPLATE_METHOD("interceptTestTemplateMethod"),
+    AFTER_EACH("afterEach"),
+    TEST_SUCCESSFUL("testSuccessful"),
+    TEST_FAILED("testFailed"),
+    TEST_ABORTED("testAborted"),
+    TEST_DISABLED("testDisabled"),
+    AFTER_ALL("afterAll"),
+    FINALIZE_LAUNCH("finalizeLaunch"),
+    PUBLISH("publish");
+
+    private final String key;
+
+    Callback(String key) {
+      this.key = key;
+    }
+
+    public String key() {
+      return key;
+    }
+  }
+
+  /** In-flight measurement of one callback invocation. */
+  public static final class Sample {
+    private final long startNanos;
+    private final long startBytes;
+    private long excludedNanos;
+    private long excludedBytes;
+
+    private Sample(long startNanos, long startBytes) {
+      this.startNanos = startNanos;
+      this.startBytes = startBytes;
+    }
+
+    /** Excludes work done on behalf of the test (e.g. the test body) from this sample. */
+    public void exclude(long nanos, long bytes) {
+      excludedNanos += nanos;
+      excludedBytes += bytes;
+    }
+  }
+
+  private final boolean enabled;
+  private final Map<Callback, CallbackStats> stats = new EnumMap<>(Callback.class);
+  private final AtomicLong testCount = new AtomicLong();
+  private final AtomicLong testNanos = new AtomicLong();
+
+  public OverheadRecorder() {
+    this(true);
+  }
+
+  private OverheadRecorder(boolean enabled) {
+    this.enabled = enabled;
+    if (enabled) {
+      for (Callback callback : Callback.values()) {
+        stats.put(callback, new CallbackStats());
+      }
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Starts timing a callback; returns {@code null} when disabled. */
+  public Sample start() {
+    if (!enabled) {
+      return null;
+    }
+    return new Sample(System.nanoTime(), allocatedBytes());
+  }
+
+  public void stop(Callback callback, Sample sample) {
+    if (sample == null) {
+      return;
+    }
+    long nanos = System.nanoTime() - sample.startNanos - sample.excludedNanos;
+    long bytes =
+        ThreadResources.allocationSupported()
+            ? allocatedBytes() - sample.startBytes - sample.excludedBytes
+            : -1L;
+    stats.get(callback).add(Math.max(0L, nanos), Math.max(-1L, bytes));
+  }
+
+  /** Adds the wall time of one test, used as the denominator of the overhead percentage. */
+  public void recordTest(long nanos) {
+    if (enabled) {
+      testCount.incrementAndGet();
+      testNanos.addAndGet(nanos);
+    }
+  }
+
+  /** Bytes allocated so far by the current thread, or 0 when unavailable. */
+  public long allocatedBytes() {
+    return ThreadResources.allocationSupported() ? ThreadResources.allocatedBytes() : 0L;
+  }
+
+  /** Snapshot of everything recorded so far; callbacks that never ran are omitted. */
+  public QAPOverhead snapshot() {
+    QAPOverhead overhead = new QAPOverhead();
+    overhead.setTestCount(testCount.get());
+    overhead.setTestNanos(testNanos.get());
+    overhead.setAllocationTracked(enabled && ThreadResources.allocationSupported());
+    long extensionNanos = 0;
+    long extensionBytes = 0;
+    for (Map.Entry<Callback, CallbackStats> entry : stats.entrySet()) {
+      QAPCallbackOverhead callback = entry.getValue().summarize();
+      if (callback.getCount() == 0) {
+        continue;
+      }
+      overhead.getCallbacks().put(entry.getKey().key(), callback);
+      if (entry.getKey() != Callback.PUBLISH) {
+        // Publish runs inside finalizeLaunch and is reported on its own
+        extensionNanos += callback.getTotalNanos();
+        extensionBytes += Math.max(0L, callback.getAllocatedBytes());
+      }
+    }
+    overhead.setExtensionNanos(extensionNanos);
+    overhead.setAllocatedBytes(overhead.isAllocationTracked() ? extensionBytes : -1L);
+    if (overhead.getTestNanos() > 0) {
+      double percent = 100.0 * extensionNanos / overhead.getTestNanos();
+      overhead.setOverheadPercent(Math.round(percent * 100.0) / 100.0);
+    }
+    return overhead;
+  }
+
+  /** Durations of one callback; samples are kept so exact percentiles can be reported. */
+  private static final class CallbackStats {
+    private long[] samples = new long[64];
+    private int count;
+    private long totalNanos;
+    private long totalBytes;
+
+    synchronized void add(long nanos, long bytes) {
+      if (count == samples.length) {
+        samples = Arrays.copyOf(samples, count << 1);
+      }
+      samples[count++] = nanos;
+      totalNanos += nanos;
+      totalBytes = (bytes < 0 || totalBytes < 0) ? -1L : totalBytes + bytes;
+    }
+
+    synchronized QAPCallbackOverhead summarize() {
+      QAPCallbackOverhead summary = new QAPCallbackOverhead();
+      summary.setCount(count);
+      summary.setTotalNanos(totalNanos);
+      summary.setAllocatedBytes(totalBytes);
+      if (count > 0) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        summary.setP50Nanos(DurationDistribution.percentile(sorted, 0.50));
+        summary.setP90Nanos(DurationDistribution.percentile(sorted, 0.90));
+        summary.setP99Nanos(DurationDistribution.percentile(sorted, 0.99));
+        summary.setMaxNanos(sorted[count - 1]);
+      }
+      return summary;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.mk.fx.qa.qap.junit.metrics;
+
+import com.mk.fx.qa.qap.junit.model.QAPResourceUsage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * CPU time, user time and allocated bytes of the current thread, read through {@link
+ * ThreadMXBean}. Counters the JVM does not support (or does not permit enabling) read as -1.
+ *
+ * <p>The beans are resolved when this class is first used, so code paths that never measure do
+ * not touch them. All readings are for the calling thread, which keeps them correct when tests run
+ * in parallel: a test's start and end are sampled on the worker that runs it.
+ */
+public final class ThreadResources {
+
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  private static final boolean CPU_SUPPORTED = enableCpuTime();
+  private static final com.sun.management.ThreadMXBean ALLOCATIONS = resolveAllocations();
+
+  private ThreadResources() {}
+
+  /** Readings taken at the start of a measured interval. */
+  public record Sample(long cpuNanos, long userNanos, long allocatedBytes) {
+
+    /** Resources consumed by the current thread since this sample. */
+    public QAPResourceUsage elapsed() {
+      Sample now = sample();
+      return new QAPResourceUsage(
+          delta(cpuNanos, now.cpuNanos),
+          delta(userNanos, now.userNanos),
+          delta(allocatedBytes, now.allocatedBytes));
+    }
+
+    private static long delta(long start, long end) {
+      return (start < 0 || end < 0) ? -1L : Math.max(0L, end - start);
+    }
+  }
+
+  public static Sample sample() {
+    return new Sample(cpuNanos(), userNanos(), allocatedBytes());
+  }
+
+  public static boolean allocationSupported() {
+    return ALLOCATIONS != null;
+  }
+
+  public static long cpuNanos() {
+    return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1L;
+  }
+
+  public static long userNanos() {
+    return CPU_SUPPORTED ? THREADS.getCurrentThreadUserTime() : -1L;
+  }
+
+  public static long allocatedBytes() {
+    return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : -1L;
+  }
+
+  private static boolean enableCpuTime() {
+    try {
+      if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+        return false;
+      }
+      if (!THREADS.isThreadCpuTimeEnabled()) {
+        THREADS.setThreadCpuTimeEnabled(true);
+      }
+      return THREADS.isThreadCpuTimeEnabled();
+    } catch (RuntimeException e) {
+      // Not supported or not permitted; CPU times are reported as -1
+      return false;
+    }
+  }
+
+  private static com.sun.management.ThreadMXBean resolveAllocations() {
+    try {
+      if (THREADS instanceof com.sun.management.ThreadMXBean bean
+          && bean.isThreadAllocatedMemorySupported()) {
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+          bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+      }
+    } catch (RuntimeException | LinkageError e) {
+      // Not a HotSpot-compatible JVM or not permitted; allocation counts are reported as -1
+    }
+    return null;
+  }
+}
@@ -3,9 +3,9 @@ package com.mk.fx.qa.qap.junit.model;
 import static org.apache.commons.lang3.ObjectUtils.isNotEmpty;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.Collections;
-import java.util.HashSet;
+import com.mk.fx.qa.qap.junit.fix.FixRecorder;
 import java.util.Set;
 import lombok.Data;
 import lombok.ToString;
@@ -15,6 +15,19 @@ public abstract class QAPBaseTestCase {
 
   protected long startTime;
   protected long endTime;
+  // Monotonic clock readings for sub-millisecond durations; 0 when not captured
+  @JsonIgnore protected long startNanos;
+  @JsonIgnore protected long endNanos;
+  // Worker that ran the test; captured only when the timeline is enabled
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  protected String thread;
+
+  @JsonIgnore protected long threadId;
+
+  // Thread CPU, user time and allocations between beforeEach and the test's outcome
+  // (qap.metrics.resources)
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  protected QAPResourceUsage resources;
   protected String status;
 
   @ToString.Exclude @JsonIgnore protected byte[] logs;
@@ -23,60 +36,72 @@ public abstract class QAPBaseTestCase {
 
   @ToString.Exclude @JsonIgnore protected byte[] exception;
 
-  protected Set<String> tag = new HashSet<>();
-  protected Set<String> classTags = new HashSet<>();
-  protected Set<String> inheritedClassTags = new HashSet<>();
+  // Canonical immutable sets from TagSets: tests of one class share their class-level sets
+  protected Set<String> tag = Set.of();
+  protected Set<String> classTags = Set.of();
+  protected Set<String> inheritedClassTags = Set.of();
+
+  // Statuses and worker names repeat across records; see SharedStrings
+  public void setStatus(String status) {
+    this.status = SharedStrings.intern(status);
+  }
+
+  public void setThread(String thread) {
+    this.thread = SharedStrings.intern(thread);
+  }
 
   @JsonIgnore
   public Set<String> getMethodTags() {
-    return Collections.unmodifiableSet(tag);
+    return tag;
   }
 
   @JsonIgnore
   public Set<String> getTag() {
-    return Collections.unmodifiableSet(tag);
+    return tag;
+  }
+
+  public void setTag(Set<String> tags) {
+    this.tag = TagSets.intern(tags);
   }
 
   @JsonIgnore
   public Set<String> getInheritedClassTags() {
-    return Collections.unmodifiableSet(inheritedClassTags);
+    return inheritedClassTags;
   }
 
   public void setInheritedClassTags(Set<String> tags) {
-    this.inheritedClassTags.clear();
-    if (tags != null) {
-      this.inheritedClassTags.addAll(tags);
-    }
+    this.inheritedClassTags = TagSets.intern(tags);
   }
 
   public void addInheritedClassTags(Set<String> tags) {
-    if (tags != null) {
-      this.inheritedClassTags.addAll(tags);
-    }
+    this.inheritedClassTags = TagSets.union(inheritedClassTags, tags);
   }
 
   @JsonIgnore
   public Set<String> getClassTags() {
-    return Collections.unmodifiableSet(classTags);
+    return classTags;
   }
 
   @JsonProperty("tags")
   public QAPTags getTags() {
-    return new QAPTags(
-        Collections.unmodifiableSet(tag),
-        Collections.unmodifiableSet(classTags),
-        Collections.unmodifiableSet(inheritedClassTags));
+    return new QAPTags(tag, classTags, inheritedClassTags);
   }
 
-  public void setClassTags(Set<String> tags) {
-    this.classTags.clear();
+  @JsonProperty("tags")
+  public void setTags(QAPTags tags) {
     if (tags != null) {
-      this.classTags.addAll(tags);
+      setTag(tags.getMethod());
+      setClassTags(tags.getClazz());
+      setInheritedClassTags(tags.getInherited());
     }
   }
 
+  public void setClassTags(Set<String> tags) {
+    this.classTags = TagSets.intern(tags);
+  }
+
   public void addTag(String tag) {
-    this.tag.add(tag);
+    this.tag = TagSets.with(this.tag, tag);
   }
 
   public boolean hasTags() {
@@ -87,10 +112,21 @@ public abstract class QAPBaseTestCase {
     return isNotEmpty(logs);
   }
 
-  // Always serialize logs as an array for consistency
+  // Always serialize logs as an array for consistency; captured as UTF-8 (qap.logs.capture)
   @JsonProperty("logs")
   public java.util.List<String> getLogs() {
-    return java.util.Collections.emptyList();
+    if (!hasLogs()) {
+      return java.util.Collections.emptyList();
+    }
+    return new String(logs, java.nio.charset.StandardCharsets.UTF_8).lines().toList();
+  }
+
+  @JsonProperty("logs")
+  public void setLogLines(java.util.List<String> lines) {
+    this.logs =
+        lines == null || lines.isEmpty()
+            ? null
+            : String.join("\n", lines).getBytes(java.nio.charset.StandardCharsets.UTF_8);
   }
 
   @JsonProperty("durationMillis")
@@ -98,6 +134,15 @@ public abstract class QAPBaseTestCase {
     return (endTime > 0L && startTime > 0L && endTime >= startTime) ? (endTime - startTime) : 0L;
   }
 
+  /** Monotonic duration when both readings were captured, otherwise the wall-clock duration. */
+  @JsonIgnore
+  public long getDurationNanos() {
+    if (startNanos != 0L && endNanos != 0L && endNanos >= startNanos) {
+      return endNanos - startNanos;
+    }
+    return getDurationMillis() * 1_000_000L;
+  }
+
   public boolean hasFix() {
     return isNotEmpty(fix);
   }
@@ -106,10 +151,19 @@ public abstract class QAPBaseTestCase {
     return isNotEmpty(exception);
   }
 
-  // Serialize fix/exception as arrays when absent to avoid nulls
+  // Serialize fix/exception as arrays when absent to avoid nulls; one FIX message per entry, with
+  // its SOH delimiters, split on message boundaries (values may contain newlines)
   @JsonProperty("fix")
   public java.util.List<String> getFixArray() {
-    return java.util.Collections.emptyList();
+    if (!hasFix()) {
+      return java.util.Collections.emptyList();
+    }
+    return FixRecorder.messages(fix);
+  }
+
+  @JsonProperty("fix")
+  public void setFixArray(java.util.List<String> messages) {
+    this.fix = messages == null || messages.isEmpty() ? null : FixRecorder.frame(messages);
   }
 
   @JsonProperty("exception")
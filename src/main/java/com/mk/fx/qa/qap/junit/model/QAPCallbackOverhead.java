@@ -0,0 +1,17 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import lombok.Data;
+
+/** Timing and allocation statistics of one extension callback across a launch. */
+@Data
+public class QAPCallbackOverhead {
+
+  private long count;
+  private long totalNanos;
+  private long p50Nanos;
+  private long p90Nanos;
+  private long p99Nanos;
+  private long maxNanos;
+  // -1 when the JVM does not support per-thread allocation counting
+  private long allocatedBytes;
+}
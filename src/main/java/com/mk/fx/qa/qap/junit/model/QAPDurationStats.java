@@ -0,0 +1,18 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import lombok.Data;
+
+/** Duration distribution of the invocations folded into one aggregated test record. */
+@Data
+public class QAPDurationStats {
+
+  private long count;
+  private long totalNanos;
+  private long minNanos;
+  private long maxNanos;
+  private long meanNanos;
+  private long p50Nanos;
+  private long p90Nanos;
+  private long p99Nanos;
+  private long p999Nanos;
+}
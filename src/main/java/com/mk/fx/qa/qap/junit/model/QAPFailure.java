@@ -0,0 +1,75 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mk.fx.qa.qap.junit.failure.StackTraceRenderer;
+
+/**
+ * A captured test failure, shared by every test that failed with an identical trace. Tests refer
+ * to it by {@link #getId()}; the launch lists each distinct failure once under {@code failures}.
+ *
+ * <p>The {@link Throwable} is held as captured and only rendered (bounded) the first time the
+ * trace is read, normally at publish time. The throwable is released once rendered.
+ */
+public class QAPFailure {
+
+  private final String id;
+  private final String type;
+  private final String message;
+  private Throwable throwable;
+  private StackTraceRenderer renderer;
+  private String stackTrace;
+
+  public QAPFailure(String id, Throwable throwable, StackTraceRenderer renderer) {
+    this.id = id;
+    this.type = throwable.getClass().getName();
+    this.message = throwable.getMessage();
+    this.throwable = throwable;
+    this.renderer = renderer;
+  }
+
+  @JsonCreator
+  public QAPFailure(
+      @JsonProperty("id") String id,
+      @JsonProperty("type") String type,
+      @JsonProperty("message") String message,
+      @JsonProperty("stackTrace") String stackTrace) {
+    this.id = id;
+    this.type = type;
+    this.message = message;
+    this.stackTrace = stackTrace;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  /** Bounded rendering of the captured throwable; rendered once on first access. */
+  public synchronized String getStackTrace() {
+    if (stackTrace == null && throwable != null) {
+      stackTrace = renderer.render(throwable);
+      throwable = null;
+      renderer = null;
+    }
+    return stackTrace;
+  }
+
+  @JsonIgnore
+  public synchronized boolean isRendered() {
+    return throwable == null;
+  }
+
+  @Override
+  public String toString() {
+    return "QAPFailure{id=" + id + ", type=" + type + ", message=" + message + '}';
+  }
+}
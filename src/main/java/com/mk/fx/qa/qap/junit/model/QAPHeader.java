@@ -1,6 +1,7 @@
 package com.mk.fx.qa.qap.junit.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
@@ -13,12 +14,35 @@ public class QAPHeader {
   private String user;
   private final String launchId;
   private String gitBranch;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String gitCommit;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String hostName;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Integer cpuCount;
+
+  // Tuning flags only (-X, -XX, assertions); system properties are never reported
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  private java.util.List<String> jvmFlags;
+
   private boolean isRegression;
   private long launchEndTime;
   private String osVersion;
   private String testRunnerVersion;
   private String jdkVersion;
 
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String contentType;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private QAPOverhead overhead;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private QAPTimeline timeline;
+
   @JsonCreator
   public QAPHeader(
       @JsonProperty("launchStartTime") long launchStartTime,
@@ -1,9 +1,12 @@
 package com.mk.fx.qa.qap.junit.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 
 @Getter
@@ -14,6 +17,11 @@ public class QAPJunitLaunch {
   @JsonProperty("testClasses")
   private final List<QAPTestClass> testClasses;
 
+  // Distinct failures of the launch by id; tests refer to them through failureId
+  @JsonProperty("failures")
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  private final Map<String, QAPFailure> failures = new LinkedHashMap<>();
+
   @JsonCreator
   public QAPJunitLaunch(
       @JsonProperty("header") QAPHeader header,
@@ -0,0 +1,26 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Self-measured cost of the QAP extension for one launch, reported in the header when {@code
+ * qap.metrics.overhead=true}.
+ *
+ * <p>{@code extensionNanos} sums every timed callback up to the point the launch was assembled;
+ * test bodies run through {@code interceptTestTemplateMethod} are excluded. Publishing happens
+ * after the header is written and is therefore logged rather than reported here.
+ */
+@Data
+public class QAPOverhead {
+
+  private long testCount;
+  // Wall time between the end of beforeEach and the start of afterEach, summed over tests
+  private long testNanos;
+  private long extensionNanos;
+  private double overheadPercent;
+  private boolean allocationTracked;
+  private long allocatedBytes;
+  private Map<String, QAPCallbackOverhead> callbacks = new LinkedHashMap<>();
+}
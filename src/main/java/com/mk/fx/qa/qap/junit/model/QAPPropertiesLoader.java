@@ -14,11 +14,51 @@ public class QAPPropertiesLoader {
 
   private final String appName;
   private final String fixMessageLogging;
+  private final int fixMaxKb;
   private final String testEnvironment;
   private final String runEnvironment;
   private final String user;
   private final boolean isReportingEnabled;
   private final String apiKey;
+  private final boolean prettyPrint;
+  private final String publisher;
+  private final String payloadFormat;
+  private final String payloadShape;
+  private final String ndjsonFile;
+  private final boolean asyncPublishing;
+  private final String reportScope;
+  private final int reportScopeMaxClasses;
+  private final String reportMode;
+  private final int asyncCapacity;
+  private final String asyncOverflowPolicy;
+  private final int asyncBatchSize;
+  private final long asyncShutdownTimeoutMillis;
+  private final String asyncSpillDir;
+  private final boolean legacyFlatList;
+  private final boolean overheadMetrics;
+  private final boolean resourceMetrics;
+  private final String reportDir;
+  private final boolean reportGzip;
+  private final int reportMaxFiles;
+  private final long reportMaxTotalBytes;
+  private final int reportBufferSize;
+  private final String httpUrl;
+  private final boolean httpGzip;
+  private final int httpMaxInFlight;
+  private final long httpTimeoutMillis;
+  private final int httpMaxRetries;
+  private final long httpBackoffMillis;
+  private final int paramsMaxLength;
+  private final int aggregateMinInvocations;
+  private final String timelineDir;
+  private final String historyFile;
+  private final long historyMaxAgeDays;
+  private final String logsCapture;
+  private final int logsMaxKb;
+  private final boolean logsOffHeap;
+  private final String logsPattern;
+  private final String launchIdFile;
+  private final long launchIdFileTtlSeconds;
 
   private String isRegression;
 
@@ -26,12 +66,69 @@ public class QAPPropertiesLoader {
     Properties qapAttributes = loadQAPAttributes();
     this.appName = qapAttributes.getProperty("qap.app.name");
     this.fixMessageLogging = qapAttributes.getProperty("qap.report.fix.messaging");
+    this.fixMaxKb = intProperty(qapAttributes, "qap.report.fix.max.kb", 256);
     this.user = qapAttributes.getProperty("qap.user", System.getProperty("user.name"));
     this.testEnvironment = qapAttributes.getProperty("qap.test.environment");
     this.runEnvironment = qapAttributes.getProperty("qap.run.environment", "UAT");
     this.isReportingEnabled =
         Boolean.parseBoolean(qapAttributes.getProperty("qap.report.test.data", "true"));
     this.apiKey = qapAttributes.getProperty("qap.api.key");
+    this.prettyPrint =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.report.pretty.print", "false"));
+    this.publisher = qapAttributes.getProperty("qap.report.publisher", "stdout");
+    this.payloadFormat = qapAttributes.getProperty("qap.report.format", "json");
+    this.payloadShape = qapAttributes.getProperty("qap.report.shape", "tree");
+    this.ndjsonFile = qapAttributes.getProperty("qap.report.ndjson.file");
+    this.asyncPublishing =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.report.async", "false"));
+    this.reportScope = qapAttributes.getProperty("qap.report.scope", "class");
+    this.reportScopeMaxClasses = intProperty(qapAttributes, "qap.report.scope.max.classes", 1000);
+    this.reportMode = qapAttributes.getProperty("qap.report.mode", "extension");
+    this.asyncCapacity = intProperty(qapAttributes, "qap.report.async.capacity", 64);
+    this.asyncOverflowPolicy = qapAttributes.getProperty("qap.report.async.overflow", "BLOCK");
+    this.asyncBatchSize = intProperty(qapAttributes, "qap.report.async.batch.size", 16);
+    this.asyncShutdownTimeoutMillis =
+        longProperty(qapAttributes, "qap.report.async.shutdown.timeout.ms", 10_000L);
+    this.asyncSpillDir = qapAttributes.getProperty("qap.report.async.spill.dir");
+    this.legacyFlatList =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.store.flat.list", "true"));
+    this.overheadMetrics =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.metrics.overhead", "false"));
+    this.resourceMetrics =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.metrics.resources", "false"));
+    this.reportDir = qapAttributes.getProperty("qap.report.file.dir", "build/qap-reports");
+    this.reportGzip =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.report.file.gzip", "false"));
+    this.reportMaxFiles = intProperty(qapAttributes, "qap.report.file.max.files", 0);
+    this.reportMaxTotalBytes = longProperty(qapAttributes, "qap.report.file.max.total.bytes", 0L);
+    this.reportBufferSize =
+        intProperty(qapAttributes, "qap.report.file.buffer.size", 1024 * 1024);
+    this.httpUrl = qapAttributes.getProperty("qap.report.http.url");
+    this.httpGzip =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.report.http.gzip", "true"));
+    this.httpMaxInFlight = intProperty(qapAttributes, "qap.report.http.max.in.flight", 4);
+    this.httpTimeoutMillis = longProperty(qapAttributes, "qap.report.http.timeout.ms", 10_000L);
+    this.httpMaxRetries = intProperty(qapAttributes, "qap.report.http.max.retries", 3);
+    this.httpBackoffMillis = longProperty(qapAttributes, "qap.report.http.backoff.ms", 200L);
+    this.paramsMaxLength = intProperty(qapAttributes, "qap.params.max.length", 256);
+    this.aggregateMinInvocations =
+        intProperty(qapAttributes, "qap.report.aggregate.min.invocations", 0);
+    this.timelineDir = qapAttributes.getProperty("qap.report.timeline.dir");
+    this.historyFile = qapAttributes.getProperty("qap.history.file");
+    this.historyMaxAgeDays = longProperty(qapAttributes, "qap.history.max.age.days", 30L);
+    this.logsCapture = qapAttributes.getProperty("qap.logs.capture", "off");
+    // Failing tests are rare, so failures-only capture affords a larger tail per test
+    this.logsMaxKb =
+        intProperty(
+            qapAttributes,
+            "qap.logs.max.kb",
+            "failures".equalsIgnoreCase(logsCapture.trim()) ? 1024 : 64);
+    this.logsOffHeap =
+        Boolean.parseBoolean(qapAttributes.getProperty("qap.logs.offheap", "false"));
+    this.logsPattern = qapAttributes.getProperty("qap.logs.pattern");
+    this.launchIdFile = qapAttributes.getProperty("qap.launch.id.file");
+    this.launchIdFileTtlSeconds =
+        longProperty(qapAttributes, "qap.launch.id.file.ttl.seconds", 60L);
   }
 
   public Properties loadQAPAttributes() {
@@ -41,12 +138,30 @@ public class QAPPropertiesLoader {
         throw new IOException("Unable to find qap.properties");
       }
       properties.load(in);
-    } catch (IOException e) {
+    } catch (IOException | IllegalArgumentException e) {
+      // IllegalArgumentException: a malformed unicode escape
       log.error("Unable to load properties: {}", e.getMessage());
     }
     return properties;
   }
 
+  private static int intProperty(Properties properties, String key, int defaultValue) {
+    return (int) longProperty(properties, key, defaultValue);
+  }
+
+  private static long longProperty(Properties properties, String key, long defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      log.warn("Invalid value '{}' for {}, using default {}", value, key, defaultValue);
+      return defaultValue;
+    }
+  }
+
   public Properties loadGitProperties() {
     Properties properties = new Properties();
     try (InputStream in = getClass().getClassLoader().getResourceAsStream("git.properties")) {
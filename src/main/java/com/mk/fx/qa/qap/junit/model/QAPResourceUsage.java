@@ -0,0 +1,34 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import lombok.Data;
+
+/**
+ * Thread resources consumed by a test, or summed over the tests of a class. Each value is -1 when
+ * the JVM does not support measuring it.
+ */
+@Data
+public class QAPResourceUsage {
+
+  private long cpuNanos;
+  private long userNanos;
+  private long allocatedBytes;
+
+  public QAPResourceUsage() {}
+
+  public QAPResourceUsage(long cpuNanos, long userNanos, long allocatedBytes) {
+    this.cpuNanos = cpuNanos;
+    this.userNanos = userNanos;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  /** Adds {@code other}; a value unsupported on either side stays -1. */
+  public void add(QAPResourceUsage other) {
+    cpuNanos = sum(cpuNanos, other.cpuNanos);
+    userNanos = sum(userNanos, other.userNanos);
+    allocatedBytes = sum(allocatedBytes, other.allocatedBytes);
+  }
+
+  private static long sum(long a, long b) {
+    return (a < 0 || b < 0) ? -1L : a + b;
+  }
+}
@@ -0,0 +1,43 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * A single record of the newline-delimited launch stream. Exactly one of header, testClass, test
+ * or failure is populated depending on the event type. A failure is emitted once, before the first
+ * test that refers to it.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QAPStreamEvent {
+
+  public enum Type {
+    LAUNCH_START,
+    CLASS_NODE,
+    TEST,
+    FAILURE,
+    LAUNCH_END
+  }
+
+  private final Type event;
+  private final String launchId;
+  private final long timestamp;
+  private String classKey;
+  private QAPHeader header;
+  private QAPTestClass testClass;
+  private QAPTest test;
+  private QAPFailure failure;
+
+  @JsonCreator
+  public QAPStreamEvent(
+      @JsonProperty("event") Type event,
+      @JsonProperty("launchId") String launchId,
+      @JsonProperty("timestamp") long timestamp) {
+    this.event = event;
+    this.launchId = launchId;
+    this.timestamp = timestamp;
+  }
+}
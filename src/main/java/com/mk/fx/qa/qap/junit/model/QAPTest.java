@@ -16,7 +16,28 @@ public class QAPTest extends QAPBaseTestCase {
   private String methodDisplayName; // e.g. "Parameterized test in SecondLevelNested"
 
   private List<QAPTestParams> parameters;
-  private String testType; // TEST, PARAMETERIZED, etc.
+  private String testType; // TEST, PARAMETERIZED, AGGREGATED, etc.
+
+  // Set on AGGREGATED records only: the distribution of the folded passing invocations
+  @com.fasterxml.jackson.annotation.JsonInclude(
+      com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+  private QAPDurationStats durationStats;
+
+  // Shared with every test that failed with the same trace; listed once under launch failures
+  @com.fasterxml.jackson.annotation.JsonIgnore private QAPFailure failure;
+
+  @com.fasterxml.jackson.annotation.JsonProperty("failureId")
+  @com.fasterxml.jackson.annotation.JsonInclude(
+      com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+  public String getFailureId() {
+    return failure != null ? failure.getId() : null;
+  }
+
+  // Read back as a stand-in carrying the id; JsonUtil.readLaunch swaps in the launch's failure
+  @com.fasterxml.jackson.annotation.JsonProperty("failureId")
+  public void setFailureId(String failureId) {
+    this.failure = failureId != null ? new QAPFailure(failureId, null, null, null) : null;
+  }
 
   @com.fasterxml.jackson.annotation.JsonProperty("parameters")
   public java.util.List<QAPTestParams> getParametersOrEmpty() {
@@ -24,11 +45,23 @@ public class QAPTest extends QAPBaseTestCase {
   }
 
   // Backwards-compatible convenience constructor used by tests and call sites
-  public QAPTest(String methodName, String displayName) {
-    this.methodName = methodName;
+  @com.fasterxml.jackson.annotation.JsonCreator
+  public QAPTest(
+      @com.fasterxml.jackson.annotation.JsonProperty("methodName") String methodName,
+      @com.fasterxml.jackson.annotation.JsonProperty("displayName") String displayName) {
+    this.methodName = SharedStrings.intern(methodName);
     this.displayName = displayName;
   }
 
+  // Shared by every invocation of the method; see SharedStrings
+  public void setMethodDisplayName(String methodDisplayName) {
+    this.methodDisplayName = SharedStrings.intern(methodDisplayName);
+  }
+
+  public void setTestType(String testType) {
+    this.testType = SharedStrings.intern(testType);
+  }
+
   public boolean hasParameters() {
     return parameters != null && !parameters.isEmpty();
   }
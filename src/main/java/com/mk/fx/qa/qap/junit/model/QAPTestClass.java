@@ -26,16 +26,44 @@ public class QAPTestClass {
   private List<String> classChain;
 
   private List<QAPTest> testCases;
+
+  // Timeline capture (qap.report.timeline.dir): worker that ran beforeAll and monotonic span
+  private String thread;
+  @JsonIgnore private long threadId;
+  @JsonIgnore private long startNanos;
+  @JsonIgnore private long endNanos;
+
+  // Sum over the tests of this class, excluding nested classes (qap.metrics.resources)
+  private QAPResourceUsage resources;
   private List<QAPTestClass> children = new ArrayList<>();
 
+  public QAPTestClass(String className, String displayName, Set<String> classTags) {
+    this.className = className;
+    this.displayName = displayName;
+    this.classTags = classTags != null ? TagSets.intern(classTags) : null;
+  }
+
+  // Published classes carry their tags only as the grouped "tags" object
   @JsonCreator
-  public QAPTestClass(
+  static QAPTestClass fromJson(
       @JsonProperty("className") String className,
       @JsonProperty("displayName") String displayName,
-      @JsonProperty("classTags") Set<String> classTags) {
-    this.className = className;
-    this.displayName = displayName;
-    this.classTags = classTags;
+      @JsonProperty("tags") QAPClassTags tags) {
+    if (tags == null) {
+      return new QAPTestClass(className, displayName, null);
+    }
+    QAPTestClass testClass = new QAPTestClass(className, displayName, tags.getClazz());
+    testClass.setInheritedClassTags(tags.getInherited());
+    return testClass;
+  }
+
+  /** Records the worker and start of the class the first time it is called. */
+  public synchronized void markStarted(Thread worker, long nanos) {
+    if (thread == null) {
+      thread = worker.getName();
+      threadId = worker.getId();
+      startNanos = nanos;
+    }
   }
 
   @JsonProperty("tags")
@@ -48,6 +76,11 @@ public class QAPTestClass {
     return inheritedClassTags;
   }
 
+  // Interned so that the tests of this class share the instance (see TagSets)
+  public void setInheritedClassTags(Set<String> tags) {
+    this.inheritedClassTags = tags != null ? TagSets.intern(tags) : null;
+  }
+
   // Prevent duplicate exposure of classTags alongside the unified tags object
   @JsonIgnore
   public Set<String> getClassTags() {
@@ -2,12 +2,95 @@ package com.mk.fx.qa.qap.junit.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.mk.fx.qa.qap.junit.params.ParameterRenderer;
+import java.util.Objects;
 
-public record QAPTestParams(
-    @JsonProperty("index") int argumentIndex,
-    @JsonProperty("type") String argumentType,
-    @JsonProperty("value") String argumentValue) {
+/**
+ * One argument of a parameterized invocation.
+ *
+ * <p>Arguments captured by {@link #deferred} are held by reference and rendered the first time
+ * {@link #argumentValue()} is read. The extension reads it in {@code afterEach}, so rendering stays
+ * out of the timed invocation while arguments are not retained until the launch is published; an
+ * argument the test mutates is reported as it is after the test. The reference is released once
+ * rendered.
+ */
+@JsonPropertyOrder({"index", "type", "value"})
+public final class QAPTestParams {
+
+  private final int argumentIndex;
+  private final String argumentType;
+  private Object argument;
+  private ParameterRenderer renderer;
+  private String argumentValue;
 
   @JsonCreator
-  public QAPTestParams {}
+  public QAPTestParams(
+      @JsonProperty("index") int argumentIndex,
+      @JsonProperty("type") String argumentType,
+      @JsonProperty("value") String argumentValue) {
+    this.argumentIndex = argumentIndex;
+    this.argumentType = argumentType;
+    this.argumentValue = argumentValue;
+  }
+
+  private QAPTestParams(int argumentIndex, Object argument, ParameterRenderer renderer) {
+    this.argumentIndex = argumentIndex;
+    this.argumentType = argument != null ? argument.getClass().getSimpleName() : "null";
+    this.argument = argument;
+    this.renderer = renderer;
+  }
+
+  /** Captures {@code argument} without rendering it; see the class comment. */
+  public static QAPTestParams deferred(
+      int argumentIndex, Object argument, ParameterRenderer renderer) {
+    return argument == null
+        ? new QAPTestParams(argumentIndex, "null", "null")
+        : new QAPTestParams(argumentIndex, argument, Objects.requireNonNull(renderer));
+  }
+
+  @JsonProperty("index")
+  public int argumentIndex() {
+    return argumentIndex;
+  }
+
+  @JsonProperty("type")
+  public String argumentType() {
+    return argumentType;
+  }
+
+  @JsonProperty("value")
+  public synchronized String argumentValue() {
+    if (argumentValue == null && renderer != null) {
+      argumentValue = renderer.render(argument);
+      argument = null;
+      renderer = null;
+    }
+    return argumentValue;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o
+        || (o instanceof QAPTestParams other
+            && argumentIndex == other.argumentIndex
+            && Objects.equals(argumentType, other.argumentType)
+            && Objects.equals(argumentValue(), other.argumentValue()));
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(argumentIndex, argumentType, argumentValue());
+  }
+
+  @Override
+  public String toString() {
+    return "QAPTestParams[argumentIndex="
+        + argumentIndex
+        + ", argumentType="
+        + argumentType
+        + ", argumentValue="
+        + argumentValue()
+        + ']';
+  }
 }
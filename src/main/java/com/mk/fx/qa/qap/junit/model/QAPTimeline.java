@@ -0,0 +1,22 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * How well a launch used its worker threads, derived from the monotonic start/end of its tests.
+ * Utilization is busy test time over {@code workers x wallNanos}; the serial tail is the time
+ * between the last moment two or more tests overlapped and the end of the last test.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QAPTimeline {
+
+  private int workers;
+  private int maxConcurrency;
+  private long wallNanos;
+  private long busyNanos;
+  private double utilizationPercent;
+  private long serialTailNanos;
+  private String traceFile;
+}
@@ -0,0 +1,42 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of the low-cardinality strings every test record carries: method names,
+ * method display names, test types, statuses and worker thread names.
+ *
+ * <p>Invocations of a parameterized or repeated method, and records read back from JSON, would
+ * otherwise each hold their own copies. Like {@link TagSets}, the table is JVM-wide and bounded;
+ * once full, strings are kept as given. Per-invocation values such as display names and test case
+ * ids are not interned.
+ */
+public final class SharedStrings {
+
+  public static final int MAX_ENTRIES = 16_384;
+
+  private static final Map<String, String> STRINGS = new ConcurrentHashMap<>();
+
+  private SharedStrings() {}
+
+  /** The canonical string equal to {@code value}; {@code null} for {@code null}. */
+  public static String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    String shared = STRINGS.get(value);
+    if (shared != null) {
+      return shared;
+    }
+    if (STRINGS.size() >= MAX_ENTRIES) {
+      return value;
+    }
+    shared = STRINGS.putIfAbsent(value, value);
+    return shared != null ? shared : value;
+  }
+
+  static int size() {
+    return STRINGS.size();
+  }
+}
@@ -0,0 +1,65 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical immutable tag sets shared by every test record.
+ *
+ * <p>A run has few distinct tag combinations: all tests of a class carry the same class and
+ * inherited tags, and most methods carry none or one of a handful. Records therefore hold
+ * references to one interned {@code Set.copyOf} per distinct set instead of a {@code HashSet}
+ * each, and equal sets are the same instance. The table is JVM-wide and bounded; once full, new
+ * sets are still copied into compact immutable sets, just not shared.
+ */
+public final class TagSets {
+
+  public static final int MAX_ENTRIES = 4096;
+
+  private static final Map<Set<String>, Set<String>> SETS = new ConcurrentHashMap<>();
+
+  private TagSets() {}
+
+  /** The canonical immutable set equal to {@code tags}; empty for {@code null}. */
+  public static Set<String> intern(Set<String> tags) {
+    if (tags == null || tags.isEmpty()) {
+      return Set.of();
+    }
+    Set<String> shared = SETS.get(tags);
+    if (shared != null) {
+      return shared;
+    }
+    Set<String> copy = Set.copyOf(tags);
+    if (SETS.size() >= MAX_ENTRIES) {
+      return copy;
+    }
+    shared = SETS.putIfAbsent(copy, copy);
+    return shared != null ? shared : copy;
+  }
+
+  /** The canonical set of {@code tags} plus {@code tag}. */
+  public static Set<String> with(Set<String> tags, String tag) {
+    if (tag == null || tags.contains(tag)) {
+      return intern(tags);
+    }
+    Set<String> grown = new HashSet<>(tags);
+    grown.add(tag);
+    return intern(grown);
+  }
+
+  /** The canonical union of two sets. */
+  public static Set<String> union(Set<String> tags, Set<String> more) {
+    if (more == null || more.isEmpty() || tags.containsAll(more)) {
+      return intern(tags);
+    }
+    Set<String> grown = new HashSet<>(tags);
+    grown.addAll(more);
+    return intern(grown);
+  }
+
+  static int size() {
+    return SETS.size();
+  }
+}
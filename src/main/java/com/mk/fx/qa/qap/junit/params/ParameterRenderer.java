@@ -0,0 +1,306 @@
+package com.mk.fx.qa.qap.junit.params;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders test-template arguments for the report.
+ *
+ * <p>Renderers are chosen per argument type: an exact registration wins, then the first registered
+ * supertype, then the built-ins. Built-ins render character sequences with FIX field separators
+ * (SOH) shown as {@code |}, arrays by content rather than identity ({@code [B@1f2a}), byte arrays
+ * as hex, and collections and maps element by element through the same renderers. Renderers are
+ * registered by {@link ParameterRendererProvider} services, see {@link #withProviders}.
+ *
+ * <p>Values longer than {@code maxLength} are cut and suffixed with their full length and a
+ * SHA-256 content hash, so equal values can still be matched across runs. Byte arrays are hashed on
+ * their raw bytes and only the shown prefix is ever hex-encoded. Arrays, collections and maps are
+ * rendered against the remaining length budget and stop expanding once it is spent; they are
+ * suffixed with their element count instead.
+ */
+public final class ParameterRenderer {
+
+  public static final int DEFAULT_MAX_LENGTH = 256;
+
+  private static final Logger log = LoggerFactory.getLogger(ParameterRenderer.class);
+
+  private static final int MAX_DEPTH = 8;
+  private static final int HASH_HEX_CHARS = 16;
+  private static final char SOH = '\u0001';
+  private static final HexFormat HEX = HexFormat.of();
+
+  /** Marker for types without a registered renderer, so the lookup runs once per type. */
+  private static final Function<Object, String> NONE = value -> null;
+
+  private final int maxLength;
+  private final Map<Class<?>, Function<Object, String>> registered = new LinkedHashMap<>();
+  private final Map<Class<?>, Function<Object, String>> resolved = new ConcurrentHashMap<>();
+
+  public ParameterRenderer() {
+    this(DEFAULT_MAX_LENGTH);
+  }
+
+  /** @param maxLength characters kept per value before it is truncated and hashed */
+  public ParameterRenderer(int maxLength) {
+    this.maxLength = Math.max(16, maxLength);
+  }
+
+  /**
+   * A renderer with the renderers of every {@link ParameterRendererProvider} visible to {@code
+   * loader} registered. A provider that fails to load or register is logged and skipped.
+   */
+  public static ParameterRenderer withProviders(int maxLength, ClassLoader loader) {
+    ParameterRenderer renderer = new ParameterRenderer(maxLength);
+    Iterator<ParameterRendererProvider> providers =
+        ServiceLoader.load(ParameterRendererProvider.class, loader).iterator();
+    while (true) {
+      try {
+        if (!providers.hasNext()) {
+          return renderer;
+        }
+        ParameterRendererProvider provider = providers.next();
+        provider.registerRenderers(renderer);
+        log.debug("Registered parameter renderers of {}", provider.getClass().getName());
+      } catch (ServiceConfigurationError | RuntimeException e) {
+        log.warn("Skipping parameter renderer provider: {}", e.toString());
+      }
+    }
+  }
+
+  /** Registers a renderer for a type and its subtypes; later lookups see it immediately. */
+  @SuppressWarnings("unchecked")
+  public synchronized <T> ParameterRenderer register(
+      Class<T> type, Function<? super T, String> renderer) {
+    registered.put(
+        Objects.requireNonNull(type, "type"),
+        (Function<Object, String>) (Function<?, String>) Objects.requireNonNull(renderer));
+    resolved.clear();
+    return this;
+  }
+
+  /** Renders one argument, bounded by {@code maxLength}. */
+  public String render(Object argument) {
+    if (argument instanceof byte[] bytes) {
+      return renderBytes(bytes);
+    }
+    int elements = elementCount(argument);
+    if (elements >= 0) {
+      Output out = new Output(maxLength);
+      renderValue(argument, 0, out);
+      if (!out.cut) {
+        return out.text.toString();
+      }
+      return out.text + "...(" + elements + (elements == 1 ? " element)" : " elements)");
+    }
+    String text = renderScalar(argument);
+    if (text.length() <= maxLength) {
+      return text;
+    }
+    return text.substring(0, maxLength)
+        + truncationSuffix(text.length() + " chars", text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String renderBytes(byte[] bytes) {
+    String prefix = "byte[" + bytes.length + "] ";
+    int shownBytes = Math.max(0, (maxLength - prefix.length()) / 2);
+    if (bytes.length <= shownBytes) {
+      return prefix + HEX.formatHex(bytes);
+    }
+    return prefix
+        + HEX.formatHex(bytes, 0, shownBytes)
+        + truncationSuffix(bytes.length + " bytes", bytes);
+  }
+
+  private static String truncationSuffix(String size, byte[] content) {
+    return "...(" + size + ", sha256:" + sha256(content).substring(0, HASH_HEX_CHARS) + ")";
+  }
+
+  /** Element count of a value the built-ins expand, or {@code -1} for a scalar. */
+  private int elementCount(Object value) {
+    if (value == null || rendererFor(value.getClass()) != null) {
+      return -1;
+    }
+    if (value instanceof byte[] || value instanceof CharSequence) {
+      return -1;
+    }
+    if (value.getClass().isArray()) {
+      return Array.getLength(value);
+    }
+    if (value instanceof Collection<?> collection) {
+      return collection.size();
+    }
+    return value instanceof Map<?, ?> map ? map.size() : -1;
+  }
+
+  private String renderScalar(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    Function<Object, String> custom = rendererFor(value.getClass());
+    if (custom != null) {
+      return safely(custom, value);
+    }
+    if (value instanceof CharSequence text) {
+      return text.toString().replace(SOH, '|');
+    }
+    return safely(String::valueOf, value);
+  }
+
+  /** Appends {@code value} to {@code out}, expanding nothing once the budget is spent. */
+  private void renderValue(Object value, int depth, Output out) {
+    if (out.full()) {
+      return;
+    }
+    if (depth > MAX_DEPTH) {
+      out.append("...");
+      return;
+    }
+    if (elementCount(value) < 0) {
+      if (value instanceof byte[] bytes) {
+        String prefix = "byte[" + bytes.length + "] ";
+        out.append(prefix);
+        int shown = Math.min(bytes.length, Math.max(0, out.remaining() / 2));
+        out.append(HEX.formatHex(bytes, 0, shown));
+        out.cut |= shown < bytes.length;
+      } else {
+        out.append(renderScalar(value));
+      }
+      return;
+    }
+    if (value instanceof Object[] array) {
+      join(Arrays.asList(array).iterator(), "[", "]", depth, out);
+    } else if (value.getClass().isArray()) {
+      primitiveArray(value, out);
+    } else if (value instanceof Collection<?> collection) {
+      join(collection.iterator(), "[", "]", depth, out);
+    } else {
+      out.append("{");
+      Iterator<? extends Map.Entry<?, ?>> entries = ((Map<?, ?>) value).entrySet().iterator();
+      while (entries.hasNext() && !out.full()) {
+        Map.Entry<?, ?> entry = entries.next();
+        renderValue(entry.getKey(), depth + 1, out);
+        out.append("=");
+        renderValue(entry.getValue(), depth + 1, out);
+        if (entries.hasNext()) {
+          out.append(", ");
+        }
+      }
+      out.append("}");
+    }
+  }
+
+  private void join(Iterator<?> elements, String open, String close, int depth, Output out) {
+    out.append(open);
+    while (elements.hasNext() && !out.full()) {
+      renderValue(elements.next(), depth + 1, out);
+      if (elements.hasNext()) {
+        out.append(", ");
+      }
+    }
+    out.append(close);
+  }
+
+  private static void primitiveArray(Object array, Output out) {
+    out.append("[");
+    int length = Array.getLength(array);
+    for (int i = 0; i < length && !out.full(); i++) {
+      if (i > 0) {
+        out.append(", ");
+      }
+      out.append(String.valueOf(Array.get(array, i)));
+    }
+    out.append("]");
+  }
+
+  private Function<Object, String> rendererFor(Class<?> type) {
+    if (registered.isEmpty()) {
+      return null;
+    }
+    Function<Object, String> renderer = resolved.get(type);
+    if (renderer == null) {
+      renderer = lookup(type);
+      resolved.put(type, renderer != null ? renderer : NONE);
+    }
+    return renderer == NONE ? null : renderer;
+  }
+
+  private synchronized Function<Object, String> lookup(Class<?> type) {
+    Function<Object, String> exact = registered.get(type);
+    if (exact != null) {
+      return exact;
+    }
+    for (Map.Entry<Class<?>, Function<Object, String>> entry : registered.entrySet()) {
+      if (entry.getKey().isAssignableFrom(type)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private static String safely(Function<Object, String> renderer, Object value) {
+    try {
+      return String.valueOf(renderer.apply(value));
+    } catch (RuntimeException e) {
+      return "<" + value.getClass().getName() + ": rendering failed: " + e + ">";
+    }
+  }
+
+  /** Rendered text bounded by a character budget; remembers whether anything was left out. */
+  private static final class Output {
+    private final StringBuilder text = new StringBuilder();
+    private final int limit;
+    private boolean cut;
+
+    Output(int limit) {
+      this.limit = limit;
+    }
+
+    void append(String part) {
+      if (cut) {
+        return;
+      }
+      int room = remaining();
+      if (part.length() <= room) {
+        text.append(part);
+      } else {
+        text.append(part, 0, room);
+        cut = true;
+      }
+    }
+
+    int remaining() {
+      return limit - text.length();
+    }
+
+    boolean full() {
+      if (text.length() >= limit) {
+        cut = true;
+      }
+      return cut;
+    }
+  }
+
+  private static String sha256(byte[] content) {
+    try {
+      return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      // Every JRE ships SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.mk.fx.qa.qap.junit.params;
+
+/**
+ * Service that registers renderers for project-specific argument types, e.g. an order rendered by
+ * its id instead of its full {@code toString()}.
+ *
+ * <p>Implementations are listed in {@code
+ * META-INF/services/com.mk.fx.qa.qap.junit.params.ParameterRendererProvider} on the test classpath
+ * and are loaded once per extension instance.
+ */
+public interface ParameterRendererProvider {
+
+  /** Registers this provider's renderers, e.g. {@code renderer.register(Order.class, o -> ...)}. */
+  void registerRenderers(ParameterRenderer renderer);
+}
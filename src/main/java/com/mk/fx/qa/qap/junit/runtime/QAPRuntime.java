@@ -1,12 +1,31 @@
 package com.mk.fx.qa.qap.junit.runtime;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.EnvironmentSnapshot;
 import com.mk.fx.qa.qap.junit.extension.DisplayNameResolver;
+import com.mk.fx.qa.qap.junit.extension.publisher.AggregatingPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.AsyncPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.FileLaunchPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.HttpLaunchPublisher;
 import com.mk.fx.qa.qap.junit.extension.publisher.LaunchPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.LaunchShape;
+import com.mk.fx.qa.qap.junit.extension.publisher.LoggingPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.NdjsonStreamPublisher;
+import com.mk.fx.qa.qap.junit.extension.publisher.PayloadFormat;
 import com.mk.fx.qa.qap.junit.extension.publisher.StdOutPublisher;
 import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Aggregates shared, injectable runtime collaborators for the JUnit extension. Provides default
@@ -14,11 +33,20 @@ import java.util.Objects;
  */
 public class QAPRuntime {
 
+  private static final Logger log = LoggerFactory.getLogger(QAPRuntime.class);
+
+  private static final Map<String, AsyncPublisher> ASYNC_PUBLISHERS = new ConcurrentHashMap<>();
+  private static final Map<String, HttpLaunchPublisher> HTTP_PUBLISHERS = new ConcurrentHashMap<>();
+  private static final Map<String, AggregatingPublisher> AGGREGATING_PUBLISHERS =
+      new ConcurrentHashMap<>();
+  private static final AtomicBoolean AGGREGATE_SHUTDOWN = new AtomicBoolean();
+
   private final ObjectMapper objectMapper;
   private final Clock clock;
   private final QAPPropertiesLoader propertiesLoader;
   private final DisplayNameResolver displayNameResolver;
   private final LaunchPublisher launchPublisher;
+  private final PayloadFormat payloadFormat;
 
   public QAPRuntime(
       ObjectMapper objectMapper,
@@ -26,6 +54,27 @@ public class QAPRuntime {
       QAPPropertiesLoader propertiesLoader,
       DisplayNameResolver displayNameResolver,
       LaunchPublisher launchPublisher) {
+    this(
+        objectMapper,
+        clock,
+        propertiesLoader,
+        displayNameResolver,
+        launchPublisher,
+        PayloadFormat.of(objectMapper));
+  }
+
+  /**
+   * @param objectMapper mapper handed to publishers; must write {@code payloadFormat}
+   * @param payloadFormat wire format recorded in the launch header's content type
+   */
+  public QAPRuntime(
+      ObjectMapper objectMapper,
+      Clock clock,
+      QAPPropertiesLoader propertiesLoader,
+      DisplayNameResolver displayNameResolver,
+      LaunchPublisher launchPublisher,
+      PayloadFormat payloadFormat) {
+    this.payloadFormat = Objects.requireNonNull(payloadFormat, "payloadFormat");
     this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
     this.clock = Objects.requireNonNull(clock, "clock");
     this.propertiesLoader = Objects.requireNonNull(propertiesLoader, "propertiesLoader");
@@ -33,13 +82,182 @@ public class QAPRuntime {
     this.launchPublisher = Objects.requireNonNull(launchPublisher, "launchPublisher");
   }
 
+  /** Runtime over the JVM's shared {@code qap.properties}, which is read once per JVM. */
   public static QAPRuntime defaultRuntime() {
+    QAPPropertiesLoader props = EnvironmentSnapshot.current().getProperties();
+    PayloadFormat format = payloadFormat(props);
     return new QAPRuntime(
-        new ObjectMapper(),
+        payloadShape(props).apply(format.newMapper()),
         Clock.systemUTC(),
-        new QAPPropertiesLoader(),
+        props,
         new DisplayNameResolver(),
-        new StdOutPublisher());
+        createPublisher(props),
+        format);
+  }
+
+  /** Format selected by {@code qap.report.format}; JSON when unset or unknown. */
+  public static PayloadFormat payloadFormat(QAPPropertiesLoader props) {
+    String name = props.getPayloadFormat();
+    if (name == null || name.isBlank()) {
+      return PayloadFormat.JSON;
+    }
+    try {
+      return PayloadFormat.parse(name);
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown qap.report.format '{}', using JSON.", name);
+      return PayloadFormat.JSON;
+    }
+  }
+
+  /** Layout selected by {@code qap.report.shape}; the tree shape when unset or unknown. */
+  public static LaunchShape payloadShape(QAPPropertiesLoader props) {
+    String name = props.getPayloadShape();
+    if (name == null || name.isBlank()) {
+      return LaunchShape.TREE;
+    }
+    try {
+      return LaunchShape.parse(name);
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown qap.report.shape '{}', using tree.", name);
+      return LaunchShape.TREE;
+    }
+  }
+
+  /**
+   * Creates the publisher selected by {@code qap.report.publisher}: {@code stdout} (default),
+   * {@code logging}, {@code ndjson}, {@code file} or {@code http}. With {@code
+   * qap.report.async=true} it is wrapped in a single JVM-wide {@link AsyncPublisher} per publisher
+   * kind, so all extension instances share one bounded queue and worker. HTTP publishers are shared
+   * per endpoint so every test class reuses the same connection. With {@code qap.report.scope} set
+   * to {@code session} or {@code jvm}, one JVM-wide {@link AggregatingPublisher} per kind folds the
+   * launches of all top-level classes before handing them on. Aggregates publish when their
+   * launcher sessions close; one shutdown hook flushes whatever was published outside a session and
+   * then closes the delegates, in that order.
+   */
+  public static LaunchPublisher createPublisher(QAPPropertiesLoader props) {
+    AggregatingPublisher.Scope scope = AggregatingPublisher.Scope.parse(props.getReportScope());
+    if (scope == AggregatingPublisher.Scope.CLASS) {
+      return createClassPublisher(props);
+    }
+    String kind = props.getPublisher() == null ? "stdout" : props.getPublisher().trim();
+    return AGGREGATING_PUBLISHERS.computeIfAbsent(
+        kind.toLowerCase(Locale.ROOT),
+        k -> {
+          registerAggregateShutdown();
+          return new AggregatingPublisher(
+              createClassPublisher(props), scope, props.getReportScopeMaxClasses());
+        });
+  }
+
+  private static void registerAggregateShutdown() {
+    if (!AGGREGATE_SHUTDOWN.compareAndSet(false, true)) {
+      return;
+    }
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> AGGREGATING_PUBLISHERS.values().forEach(AggregatingPublisher::close),
+                "qap-aggregate-shutdown"));
+  }
+
+  private static LaunchPublisher createClassPublisher(QAPPropertiesLoader props) {
+    if (!props.isAsyncPublishing()) {
+      return createSyncPublisher(props);
+    }
+    String kind = props.getPublisher() == null ? "stdout" : props.getPublisher().trim();
+    return ASYNC_PUBLISHERS.computeIfAbsent(
+        kind.toLowerCase(Locale.ROOT), k -> createAsyncPublisher(props));
+  }
+
+  private static AsyncPublisher createAsyncPublisher(QAPPropertiesLoader props) {
+    AsyncPublisher.OverflowPolicy policy;
+    try {
+      policy =
+          AsyncPublisher.OverflowPolicy.valueOf(
+              props.getAsyncOverflowPolicy().trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.warn(
+          "Unknown qap.report.async.overflow '{}', using BLOCK.", props.getAsyncOverflowPolicy());
+      policy = AsyncPublisher.OverflowPolicy.BLOCK;
+    }
+    String spillDir = props.getAsyncSpillDir();
+    return new AsyncPublisher(
+        createSyncPublisher(props),
+        props.getAsyncCapacity(),
+        policy,
+        props.getAsyncBatchSize(),
+        Duration.ofMillis(props.getAsyncShutdownTimeoutMillis()),
+        (spillDir == null || spillDir.isBlank()) ? null : Path.of(spillDir));
+  }
+
+  private static LaunchPublisher createSyncPublisher(QAPPropertiesLoader props) {
+    String kind = props.getPublisher() == null ? "stdout" : props.getPublisher().trim();
+    switch (kind.toLowerCase(Locale.ROOT)) {
+      case "logging":
+        return new LoggingPublisher(prettyPrint(props));
+      case "ndjson":
+        return ndjsonPublisher(props);
+      case "file":
+        return new FileLaunchPublisher(
+            Path.of(props.getReportDir()),
+            props.isReportGzip(),
+            prettyPrint(props),
+            props.getReportMaxFiles(),
+            props.getReportMaxTotalBytes(),
+            props.getReportBufferSize());
+      case "http":
+        return httpPublisher(props);
+      case "stdout":
+        return new StdOutPublisher(prettyPrint(props));
+      default:
+        log.warn("Unknown qap.report.publisher '{}', falling back to stdout.", kind);
+        return new StdOutPublisher(prettyPrint(props));
+    }
+  }
+
+  /** Indentation only applies to plain JSON. */
+  private static boolean prettyPrint(QAPPropertiesLoader props) {
+    return payloadFormat(props).prettyPrint(props.isPrettyPrint());
+  }
+
+  private static LaunchPublisher ndjsonPublisher(QAPPropertiesLoader props) {
+    String file = props.getNdjsonFile();
+    if (file == null || file.isBlank()) {
+      return new NdjsonStreamPublisher();
+    }
+    try {
+      return NdjsonStreamPublisher.forFile(Path.of(file));
+    } catch (IOException e) {
+      log.warn("Unable to open NDJSON file '{}', streaming to stdout: {}", file, e.getMessage());
+      return new NdjsonStreamPublisher();
+    }
+  }
+
+  private static LaunchPublisher httpPublisher(QAPPropertiesLoader props) {
+    String url = props.getHttpUrl();
+    URI endpoint;
+    try {
+      endpoint = URI.create(url == null ? "" : url.trim());
+    } catch (IllegalArgumentException e) {
+      endpoint = null;
+    }
+    if (endpoint == null || endpoint.getScheme() == null) {
+      log.warn("Missing or invalid qap.report.http.url '{}', falling back to stdout.", url);
+      return new StdOutPublisher(prettyPrint(props));
+    }
+    URI target = endpoint;
+    return HTTP_PUBLISHERS.computeIfAbsent(
+        target.toString(),
+        k ->
+            new HttpLaunchPublisher(
+                target,
+                props.getApiKey(),
+                props.isHttpGzip(),
+                prettyPrint(props),
+                props.getHttpMaxInFlight(),
+                Duration.ofMillis(props.getHttpTimeoutMillis()),
+                props.getHttpMaxRetries(),
+                Duration.ofMillis(props.getHttpBackoffMillis())));
   }
 
   public ObjectMapper getObjectMapper() {
@@ -61,4 +279,8 @@ public class QAPRuntime {
   public LaunchPublisher getLaunchPublisher() {
     return launchPublisher;
   }
+
+  public PayloadFormat getPayloadFormat() {
+    return payloadFormat;
+  }
 }
@@ -0,0 +1,113 @@
+package com.mk.fx.qa.qap.junit.store;
+
+import com.mk.fx.qa.qap.junit.core.TestCaseStatus;
+import com.mk.fx.qa.qap.junit.metrics.DurationDistribution;
+import com.mk.fx.qa.qap.junit.model.QAPResourceUsage;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the passing invocations of test templates ({@code @RepeatedTest}, parameterized tests) of
+ * one class node into a single {@code AGGREGATED} record per template once it reaches {@code
+ * minInvocations}.
+ *
+ * <p>Per invocation only the duration is kept, in a primitive array. Until a template reaches the
+ * threshold its invocations are also held as full records and reported unchanged, so templates
+ * with a handful of cases keep their parameters. Failing and aborted invocations are never handed
+ * to the aggregator and are always reported in full.
+ */
+public final class RepetitionAggregator {
+
+  public static final String AGGREGATED = "AGGREGATED";
+
+  private final int minInvocations;
+  private final Map<String, Series> series = Collections.synchronizedMap(new LinkedHashMap<>());
+
+  /** @param minInvocations passing invocations at which a template is folded; at least 1 */
+  public RepetitionAggregator(int minInvocations) {
+    this.minInvocations = Math.max(1, minInvocations);
+  }
+
+  /**
+   * @param templateKey identifies the template, e.g. the unique id of its container context
+   * @param test a passing invocation
+   */
+  public void add(String templateKey, QAPTest test) {
+    series.computeIfAbsent(templateKey, k -> new Series()).add(test, minInvocations);
+  }
+
+  /** Appends one aggregated record per folded template, or its invocations if not folded. */
+  public void appendTo(List<QAPTest> tests) {
+    List<Series> snapshot;
+    synchronized (series) {
+      snapshot = new ArrayList<>(series.values());
+    }
+    for (Series s : snapshot) {
+      s.appendTo(tests, minInvocations);
+    }
+  }
+
+  private static final class Series {
+    private final DurationDistribution durations = new DurationDistribution();
+    private final List<QAPTest> retained = new ArrayList<>();
+    private QAPTest first;
+    private long startTime = Long.MAX_VALUE;
+    private long endTime;
+    private QAPResourceUsage resources;
+
+    synchronized void add(QAPTest test, int minInvocations) {
+      durations.add(test.getDurationNanos());
+      if (test.getResources() != null) {
+        if (resources == null) {
+          resources = new QAPResourceUsage(0L, 0L, 0L);
+        }
+        resources.add(test.getResources());
+      }
+      if (first == null) {
+        first = test;
+      }
+      startTime = Math.min(startTime, test.getStartTime());
+      endTime = Math.max(endTime, test.getEndTime());
+      if (durations.count() < minInvocations) {
+        retained.add(test);
+      } else {
+        // Folded from here on: only the first invocation is kept, for its metadata
+        retained.clear();
+      }
+    }
+
+    synchronized void appendTo(List<QAPTest> tests, int minInvocations) {
+      if (durations.count() < minInvocations) {
+        tests.addAll(retained);
+        return;
+      }
+      String name = first.getMethodDisplayName();
+      QAPTest aggregated =
+          new QAPTest(first.getMethodName(), name != null ? name : first.getMethodName());
+      aggregated.setTestCaseId(withoutIndex(first.getTestCaseId()));
+      aggregated.setMethodDisplayName(first.getMethodDisplayName());
+      aggregated.setTag(first.getTag());
+      aggregated.setClassTags(first.getClassTags());
+      aggregated.setInheritedClassTags(first.getInheritedClassTags());
+      aggregated.setStartTime(startTime);
+      aggregated.setEndTime(endTime);
+      aggregated.setStatus(TestCaseStatus.PASSED.name());
+      aggregated.setTestType(AGGREGATED);
+      aggregated.setDurationStats(durations.summarize());
+      aggregated.setResources(resources);
+      tests.add(aggregated);
+    }
+
+    private static String withoutIndex(String testCaseId) {
+      if (testCaseId == null || !testCaseId.endsWith("]")) {
+        return testCaseId;
+      }
+      int open = testCaseId.lastIndexOf('[');
+      return open > 0 ? testCaseId.substring(0, open) : testCaseId;
+    }
+  }
+}
@@ -1,11 +1,18 @@
 package com.mk.fx.qa.qap.junit.store;
 
+import static com.mk.fx.qa.qap.junit.core.QAPUtils.CLASS_NODES_KEY;
 import static com.mk.fx.qa.qap.junit.core.QAPUtils.METHOD_DESCRIPTION_KEY;
+import static com.mk.fx.qa.qap.junit.core.QAPUtils.REPETITIONS_KEY;
+import static com.mk.fx.qa.qap.junit.core.QAPUtils.TEST_RECORDS_KEY;
 
 import com.mk.fx.qa.qap.junit.extension.QAPJunitExtension;
 import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
 public class StoreManager {
@@ -64,36 +71,88 @@ public class StoreManager {
     getClassStore(context).put(key, value);
   }
 
+  /**
+   * Returns the class nodes of the current top-level class, creating the map atomically on first
+   * use.
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, QAPTestClass> getClassNodes(ExtensionContext context) {
+    return getClassStore(context)
+        .getOrComputeIfAbsent(
+            CLASS_NODES_KEY, k -> new ConcurrentHashMap<String, QAPTestClass>(), Map.class);
+  }
+
+  /** Returns the per-class test buffers of the current top-level class, keyed like the nodes. */
+  @SuppressWarnings("unchecked")
+  public static Map<String, TestRecordBuffer> getTestRecords(ExtensionContext context) {
+    return getClassStore(context)
+        .getOrComputeIfAbsent(
+            TEST_RECORDS_KEY, k -> new ConcurrentHashMap<String, TestRecordBuffer>(), Map.class);
+  }
+
+  /** Returns the per-class repetition aggregators of the current top-level class. */
+  @SuppressWarnings("unchecked")
+  public static Map<String, RepetitionAggregator> getRepetitions(ExtensionContext context) {
+    return getClassStore(context)
+        .getOrComputeIfAbsent(
+            REPETITIONS_KEY,
+            k -> new ConcurrentHashMap<String, RepetitionAggregator>(),
+            Map.class);
+  }
+
   public static void addDescriptionToClassStore(ExtensionContext context, QAPTest qapTest) {
-    ExtensionContext.Store classStore = getClassStore(context);
-    @SuppressWarnings("unchecked")
-    java.util.Map<String, com.mk.fx.qa.qap.junit.model.QAPTestClass> nodes =
-        classStore.getOrDefault(
-            com.mk.fx.qa.qap.junit.core.QAPUtils.CLASS_NODES_KEY,
-            java.util.Map.class,
-            new java.util.concurrent.ConcurrentHashMap<
-                String, com.mk.fx.qa.qap.junit.model.QAPTestClass>());
+    addDescriptionToClassStore(context, qapTest, true);
+  }
+
+  /**
+   * Records a finished test against its class node. Tests are appended to a striped {@link
+   * TestRecordBuffer} and attached to the nodes once when the launch is assembled.
+   *
+   * @param legacyFlatList whether to also append to the flat list under {@code
+   *     METHOD_DESCRIPTION_KEY}
+   */
+  public static void addDescriptionToClassStore(
+      ExtensionContext context, QAPTest qapTest, boolean legacyFlatList) {
+    String key = ensureClassNode(context);
+    getTestRecords(context).computeIfAbsent(key, k -> new TestRecordBuffer()).add(qapTest);
+
+    if (legacyFlatList) {
+      // Maintain backward-compatible flat list
+      @SuppressWarnings("unchecked")
+      List<QAPTest> flat =
+          getClassStore(context)
+              .getOrComputeIfAbsent(
+                  METHOD_DESCRIPTION_KEY,
+                  k -> Collections.synchronizedList(new ArrayList<QAPTest>()),
+                  List.class);
+      flat.add(qapTest);
+    }
+  }
+
+  /**
+   * Records a passing test-template invocation for aggregation; it is reported as part of one
+   * record per template once the template reaches {@code minInvocations}.
+   *
+   * @param templateKey identifies the template the invocation belongs to
+   */
+  public static void addRepetition(
+      ExtensionContext context, String templateKey, QAPTest qapTest, int minInvocations) {
+    String key = ensureClassNode(context);
+    getRepetitions(context)
+        .computeIfAbsent(key, k -> new RepetitionAggregator(minInvocations))
+        .add(templateKey, qapTest);
+  }
+
+  private static String ensureClassNode(ExtensionContext context) {
     String key = context.getRequiredTestClass().getName();
-    com.mk.fx.qa.qap.junit.model.QAPTestClass node =
-        nodes.computeIfAbsent(
+    getClassNodes(context)
+        .computeIfAbsent(
             key,
             k ->
-                new com.mk.fx.qa.qap.junit.model.QAPTestClass(
+                new QAPTestClass(
                     context.getRequiredTestClass().getSimpleName(),
                     context.getDisplayName(),
-                    java.util.Collections.emptySet()));
-    if (node.getTestCases() == null) {
-      node.setTestCases(new CopyOnWriteArrayList<>());
-    }
-    node.getTestCases().add(qapTest);
-    nodes.put(key, node);
-    classStore.put(com.mk.fx.qa.qap.junit.core.QAPUtils.CLASS_NODES_KEY, nodes);
-
-    // Maintain backward-compatible flat list
-    List<QAPTest> flat =
-        classStore.getOrDefault(
-            METHOD_DESCRIPTION_KEY, List.class, new CopyOnWriteArrayList<QAPTest>());
-    flat.add(qapTest);
-    classStore.put(METHOD_DESCRIPTION_KEY, flat);
+                    Collections.emptySet()));
+    return key;
   }
 }
@@ -0,0 +1,101 @@
+package com.mk.fx.qa.qap.junit.store;
+
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only collection of the finished tests of one class node.
+ *
+ * <p>Appends go to one of several stripes selected by the calling thread, so parallel workers do
+ * not contend on a single lock and no append copies earlier records. Every record takes a sequence
+ * number; {@link #toList()} merges the stripes back into completion order in one linear pass.
+ */
+public final class TestRecordBuffer {
+
+  private static final int MAX_STRIPES = 64;
+
+  private final Stripe[] stripes;
+  private final int mask;
+  private final AtomicLong sequence = new AtomicLong();
+
+  public TestRecordBuffer() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /** @param parallelism expected number of concurrent writers */
+  public TestRecordBuffer(int parallelism) {
+    int target = Math.max(1, Math.min(MAX_STRIPES, parallelism * 2));
+    int size = Integer.highestOneBit(target);
+    if (size < target) {
+      size <<= 1;
+    }
+    this.stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe();
+    }
+    this.mask = size - 1;
+  }
+
+  public void add(QAPTest test) {
+    long seq = sequence.getAndIncrement();
+    Stripe stripe = stripes[stripeIndex()];
+    synchronized (stripe) {
+      stripe.append(seq, test);
+    }
+  }
+
+  public int size() {
+    return (int) sequence.get();
+  }
+
+  /** Returns all records in the order they were added. */
+  public List<QAPTest> toList() {
+    QAPTest[] ordered = new QAPTest[size()];
+    int filled = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        for (int i = 0; i < stripe.count; i++) {
+          int slot = (int) stripe.sequences[i];
+          if (slot < ordered.length) {
+            ordered[slot] = stripe.tests[i];
+            filled++;
+          }
+        }
+      }
+    }
+    List<QAPTest> result = new ArrayList<>(filled);
+    for (QAPTest test : ordered) {
+      // Slots reserved by an append still in flight stay empty
+      if (test != null) {
+        result.add(test);
+      }
+    }
+    return result;
+  }
+
+  private int stripeIndex() {
+    long id = Thread.currentThread().getId();
+    int h = (int) (id ^ (id >>> 32));
+    h ^= (h >>> 16);
+    return ((h * 0x9E3779B9) >>> 16) & mask;
+  }
+
+  private static final class Stripe {
+    private long[] sequences = new long[8];
+    private QAPTest[] tests = new QAPTest[8];
+    private int count;
+
+    void append(long seq, QAPTest test) {
+      if (count == tests.length) {
+        sequences = Arrays.copyOf(sequences, count << 1);
+        tests = Arrays.copyOf(tests, count << 1);
+      }
+      sequences[count] = seq;
+      tests[count] = test;
+      count++;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.mk.fx.qa.qap.junit.timeline;
+
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One Chrome trace per launcher session, covering every class the session ran.
+ *
+ * <p>Top-level classes add their {@link Timeline} as they finish, and the trace is written once
+ * when the session closes, so idle gaps across the whole worker pool and the session's serial tail
+ * show up on one set of tracks. The file, {@code trace-<launchId>-<pid>[-n].json}, is claimed when
+ * the first class is added: names already taken (other forks of the same launch, earlier runs) are
+ * skipped, never replaced. Classes run outside any launcher session share the JVM-wide trace, which
+ * is rewritten as each class is added since nothing closes it.
+ */
+public final class SessionTrace {
+
+  private static final Logger log = LoggerFactory.getLogger(SessionTrace.class);
+
+  private static final Map<LaunchIdentity, SessionTrace> OPEN = new ConcurrentHashMap<>();
+  private static final long PID = ProcessHandle.current().pid();
+
+  private final LaunchIdentity session;
+  private final Path directory;
+  private final List<Timeline.Span> spans = new ArrayList<>();
+  private Path file;
+  private boolean closed;
+
+  private SessionTrace(LaunchIdentity session, Path directory) {
+    this.session = session;
+    this.directory = directory;
+  }
+
+  /** The trace of the launcher session running on this thread, written to {@code directory}. */
+  public static SessionTrace current(Path directory) {
+    LaunchIdentity session = LaunchIdentity.current();
+    boolean[] opened = {false};
+    SessionTrace trace =
+        OPEN.computeIfAbsent(
+            session,
+            s -> {
+              opened[0] = true;
+              return new SessionTrace(s, directory);
+            });
+    if (opened[0] && !session.isJvmWide()) {
+      session.whenClosed(trace::close);
+    }
+    return trace;
+  }
+
+  /**
+   * Adds the spans of a finished class.
+   *
+   * @return the file the session's trace is written to
+   */
+  public synchronized Path add(Timeline timeline) throws IOException {
+    if (file == null) {
+      file = claim(directory, session.getOrCreate());
+    }
+    spans.addAll(timeline.spans());
+    if (closed || session.isJvmWide()) {
+      write();
+    }
+    return file;
+  }
+
+  private void close() {
+    OPEN.remove(session, this);
+    synchronized (this) {
+      closed = true;
+      if (file == null) {
+        return;
+      }
+      try {
+        write();
+      } catch (IOException | RuntimeException e) {
+        log.warn("Unable to write QAP timeline trace '{}': {}", file, e.toString());
+      }
+    }
+  }
+
+  /** Writes every span so far through a temporary file renamed over the claimed one. */
+  private void write() throws IOException {
+    Path tmp = directory.resolve("." + file.getFileName() + ".tmp");
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+      new Timeline(List.copyOf(spans)).writeChromeTrace(out);
+    } catch (IOException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    try {
+      Files.move(
+          tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /** Creates the first free {@code trace-<launchId>-<pid>[-n].json} in {@code directory}. */
+  static Path claim(Path directory, String launchId) throws IOException {
+    Files.createDirectories(directory);
+    String prefix = "trace-" + sanitize(launchId != null ? launchId : "launch") + "-" + PID;
+    for (int n = 0; ; n++) {
+      Path candidate = directory.resolve(n == 0 ? prefix + ".json" : prefix + "-" + n + ".json");
+      try {
+        return Files.createFile(candidate);
+      } catch (FileAlreadyExistsException e) {
+        // Taken by another session of this JVM or an earlier run that had the same pid
+      }
+    }
+  }
+
+  private static String sanitize(String value) {
+    String safe = value.replaceAll("[^A-Za-z0-9._-]", "_");
+    return safe.isEmpty() ? "_" : safe;
+  }
+}
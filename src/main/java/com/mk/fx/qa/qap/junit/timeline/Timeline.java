@@ -0,0 +1,208 @@
+package com.mk.fx.qa.qap.junit.timeline;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.model.QAPTimeline;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Execution timeline of a launch: one span per class and per test that recorded its worker thread
+ * and monotonic start/end.
+ *
+ * <p>{@link #summarize()} derives worker utilization and concurrency from the test spans; {@link
+ * #writeChromeTrace(OutputStream)} emits the spans as Chrome trace-event JSON ({@code ph: "X"}
+ * complete events, one track per worker thread), which loads in Perfetto or {@code
+ * chrome://tracing}. Tests are only present for publishers that retain them. {@link SessionTrace}
+ * collects the timelines of a session's classes into one trace file.
+ */
+public final class Timeline {
+
+  static final String TEST = "test";
+  static final String CLASS = "class";
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  /** One timed class or test; {@code parent} is the nested path of the enclosing class. */
+  record Span(
+      String category,
+      String name,
+      String id,
+      String parent,
+      String status,
+      long threadId,
+      String thread,
+      long startNanos,
+      long endNanos) {}
+
+  private final List<Span> spans;
+
+  Timeline(List<Span> spans) {
+    this.spans = spans;
+  }
+
+  /** Collects the spans of every class node and test of the assembled launch. */
+  public static Timeline of(QAPJunitLaunch launch) {
+    List<Span> spans = new ArrayList<>();
+    if (launch.getTestClasses() != null) {
+      for (QAPTestClass cls : launch.getTestClasses()) {
+        collect(cls, null, spans);
+      }
+    }
+    return new Timeline(spans);
+  }
+
+  private static void collect(QAPTestClass cls, String parent, List<Span> spans) {
+    String path = cls.getFullClassName() != null ? cls.getFullClassName() : cls.getClassName();
+    if (cls.getThread() != null && cls.getEndNanos() != 0L) {
+      spans.add(
+          new Span(
+              CLASS,
+              cls.getDisplayName(),
+              path,
+              parent,
+              null,
+              cls.getThreadId(),
+              cls.getThread(),
+              cls.getStartNanos(),
+              cls.getEndNanos()));
+    }
+    if (cls.getTestCases() != null) {
+      for (QAPTest test : cls.getTestCases()) {
+        if (test.getThread() != null && test.getEndNanos() != 0L) {
+          spans.add(
+              new Span(
+                  TEST,
+                  test.getDisplayName(),
+                  test.getTestCaseId(),
+                  path,
+                  test.getStatus(),
+                  test.getThreadId(),
+                  test.getThread(),
+                  test.getStartNanos(),
+                  test.getEndNanos()));
+        }
+      }
+    }
+    if (cls.getChildren() != null) {
+      for (QAPTestClass child : cls.getChildren()) {
+        collect(child, path, spans);
+      }
+    }
+  }
+
+  List<Span> spans() {
+    return spans;
+  }
+
+  /** Worker and concurrency metrics over the test spans; all zero when none were captured. */
+  public QAPTimeline summarize() {
+    QAPTimeline timeline = new QAPTimeline();
+    List<Span> tests = spans.stream().filter(s -> TEST.equals(s.category())).toList();
+    int n = tests.size();
+    if (n == 0) {
+      return timeline;
+    }
+    long[] starts = new long[n];
+    long[] ends = new long[n];
+    long busy = 0L;
+    for (int i = 0; i < n; i++) {
+      Span span = tests.get(i);
+      starts[i] = span.startNanos();
+      ends[i] = Math.max(span.startNanos(), span.endNanos());
+      busy += ends[i] - starts[i];
+    }
+    Arrays.sort(starts);
+    Arrays.sort(ends);
+    long wall = ends[n - 1] - starts[0];
+
+    // Sweep the sorted boundaries; an end at the same instant as a start is processed first
+    int concurrent = 0;
+    int max = 0;
+    long lastParallelEnd = starts[0];
+    for (int s = 0, e = 0; e < n; ) {
+      if (s < n && starts[s] < ends[e]) {
+        concurrent++;
+        max = Math.max(max, concurrent);
+        s++;
+      } else {
+        if (concurrent >= 2) {
+          lastParallelEnd = ends[e];
+        }
+        concurrent--;
+        e++;
+      }
+    }
+
+    int workers = (int) tests.stream().mapToLong(Span::threadId).distinct().count();
+    timeline.setWorkers(workers);
+    timeline.setMaxConcurrency(max);
+    timeline.setWallNanos(wall);
+    timeline.setBusyNanos(busy);
+    timeline.setSerialTailNanos(ends[n - 1] - lastParallelEnd);
+    if (wall > 0L) {
+      double percent = 100.0 * busy / ((double) workers * wall);
+      timeline.setUtilizationPercent(Math.round(percent * 100.0) / 100.0);
+    }
+    return timeline;
+  }
+
+  /** Streams the spans as Chrome trace-event JSON; timestamps are microseconds from the first. */
+  public void writeChromeTrace(OutputStream out) throws IOException {
+    long origin = spans.stream().mapToLong(Span::startNanos).min().orElse(0L);
+    Map<Long, String> threads = new LinkedHashMap<>();
+    for (Span span : spans) {
+      threads.putIfAbsent(span.threadId(), span.thread());
+    }
+    try (JsonGenerator gen =
+        JSON.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+      gen.writeStartObject();
+      gen.writeStringField("displayTimeUnit", "ms");
+      gen.writeArrayFieldStart("traceEvents");
+      for (Map.Entry<Long, String> thread : threads.entrySet()) {
+        gen.writeStartObject();
+        gen.writeStringField("name", "thread_name");
+        gen.writeStringField("ph", "M");
+        gen.writeNumberField("pid", 1);
+        gen.writeNumberField("tid", thread.getKey());
+        gen.writeObjectFieldStart("args");
+        gen.writeStringField("name", thread.getValue());
+        gen.writeEndObject();
+        gen.writeEndObject();
+      }
+      for (Span span : spans) {
+        gen.writeStartObject();
+        gen.writeStringField("name", span.name() != null ? span.name() : span.id());
+        gen.writeStringField("cat", span.category());
+        gen.writeStringField("ph", "X");
+        gen.writeNumberField("ts", (span.startNanos() - origin) / 1_000.0);
+        gen.writeNumberField("dur", Math.max(0L, span.endNanos() - span.startNanos()) / 1_000.0);
+        gen.writeNumberField("pid", 1);
+        gen.writeNumberField("tid", span.threadId());
+        gen.writeObjectFieldStart("args");
+        writeOptional(gen, "id", span.id());
+        writeOptional(gen, "parent", span.parent());
+        writeOptional(gen, "status", span.status());
+        gen.writeEndObject();
+        gen.writeEndObject();
+      }
+      gen.writeEndArray();
+      gen.writeEndObject();
+    }
+  }
+
+  private static void writeOptional(JsonGenerator gen, String name, String value)
+      throws IOException {
+    if (value != null) {
+      gen.writeStringField(name, value);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.mk.fx.qa.qap.junit.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Output stream that accumulates bytes in a caller-supplied (typically direct) {@link ByteBuffer}
+ * and hands them to a channel in buffer-sized writes. Closing this stream drains the buffer but
+ * leaves the channel open; the caller owns both.
+ */
+public final class ChannelOutputStream extends OutputStream {
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+
+  public ChannelOutputStream(WritableByteChannel channel, ByteBuffer buffer) {
+    this.channel = Objects.requireNonNull(channel, "channel");
+    this.buffer = Objects.requireNonNull(buffer, "buffer");
+    this.buffer.clear();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (!buffer.hasRemaining()) {
+      drain();
+    }
+    buffer.put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    Objects.checkFromIndexSize(off, len, b.length);
+    while (len > 0) {
+      if (!buffer.hasRemaining()) {
+        drain();
+      }
+      int chunk = Math.min(len, buffer.remaining());
+      buffer.put(b, off, chunk);
+      off += chunk;
+      len -= chunk;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    drain();
+  }
+
+  @Override
+  public void close() throws IOException {
+    drain();
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,39 @@
+package com.mk.fx.qa.qap.junit.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Pass-through stream that counts the bytes written to the wrapped target. Closing this stream
+ * flushes but never closes the target, so it can safely wrap shared sinks such as stdout.
+ */
+public final class CountingOutputStream extends FilterOutputStream {
+
+  private long count;
+
+  public CountingOutputStream(OutputStream target) {
+    super(target);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    out.write(b);
+    count++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    out.write(b, off, len);
+    count += len;
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  public long getCount() {
+    return count;
+  }
+}
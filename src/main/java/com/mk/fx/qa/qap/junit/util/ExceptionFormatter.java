@@ -1,7 +1,6 @@
 package com.mk.fx.qa.qap.junit.util;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import com.mk.fx.qa.qap.junit.failure.StackTraceRenderer;
 import java.nio.charset.StandardCharsets;
 
 public final class ExceptionFormatter {
@@ -22,9 +21,14 @@ public final class ExceptionFormatter {
     return toBytes(stackTraceOf(throwable));
   }
 
+  /** Message of the throwable, or its type when it has none. */
+  public static String messageOf(Throwable throwable) {
+    String message = throwable.getMessage();
+    return message != null ? message : throwable.getClass().getName();
+  }
+
+  /** Bounded trace; see {@link StackTraceRenderer} for the limits and collapsing rules. */
   public static String stackTraceOf(Throwable throwable) {
-    StringWriter sw = new StringWriter();
-    throwable.printStackTrace(new PrintWriter(sw));
-    return sw.toString();
+    return StackTraceRenderer.DEFAULT.render(throwable);
   }
 }
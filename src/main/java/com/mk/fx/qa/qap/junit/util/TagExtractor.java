@@ -4,7 +4,6 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
-import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.extension.ExtensionContext;
 
 public final class TagExtractor {
@@ -15,14 +14,7 @@ public final class TagExtractor {
   public static Set<String> methodTags(ExtensionContext context) {
     return context
         .getTestMethod()
-        .map(
-            m -> {
-              Set<String> tags = new HashSet<>();
-              for (Tag t : m.getAnnotationsByType(Tag.class)) {
-                tags.add(t.value());
-              }
-              return Collections.unmodifiableSet(tags);
-            })
+        .map(m -> TestMetadataCache.forMethod(m).getTags())
         .orElse(Collections.emptySet());
   }
 
@@ -30,14 +22,7 @@ public final class TagExtractor {
   public static Set<String> classTags(ExtensionContext context) {
     return context
         .getTestClass()
-        .map(
-            c -> {
-              Set<String> tags = new HashSet<>();
-              for (Tag t : c.getAnnotationsByType(Tag.class)) {
-                tags.add(t.value());
-              }
-              return Collections.unmodifiableSet(tags);
-            })
+        .map(c -> TestMetadataCache.forClass(c).getTags())
         .orElse(Collections.emptySet());
   }
 
@@ -53,9 +38,7 @@ public final class TagExtractor {
       ExtensionContext p = parent.get();
       Optional<Class<?>> cls = p.getTestClass();
       if (cls.isPresent() && (current.isEmpty() || !cls.get().equals(current.get()))) {
-        for (Tag t : cls.get().getAnnotationsByType(Tag.class)) {
-          tags.add(t.value());
-        }
+        tags.addAll(TestMetadataCache.forClass(cls.get()).getTags());
       }
       parent = p.getParent();
     }
@@ -0,0 +1,130 @@
+package com.mk.fx.qa.qap.junit.util;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+
+/**
+ * JVM-wide cache of the reflective metadata the extension needs for every test: tags, display
+ * names and nested class paths. Everything cached here is a pure function of the {@link Class} or
+ * {@link Method}, so each value is computed at most once per JVM and shared across launches.
+ *
+ * <p>Context-dependent data (inherited tags, parent chains) is not cached here; it is computed once
+ * per class node when the node is registered for a launch.
+ */
+public final class TestMetadataCache {
+
+  private static final ClassValue<ClassMetadata> CLASSES =
+      new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+          return new ClassMetadata(type);
+        }
+      };
+
+  private static final Map<Method, MethodMetadata> METHODS = new ConcurrentHashMap<>();
+
+  private TestMetadataCache() {}
+
+  public static ClassMetadata forClass(Class<?> testClass) {
+    return CLASSES.get(testClass);
+  }
+
+  public static MethodMetadata forMethod(Method testMethod) {
+    MethodMetadata metadata = METHODS.get(testMethod);
+    return metadata != null ? metadata : METHODS.computeIfAbsent(testMethod, MethodMetadata::new);
+  }
+
+  /** Collects the values of all (repeatable) {@code @Tag} annotations on the element. */
+  static Set<String> tagsOf(Tag[] tags) {
+    if (tags.length == 0) {
+      return Collections.emptySet();
+    }
+    Set<String> values = new LinkedHashSet<>();
+    for (Tag t : tags) {
+      values.add(t.value());
+    }
+    return Collections.unmodifiableSet(values);
+  }
+
+  /** Immutable metadata derived from a test class. */
+  public static final class ClassMetadata {
+    private final String simpleName;
+    private final String nestedPath;
+    private final String displayName;
+    private final Set<String> tags;
+    private final Map<String, String> testCaseIds = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> type) {
+      this.simpleName = type.getSimpleName();
+      String fqcn = type.getName();
+      this.nestedPath = fqcn.substring(fqcn.lastIndexOf('.') + 1);
+      DisplayName dn = type.getAnnotation(DisplayName.class);
+      this.displayName = (dn != null) ? dn.value() : simpleName;
+      this.tags = tagsOf(type.getAnnotationsByType(Tag.class));
+    }
+
+    public String getSimpleName() {
+      return simpleName;
+    }
+
+    /** Class name without package, keeping nesting, e.g. {@code DemoTest$Group$Inner}. */
+    public String getNestedPath() {
+      return nestedPath;
+    }
+
+    /** {@code @DisplayName} of the class, or its simple name. */
+    public String getDisplayName() {
+      return displayName;
+    }
+
+    /** Tags declared directly on the class (unmodifiable). */
+    public Set<String> getTags() {
+      return tags;
+    }
+
+    /** Stable id {@code NestedPath#methodName} for a test method of this class. */
+    public String testCaseId(String methodName) {
+      String id = testCaseIds.get(methodName);
+      return id != null ? id : testCaseIds.computeIfAbsent(methodName, m -> nestedPath + "#" + m);
+    }
+  }
+
+  /** Immutable metadata derived from a test method. */
+  public static final class MethodMetadata {
+    private final String name;
+    private final String declaredDisplayName;
+    private final Set<String> tags;
+
+    private MethodMetadata(Method method) {
+      this.name = method.getName();
+      DisplayName dn = method.getAnnotation(DisplayName.class);
+      this.declaredDisplayName = (dn != null) ? dn.value() : null;
+      this.tags = tagsOf(method.getAnnotationsByType(Tag.class));
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /** Value of {@code @DisplayName} on the method, or {@code null} if absent. */
+    public String getDeclaredDisplayName() {
+      return declaredDisplayName;
+    }
+
+    /** {@code @DisplayName} of the method, or its name. */
+    public String getDisplayName() {
+      return declaredDisplayName != null ? declaredDisplayName : name;
+    }
+
+    /** Tags declared directly on the method (unmodifiable). */
+    public Set<String> getTags() {
+      return tags;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.mk.fx.qa.qap.junit.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class EnvironmentSnapshotTest {
+
+  @Test
+  void snapshot_is_captured_once_per_jvm() {
+    EnvironmentSnapshot.warm();
+
+    EnvironmentSnapshot snapshot = EnvironmentSnapshot.current();
+
+    assertSame(snapshot, EnvironmentSnapshot.current());
+    assertNotNull(snapshot.getProperties());
+    assertEquals(Runtime.getRuntime().availableProcessors(), snapshot.getCpuCount());
+    assertEquals(ExtensionUtil.getJdkVersion(), snapshot.getJdkVersion());
+    assertTrue(snapshot.getTestRunnerVersion().startsWith("Junit "));
+  }
+
+  @Test
+  void a_failing_capture_fails_callers_instead_of_blocking_them() throws Exception {
+    AtomicReference<CompletableFuture<EnvironmentSnapshot>> shared = new AtomicReference<>();
+    IllegalArgumentException malformed = new IllegalArgumentException("Malformed \\uxxxx");
+
+    CompletableFuture<EnvironmentSnapshot> capture =
+        EnvironmentSnapshot.start(
+            shared,
+            true,
+            () -> {
+              throw malformed;
+            });
+
+    ExecutionException failed =
+        assertThrows(ExecutionException.class, () -> capture.get(10, TimeUnit.SECONDS));
+    assertSame(malformed, failed.getCause());
+    assertSame(capture, EnvironmentSnapshot.start(shared, false, EnvironmentSnapshot::capture));
+  }
+
+  @Test
+  void only_tuning_flags_are_reported() {
+    List<String> flags =
+        EnvironmentSnapshot.jvmFlags(
+            List.of(
+                "-Xmx2g",
+                "-XX:+UseG1GC",
+                "-ea",
+                "-Dqap.api.key=secret",
+                "-javaagent:/tmp/agent.jar",
+                "-agentlib:jdwp=transport=dt_socket",
+                "-Xrunjdwp:transport=dt_socket"));
+
+    assertEquals(List.of("-Xmx2g", "-XX:+UseG1GC", "-ea"), flags);
+  }
+
+  @Test
+  void stamp_copies_the_environment_and_the_launch_settings() {
+    Properties git = new Properties();
+    git.setProperty("git.branch", "main");
+    git.setProperty("git.commit.id.abbrev", "abc1234");
+    QAPPropertiesLoader properties = new QAPPropertiesLoader();
+    EnvironmentSnapshot snapshot =
+        new EnvironmentSnapshot(properties, git, "host-1", 8, List.of("-Xmx1g"), "Junit 5.10.0");
+    QAPHeader header = new QAPHeader(1L, "L1");
+
+    snapshot.stamp(header, properties);
+
+    assertEquals("main", header.getGitBranch());
+    assertEquals("abc1234", header.getGitCommit());
+    assertEquals("host-1", header.getHostName());
+    assertEquals(8, header.getCpuCount());
+    assertEquals(List.of("-Xmx1g"), header.getJvmFlags());
+    assertEquals("Junit 5.10.0", header.getTestRunnerVersion());
+    assertEquals(ExtensionUtil.getOsVersion(), header.getOsVersion());
+    assertEquals(properties.getAppName(), header.getApplicationName());
+    assertTrue(header.getLaunchEndTime() > 0L);
+  }
+}
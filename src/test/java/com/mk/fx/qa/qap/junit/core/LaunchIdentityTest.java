@@ -0,0 +1,73 @@
+package com.mk.fx.qa.qap.junit.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.launcher.LauncherSession;
+
+class LaunchIdentityTest {
+
+  @TempDir Path dir;
+
+  @AfterEach
+  void clear() {
+    System.clearProperty("launchID");
+  }
+
+  @Test
+  void id_is_created_once_and_seeded_by_the_system_property() {
+    System.setProperty("launchID", "Nightly");
+    LaunchIdentity identity = new LaunchIdentity();
+    assertNull(identity.get());
+
+    String id = identity.getOrCreate();
+
+    assertTrue(id.startsWith("Nightly-"));
+    assertTrue(LaunchIdentity.isFullLaunchId(id));
+    assertSame(id, identity.getOrCreate());
+    System.setProperty("launchID", "Nightly-0123456789ab");
+    assertEquals("Nightly-0123456789ab", new LaunchIdentity().getOrCreate());
+  }
+
+  @Test
+  void sessions_get_their_own_identity_inherited_by_their_workers() throws Exception {
+    QAPLauncherSessionListener listener = new QAPLauncherSessionListener();
+    LauncherSession session = mock(LauncherSession.class);
+    LaunchIdentity outside = LaunchIdentity.current();
+
+    listener.launcherSessionOpened(session);
+    LaunchIdentity inSession = LaunchIdentity.current();
+    AtomicReference<String> workerId = new AtomicReference<>();
+    Thread worker = new Thread(() -> workerId.set(LaunchIdentity.current().getOrCreate()));
+    worker.start();
+    worker.join();
+    listener.launcherSessionClosed(session);
+
+    assertNotSame(outside, inSession);
+    assertEquals(inSession.get(), workerId.get());
+    assertSame(outside, LaunchIdentity.current());
+  }
+
+  @Test
+  void forks_share_the_id_in_the_file_while_it_is_fresh() throws Exception {
+    Path file = dir.resolve("build/qap-launch-id");
+    Duration ttl = Duration.ofMinutes(1);
+
+    String first = new LaunchIdentity(file, ttl).getOrCreate();
+    String second = new LaunchIdentity(file, ttl).getOrCreate();
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 120_000L));
+    String nextBuild = new LaunchIdentity(file, ttl).getOrCreate();
+
+    assertEquals(first, second);
+    assertNotEquals(first, nextBuild);
+    assertEquals(nextBuild, Files.readString(file).trim());
+  }
+}
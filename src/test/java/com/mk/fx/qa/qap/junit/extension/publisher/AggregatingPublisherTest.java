@@ -0,0 +1,133 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.QAPLauncherSessionListener;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.LauncherSession;
+import org.slf4j.Logger;
+
+class AggregatingPublisherTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Logger log = mock(Logger.class);
+  private final List<QAPJunitLaunch> published = new CopyOnWriteArrayList<>();
+  private final LaunchPublisher sink = (launch, m, l) -> published.add(launch);
+
+  private static QAPJunitLaunch launch(String launchId, String className, long start, long end) {
+    QAPTestClass root = new QAPTestClass(className, className, Set.of());
+    QAPHeader header = new QAPHeader(start, launchId);
+    header.setLaunchEndTime(end);
+    header.setApplicationName("fx");
+    QAPJunitLaunch launch = new QAPJunitLaunch(header, new ArrayList<>(List.of(root)));
+    launch.getFailures().put("f1", new QAPFailure("f1", "java.lang.AssertionError", "x", ""));
+    return launch;
+  }
+
+  private static List<String> classNames(QAPJunitLaunch launch) {
+    return launch.getTestClasses().stream().map(QAPTestClass::getClassName).toList();
+  }
+
+  @Test
+  void jvm_scope_publishes_size_bounded_batches_under_one_header() {
+    AggregatingPublisher publisher =
+        new AggregatingPublisher(sink, AggregatingPublisher.Scope.JVM, 2);
+
+    publisher.publish(launch("L1", "A", 20L, 30L), mapper, log);
+    assertTrue(published.isEmpty());
+    publisher.publish(launch("L1", "B", 10L, 40L), mapper, log);
+    publisher.publish(launch("L1", "C", 50L, 60L), mapper, log);
+    publisher.close();
+
+    assertEquals(2, published.size());
+    QAPJunitLaunch first = published.get(0);
+    assertEquals(List.of("A", "B"), classNames(first));
+    assertEquals(10L, first.getHeader().getLaunchStartTime());
+    assertEquals(40L, first.getHeader().getLaunchEndTime());
+    assertEquals("fx", first.getHeader().getApplicationName());
+    assertEquals(Set.of("f1"), first.getFailures().keySet());
+    assertEquals(List.of("C"), classNames(published.get(1)));
+  }
+
+  @Test
+  void session_scope_publishes_each_session_when_it_closes() {
+    AggregatingPublisher publisher =
+        new AggregatingPublisher(sink, AggregatingPublisher.Scope.SESSION, 0);
+    QAPLauncherSessionListener listener = new QAPLauncherSessionListener();
+    LauncherSession session = mock(LauncherSession.class);
+
+    listener.launcherSessionOpened(session);
+    publisher.publish(launch("S1", "A", 1L, 2L), mapper, log);
+    publisher.publish(launch("S1", "B", 3L, 4L), mapper, log);
+    publisher.publish(launch("S2", "C", 5L, 6L), mapper, log);
+    assertTrue(published.isEmpty());
+    listener.launcherSessionClosed(session);
+
+    assertEquals(2, published.size());
+    assertEquals(List.of("A", "B"), classNames(published.get(0)));
+    assertEquals("S1", published.get(0).getHeader().getLaunchId());
+    assertEquals(List.of("C"), classNames(published.get(1)));
+  }
+
+  @Test
+  void jvm_scope_publishes_when_the_last_contributing_session_closes() {
+    AggregatingPublisher publisher =
+        new AggregatingPublisher(sink, AggregatingPublisher.Scope.JVM, 0);
+    QAPLauncherSessionListener listener = new QAPLauncherSessionListener();
+    LauncherSession first = mock(LauncherSession.class);
+    LauncherSession second = mock(LauncherSession.class);
+
+    listener.launcherSessionOpened(first);
+    publisher.publish(launch("J1", "A", 1L, 2L), mapper, log);
+    listener.launcherSessionOpened(second);
+    publisher.publish(launch("J2", "B", 3L, 4L), mapper, log);
+    listener.launcherSessionClosed(second);
+    assertTrue(published.isEmpty(), "the first session is still running");
+    listener.launcherSessionClosed(first);
+
+    assertEquals(1, published.size());
+    assertEquals(List.of("A", "B"), classNames(published.get(0)));
+    publisher.close();
+    assertEquals(1, published.size(), "nothing left for shutdown");
+  }
+
+  @Test
+  void close_flushes_before_closing_the_delegate() {
+    List<String> calls = new CopyOnWriteArrayList<>();
+    class ClosingSink implements LaunchPublisher, AutoCloseable {
+      @Override
+      public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+        calls.add("publish " + classNames(launch));
+      }
+
+      @Override
+      public void close() {
+        calls.add("close");
+      }
+    }
+    AggregatingPublisher publisher =
+        new AggregatingPublisher(new ClosingSink(), AggregatingPublisher.Scope.JVM, 0);
+
+    publisher.publish(launch("J1", "A", 1L, 2L), mapper, log);
+    publisher.close();
+
+    assertEquals(List.of("publish [A]", "close"), calls);
+  }
+
+  @Test
+  void scope_defaults_to_class() {
+    assertEquals(AggregatingPublisher.Scope.CLASS, AggregatingPublisher.Scope.parse(null));
+    assertEquals(AggregatingPublisher.Scope.CLASS, AggregatingPublisher.Scope.parse("bogus"));
+    assertEquals(AggregatingPublisher.Scope.JVM, AggregatingPublisher.Scope.parse(" JVM "));
+  }
+}
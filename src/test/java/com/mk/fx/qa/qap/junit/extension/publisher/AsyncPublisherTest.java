@@ -0,0 +1,136 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+
+class AsyncPublisherTest {
+
+  /** Delegate that blocks until released and records the batch sizes it receives. */
+  static class GatedPublisher implements LaunchPublisher {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(QAPJunitLaunch launch, ObjectMapper mapper, Logger log) {
+      publishBatch(List.of(launch), mapper, log);
+    }
+
+    @Override
+    public void publishBatch(List<QAPJunitLaunch> launches, ObjectMapper mapper, Logger log) {
+      entered.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      batchSizes.add(launches.size());
+    }
+  }
+
+  private static QAPJunitLaunch launch(String id) {
+    return new QAPJunitLaunch(new QAPHeader(1L, id), new ArrayList<>());
+  }
+
+  @Test
+  void drop_oldest_bounds_queue_and_close_drains_remaining_as_one_batch() throws Exception {
+    GatedPublisher delegate = new GatedPublisher();
+    AsyncPublisher publisher =
+        new AsyncPublisher(
+            delegate, 2, AsyncPublisher.OverflowPolicy.DROP_OLDEST, 8, Duration.ofSeconds(5), null);
+    ObjectMapper mapper = new ObjectMapper();
+    Logger log = mock(Logger.class);
+
+    publisher.publish(launch("L-0"), mapper, log);
+    assertTrue(delegate.entered.await(5, TimeUnit.SECONDS), "worker should pick up first launch");
+    for (int i = 1; i <= 4; i++) {
+      publisher.publish(launch("L-" + i), mapper, log);
+    }
+    delegate.release.countDown();
+    publisher.close();
+
+    AsyncPublisher.Stats stats = publisher.getStats();
+    assertEquals(5, stats.submitted());
+    assertEquals(2, stats.dropped(), "queue of 2 keeps only the newest two launches");
+    assertEquals(3, stats.published());
+    assertEquals(List.of(1, 2), delegate.batchSizes);
+  }
+
+  @Test
+  void spill_policy_writes_overflow_to_disk_and_replays_it(@TempDir Path dir) throws Exception {
+    GatedPublisher delegate = new GatedPublisher();
+    AsyncPublisher publisher =
+        new AsyncPublisher(
+            delegate, 1, AsyncPublisher.OverflowPolicy.SPILL, 8, Duration.ofSeconds(5), dir);
+    ObjectMapper mapper = new ObjectMapper();
+    Logger log = mock(Logger.class);
+
+    publisher.publish(launch("L-0"), mapper, log);
+    assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+    publisher.publish(launch("L-1"), mapper, log); // queued
+    publisher.publish(launch("L-2"), mapper, log); // spilled
+    try (Stream<Path> files = Files.list(dir)) {
+      Path spilled = files.findFirst().orElseThrow();
+      assertTrue(Files.readString(spilled).contains("\"L-2\""));
+    }
+    delegate.release.countDown();
+    publisher.close();
+
+    AsyncPublisher.Stats stats = publisher.getStats();
+    assertEquals(1, stats.spilled());
+    assertEquals(1, stats.replayed());
+    assertEquals(3, stats.published());
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(0, files.count(), "replayed spill files are deleted");
+    }
+  }
+
+  @Test
+  void launches_racing_close_are_all_accounted_for() throws Exception {
+    LaunchPublisher delegate = (launch, mapper, log) -> {};
+    AsyncPublisher publisher =
+        new AsyncPublisher(
+            delegate, 4, AsyncPublisher.OverflowPolicy.BLOCK, 2, Duration.ofSeconds(5), null);
+    ObjectMapper mapper = new ObjectMapper();
+    Logger log = mock(Logger.class);
+    CountDownLatch started = new CountDownLatch(4);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                started.countDown();
+                for (int i = 0; i < 500; i++) {
+                  publisher.publish(launch("L-" + i), mapper, log);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    publisher.close();
+    for (Thread thread : threads) {
+      thread.join(10_000);
+    }
+
+    AsyncPublisher.Stats stats = publisher.getStats();
+    assertEquals(2_000, stats.submitted());
+    assertEquals(stats.submitted(), stats.published() + stats.dropped() + stats.failed());
+  }
+}
@@ -0,0 +1,121 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+
+class FileLaunchPublisherTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Logger log = mock(Logger.class);
+
+  private static QAPJunitLaunch launch(String launchId, String className, int tests) {
+    QAPTestClass root = new QAPTestClass(className, className, Set.of());
+    List<QAPTest> cases = new ArrayList<>();
+    for (int i = 0; i < tests; i++) {
+      cases.add(new QAPTest("m" + i, "m" + i));
+    }
+    root.setTestCases(cases);
+    return new QAPJunitLaunch(new QAPHeader(1L, launchId), new ArrayList<>(List.of(root)));
+  }
+
+  private static List<String> fileNames(Path dir) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+    }
+  }
+
+  /** The single report whose name starts with {@code prefix}. */
+  private static Path report(Path dir, String prefix) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      List<Path> matches =
+          files.filter(p -> p.getFileName().toString().startsWith(prefix)).toList();
+      assertEquals(1, matches.size(), "reports named " + prefix + "*: " + matches);
+      return matches.get(0);
+    }
+  }
+
+  @Test
+  void writes_gzipped_report_named_after_launch_and_class(@TempDir Path dir) throws Exception {
+    // Small buffer forces several channel writes
+    FileLaunchPublisher publisher = new FileLaunchPublisher(dir, true, false, 0, 0L, 8 * 1024);
+
+    publisher.publish(launch("L:1", "DemoTest", 2_000), mapper, log);
+
+    List<String> names = fileNames(dir);
+    assertEquals(1, names.size(), "no temp file left behind: " + names);
+    String pid = Long.toString(ProcessHandle.current().pid());
+    assertTrue(
+        names.get(0).matches("qap-L_1-DemoTest-" + pid + "-\\d+\\.json\\.gz"), names.get(0));
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(dir.resolve(names.get(0))))) {
+      JsonNode json = mapper.readTree(in);
+      assertEquals("L:1", json.get("header").get("launchId").asText());
+      assertEquals(2_000, json.get("testClasses").get(0).get("testCases").size());
+    }
+  }
+
+  @Test
+  void rotation_keeps_only_the_newest_reports(@TempDir Path dir) throws Exception {
+    FileLaunchPublisher publisher =
+        new FileLaunchPublisher(dir, false, false, 2, 0L, FileLaunchPublisher.DEFAULT_BUFFER_SIZE);
+    Files.writeString(dir.resolve("unrelated.txt"), "keep me");
+
+    for (int i = 0; i < 3; i++) {
+      publisher.publish(launch("L" + i, "DemoTest", 1), mapper, log);
+      // Distinct modification times regardless of file system timestamp granularity
+      Files.setLastModifiedTime(
+          report(dir, "qap-L" + i + "-"), FileTime.fromMillis(1_000L * (i + 1)));
+    }
+
+    List<String> names = fileNames(dir);
+    assertEquals(3, names.size(), names.toString());
+    assertTrue(names.get(0).startsWith("qap-L1-DemoTest-"), names.toString());
+    assertTrue(names.get(1).startsWith("qap-L2-DemoTest-"), names.toString());
+    assertEquals("unrelated.txt", names.get(2));
+  }
+
+  @Test
+  void same_named_classes_of_one_launch_never_overwrite_each_other(@TempDir Path dir)
+      throws Exception {
+    FileLaunchPublisher publisher = new FileLaunchPublisher(dir);
+    QAPJunitLaunch first = launch("L", "DemoTest", 1);
+    first.getTestClasses().get(0).setClassKey("com.acme.spot.DemoTest");
+    QAPJunitLaunch second = launch("L", "DemoTest", 2);
+    second.getTestClasses().get(0).setClassKey("com.acme.swap.DemoTest");
+    QAPJunitLaunch again = launch("L", "DemoTest", 3);
+    again.getTestClasses().get(0).setClassKey("com.acme.swap.DemoTest");
+
+    publisher.publish(first, mapper, log);
+    publisher.publish(second, mapper, log);
+    publisher.publish(again, mapper, log);
+
+    report(dir, "qap-L-com.acme.spot.DemoTest-");
+    Set<Integer> sizes = new HashSet<>();
+    for (String name : fileNames(dir)) {
+      assertTrue(name.startsWith("qap-L-com.acme."), name);
+      JsonNode json = mapper.readTree(dir.resolve(name).toFile());
+      sizes.add(json.get("testClasses").get(0).get("testCases").size());
+    }
+    assertEquals(Set.of(1, 2, 3), sizes, "every launch kept its own report");
+  }
+}
@@ -0,0 +1,160 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+class HttpLaunchPublisherTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Logger log = mock(Logger.class);
+
+  private static QAPJunitLaunch launch(String launchId, int tests) {
+    QAPTestClass root = new QAPTestClass("DemoTest", "DemoTest", Set.of());
+    List<QAPTest> cases = new ArrayList<>();
+    for (int i = 0; i < tests; i++) {
+      cases.add(new QAPTest("m" + i, "m" + i));
+    }
+    root.setTestCases(cases);
+    return new QAPJunitLaunch(new QAPHeader(1L, launchId), new ArrayList<>(List.of(root)));
+  }
+
+  private static HttpLaunchPublisher publisher(StubIngestServer server, int maxRetries) {
+    return new HttpLaunchPublisher(
+        server.uri(),
+        "secret",
+        true,
+        false,
+        2,
+        Duration.ofSeconds(5),
+        maxRetries,
+        Duration.ofMillis(10));
+  }
+
+  @Test
+  void streams_gzipped_launches_with_api_key() throws Exception {
+    try (StubIngestServer server = new StubIngestServer(0, 0L)) {
+      HttpLaunchPublisher publisher = publisher(server, 0);
+
+      for (int i = 0; i < 10; i++) {
+        publisher.publish(launch("L" + i, 500), mapper, log);
+      }
+      publisher.close();
+
+      assertEquals(new HttpLaunchPublisher.Stats(10, 10, 0, 0, 0), publisher.getStats());
+      assertEquals(10, server.received().size());
+      StubIngestServer.Received first = server.received().get(0);
+      assertEquals("gzip", first.contentEncoding());
+      assertEquals("Bearer secret", first.authorization());
+      JsonNode json = mapper.readTree(first.body());
+      assertEquals(500, json.get("testClasses").get(0).get("testCases").size());
+    }
+  }
+
+  @Test
+  void retries_server_errors_then_succeeds() throws Exception {
+    try (StubIngestServer server = new StubIngestServer(2, 0L)) {
+      HttpLaunchPublisher publisher = publisher(server, 3);
+
+      publisher.publish(launch("L-retry", 1), mapper, log);
+      publisher.close();
+
+      assertEquals(new HttpLaunchPublisher.Stats(1, 1, 2, 0, 0), publisher.getStats());
+      assertEquals(3, server.requests());
+    }
+  }
+
+  @Test
+  void gives_up_after_max_retries() throws Exception {
+    try (StubIngestServer server = new StubIngestServer(Integer.MAX_VALUE, 0L)) {
+      HttpLaunchPublisher publisher = publisher(server, 1);
+
+      publisher.publish(launch("L-fail", 1), mapper, log);
+      publisher.close();
+
+      assertEquals(new HttpLaunchPublisher.Stats(1, 0, 1, 1, 0), publisher.getStats());
+      assertEquals(2, server.requests());
+    }
+  }
+
+  @Test
+  void publish_does_not_wait_for_a_slow_server() throws Exception {
+    try (StubIngestServer server = new StubIngestServer(0, 300L)) {
+      HttpLaunchPublisher publisher = publisher(server, 0);
+
+      long start = System.nanoTime();
+      for (int i = 0; i < 4; i++) {
+        publisher.publish(launch("L" + i, 1), mapper, log);
+      }
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+      publisher.close();
+
+      assertTrue(elapsedMillis < 300, "publish blocked for " + elapsedMillis + " ms");
+      assertEquals(4, publisher.getStats().sent());
+    }
+  }
+
+  @Test
+  void serialization_failure_fails_the_attempt_instead_of_sending_a_truncated_body()
+      throws Exception {
+    ObjectMapper failing =
+        new ObjectMapper()
+            .registerModule(
+                new SimpleModule()
+                    .addSerializer(
+                        QAPTest.class,
+                        new JsonSerializer<QAPTest>() {
+                          @Override
+                          public void serialize(
+                              QAPTest test, JsonGenerator gen, SerializerProvider provider)
+                              throws IOException {
+                            throw new IOException("boom");
+                          }
+                        }));
+    try (StubIngestServer server = new StubIngestServer(0, 0L)) {
+      HttpLaunchPublisher publisher = publisher(server, 3);
+
+      publisher.publish(launch("L-broken", 10), failing, log);
+      publisher.close();
+
+      assertEquals(new HttpLaunchPublisher.Stats(1, 0, 0, 1, 0), publisher.getStats());
+      assertTrue(server.received().isEmpty(), "no body accepted as complete");
+    }
+  }
+
+  @Test
+  void close_waits_for_the_whole_retry_budget() {
+    HttpLaunchPublisher publisher =
+        new HttpLaunchPublisher(
+            URI.create("http://localhost:1/ingest"),
+            null,
+            false,
+            false,
+            1,
+            Duration.ofSeconds(10),
+            3,
+            Duration.ofSeconds(1));
+
+    // 4 attempts x (10 s timeout + 8 s largest backoff)
+    assertEquals(Duration.ofSeconds(72), publisher.drainTimeout());
+    publisher.close();
+  }
+}
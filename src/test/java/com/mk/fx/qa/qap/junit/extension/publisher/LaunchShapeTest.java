@@ -0,0 +1,119 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.JsonUtil;
+import com.mk.fx.qa.qap.junit.failure.FailureInterner;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.model.QAPTestParams;
+import com.mk.fx.qa.qap.junit.params.ParameterRenderer;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class LaunchShapeTest {
+
+  private static final long START = 1_700_000_000_000L;
+
+  private static QAPTest test(String method, int index, String status) {
+    QAPTest test = new QAPTest(method, method + " [" + index + "]");
+    test.setTestCaseId("PricingTest$Spot#" + method + "[" + index + "]");
+    test.setTestType("PARAMETERIZED");
+    test.setStatus(status);
+    test.setStartTime(START + index * 10L);
+    test.setEndTime(START + index * 10L + 7L);
+    test.setTag(Set.of("fx"));
+    test.setClassTags(Set.of("Spot"));
+    test.setInheritedClassTags(Set.of("Pricing"));
+    test.setParameters(
+        List.of(QAPTestParams.deferred(0, "EUR/USD", new ParameterRenderer())));
+    test.setLogLines(List.of("quote " + index));
+    return test;
+  }
+
+  private static QAPJunitLaunch launch(int tests) {
+    QAPTestClass root = new QAPTestClass("PricingTest", "Pricing", Set.of("Pricing"));
+    root.setClassKey("com.example.PricingTest");
+    root.setClassChain(List.of("Pricing"));
+    root.setTestCases(new ArrayList<>());
+    QAPTestClass spot = new QAPTestClass("Spot", "Spot", Set.of("Spot"));
+    spot.setFullClassName("PricingTest$Spot");
+    spot.setClassKey("com.example.PricingTest$Spot");
+    spot.setClassChain(List.of("Pricing", "Spot"));
+    spot.setInheritedClassTags(Set.of("Pricing"));
+    List<QAPTest> cases = new ArrayList<>();
+    for (int i = 0; i < tests; i++) {
+      cases.add(test("quotes", i, i % 10 == 0 ? "FAILED" : "PASSED"));
+    }
+    cases.get(0).setFailure(FailureInterner.current().intern(new AssertionError("stale quote")));
+    spot.setTestCases(cases);
+    root.getChildren().add(spot);
+    QAPJunitLaunch launch =
+        new QAPJunitLaunch(new QAPHeader(START, "L1"), new ArrayList<>(List.of(root)));
+    launch.getFailures().put(cases.get(0).getFailureId(), cases.get(0).getFailure());
+    return launch;
+  }
+
+  private static byte[] serialize(QAPJunitLaunch launch, ObjectMapper mapper) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    LaunchSerializer.write(launch, mapper, out, false);
+    return out.toByteArray();
+  }
+
+  @ParameterizedTest
+  @EnumSource(PayloadFormat.class)
+  void compact_launch_reads_back_into_the_same_model(PayloadFormat format) throws Exception {
+    QAPJunitLaunch launch = launch(20);
+    byte[] tree = serialize(launch, format.newMapper());
+    byte[] compact = serialize(launch, LaunchShape.COMPACT.apply(format.newMapper()));
+
+    QAPJunitLaunch read = JsonUtil.readLaunch(compact);
+
+    assertEquals(
+        JsonUtil.read(tree, JsonNode.class),
+        JsonUtil.read(serialize(read, format.newMapper()), JsonNode.class));
+    QAPTest first = read.getTestClasses().get(0).getChildren().get(0).getTestCases().get(0);
+    assertSame(read.getFailures().get(first.getFailureId()), first.getFailure());
+    assertEquals(Set.of("fx"), first.getMethodTags());
+    assertEquals(List.of("quote 0"), first.getLogs());
+  }
+
+  @Test
+  void compact_json_uses_a_string_table_and_relative_times() throws Exception {
+    ObjectMapper mapper = LaunchShape.COMPACT.apply(new ObjectMapper());
+    JsonNode json = JsonUtil.read(serialize(launch(20), mapper), JsonNode.class);
+
+    assertTrue(LaunchShape.isCompact(json));
+    JsonNode first = json.at("/testClasses/0/children/0/testCases/0");
+    JsonNode strings = json.get(LaunchShape.STRINGS);
+    assertTrue(first.get("status").isInt());
+    assertEquals("FAILED", strings.get(first.get("status").asInt()).asText());
+    assertEquals(7L, first.get("endTime").asLong());
+    assertEquals(START, json.at("/header/launchStartTime").asLong());
+    assertEquals("stale quote", json.at("/failures").elements().next().get("message").asText());
+
+    String text = LaunchSerializer.writeAsString(launch(20), mapper, false);
+    assertTrue(text.contains("\"strings\":["));
+  }
+
+  @Test
+  void compact_json_is_smaller_and_tree_payloads_still_read() throws Exception {
+    int tree = serialize(launch(1_000), new ObjectMapper()).length;
+    int compact = serialize(launch(1_000), LaunchShape.COMPACT.apply(new ObjectMapper())).length;
+
+    assertTrue(compact * 10 < tree * 9, "compact=" + compact + " tree=" + tree);
+    assertEquals(LaunchShape.TREE, LaunchShape.of(new ObjectMapper()));
+    String json = new String(serialize(launch(1), new ObjectMapper()), StandardCharsets.UTF_8);
+    assertEquals("PricingTest", JsonUtil.readLaunch(json).getTestClasses().get(0).getClassName());
+  }
+}
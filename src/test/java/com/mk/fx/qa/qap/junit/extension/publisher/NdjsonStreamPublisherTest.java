@@ -0,0 +1,99 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.QAPLauncherSessionListener;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.LauncherSession;
+import org.slf4j.Logger;
+
+class NdjsonStreamPublisherTest {
+
+  @Test
+  void emits_one_line_per_event_in_lifecycle_order() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ObjectMapper mapper = new ObjectMapper();
+    Logger log = mock(Logger.class);
+    NdjsonStreamPublisher publisher = new NdjsonStreamPublisher(out);
+
+    QAPTestClass root = new QAPTestClass("Root", "Root", Set.of());
+    root.setClassKey("com.example.Root");
+    QAPJunitLaunch launch =
+        new QAPJunitLaunch(new QAPHeader(1L, "L-1"), new ArrayList<>(List.of(root)));
+    QAPTest test = new QAPTest("m", "m");
+    test.setStatus("PASSED");
+
+    publisher.onLaunchStarted(launch, mapper, log);
+    publisher.onClassRegistered("L-1", root, mapper, log);
+    publisher.onTestFinished("L-1", "com.example.Root", test, mapper, log);
+    launch.getHeader().setLaunchEndTime(2L);
+    publisher.publish(launch, mapper, log);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(4, lines.length);
+    assertEquals("LAUNCH_START", mapper.readTree(lines[0]).get("event").asText());
+    assertEquals("CLASS_NODE", mapper.readTree(lines[1]).get("event").asText());
+
+    JsonNode testEvent = mapper.readTree(lines[2]);
+    assertEquals("TEST", testEvent.get("event").asText());
+    assertEquals("com.example.Root", testEvent.get("classKey").asText());
+    assertEquals("PASSED", testEvent.get("test").get("status").asText());
+
+    JsonNode end = mapper.readTree(lines[3]);
+    assertEquals("LAUNCH_END", end.get("event").asText());
+    assertEquals(2L, end.get("header").get("launchEndTime").asLong());
+    assertFalse(publisher.retainsTestCases());
+  }
+
+  @Test
+  void failures_are_emitted_once_per_launch_across_its_classes_until_the_session_closes()
+      throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ObjectMapper mapper = new ObjectMapper();
+    Logger log = mock(Logger.class);
+    NdjsonStreamPublisher publisher = new NdjsonStreamPublisher(out);
+    QAPFailure boom = new QAPFailure("f-1", "java.lang.AssertionError", "boom", "at X");
+    QAPLauncherSessionListener listener = new QAPLauncherSessionListener();
+
+    // Two sessions of one JVM sharing a launch id, e.g. through qap.launch.id.file
+    for (int session = 0; session < 2; session++) {
+      LauncherSession launcherSession = mock(LauncherSession.class);
+      listener.launcherSessionOpened(launcherSession);
+      try {
+        // Each top-level class ends its own launch under the session's launch id
+        for (String classKey : List.of("com.example.First", "com.example.Second")) {
+          QAPJunitLaunch launch = new QAPJunitLaunch(new QAPHeader(1L, "L-1"), new ArrayList<>());
+          QAPTest test = new QAPTest("m", "m");
+          test.setStatus("FAILED");
+          test.setFailure(boom);
+          publisher.onTestFinished("L-1", classKey, test, mapper, log);
+          publisher.publish(launch, mapper, log);
+        }
+      } finally {
+        listener.launcherSessionClosed(launcherSession);
+      }
+    }
+
+    List<String> events = new ArrayList<>();
+    for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+      events.add(mapper.readTree(line).get("event").asText());
+    }
+    List<String> session = List.of("FAILURE", "TEST", "LAUNCH_END", "TEST", "LAUNCH_END");
+    List<String> expected = new ArrayList<>(session);
+    expected.addAll(session);
+    assertEquals(expected, events);
+  }
+}
@@ -0,0 +1,76 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.JsonUtil;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+
+class PayloadFormatTest {
+
+  private static QAPJunitLaunch launch(int tests) {
+    QAPTestClass root = new QAPTestClass("DemoTest", "DemoTest", Set.of("smoke"));
+    List<QAPTest> cases = new ArrayList<>();
+    for (int i = 0; i < tests; i++) {
+      QAPTest test = new QAPTest("test" + i, "test " + i);
+      test.setStatus("PASSED");
+      cases.add(test);
+    }
+    root.setTestCases(cases);
+    return new QAPJunitLaunch(new QAPHeader(1L, "L1"), new ArrayList<>(List.of(root)));
+  }
+
+  private static byte[] serialize(PayloadFormat format, boolean prettyPrint) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    LaunchSerializer.write(launch(1_000), format.newMapper(), out, prettyPrint);
+    return out.toByteArray();
+  }
+
+  @ParameterizedTest
+  @EnumSource(PayloadFormat.class)
+  void payload_round_trips_and_is_detected(PayloadFormat format) throws Exception {
+    byte[] payload = serialize(format, false);
+
+    PayloadFormat expected = format.isBinary() ? format : PayloadFormat.JSON;
+    assertEquals(expected, PayloadFormat.detect(payload));
+    assertEquals(expected, PayloadFormat.of(format.newMapper()));
+    JsonNode json = JsonUtil.read(payload, JsonNode.class);
+    assertEquals("L1", json.get("header").get("launchId").asText());
+    assertEquals(1_000, json.get("testClasses").get(0).get("testCases").size());
+  }
+
+  @Test
+  void binary_formats_are_much_smaller_than_pretty_json() throws Exception {
+    int pretty = serialize(PayloadFormat.JSON, true).length;
+
+    assertTrue(serialize(PayloadFormat.JSON_COMPACT, false).length < pretty);
+    assertTrue(serialize(PayloadFormat.SMILE, false).length * 3 < pretty, "smile");
+    assertTrue(serialize(PayloadFormat.CBOR, false).length * 3 < pretty * 2, "cbor");
+  }
+
+  @Test
+  void text_sinks_carry_binary_payloads_as_base64() throws Exception {
+    ObjectMapper mapper = PayloadFormat.SMILE.newMapper();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new StdOutPublisher(out, true).publish(launch(3), mapper, mock(Logger.class));
+
+    String line = out.toString(StandardCharsets.US_ASCII);
+    JsonNode json = JsonUtil.readText(line, PayloadFormat.SMILE, JsonNode.class);
+    assertEquals(3, json.get("testClasses").get(0).get("testCases").size());
+  }
+}
@@ -0,0 +1,92 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+class StdOutPublisherTest {
+
+  private static QAPJunitLaunch sampleLaunch() {
+    QAPTestClass root = new QAPTestClass("Root", "Root", Set.of("A"));
+    QAPTestClass child = new QAPTestClass("Child", "Child", Set.of());
+    root.setTestCases(new ArrayList<>(List.of(new QAPTest("a", "a"))));
+    child.setTestCases(new ArrayList<>(List.of(new QAPTest("b", "b"), new QAPTest("c", "c"))));
+    root.setChildren(new ArrayList<>(List.of(child)));
+    return new QAPJunitLaunch(new QAPHeader(1L, "L-1"), new ArrayList<>(List.of(root)));
+  }
+
+  @Test
+  void streams_compact_json_and_reports_counted_bytes() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Logger log = mock(Logger.class);
+
+    new StdOutPublisher(out, false).publish(sampleLaunch(), new ObjectMapper(), log);
+
+    String json = out.toString(StandardCharsets.UTF_8).trim();
+    assertTrue(json.startsWith("{\"header\""));
+    assertFalse(json.contains("\n"), "compact output must be a single line");
+    long expected = json.getBytes(StandardCharsets.UTF_8).length;
+    verify(log).info(anyString(), eq("Root"), eq(3), eq(expected), eq("L-1"));
+  }
+
+  @Test
+  void pretty_print_indents_output() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new StdOutPublisher(out, true).publish(sampleLaunch(), new ObjectMapper(), mock(Logger.class));
+
+    String json = out.toString(StandardCharsets.UTF_8).trim();
+    assertTrue(json.contains("\n  \"header\""));
+  }
+
+  @Test
+  void debug_logs_the_written_payload_without_serializing_twice() {
+    AtomicInteger headers = new AtomicInteger();
+    ObjectMapper mapper =
+        new ObjectMapper()
+            .registerModule(
+                new SimpleModule()
+                    .addSerializer(
+                        QAPHeader.class,
+                        new JsonSerializer<QAPHeader>() {
+                          @Override
+                          public void serialize(
+                              QAPHeader header, JsonGenerator gen, SerializerProvider provider)
+                              throws IOException {
+                            headers.incrementAndGet();
+                            gen.writeStartObject();
+                            gen.writeStringField("launchId", header.getLaunchId());
+                            gen.writeEndObject();
+                          }
+                        }));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Logger log = mock(Logger.class);
+    when(log.isDebugEnabled()).thenReturn(true);
+
+    new StdOutPublisher(out, false).publish(sampleLaunch(), mapper, log);
+
+    assertEquals(1, headers.get(), "one serialization for the target and the log");
+    String json = out.toString(StandardCharsets.UTF_8).trim();
+    verify(log).debug(anyString(), eq(json));
+  }
+}
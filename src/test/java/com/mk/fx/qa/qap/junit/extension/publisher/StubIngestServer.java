@@ -0,0 +1,87 @@
+package com.mk.fx.qa.qap.junit.extension.publisher;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Embedded ingestion endpoint on a loopback ephemeral port for exercising {@link
+ * HttpLaunchPublisher} offline. It answers the first {@code failures} requests with {@code 503}
+ * and records the decoded body and headers of every accepted request.
+ */
+class StubIngestServer implements AutoCloseable {
+
+  record Received(String body, String contentEncoding, String authorization) {}
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final AtomicInteger remainingFailures;
+  private final long delayMillis;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final List<Received> received = new CopyOnWriteArrayList<>();
+
+  StubIngestServer(int failures, long delayMillis) throws IOException {
+    this.remainingFailures = new AtomicInteger(failures);
+    this.delayMillis = delayMillis;
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/ingest", this::handle);
+    this.server.setExecutor(executor);
+    this.server.start();
+  }
+
+  URI uri() {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/ingest");
+  }
+
+  int requests() {
+    return requests.get();
+  }
+
+  List<Received> received() {
+    return received;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    try (exchange) {
+      String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+      // Drain the raw body first so the connection stays reusable for the next request
+      byte[] raw = exchange.getRequestBody().readAllBytes();
+      InputStream in = new ByteArrayInputStream(raw);
+      if ("gzip".equals(encoding)) {
+        in = new GZIPInputStream(in);
+      }
+      String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      if (delayMillis > 0) {
+        Thread.sleep(delayMillis);
+      }
+      if (remainingFailures.getAndDecrement() > 0) {
+        exchange.sendResponseHeaders(503, -1);
+        return;
+      }
+      received.add(
+          new Received(body, encoding, exchange.getRequestHeaders().getFirst("Authorization")));
+      exchange.sendResponseHeaders(202, -1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,112 @@
+package com.mk.fx.qa.qap.junit.failure;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.mk.fx.qa.qap.junit.core.QAPLauncherSessionListener;
+import com.mk.fx.qa.qap.junit.model.QAPFailure;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.LauncherSession;
+
+class FailureInternerTest {
+
+  private static IllegalStateException failure(String message) {
+    return new IllegalStateException(message, new RuntimeException("root cause"));
+  }
+
+  private static Throwable deep(int depth) {
+    return depth == 0 ? new AssertionError("deep") : deep(depth - 1);
+  }
+
+  @Test
+  void identical_failures_share_one_lazily_rendered_trace() {
+    FailureInterner interner = new FailureInterner(StackTraceRenderer.DEFAULT, 16);
+    Map<QAPFailure, Boolean> distinct = new IdentityHashMap<>();
+
+    for (int i = 0; i < 5_000; i++) {
+      distinct.put(interner.intern(failure("connection refused")), true);
+    }
+
+    assertEquals(1, distinct.size());
+    QAPFailure shared = distinct.keySet().iterator().next();
+    assertFalse(shared.isRendered(), "nothing is rendered on the test thread");
+    assertTrue(shared.getStackTrace().contains("Caused by: java.lang.RuntimeException: root"));
+    assertTrue(shared.isRendered());
+    assertNotSame(shared, interner.intern(failure("timeout")));
+    assertEquals(2, interner.size());
+  }
+
+  @Test
+  void full_interner_evicts_the_least_recently_seen_failure() {
+    FailureInterner interner = new FailureInterner(StackTraceRenderer.DEFAULT, 2);
+    QAPFailure a = interner.intern(failure("a"));
+    QAPFailure b = interner.intern(failure("b"));
+    assertSame(a, interner.intern(failure("a")));
+
+    QAPFailure c = interner.intern(failure("c"));
+
+    assertEquals("c", c.getMessage());
+    assertEquals(2, interner.size());
+    assertSame(a, interner.intern(failure("a")));
+    assertSame(c, interner.intern(failure("c")));
+    assertNotSame(b, interner.intern(failure("b")), "evicted, so captured anew");
+  }
+
+  @Test
+  void each_session_interns_its_own_failures_until_it_closes() {
+    QAPLauncherSessionListener listener = new QAPLauncherSessionListener();
+    LauncherSession session = mock(LauncherSession.class);
+    listener.launcherSessionOpened(session);
+    FailureInterner interner;
+    try {
+      interner = FailureInterner.current();
+      assertSame(interner, FailureInterner.current());
+      interner.intern(failure("session"));
+    } finally {
+      listener.launcherSessionClosed(session);
+    }
+
+    assertNotSame(interner, FailureInterner.current(), "dropped with the session");
+    assertEquals(1, interner.size());
+  }
+
+  @Test
+  void null_message_is_captured_without_error() {
+    QAPFailure failure = FailureInterner.current().intern(new NullPointerException());
+
+    assertNull(failure.getMessage());
+    assertEquals(NullPointerException.class.getName(), failure.getType());
+    assertTrue(failure.getStackTrace().startsWith("java.lang.NullPointerException"));
+  }
+
+  @Test
+  void renderer_bounds_frames_bytes_and_collapses_common_frames() {
+    String trace = new StackTraceRenderer(10, 8, 64 * 1024).render(failure("boom"));
+    assertTrue(trace.contains(" more\n"), "frames shared with the enclosing trace are collapsed");
+
+    String framesCapped = new StackTraceRenderer(5, 8, 64 * 1024).render(deep(40));
+    assertEquals(5, framesCapped.lines().filter(l -> l.startsWith("\tat ")).count());
+    assertTrue(framesCapped.contains("frames omitted"));
+
+    String bytesCapped = new StackTraceRenderer(1_000, 8, 512).render(deep(200));
+    assertTrue(bytesCapped.getBytes(StandardCharsets.UTF_8).length <= 512);
+    assertTrue(bytesCapped.endsWith(StackTraceRenderer.TRUNCATED));
+  }
+
+  @Test
+  void renderer_collapses_rewrapping_and_survives_cycles() {
+    RuntimeException inner = new RuntimeException("same");
+    RuntimeException outer = new RuntimeException("same", new RuntimeException("same", inner));
+    String collapsed = StackTraceRenderer.DEFAULT.render(outer);
+    assertTrue(collapsed.contains("re-wrapped 2 more time(s)"));
+    assertFalse(collapsed.contains("Caused by"));
+
+    Exception a = new Exception("a");
+    Exception b = new Exception("b", a);
+    a.initCause(b);
+    assertTrue(StackTraceRenderer.DEFAULT.render(a).contains("CIRCULAR REFERENCE"));
+  }
+}
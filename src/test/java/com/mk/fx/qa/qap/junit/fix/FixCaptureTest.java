@@ -0,0 +1,95 @@
+package com.mk.fx.qa.qap.junit.fix;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FixCaptureTest {
+
+  private static final String ORDER = "8=FIX.4.4\u00019=12\u000135=D\u000110=123\u0001";
+  private static final String REPORT = "8=FIX.4.4\u00019=12\u000135=8\u000110=045\u0001";
+
+  private static String text(byte[] bytes) {
+    return new String(bytes, StandardCharsets.ISO_8859_1);
+  }
+
+  @Test
+  void records_messages_with_soh_delimiters_for_the_running_test() {
+    FixCapture capture = new FixCapture(FixCapture.DEFAULT_MAX_BYTES);
+    capture.begin();
+    ByteBuffer order = ByteBuffer.wrap(ORDER.getBytes(StandardCharsets.ISO_8859_1));
+    FixCapture.record(order);
+    byte[] framed = ("xx" + REPORT + "yy").getBytes(StandardCharsets.ISO_8859_1);
+    FixCapture.record(framed, 2, REPORT.length());
+
+    byte[] recorded = capture.end();
+
+    assertEquals(ORDER + "\n" + REPORT + "\n", text(recorded));
+    assertEquals(0, order.position(), "the caller's buffer is left untouched");
+    assertNull(capture.end());
+  }
+
+  @Test
+  void messages_split_on_fix_boundaries_even_when_values_contain_newlines() {
+    String text = "8=FIX.4.4\u00019=30\u000135=D\u000158=first\nsecond\u000110=201\u0001";
+    FixCapture capture = new FixCapture(FixCapture.DEFAULT_MAX_BYTES);
+    capture.begin();
+    FixCapture.record(text);
+    FixCapture.record(REPORT);
+    QAPTest test = new QAPTest("m", "m");
+    test.setFix(capture.end());
+
+    List<String> messages = test.getFixArray();
+
+    assertEquals(List.of(text, REPORT), messages);
+    QAPTest readBack = new QAPTest("m", "m");
+    readBack.setFixArray(messages);
+    assertArrayEquals(test.getFix(), readBack.getFix(), "same framing as the recorder");
+    String marker = "... [2 messages, 90 bytes dropped]";
+    byte[] truncated = (ORDER + "\n" + marker + "\n").getBytes(StandardCharsets.ISO_8859_1);
+    assertEquals(List.of(ORDER, marker), FixRecorder.messages(truncated));
+  }
+
+  @Test
+  void nothing_is_recorded_outside_a_test() {
+    FixCapture.record(ORDER);
+
+    assertSame(FixRecorder.NOOP, FixCapture.recorder());
+    assertFalse(FixCapture.recorder().isActive());
+  }
+
+  @Test
+  void messages_past_the_cap_are_dropped_whole_and_counted() {
+    FixCapture capture = new FixCapture(1024);
+    capture.begin();
+    for (int i = 0; i < 100; i++) {
+      FixCapture.record(ORDER);
+    }
+
+    String recorded = text(capture.end());
+
+    int dropped = 100 - 1024 / (ORDER.length() + 1);
+    long droppedBytes = (long) dropped * ORDER.length();
+    assertTrue(recorded.startsWith(ORDER + "\n"));
+    String marker = "... [" + dropped + " messages, " + droppedBytes + " bytes dropped]\n";
+    assertTrue(recorded.endsWith(marker));
+  }
+
+  @Test
+  void recorder_handed_to_another_thread_stops_when_the_test_ends() throws Exception {
+    FixCapture capture = new FixCapture(FixCapture.DEFAULT_MAX_BYTES);
+    capture.begin();
+    FixRecorder recorder = FixCapture.recorder();
+    Thread session = new Thread(() -> recorder.record(REPORT));
+    session.start();
+    session.join();
+
+    assertEquals(REPORT + "\n", text(capture.end()));
+    recorder.record(ORDER);
+    assertFalse(recorder.isActive());
+  }
+}
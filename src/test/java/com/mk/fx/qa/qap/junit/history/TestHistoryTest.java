@@ -0,0 +1,183 @@
+package com.mk.fx.qa.qap.junit.history;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestHistoryTest {
+
+  private static final Duration MAX_AGE = Duration.ofDays(30);
+  private static final long NOW = 1_700_000_000_000L;
+
+  static class Sample {
+    void fast() {}
+
+    void slow() {}
+
+    void broken() {}
+  }
+
+  static class Flat {}
+
+  static class Deep {
+    class Group {
+      class Inner {}
+    }
+  }
+
+  private static QAPTest test(String id, String status, long millis) {
+    QAPTest test = new QAPTest(id, id);
+    test.setTestCaseId(id);
+    test.setStatus(status);
+    test.setStartTime(1_000L);
+    test.setEndTime(1_000L + millis);
+    return test;
+  }
+
+  private static QAPJunitLaunch launch(QAPTest... tests) {
+    QAPTestClass root = new QAPTestClass("Demo", "Demo", Set.of());
+    root.setTestCases(new ArrayList<>(List.of(tests)));
+    return new QAPJunitLaunch(new QAPHeader(0L, "L"), new ArrayList<>(List.of(root)));
+  }
+
+  private static String line(String id, long micros, long seen, long failed) {
+    return id + "\t" + micros + "\t" + seen + "\t" + failed + "\n";
+  }
+
+  @Test
+  void journal_folds_runs_per_test(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("history.tsv");
+    TestHistory.record(
+        file, launch(test("Demo#a", "PASSED", 100), test("Demo#b", "FAILED", 10)), NOW, MAX_AGE);
+    TestHistory.record(
+        file,
+        launch(test("Demo#a", "PASSED", 200), test("Demo#off", "DISABLED", 0)),
+        NOW + 1,
+        MAX_AGE);
+
+    TestHistory history = TestHistory.load(file, NOW + 2, MAX_AGE);
+
+    assertEquals(3, Files.readAllLines(file).size(), "one appended line per finished test");
+    TestHistory.Entry a = history.entries().get("Demo#a");
+    assertEquals(130_000L, a.durationMicros(), "0.7 x 100ms + 0.3 x 200ms");
+    assertEquals(NOW + 1, a.lastSeenMillis());
+    assertEquals(0L, a.lastFailedMillis());
+    assertEquals(NOW, history.entries().get("Demo#b").lastFailedMillis());
+    assertFalse(history.entries().containsKey("Demo#off"));
+  }
+
+  @Test
+  void rolls_up_templates_and_classes_and_prunes_stale_tests(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("history.tsv");
+    long stale = NOW - Duration.ofDays(31).toMillis();
+    Files.writeString(
+        file,
+        line("Demo#t[0]", 10, NOW, 0)
+            + line("Demo#t[1]", 30, NOW, NOW)
+            + line("Demo$Inner#x", 5, NOW, 0)
+            + line("Demo#gone", 99, stale, 0)
+            + "torn line\n");
+
+    TestHistory history = TestHistory.load(file, NOW, MAX_AGE);
+
+    assertEquals(40L, history.methodDurationMicros("Demo#t"));
+    assertEquals(NOW, history.methodLastFailedMillis("Demo#t"));
+    assertEquals(45L, history.classDurationMicros("Demo"), "own tests and nested classes");
+    assertEquals(5L, history.classDurationMicros("Demo$Inner"));
+    assertEquals(-1L, history.methodDurationMicros("Demo#gone"));
+  }
+
+  @Test
+  void method_orderers_sort_by_duration_and_recent_failure(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("history.tsv");
+    String cls = "TestHistoryTest$Sample";
+    long now = System.currentTimeMillis();
+    Files.writeString(
+        file,
+        line(cls + "#fast", 10, now, 0)
+            + line(cls + "#slow", 900, now, 0)
+            + line(cls + "#broken", 50, now, now));
+
+    assertEquals(
+        List.of("slow", "broken", "fast"), order(new HistoryMethodOrderer.LongestFirst(), file));
+    assertEquals(
+        List.of("broken", "fast", "slow"),
+        order(new HistoryMethodOrderer.RecentlyFailedFirst(), file));
+  }
+
+  @Test
+  void longest_first_credits_classes_with_their_nested_classes(@TempDir Path dir)
+      throws Exception {
+    Path file = dir.resolve("history.tsv");
+    String flat = "TestHistoryTest$Flat";
+    String deep = "TestHistoryTest$Deep";
+    long now = System.currentTimeMillis();
+    Files.writeString(
+        file,
+        line(flat + "#a", 300, now, 0)
+            + line(deep + "#a", 10, now, 0)
+            + line(deep + "$Group#b", 200, now, 0)
+            + line(deep + "$Group$Inner#c", 400, now, now));
+    TestHistory history = TestHistory.load(file, now, MAX_AGE);
+
+    assertEquals(610L, history.classDurationMicros(deep));
+    assertEquals(600L, history.classDurationMicros(deep + "$Group"));
+    assertEquals(now, history.classLastFailedMillis(deep));
+    List<ClassDescriptor> classes = new ArrayList<>();
+    for (Class<?> type : List.of(Flat.class, Deep.class)) {
+      ClassDescriptor descriptor = mock(ClassDescriptor.class);
+      when(descriptor.getTestClass()).thenAnswer(inv -> type);
+      classes.add(descriptor);
+    }
+    ClassOrdererContext context = mock(ClassOrdererContext.class);
+    when(context.getConfigurationParameter(HistoryOrdering.FILE_KEY))
+        .thenReturn(Optional.of(file.toString()));
+    when(context.getConfigurationParameter(HistoryOrdering.MAX_AGE_KEY))
+        .thenReturn(Optional.empty());
+    when(context.getClassDescriptors()).thenAnswer(inv -> classes);
+
+    new HistoryClassOrderer.LongestFirst().orderClasses(context);
+
+    assertEquals(Deep.class, classes.get(0).getTestClass());
+  }
+
+  private static List<String> order(HistoryMethodOrderer orderer, Path file) throws Exception {
+    List<MethodDescriptor> methods = new ArrayList<>();
+    for (String name : List.of("fast", "slow", "broken")) {
+      Method method = Sample.class.getDeclaredMethod(name);
+      MethodDescriptor descriptor = mock(MethodDescriptor.class);
+      when(descriptor.getMethod()).thenReturn(method);
+      methods.add(descriptor);
+    }
+    MethodOrdererContext context = mock(MethodOrdererContext.class);
+    when(context.getConfigurationParameter(HistoryOrdering.FILE_KEY))
+        .thenReturn(Optional.of(file.toString()));
+    when(context.getConfigurationParameter(HistoryOrdering.MAX_AGE_KEY))
+        .thenReturn(Optional.empty());
+    when(context.getTestClass()).thenAnswer(inv -> Sample.class);
+    when(context.getMethodDescriptors()).thenAnswer(inv -> methods);
+
+    orderer.orderMethods(context);
+
+    return methods.stream().map(d -> d.getMethod().getName()).toList();
+  }
+}
@@ -0,0 +1,235 @@
+package com.mk.fx.qa.qap.junit.listener;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.extension.DisplayNameResolver;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.runtime.QAPRuntime;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+class QAPTestExecutionListenerTest {
+
+  @Tag("Outer")
+  static class Fixture {
+    @Nested
+    @Tag("Inner")
+    class Group {}
+  }
+
+  /** Shares its name, and so its unique id, as a prefix with {@link Fixture}. */
+  static class FixtureBar {}
+
+  /** Minimal descriptor so identifiers carry real unique ids, sources, tags and parents. */
+  private static final class Node extends AbstractTestDescriptor {
+    private final Type type;
+    private final Set<TestTag> tags;
+
+    Node(UniqueId id, String name, TestSource source, Type type, String... tags) {
+      super(id, name, source);
+      this.type = type;
+      this.tags = Arrays.stream(tags).map(TestTag::create).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Type getType() {
+      return type;
+    }
+
+    @Override
+    public Set<TestTag> getTags() {
+      return tags;
+    }
+  }
+
+  private final List<QAPJunitLaunch> published = new CopyOnWriteArrayList<>();
+  private final Map<String, TestIdentifier> identifiers = new HashMap<>();
+  private final TestPlan plan = mock(TestPlan.class);
+  private final QAPTestExecutionListener listener =
+      new QAPTestExecutionListener(
+          new QAPRuntime(
+              new ObjectMapper(),
+              Clock.systemUTC(),
+              new QAPPropertiesLoader(),
+              new DisplayNameResolver(),
+              (launch, mapper, log) -> published.add(launch)));
+
+  private final EngineDescriptor engine =
+      new EngineDescriptor(UniqueId.forEngine("junit-jupiter"), "JUnit Jupiter");
+  private final Node outer = container(engine, "class", Fixture.class, "Fixture", "Outer");
+
+  private static Node add(
+      TestDescriptor parent, String segment, String name, TestSource source, String... tags) {
+    TestDescriptor.Type type =
+        source instanceof ClassSource || segment.equals("test-template")
+            ? TestDescriptor.Type.CONTAINER
+            : TestDescriptor.Type.TEST;
+    Node node = new Node(parent.getUniqueId().append(segment, name), name, source, type, tags);
+    parent.addChild(node);
+    return node;
+  }
+
+  private static Node container(
+      TestDescriptor parent, String segment, Class<?> type, String name, String... tags) {
+    return add(parent, segment, name, ClassSource.from(type), tags);
+  }
+
+  private static Node method(TestDescriptor parent, Class<?> type, String name, String... tags) {
+    return add(parent, "method", name + "()", MethodSource.from(type.getName(), name), tags);
+  }
+
+  private TestIdentifier id(TestDescriptor descriptor) {
+    return identifiers.computeIfAbsent(
+        descriptor.getUniqueId().toString(), k -> TestIdentifier.from(descriptor));
+  }
+
+  /** Answers parent and descendant lookups from the descriptor tree. */
+  private void plan(TestDescriptor... descriptors) {
+    for (TestDescriptor descriptor : descriptors) {
+      TestIdentifier self = id(descriptor);
+      when(plan.getParent(self)).thenReturn(descriptor.getParent().map(this::id));
+      Set<TestIdentifier> below = new LinkedHashSet<>();
+      descriptor.getDescendants().forEach(d -> below.add(id(d)));
+      when(plan.getDescendants(self)).thenReturn(below);
+    }
+  }
+
+  private QAPTest test(QAPTestClass node, String methodName) {
+    return node.getTestCases().stream()
+        .filter(t -> t.getMethodName().equals(methodName))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  @Test
+  void builds_one_launch_per_top_level_class_with_nested_classes_and_invocations() {
+    Node group = container(outer, "nested-class", Fixture.Group.class, "Group", "Outer", "Inner");
+    Node adds = method(group, Fixture.Group.class, "adds", "Outer", "Inner", "fast");
+    MethodSource runs = MethodSource.from(Fixture.class.getName(), "runs", "int");
+    Node template = add(outer, "test-template", "runs(int)", runs, "Outer");
+    Node second = add(template, "test-template-invocation", "#2", null, "Outer");
+    plan(engine, outer, group, adds, template, second);
+    AssertionError boom = new AssertionError("boom");
+
+    listener.testPlanExecutionStarted(plan);
+    listener.executionStarted(id(engine));
+    listener.executionStarted(id(outer));
+    listener.executionStarted(id(group));
+    listener.executionStarted(id(adds));
+    listener.executionFinished(id(adds), TestExecutionResult.successful());
+    listener.executionFinished(id(group), TestExecutionResult.successful());
+    listener.executionStarted(id(template));
+    listener.executionStarted(id(second));
+    listener.executionFinished(id(second), TestExecutionResult.failed(boom));
+    listener.executionFinished(id(template), TestExecutionResult.successful());
+    assertTrue(published.isEmpty(), "published only once the top-level class finishes");
+    listener.executionFinished(id(outer), TestExecutionResult.successful());
+    listener.executionFinished(id(engine), TestExecutionResult.successful());
+    listener.testPlanExecutionFinished(plan);
+
+    assertEquals(1, published.size());
+    QAPJunitLaunch launch = published.get(0);
+    assertNotNull(launch.getHeader().getLaunchId());
+    QAPTestClass root = launch.getTestClasses().get(0);
+    assertEquals("Fixture", root.getClassName());
+    assertEquals(Set.of("Outer"), root.getClassTags());
+
+    QAPTest invocation = test(root, "runs");
+    assertEquals("PARAMETERIZED", invocation.getTestType());
+    assertEquals("QAPTestExecutionListenerTest$Fixture#runs[1]", invocation.getTestCaseId());
+    assertEquals("FAILED", invocation.getStatus());
+    assertEquals(Set.of(invocation.getFailureId()), launch.getFailures().keySet());
+
+    QAPTestClass nested = root.getChildren().get(0);
+    assertEquals(List.of("Fixture", "Group"), nested.getClassChain());
+    assertEquals(Set.of("Outer"), nested.getInheritedClassTags());
+    QAPTest passed = test(nested, "adds");
+    assertEquals("PASSED", passed.getStatus());
+    assertEquals("TEST", passed.getTestType());
+    assertEquals(Set.of("fast"), passed.getMethodTags());
+    assertEquals(Set.of("Inner"), passed.getClassTags());
+  }
+
+  @Test
+  void interleaved_classes_sharing_a_name_prefix_keep_their_own_nodes() {
+    Node bar = container(engine, "class", FixtureBar.class, "FixtureBar");
+    Node adds = method(outer, Fixture.class, "adds", "Outer");
+    Node prices = method(bar, FixtureBar.class, "prices");
+    plan(engine, outer, bar, adds, prices);
+
+    // Concurrent execution: both classes are running when Fixture finishes first
+    listener.testPlanExecutionStarted(plan);
+    listener.executionStarted(id(engine));
+    listener.executionStarted(id(outer));
+    listener.executionStarted(id(bar));
+    listener.executionStarted(id(adds));
+    listener.executionStarted(id(prices));
+    listener.executionFinished(id(adds), TestExecutionResult.successful());
+    listener.executionFinished(id(outer), TestExecutionResult.successful());
+    listener.executionFinished(id(prices), TestExecutionResult.successful());
+    listener.executionFinished(id(bar), TestExecutionResult.successful());
+    listener.testPlanExecutionFinished(plan);
+
+    assertEquals(2, published.size());
+    assertEquals("Fixture", published.get(0).getTestClasses().get(0).getClassName());
+    QAPTestClass other = published.get(1).getTestClasses().get(0);
+    assertEquals("FixtureBar", other.getClassName());
+    assertEquals("PASSED", test(other, "prices").getStatus());
+  }
+
+  @Test
+  void skipped_container_reports_its_tests_as_disabled() {
+    Node adds = method(outer, Fixture.class, "adds", "Outer");
+    plan(engine, outer, adds);
+
+    listener.testPlanExecutionStarted(plan);
+    listener.executionStarted(id(engine));
+    listener.executionSkipped(id(outer), "maintenance");
+    listener.testPlanExecutionFinished(plan);
+
+    assertEquals(1, published.size());
+    QAPTest skipped = test(published.get(0).getTestClasses().get(0), "adds");
+    assertEquals("DISABLED", skipped.getStatus());
+    assertTrue(new String(skipped.getException()).contains("maintenance"));
+  }
+
+  @Test
+  void service_loaded_listener_ignores_events_outside_listener_mode() {
+    QAPTestExecutionListener idle = new QAPTestExecutionListener();
+    plan(engine, outer);
+
+    idle.testPlanExecutionStarted(plan);
+    idle.executionStarted(id(outer));
+    idle.executionFinished(id(outer), TestExecutionResult.successful());
+
+    assertFalse(QAPTestExecutionListener.isActive(new QAPPropertiesLoader()));
+    assertTrue(published.isEmpty());
+  }
+}
@@ -0,0 +1,78 @@
+package com.mk.fx.qa.qap.junit.logs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class LogRingBufferTest {
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String text(LogRingBuffer ring) {
+    return new String(ring.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void keeps_everything_until_full() {
+    LogRingBuffer ring = LogRingBuffer.heap(16);
+    ring.append(bytes("abc"));
+    ring.append(bytes("def"));
+
+    assertEquals("abcdef", text(ring));
+    assertEquals(0L, ring.dropped());
+  }
+
+  @Test
+  void keeps_the_tail_once_wrapped_on_heap_and_off_heap() {
+    LogRingBuffer[] rings = {LogRingBuffer.heap(8), LogRingBuffer.direct(8)};
+    for (LogRingBuffer ring : rings) {
+      ring.append(bytes("0123456"));
+      ring.append(bytes("789ab"));
+
+      assertEquals("456789ab", text(ring));
+      assertEquals(4L, ring.dropped());
+    }
+  }
+
+  @Test
+  void oversized_event_keeps_only_its_tail() {
+    LogRingBuffer ring = LogRingBuffer.direct(4);
+    ring.append(bytes("x"));
+    ring.append(bytes("abcdefgh"));
+
+    assertEquals("efgh", text(ring));
+    assertEquals(5L, ring.dropped());
+  }
+
+  @Test
+  void heap_ring_grows_up_to_its_capacity() {
+    LogRingBuffer ring = LogRingBuffer.heap(100_000);
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 30_000; i++) {
+      String line = i + "\n";
+      ring.append(bytes(line));
+      expected.append(line);
+    }
+
+    String all = expected.toString();
+    assertEquals(all.substring(all.length() - 100_000), text(ring));
+    assertEquals(all.length() - 100_000L, ring.dropped());
+    assertFalse(ring.isDirect());
+  }
+
+  @Test
+  void reset_rings_are_reusable() {
+    LogRingBuffer ring = LogRingBuffer.direct(8);
+    ring.append(bytes("0123456789"));
+    ring.reset();
+    ring.append(bytes("ok"));
+
+    assertEquals("ok", text(ring));
+    assertEquals(0L, ring.dropped());
+    assertTrue(ring.isDirect());
+    assertEquals(8, ring.capacity());
+  }
+}
@@ -0,0 +1,118 @@
+package com.mk.fx.qa.qap.junit.logs;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.QAPLaunchIdGenerator;
+import com.mk.fx.qa.qap.junit.extension.DisplayNameResolver;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitExtension;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitMethodInterceptor;
+import com.mk.fx.qa.qap.junit.extension.QAPJunitTestEventsCreator;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPPropertiesLoader;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.runtime.QAPRuntime;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class TestLogCaptureTest {
+
+  private static final Logger log = LoggerFactory.getLogger(TestLogCaptureTest.class);
+
+  private static final List<QAPJunitLaunch> published = new CopyOnWriteArrayList<>();
+  private static volatile boolean launching;
+
+  /** The fixtures only run when launched by this test, not when the build scans test classes. */
+  static boolean launching() {
+    return launching;
+  }
+
+  /** One extension instance per top-level class, as with {@code @ExtendWith}. */
+  static QAPJunitExtension extension() {
+    QAPPropertiesLoader properties = spy(new QAPPropertiesLoader());
+    doReturn("tail").when(properties).getLogsCapture();
+    doReturn(true).when(properties).isReportingEnabled();
+    QAPRuntime runtime =
+        new QAPRuntime(
+            new ObjectMapper(),
+            Clock.systemUTC(),
+            properties,
+            new DisplayNameResolver(),
+            (launch, mapper, logger) -> published.add(launch));
+    return new QAPJunitExtension(
+        runtime,
+        null,
+        new QAPJunitTestEventsCreator(),
+        new QAPJunitMethodInterceptor(new ConcurrentHashMap<>()),
+        new QAPLaunchIdGenerator());
+  }
+
+  @EnabledIf("com.mk.fx.qa.qap.junit.logs.TestLogCaptureTest#launching")
+  static class FirstFixture {
+    @RegisterExtension static QAPJunitExtension qap = extension();
+
+    @Test
+    void logs() {
+      log.error("first class output");
+    }
+  }
+
+  @EnabledIf("com.mk.fx.qa.qap.junit.logs.TestLogCaptureTest#launching")
+  static class SecondFixture {
+    @RegisterExtension static QAPJunitExtension qap = extension();
+
+    @Test
+    void logs() {
+      log.error("second class output");
+    }
+  }
+
+  private static String logsOf(String className) {
+    QAPTestClass node =
+        published.stream()
+            .flatMap(launch -> launch.getTestClasses().stream())
+            .filter(c -> c.getClassName().endsWith(className))
+            .findFirst()
+            .orElseThrow();
+    QAPTest test = node.getTestCases().get(0);
+    assertTrue(test.hasLogs(), className + " kept no logs");
+    return String.join("\n", test.getLogs());
+  }
+
+  @Test
+  void every_test_class_gets_its_own_logs() {
+    published.clear();
+    Launcher launcher = LauncherFactory.create();
+    launching = true;
+    try {
+      launcher.execute(
+          LauncherDiscoveryRequestBuilder.request()
+              .selectors(selectClass(FirstFixture.class), selectClass(SecondFixture.class))
+              .build());
+    } finally {
+      launching = false;
+    }
+
+    assertEquals(2, published.size());
+    String first = logsOf("FirstFixture");
+    String second = logsOf("SecondFixture");
+    assertTrue(first.contains("first class output"), first);
+    assertFalse(first.contains("second class output"), first);
+    assertTrue(second.contains("second class output"), second);
+    assertFalse(second.contains("first class output"), second);
+  }
+}
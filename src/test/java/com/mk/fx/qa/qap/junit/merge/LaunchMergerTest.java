@@ -0,0 +1,181 @@
+package com.mk.fx.qa.qap.junit.merge;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.extension.publisher.PayloadFormat;
+import com.mk.fx.qa.qap.junit.model.QAPCallbackOverhead;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPOverhead;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.model.QAPTimeline;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LaunchMergerTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private static QAPJunitLaunch launch(long start, long end, String... classNames) {
+    QAPHeader header = new QAPHeader(start, "L1");
+    header.setLaunchEndTime(end);
+    List<QAPTestClass> classes = new ArrayList<>();
+    for (String name : classNames) {
+      classes.add(new QAPTestClass(name, name, Set.of()));
+    }
+    return new QAPJunitLaunch(header, classes);
+  }
+
+  @Test
+  void merges_plain_and_gzipped_launches_in_start_order(@TempDir Path dir) throws Exception {
+    Path reports = Files.createDirectories(dir.resolve("reports"));
+    mapper.writeValue(reports.resolve("b.json").toFile(), launch(200L, 900L, "BTest"));
+    try (OutputStream out =
+        new GZIPOutputStream(Files.newOutputStream(reports.resolve("a.json.gz")))) {
+      mapper.writeValue(out, launch(100L, 500L, "ATest", "A2Test"));
+    }
+    Files.writeString(reports.resolve("broken.json"), "{\"header\": ");
+    Path output = dir.resolve("merged.json");
+
+    LaunchMerger.Result result =
+        new LaunchMerger(mapper).merge(LaunchMerger.collectInputs(List.of(reports)), output);
+
+    assertEquals(3, result.inputs());
+    assertEquals(1, result.skipped());
+    assertEquals(3, result.testClasses());
+    JsonNode merged = mapper.readTree(output.toFile());
+    assertEquals(100L, merged.get("header").get("launchStartTime").asLong());
+    assertEquals(900L, merged.get("header").get("launchEndTime").asLong());
+    List<String> names = new ArrayList<>();
+    merged.get("testClasses").forEach(c -> names.add(c.get("className").asText()));
+    assertEquals(List.of("ATest", "A2Test", "BTest"), names);
+  }
+
+  private static QAPHeader fullHeader() {
+    QAPHeader header = new QAPHeader(100L, "L1");
+    header.setLaunchEndTime(500L);
+    header.setApplicationName("pricing");
+    header.setTestEnvironment("uat");
+    header.setUser("ci");
+    header.setGitBranch("main");
+    header.setGitCommit("0a1b2c3");
+    header.setHostName("build-7");
+    header.setCpuCount(16);
+    header.setJvmFlags(List.of("-Xmx2g", "-XX:+UseZGC"));
+    header.setRegression(true);
+    header.setOsVersion("Linux 6.1");
+    header.setTestRunnerVersion("1.0");
+    header.setJdkVersion("17.0.9");
+    header.setContentType("application/json");
+    QAPOverhead overhead = new QAPOverhead();
+    overhead.setTestCount(10);
+    overhead.setTestNanos(1_000L);
+    overhead.setExtensionNanos(50L);
+    overhead.setOverheadPercent(5.0);
+    overhead.setAllocationTracked(true);
+    overhead.setAllocatedBytes(4_096L);
+    QAPCallbackOverhead callback = new QAPCallbackOverhead();
+    callback.setCount(10);
+    callback.setTotalNanos(50L);
+    callback.setP50Nanos(4L);
+    callback.setP90Nanos(8L);
+    callback.setP99Nanos(9L);
+    callback.setMaxNanos(9L);
+    callback.setAllocatedBytes(4_096L);
+    overhead.getCallbacks().put("beforeEach", callback);
+    header.setOverhead(overhead);
+    QAPTimeline timeline = new QAPTimeline();
+    timeline.setWorkers(4);
+    timeline.setMaxConcurrency(4);
+    timeline.setWallNanos(400L);
+    timeline.setBusyNanos(1_000L);
+    timeline.setUtilizationPercent(62.5);
+    timeline.setSerialTailNanos(20L);
+    timeline.setTraceFile("build/qap-timeline/L1.json");
+    header.setTimeline(timeline);
+    return header;
+  }
+
+  @Test
+  void merged_header_keeps_every_field(@TempDir Path dir) throws Exception {
+    QAPHeader header = fullHeader();
+    Path only = dir.resolve("only.json");
+    mapper.writeValue(only.toFile(), new QAPJunitLaunch(header, new ArrayList<>()));
+    Path output = dir.resolve("merged.json");
+
+    new LaunchMerger(mapper).merge(List.of(only), output);
+
+    JsonNode merged = mapper.readTree(output.toFile()).get("header");
+    assertEquals(mapper.valueToTree(header), merged);
+    assertEquals(header, mapper.treeToValue(merged, QAPHeader.class));
+  }
+
+  @Test
+  void merged_header_takes_first_present_fields_and_sums_overhead(@TempDir Path dir)
+      throws Exception {
+    QAPHeader late = fullHeader();
+    QAPHeader early = new QAPHeader(50L, "L1");
+    early.setLaunchEndTime(80L);
+    QAPOverhead overhead = new QAPOverhead();
+    overhead.setTestCount(2);
+    overhead.setTestNanos(1_000L);
+    overhead.setExtensionNanos(150L);
+    overhead.setAllocationTracked(false);
+    overhead.setAllocatedBytes(-1L);
+    early.setOverhead(overhead);
+
+    QAPHeader merged =
+        LaunchMerger.mergeHeaders(
+            List.of(
+                new LaunchMerger.Source(dir.resolve("early.json"), early),
+                new LaunchMerger.Source(dir.resolve("late.json"), late)));
+
+    assertEquals(50L, merged.getLaunchStartTime());
+    assertEquals(500L, merged.getLaunchEndTime());
+    assertEquals("0a1b2c3", merged.getGitCommit());
+    assertEquals("build-7", merged.getHostName());
+    assertEquals(16, merged.getCpuCount());
+    assertEquals(List.of("-Xmx2g", "-XX:+UseZGC"), merged.getJvmFlags());
+    assertEquals("application/json", merged.getContentType());
+    assertEquals(late.getTimeline(), merged.getTimeline());
+    assertEquals(12, merged.getOverhead().getTestCount());
+    assertEquals(2_000L, merged.getOverhead().getTestNanos());
+    assertEquals(200L, merged.getOverhead().getExtensionNanos());
+    assertEquals(10.0, merged.getOverhead().getOverheadPercent());
+    assertEquals(-1L, merged.getOverhead().getAllocatedBytes(), "one input did not track");
+    assertEquals(10, merged.getOverhead().getCallbacks().get("beforeEach").getCount());
+  }
+
+  @Test
+  void merges_smile_and_cbor_launches_into_json(@TempDir Path dir) throws Exception {
+    Path reports = Files.createDirectories(dir.resolve("reports"));
+    mapper.writeValue(reports.resolve("a.json").toFile(), launch(100L, 200L, "JsonTest"));
+    try (OutputStream out =
+        new GZIPOutputStream(Files.newOutputStream(reports.resolve("b.sml.gz")))) {
+      PayloadFormat.SMILE.newMapper().writeValue(out, launch(300L, 400L, "SmileTest"));
+    }
+    PayloadFormat.CBOR
+        .newMapper()
+        .writeValue(reports.resolve("c.cbor").toFile(), launch(500L, 600L, "CborTest"));
+    Path output = dir.resolve("merged.json");
+
+    LaunchMerger.Result result =
+        new LaunchMerger(mapper).merge(LaunchMerger.collectInputs(List.of(reports)), output);
+
+    assertEquals(3, result.merged());
+    JsonNode merged = mapper.readTree(output.toFile());
+    assertEquals(600L, merged.get("header").get("launchEndTime").asLong());
+    List<String> names = new ArrayList<>();
+    merged.get("testClasses").forEach(c -> names.add(c.get("className").asText()));
+    assertEquals(List.of("JsonTest", "SmileTest", "CborTest"), names);
+  }
+}
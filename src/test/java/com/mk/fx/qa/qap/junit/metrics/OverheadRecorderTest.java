@@ -0,0 +1,61 @@
+package com.mk.fx.qa.qap.junit.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mk.fx.qa.qap.junit.metrics.OverheadRecorder.Callback;
+import com.mk.fx.qa.qap.junit.metrics.OverheadRecorder.Sample;
+import com.mk.fx.qa.qap.junit.model.QAPCallbackOverhead;
+import com.mk.fx.qa.qap.junit.model.QAPOverhead;
+import org.junit.jupiter.api.Test;
+
+class OverheadRecorderTest {
+
+  @Test
+  void disabled_recorder_hands_out_no_samples() {
+    OverheadRecorder recorder = OverheadRecorder.DISABLED;
+
+    Sample sample = recorder.start();
+    recorder.stop(Callback.BEFORE_EACH, sample);
+    recorder.recordTest(1_000L);
+
+    assertNull(sample);
+    assertFalse(recorder.isEnabled());
+  }
+
+  @Test
+  void snapshot_reports_counts_percentiles_and_overhead_share() {
+    OverheadRecorder recorder = new OverheadRecorder();
+    for (int i = 0; i < 10; i++) {
+      recorder.stop(Callback.BEFORE_EACH, recorder.start());
+    }
+    recorder.stop(Callback.PUBLISH, recorder.start());
+    recorder.recordTest(1_000_000_000L);
+
+    QAPOverhead overhead = recorder.snapshot();
+
+    QAPCallbackOverhead beforeEach = overhead.getCallbacks().get("beforeEach");
+    assertEquals(10, beforeEach.getCount());
+    assertTrue(beforeEach.getP50Nanos() <= beforeEach.getP99Nanos());
+    assertTrue(beforeEach.getP99Nanos() <= beforeEach.getMaxNanos());
+    assertFalse(overhead.getCallbacks().containsKey("afterEach"), "unused callbacks are omitted");
+    assertEquals(1, overhead.getTestCount());
+    assertEquals(1_000_000_000L, overhead.getTestNanos());
+    assertEquals(
+        beforeEach.getTotalNanos(), overhead.getExtensionNanos(), "publish is reported apart");
+    assertTrue(overhead.getOverheadPercent() < 100.0);
+  }
+
+  @Test
+  void excluded_time_is_not_charged_to_the_callback() throws Exception {
+    OverheadRecorder recorder = new OverheadRecorder();
+    Sample sample = recorder.start();
+    long bodyStart = System.nanoTime();
+    Thread.sleep(20);
+    sample.exclude(System.nanoTime() - bodyStart, 0L);
+    recorder.stop(Callback.INTERCEPT_TEST_TEMPLATE_METHOD, sample);
+
+    QAPCallbackOverhead intercept =
+        recorder.snapshot().getCallbacks().get("interceptTestTemplateMethod");
+    assertTrue(intercept.getTotalNanos() < 10_000_000L, "test body time must be excluded");
+  }
+}
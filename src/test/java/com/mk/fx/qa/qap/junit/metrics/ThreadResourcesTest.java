@@ -0,0 +1,48 @@
+package com.mk.fx.qa.qap.junit.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.mk.fx.qa.qap.junit.model.QAPResourceUsage;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class ThreadResourcesTest {
+
+  private static volatile byte[][] sink;
+
+  private static QAPResourceUsage allocate(int megabytes) {
+    ThreadResources.Sample start = ThreadResources.sample();
+    byte[][] blocks = new byte[megabytes][];
+    for (int i = 0; i < megabytes; i++) {
+      blocks[i] = new byte[1024 * 1024];
+    }
+    sink = blocks;
+    return start.elapsed();
+  }
+
+  @Test
+  void measures_allocations_of_the_calling_thread_only() throws Exception {
+    assumeTrue(ThreadResources.allocationSupported());
+
+    // Another thread allocating at the same time must not be charged to this one
+    CompletableFuture<QAPResourceUsage> other = CompletableFuture.supplyAsync(() -> allocate(64));
+    QAPResourceUsage usage = allocate(4);
+    QAPResourceUsage otherUsage = other.get();
+
+    assertTrue(usage.getAllocatedBytes() >= 4L * 1024 * 1024, usage::toString);
+    assertTrue(usage.getAllocatedBytes() < 32L * 1024 * 1024, usage::toString);
+    assertTrue(otherUsage.getAllocatedBytes() >= 64L * 1024 * 1024, otherUsage::toString);
+    assertTrue(usage.getCpuNanos() >= usage.getUserNanos() || usage.getCpuNanos() == -1L);
+  }
+
+  @Test
+  void sums_keep_unsupported_counters_unsupported() {
+    QAPResourceUsage total = new QAPResourceUsage(10L, 5L, 100L);
+    total.add(new QAPResourceUsage(1L, 1L, -1L));
+
+    assertEquals(11L, total.getCpuNanos());
+    assertEquals(6L, total.getUserNanos());
+    assertEquals(-1L, total.getAllocatedBytes());
+  }
+}
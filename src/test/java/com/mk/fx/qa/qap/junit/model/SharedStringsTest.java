@@ -0,0 +1,84 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.JsonUtil;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class SharedStringsTest {
+
+  private static final int INVOCATIONS = 10_000;
+
+  /** Distinct instances (by identity) that the records hold for one field. */
+  private static int distinct(List<QAPTest> tests, Function<QAPTest, Object> field) {
+    Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    tests.forEach(test -> instances.add(field.apply(test)));
+    return instances.size();
+  }
+
+  /** Records of one parameterized method, built from fresh copies as JUnit hands them out. */
+  private static List<QAPTest> invocations() {
+    List<QAPTest> tests = new ArrayList<>(INVOCATIONS);
+    for (int i = 0; i < INVOCATIONS; i++) {
+      QAPTest test = new QAPTest(new String("prices"), "[" + i + "] pair=EURUSD");
+      test.setMethodDisplayName(new String("prices(String)"));
+      test.setTestType(new String("PARAMETERIZED"));
+      test.setStatus(new String("PASSED"));
+      test.setThread(new String("ForkJoinPool-1-worker-" + (i % 4)));
+      test.setTag(new HashSet<>(Set.of("fast")));
+      test.setClassTags(new HashSet<>(Set.of("Pricing")));
+      test.setInheritedClassTags(new HashSet<>(Set.of("Fx")));
+      tests.add(test);
+    }
+    return tests;
+  }
+
+  @Test
+  void invocations_of_one_method_retain_one_copy_of_each_repeated_value() {
+    List<QAPTest> tests = invocations();
+
+    // Reachability count of what the records retain: one instance per distinct value
+    assertEquals(1, distinct(tests, QAPTest::getMethodName));
+    assertEquals(1, distinct(tests, QAPTest::getMethodDisplayName));
+    assertEquals(1, distinct(tests, QAPTest::getTestType));
+    assertEquals(1, distinct(tests, QAPTest::getStatus));
+    assertEquals(4, distinct(tests, QAPTest::getThread));
+    assertEquals(1, distinct(tests, QAPTest::getMethodTags));
+    assertEquals(1, distinct(tests, QAPTest::getClassTags));
+    assertEquals(1, distinct(tests, QAPTest::getInheritedClassTags));
+    assertEquals(INVOCATIONS, distinct(tests, QAPTest::getDisplayName), "not interned");
+  }
+
+  @Test
+  void records_read_back_from_json_share_their_repeated_values() throws Exception {
+    QAPTestClass root = new QAPTestClass("PricingTest", "PricingTest", Set.of("Pricing"));
+    root.setTestCases(invocations().subList(0, 200));
+    String json =
+        new ObjectMapper()
+            .writeValueAsString(new QAPJunitLaunch(new QAPHeader(1L, "L"), List.of(root)));
+
+    List<QAPTest> read = JsonUtil.readLaunch(json).getTestClasses().get(0).getTestCases();
+
+    assertEquals(200, read.size());
+    assertEquals(1, distinct(read, QAPTest::getMethodName));
+    assertEquals(1, distinct(read, QAPTest::getStatus));
+    assertEquals(1, distinct(read, QAPTest::getTestType));
+    assertEquals(1, distinct(read, QAPTest::getMethodTags));
+  }
+
+  @Test
+  void null_stays_null_and_equal_strings_intern_to_one_instance() {
+    assertNull(SharedStrings.intern(null));
+    String first = SharedStrings.intern(new String("FAILED"));
+    assertSame(first, SharedStrings.intern(new String("FAILED")));
+    assertTrue(SharedStrings.size() <= SharedStrings.MAX_ENTRIES);
+  }
+}
@@ -0,0 +1,52 @@
+package com.mk.fx.qa.qap.junit.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TagSetsTest {
+
+  @Test
+  void equal_sets_intern_to_one_immutable_instance() {
+    Set<String> first = TagSets.intern(new HashSet<>(List.of("fast", "fx")));
+    Set<String> second = TagSets.intern(Set.of("fx", "fast"));
+
+    assertSame(first, second);
+    assertThrows(UnsupportedOperationException.class, () -> first.add("x"));
+    assertSame(Set.of(), TagSets.intern(null));
+    assertSame(Set.of(), TagSets.intern(new HashSet<>()));
+  }
+
+  @Test
+  void with_and_union_return_canonical_sets() {
+    Set<String> base = TagSets.intern(Set.of("a"));
+
+    assertSame(base, TagSets.with(base, "a"));
+    assertSame(TagSets.intern(Set.of("a", "b")), TagSets.with(base, "b"));
+    assertSame(base, TagSets.union(base, Set.of()));
+    assertSame(TagSets.intern(Set.of("a", "c")), TagSets.union(base, Set.of("c")));
+  }
+
+  @Test
+  void tests_of_one_class_share_their_tag_sets() {
+    QAPTestClass node = new QAPTestClass("Suite", "Suite", new HashSet<>(Set.of("Suite")));
+    node.setInheritedClassTags(new HashSet<>(Set.of("Outer")));
+    QAPTest a = new QAPTest("a", "a");
+    QAPTest b = new QAPTest("b", "b");
+    for (QAPTest test : List.of(a, b)) {
+      test.setClassTags(node.getClassTags());
+      test.setInheritedClassTags(node.getInheritedClassTags());
+      test.setTag(new HashSet<>(Set.of("fast")));
+    }
+    b.addTag("slow");
+
+    assertSame(a.getClassTags(), b.getClassTags());
+    assertSame(node.getInheritedClassTags(), b.getInheritedClassTags());
+    assertEquals(Set.of("fast", "slow"), b.getMethodTags());
+    assertEquals(Set.of("fast"), a.getTags().getMethod());
+    assertEquals(Set.of("Outer"), a.getTags().getInherited());
+  }
+}
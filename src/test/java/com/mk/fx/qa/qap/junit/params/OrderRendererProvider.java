@@ -0,0 +1,13 @@
+package com.mk.fx.qa.qap.junit.params;
+
+/** Service-loaded provider for {@link ParameterRendererTest}; renders {@link Order} by its id. */
+public class OrderRendererProvider implements ParameterRendererProvider {
+
+  /** Argument type whose {@code toString()} is deliberately expensive to read. */
+  public record Order(String id, String payload) {}
+
+  @Override
+  public void registerRenderers(ParameterRenderer renderer) {
+    renderer.register(Order.class, order -> "Order#" + order.id());
+  }
+}
@@ -0,0 +1,110 @@
+package com.mk.fx.qa.qap.junit.params;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mk.fx.qa.qap.junit.model.QAPTestParams;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ParameterRendererTest {
+
+  private final ParameterRenderer renderer = new ParameterRenderer(64);
+
+  @Test
+  void arrays_and_collections_render_by_content() {
+    assertEquals("[1, 2, 3]", renderer.render(new int[] {1, 2, 3}));
+    assertEquals("[a, [b, null]]", renderer.render(new Object[] {"a", new String[] {"b", null}}));
+    assertEquals("byte[3] 0aff10", renderer.render(new byte[] {10, -1, 16}));
+    assertEquals("{k=[[1, 2]]}", renderer.render(Map.of("k", List.of(new long[] {1, 2}))));
+    assertEquals("null", renderer.render(null));
+  }
+
+  @Test
+  void fix_separators_are_shown_as_pipes() {
+    assertEquals("8=FIX.4.4|35=D|", renderer.render("8=FIX.4.4\u000135=D\u0001"));
+  }
+
+  @Test
+  void long_values_are_cut_with_length_and_content_hash() {
+    String a = renderer.render("x".repeat(1_000));
+    String b = renderer.render("x".repeat(999) + "y");
+
+    assertTrue(a.startsWith("x".repeat(64) + "...(1000 chars, sha256:"), a);
+    assertNotEquals(a, b, "same prefix, different content, different hash");
+    assertEquals(a, renderer.render("x".repeat(1_000)));
+
+    String bytes = renderer.render(new byte[1 << 20]);
+    assertTrue(bytes.startsWith("byte[1048576] 0000"), bytes);
+    assertTrue(bytes.contains("...(1048576 bytes, sha256:"));
+    assertTrue(bytes.length() < 128);
+  }
+
+  @Test
+  void nested_values_stop_expanding_once_the_budget_is_spent() {
+    List<Integer> many = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      many.add(i);
+    }
+    String list = renderer.render(many);
+    assertTrue(list.startsWith("[0, 1, 2, "), list);
+    assertTrue(list.endsWith("...(100000 elements)"), list);
+    assertTrue(list.length() <= 64 + "...(100000 elements)".length(), list);
+
+    String nested = renderer.render(List.of(new byte[1 << 20], "after"));
+    assertTrue(nested.startsWith("[byte[1048576] 0000"), nested);
+    assertTrue(nested.endsWith("...(2 elements)"), nested);
+    assertFalse(nested.contains("after"));
+
+    String map = renderer.render(Map.of("k", "v".repeat(1_000)));
+    assertEquals("{k=" + "v".repeat(61) + "...(1 element)", map);
+  }
+
+  @Test
+  void providers_are_service_loaded() {
+    ParameterRenderer loaded =
+        ParameterRenderer.withProviders(64, ParameterRendererTest.class.getClassLoader());
+
+    assertEquals(
+        "[Order#7]", loaded.render(List.of(new OrderRendererProvider.Order("7", "x".repeat(99)))));
+    assertEquals("42", loaded.render(42));
+  }
+
+  @Test
+  void registered_renderers_apply_to_subtypes_and_failures_are_contained() {
+    renderer.register(Number.class, n -> "#" + n);
+    assertEquals("#42", renderer.render(42));
+    assertEquals("[#1, #2.5]", renderer.render(List.of(1, 2.5)));
+
+    Object broken =
+        new Object() {
+          @Override
+          public String toString() {
+            throw new IllegalStateException("no");
+          }
+        };
+    assertTrue(renderer.render(broken).contains("rendering failed"));
+  }
+
+  @Test
+  void deferred_params_render_on_first_read_only() {
+    AtomicInteger renders = new AtomicInteger();
+    Object argument =
+        new Object() {
+          @Override
+          public String toString() {
+            return "rendered-" + renders.incrementAndGet();
+          }
+        };
+
+    QAPTestParams params = QAPTestParams.deferred(0, argument, renderer);
+    assertEquals(0, renders.get(), "capture must not call toString on the test thread");
+
+    assertEquals("rendered-1", params.argumentValue());
+    assertEquals("rendered-1", params.argumentValue());
+    assertEquals(1, renders.get());
+    assertEquals("null", QAPTestParams.deferred(1, null, renderer).argumentType());
+  }
+}
@@ -0,0 +1,86 @@
+package com.mk.fx.qa.qap.junit.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mk.fx.qa.qap.junit.model.QAPDurationStats;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class RepetitionAggregatorTest {
+
+  private static QAPTest invocation(int index, long nanos) {
+    QAPTest test = new QAPTest("latency", "repetition " + (index + 1));
+    test.setMethodDisplayName("Order latency");
+    test.setTestCaseId("OrderTest#latency[" + index + "]");
+    test.setTestType("PARAMETERIZED");
+    test.setStatus("PASSED");
+    test.setTag(Set.of("perf"));
+    test.setStartTime(1_000L + index);
+    test.setEndTime(1_001L + index);
+    test.setStartNanos(5_000L);
+    test.setEndNanos(5_000L + nanos);
+    return test;
+  }
+
+  @Test
+  void folds_repetitions_into_one_record_with_a_distribution() {
+    RepetitionAggregator aggregator = new RepetitionAggregator(10);
+    for (int i = 0; i < 10_000; i++) {
+      aggregator.add("[engine:junit-jupiter]/[method:latency()]", invocation(i, i + 1L));
+    }
+
+    List<QAPTest> tests = new ArrayList<>();
+    aggregator.appendTo(tests);
+
+    assertEquals(1, tests.size());
+    QAPTest folded = tests.get(0);
+    assertEquals(RepetitionAggregator.AGGREGATED, folded.getTestType());
+    assertEquals("OrderTest#latency", folded.getTestCaseId());
+    assertEquals("Order latency", folded.getDisplayName());
+    assertEquals("PASSED", folded.getStatus());
+    assertEquals(Set.of("perf"), folded.getTag());
+    assertEquals(1_000L, folded.getStartTime());
+    assertEquals(11_000L, folded.getEndTime());
+
+    QAPDurationStats stats = folded.getDurationStats();
+    assertEquals(10_000L, stats.getCount());
+    assertEquals(1L, stats.getMinNanos());
+    assertEquals(10_000L, stats.getMaxNanos());
+    assertEquals(5_000L, stats.getMeanNanos());
+    assertEquals(5_000L, stats.getP50Nanos());
+    assertEquals(9_000L, stats.getP90Nanos());
+    assertEquals(9_900L, stats.getP99Nanos());
+    assertEquals(9_990L, stats.getP999Nanos());
+  }
+
+  @Test
+  void templates_below_the_threshold_are_reported_unchanged() {
+    RepetitionAggregator aggregator = new RepetitionAggregator(3);
+    aggregator.add("few", invocation(0, 10));
+    aggregator.add("few", invocation(1, 20));
+    aggregator.add("many", invocation(0, 10));
+    aggregator.add("many", invocation(1, 20));
+    aggregator.add("many", invocation(2, 30));
+
+    List<QAPTest> tests = new ArrayList<>();
+    aggregator.appendTo(tests);
+
+    assertEquals(3, tests.size());
+    assertEquals("OrderTest#latency[0]", tests.get(0).getTestCaseId());
+    assertEquals("OrderTest#latency[1]", tests.get(1).getTestCaseId());
+    assertNull(tests.get(0).getDurationStats());
+    assertEquals(3L, tests.get(2).getDurationStats().getCount());
+  }
+
+  @Test
+  void falls_back_to_wall_clock_duration_without_nanos() {
+    QAPTest test = new QAPTest("m", "m");
+    test.setStartTime(1_000L);
+    test.setEndTime(1_007L);
+
+    assertEquals(7_000_000L, test.getDurationNanos());
+  }
+}
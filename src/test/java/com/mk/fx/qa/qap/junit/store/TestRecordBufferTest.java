@@ -0,0 +1,63 @@
+package com.mk.fx.qa.qap.junit.store;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TestRecordBufferTest {
+
+  @Test
+  void preserves_insertion_order_for_single_writer() {
+    TestRecordBuffer buffer = new TestRecordBuffer(4);
+    for (int i = 0; i < 100; i++) {
+      buffer.add(new QAPTest("m" + i, "m" + i));
+    }
+
+    List<QAPTest> tests = buffer.toList();
+    assertEquals(100, tests.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals("m" + i, tests.get(i).getMethodName());
+    }
+  }
+
+  @Test
+  void keeps_every_record_and_per_thread_order_under_parallel_appends() throws Exception {
+    int threads = 8;
+    int perThread = 2_000;
+    TestRecordBuffer buffer = new TestRecordBuffer(threads);
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < threads; t++) {
+      String prefix = "t" + t + "-";
+      pool.submit(
+          () -> {
+            start.await();
+            for (int i = 0; i < perThread; i++) {
+              buffer.add(new QAPTest(prefix + i, prefix + i));
+            }
+            return null;
+          });
+    }
+    start.countDown();
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+    List<QAPTest> tests = buffer.toList();
+    assertEquals(threads * perThread, tests.size());
+    Map<String, Integer> lastSeen = new HashMap<>();
+    for (QAPTest test : tests) {
+      String[] parts = test.getMethodName().split("-");
+      int index = Integer.parseInt(parts[1]);
+      Integer previous = lastSeen.put(parts[0], index);
+      assertTrue(previous == null || previous < index, "per-thread order must be kept");
+    }
+  }
+}
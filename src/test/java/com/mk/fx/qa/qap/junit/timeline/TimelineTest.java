@@ -0,0 +1,118 @@
+package com.mk.fx.qa.qap.junit.timeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mk.fx.qa.qap.junit.core.LaunchIdentity;
+import com.mk.fx.qa.qap.junit.core.QAPLauncherSessionListener;
+import com.mk.fx.qa.qap.junit.model.QAPHeader;
+import com.mk.fx.qa.qap.junit.model.QAPJunitLaunch;
+import com.mk.fx.qa.qap.junit.model.QAPTest;
+import com.mk.fx.qa.qap.junit.model.QAPTestClass;
+import com.mk.fx.qa.qap.junit.model.QAPTimeline;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.launcher.LauncherSession;
+
+class TimelineTest {
+
+  private static QAPTest test(String id, String thread, long threadId, long start, long end) {
+    QAPTest test = new QAPTest(id, id);
+    test.setTestCaseId("Demo#" + id);
+    test.setStatus("PASSED");
+    test.setThread(thread);
+    test.setThreadId(threadId);
+    test.setStartNanos(start);
+    test.setEndNanos(end);
+    return test;
+  }
+
+  /** Two workers: a and b overlap on 2000..4000, then c runs alone on worker-1. */
+  private static QAPJunitLaunch launch() {
+    QAPTestClass root = new QAPTestClass("Demo", "Demo", Set.of());
+    root.setFullClassName("Demo");
+    root.setThread("main");
+    root.setThreadId(1L);
+    root.setStartNanos(1_000L);
+    root.setEndNanos(10_000L);
+    root.setTestCases(
+        new ArrayList<>(
+            List.of(
+                test("a", "worker-1", 11L, 1_000L, 5_000L),
+                test("b", "worker-2", 12L, 2_000L, 4_000L),
+                test("c", "worker-1", 11L, 5_000L, 9_000L),
+                new QAPTest("notCaptured", "notCaptured"))));
+    return new QAPJunitLaunch(new QAPHeader(0L, "L1"), new ArrayList<>(List.of(root)));
+  }
+
+  @Test
+  void summarizes_workers_concurrency_and_serial_tail() {
+    QAPTimeline timeline = Timeline.of(launch()).summarize();
+
+    assertEquals(2, timeline.getWorkers());
+    assertEquals(2, timeline.getMaxConcurrency());
+    assertEquals(8_000L, timeline.getWallNanos());
+    assertEquals(10_000L, timeline.getBusyNanos());
+    assertEquals(62.5, timeline.getUtilizationPercent());
+    assertEquals(5_000L, timeline.getSerialTailNanos());
+  }
+
+  @Test
+  void writes_chrome_trace_events_per_worker() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Timeline.of(launch()).writeChromeTrace(out);
+
+    JsonNode events = new ObjectMapper().readTree(out.toByteArray()).get("traceEvents");
+    assertEquals(3 + 4, events.size(), "thread names plus one span per class and test");
+    assertEquals("M", events.get(0).get("ph").asText());
+
+    JsonNode a = events.get(4);
+    assertEquals("X", a.get("ph").asText());
+    assertEquals("test", a.get("cat").asText());
+    assertEquals(0.0, a.get("ts").asDouble());
+    assertEquals(4.0, a.get("dur").asDouble());
+    assertEquals(11L, a.get("tid").asLong());
+    assertEquals("Demo", a.get("args").get("parent").asText());
+  }
+
+  @Test
+  void session_writes_one_trace_for_all_its_classes_when_it_closes(@TempDir Path dir)
+      throws Exception {
+    QAPLauncherSessionListener listener = new QAPLauncherSessionListener();
+    LauncherSession session = mock(LauncherSession.class);
+    listener.launcherSessionOpened(session);
+    String launchId = LaunchIdentity.current().getOrCreate();
+    long pid = ProcessHandle.current().pid();
+    // A trace already there, e.g. from another fork of the same launch, is left alone
+    Path existing = Files.writeString(dir.resolve("trace-" + launchId + "-" + pid + ".json"), "x");
+
+    Path first = SessionTrace.current(dir).add(Timeline.of(launch()));
+    Path second = SessionTrace.current(dir).add(Timeline.of(launch()));
+    assertEquals(0L, Files.size(first), "written when the session closes");
+    listener.launcherSessionClosed(session);
+
+    assertEquals(first, second);
+    assertEquals("trace-" + launchId + "-" + pid + "-1.json", first.getFileName().toString());
+    assertEquals("x", Files.readString(existing));
+    JsonNode events = new ObjectMapper().readTree(Files.readAllBytes(first)).get("traceEvents");
+    assertEquals(3 + 2 * 4, events.size(), "spans of both classes on shared worker tracks");
+  }
+
+  @Test
+  void empty_launch_yields_zeroed_metrics() {
+    QAPJunitLaunch launch = new QAPJunitLaunch(new QAPHeader(0L, "L2"), new ArrayList<>());
+
+    QAPTimeline timeline = Timeline.of(launch).summarize();
+
+    assertEquals(0, timeline.getWorkers());
+    assertEquals(0L, timeline.getWallNanos());
+  }
+}
@@ -0,0 +1,53 @@
+package com.mk.fx.qa.qap.junit.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class TestMetadataCacheTest {
+
+  @Tag("Outer")
+  @DisplayName("Outer group")
+  static class Outer {
+    @Tag("fast")
+    @Tag("smoke")
+    @DisplayName("does things")
+    void annotated() {}
+
+    void plain() {}
+  }
+
+  @Test
+  void class_metadata_is_computed_once_and_shared() {
+    TestMetadataCache.ClassMetadata first = TestMetadataCache.forClass(Outer.class);
+
+    assertSame(first, TestMetadataCache.forClass(Outer.class));
+    assertEquals("Outer", first.getSimpleName());
+    assertEquals("TestMetadataCacheTest$Outer", first.getNestedPath());
+    assertEquals("Outer group", first.getDisplayName());
+    assertEquals(Set.of("Outer"), first.getTags());
+    assertEquals("TestMetadataCacheTest$Outer#plain", first.testCaseId("plain"));
+    assertSame(first.testCaseId("plain"), first.testCaseId("plain"));
+  }
+
+  @Test
+  void method_metadata_reads_tags_and_display_name() throws Exception {
+    Method annotated = Outer.class.getDeclaredMethod("annotated");
+    Method plain = Outer.class.getDeclaredMethod("plain");
+
+    TestMetadataCache.MethodMetadata metadata = TestMetadataCache.forMethod(annotated);
+    assertSame(metadata, TestMetadataCache.forMethod(annotated));
+    assertEquals(Set.of("fast", "smoke"), metadata.getTags());
+    assertEquals("does things", metadata.getDisplayName());
+
+    TestMetadataCache.MethodMetadata plainMetadata = TestMetadataCache.forMethod(plain);
+    assertNull(plainMetadata.getDeclaredDisplayName());
+    assertEquals("plain", plainMetadata.getDisplayName());
+    assertTrue(plainMetadata.getTags().isEmpty());
+    assertThrows(UnsupportedOperationException.class, () -> metadata.getTags().add("x"));
+  }
+}